@@ -0,0 +1,59 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.gwt.core.client;
+
+/**
+ * Pure Java shim of GWT's entry point, replacing the original class in the benchmarks classpath.
+ * <p/>
+ *
+ * Deferred binding is emulated by instantiating the requested class through its no-arg constructor,
+ * which is what the default rebind rules do for the classes used by the benchmarked code.
+ *
+ * @author Danilo Reinert
+ */
+public final class GWT {
+
+    private GWT() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T create(Class<?> classLiteral) {
+        try {
+            return (T) classLiteral.newInstance();
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new RuntimeException("Cannot instantiate " + classLiteral.getName() + " outside GWT.", e);
+        }
+    }
+
+    public static boolean isClient() {
+        return false;
+    }
+
+    public static boolean isProdMode() {
+        return true;
+    }
+
+    public static boolean isScript() {
+        return false;
+    }
+
+    public static void log(String message) {
+    }
+
+    public static void log(String message, Throwable e) {
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.core.collections.client;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Pure Java shim of the array iterator, replacing the original class in the benchmarks classpath.
+ *
+ * @param <T> Type of array elements
+ *
+ * @author Danilo Reinert
+ */
+public class JsArrayIterator<T> implements Iterator<T> {
+
+    private final T[] array;
+    private int index;
+
+    public JsArrayIterator(T[] array) {
+        this.array = array;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return index < array.length;
+    }
+
+    @Override
+    public T next() {
+        if (index >= array.length) throw new NoSuchElementException();
+        return array[index++];
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.core.collections.client;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pure Java shim of the JavaScript object backed map, replacing the original class in the benchmarks classpath.
+ *
+ * @param <T> Type of mapped values
+ *
+ * @author Danilo Reinert
+ */
+public class JsMap<T> {
+
+    private final Map<String, T> map = new HashMap<>();
+
+    protected JsMap() {
+    }
+
+    public static <T> JsMap<T> create() {
+        return new JsMap<>();
+    }
+
+    public final T get(String key) {
+        return map.get(key);
+    }
+
+    public final void put(String key, T value) {
+        map.put(key, value);
+    }
+
+    public final T remove(String key) {
+        return map.remove(key);
+    }
+
+    public final boolean contains(String key) {
+        return map.containsKey(key);
+    }
+}
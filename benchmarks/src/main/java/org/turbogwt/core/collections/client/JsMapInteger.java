@@ -0,0 +1,59 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.core.collections.client;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pure Java shim of the JavaScript object backed map of integers, replacing the original class in the benchmarks
+ * classpath.
+ *
+ * @author Danilo Reinert
+ */
+public class JsMapInteger {
+
+    private final Map<String, Integer> map = new HashMap<>();
+
+    protected JsMapInteger() {
+    }
+
+    public static JsMapInteger create() {
+        return new JsMapInteger();
+    }
+
+    public final int get(String key) {
+        return map.get(key);
+    }
+
+    public final int get(String key, int defaultValue) {
+        final Integer value = map.get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public final void set(String key, int value) {
+        map.put(key, value);
+    }
+
+    public final void remove(String key) {
+        map.remove(key);
+    }
+
+    public final boolean contains(String key) {
+        return map.containsKey(key);
+    }
+}
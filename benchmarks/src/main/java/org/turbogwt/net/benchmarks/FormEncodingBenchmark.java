@@ -0,0 +1,93 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.turbogwt.net.http.client.FormData;
+import org.turbogwt.net.http.client.FormParam;
+import org.turbogwt.net.http.client.serialization.FormParamSerializer;
+import org.turbogwt.net.shared.MultivaluedParamComposition;
+
+/**
+ * Measures the encoding of parameters by {@link MultivaluedParamComposition} and {@link FormParamSerializer}.
+ * <p/>
+ *
+ * Half of the values have only unreserved chars and are passed through; the other half must be percent-encoded.
+ *
+ * @author Danilo Reinert
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class FormEncodingBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int paramCount;
+
+    private final Object[] values = {"plain", "needs encoding", 42, "caf\u00e9 & cr\u00e8me"};
+    private final FormParamSerializer serializer = new FormParamSerializer();
+    private FormData repeatedForm;
+    private FormData commaSeparatedForm;
+
+    @Setup
+    public void setup() {
+        final List<FormParam> params = new ArrayList<>(paramCount);
+        for (int i = 0; i < paramCount; i++) {
+            params.add(new FormParam(i % 2 == 0 ? "name" + i : "name " + i, values));
+        }
+        repeatedForm = new FormData(params);
+        commaSeparatedForm = new FormData(params);
+        commaSeparatedForm.setMultivaluedParamComposition(MultivaluedParamComposition.COMMA_SEPARATED_VALUE);
+    }
+
+    @Benchmark
+    public String repeatedParamUriPart() {
+        return MultivaluedParamComposition.REPEATED_PARAM.asUriPart("&", "name", values);
+    }
+
+    @Benchmark
+    public String commaSeparatedUriPart() {
+        return MultivaluedParamComposition.COMMA_SEPARATED_VALUE.asUriPart("&", "name", values);
+    }
+
+    @Benchmark
+    public String serializeRepeatedForm() {
+        return serializer.serializeFromCollection(repeatedForm, null);
+    }
+
+    @Benchmark
+    public String serializeCommaSeparatedForm() {
+        return serializer.serializeFromCollection(commaSeparatedForm, null);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.benchmarks;
+
+import java.util.Collection;
+
+import org.turbogwt.net.serialization.client.DeserializationContext;
+import org.turbogwt.net.serialization.client.SerializationContext;
+import org.turbogwt.net.serialization.client.Serdes;
+
+/**
+ * Serdes doing no work, so the benchmarks measure only how the manager resolves it.
+ *
+ * @param <T> Type of the handled objects
+ *
+ * @author Danilo Reinert
+ */
+class NoOpSerdes<T> implements Serdes<T> {
+
+    private final Class<T> type;
+    private final String[] patterns;
+
+    NoOpSerdes(Class<T> type, String... patterns) {
+        this.type = type;
+        this.patterns = patterns;
+    }
+
+    @Override
+    public Class<T> handledType() {
+        return type;
+    }
+
+    @Override
+    public String[] accept() {
+        return patterns;
+    }
+
+    @Override
+    public String[] contentType() {
+        return patterns;
+    }
+
+    @Override
+    public T deserialize(String response, DeserializationContext context) {
+        return null;
+    }
+
+    @Override
+    public <C extends Collection<T>> C deserializeAsCollection(Class<C> collectionType, String response,
+                                                                DeserializationContext context) {
+        return null;
+    }
+
+    @Override
+    public String serialize(T t, SerializationContext context) {
+        return null;
+    }
+
+    @Override
+    public String serializeFromCollection(Collection<T> c, SerializationContext context) {
+        return null;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.turbogwt.net.http.client.header.AcceptHeader;
+import org.turbogwt.net.http.client.header.QualityFactorHeader;
+
+/**
+ * Measures the construction and parsing of {@link QualityFactorHeader}.
+ *
+ * @author Danilo Reinert
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class QualityFactorHeaderBenchmark {
+
+    private static final String RAW_ACCEPT = "text/html;level=1, application/json;q=0.9, application/xml;q=0.8, "
+            + "text/plain;q=0.5, */*;q=0.1";
+
+    private final String[] values = {"application/json", "application/xml", "text/plain", "*/*"};
+
+    @Benchmark
+    public QualityFactorHeader constructFromValues() {
+        return new QualityFactorHeader("Accept", values);
+    }
+
+    @Benchmark
+    public QualityFactorHeader.Value[] parseValues() {
+        return QualityFactorHeader.parseValues(RAW_ACCEPT);
+    }
+
+    @Benchmark
+    public QualityFactorHeader parseCached() {
+        return QualityFactorHeader.parse("Accept", RAW_ACCEPT);
+    }
+
+    @Benchmark
+    public AcceptHeader parseAcceptCached() {
+        return AcceptHeader.parse(RAW_ACCEPT);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares two JMH result files in CSV format (<code>-rf csv</code>) and fails if some benchmark regressed.
+ * <p/>
+ *
+ * A throughput benchmark regresses when its score drops more than the tolerance below the baseline; an average time
+ * or sample time benchmark regresses when its score rises more than the tolerance above the baseline.
+ * Benchmarks present in only one of the files are reported but not considered regressions.
+ * <p/>
+ *
+ * Usage: <code>java -cp benchmarks.jar org.turbogwt.net.benchmarks.RegressionCheck baseline.csv current.csv
+ * [tolerance]</code>, where the tolerance is a ratio defaulting to 0.1 (10%).
+ *
+ * @author Danilo Reinert
+ */
+public final class RegressionCheck {
+
+    private static final double DEFAULT_TOLERANCE = 0.1;
+
+    private RegressionCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: RegressionCheck <baseline.csv> <current.csv> [tolerance]");
+            System.exit(2);
+        }
+        final double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_TOLERANCE;
+        final Map<String, Result> baseline = read(args[0]);
+        final Map<String, Result> current = read(args[1]);
+
+        int regressions = 0;
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            final Result result = entry.getValue();
+            final Result base = baseline.get(entry.getKey());
+            if (base == null) {
+                System.out.println("NEW        " + entry.getKey() + ": " + result.score + " " + result.unit);
+                continue;
+            }
+            final double change = (result.score - base.score) / base.score;
+            final boolean regressed = result.higherIsBetter() ? change < -tolerance : change > tolerance;
+            if (regressed) regressions++;
+            System.out.println(String.format("%-10s %s: %.3f -> %.3f %s (%+.1f%%)", regressed ? "REGRESSED" : "OK",
+                    entry.getKey(), base.score, result.score, result.unit, change * 100));
+        }
+        for (String key : baseline.keySet()) {
+            if (!current.containsKey(key)) System.out.println("MISSING    " + key);
+        }
+
+        if (regressions > 0) {
+            System.out.println(regressions + " benchmark(s) regressed more than " + (tolerance * 100) + "%.");
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Result> read(String path) throws IOException {
+        final Map<String, Result> results = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(path), "UTF-8"))) {
+            final List<String> header = parseLine(reader.readLine());
+            final int benchmark = header.indexOf("Benchmark");
+            final int mode = header.indexOf("Mode");
+            final int score = header.indexOf("Score");
+            final int unit = header.indexOf("Unit");
+            if (benchmark < 0 || mode < 0 || score < 0 || unit < 0) {
+                throw new IOException(path + " is not a JMH result file in CSV format.");
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                final List<String> fields = parseLine(line);
+                // Params are the columns after the unit, their values distinguish runs of the same benchmark
+                final StringBuilder key = new StringBuilder(fields.get(benchmark));
+                char separator = ':';
+                for (int i = unit + 1; i < fields.size(); i++) {
+                    if (fields.get(i).isEmpty()) continue;
+                    key.append(separator).append(header.get(i).replace("Param: ", "")).append('=')
+                            .append(fields.get(i));
+                    separator = ',';
+                }
+                results.put(key.toString(), new Result(fields.get(mode), Double.parseDouble(fields.get(score)),
+                        fields.get(unit)));
+            }
+        }
+        return results;
+    }
+
+    private static List<String> parseLine(String line) {
+        final List<String> fields = new ArrayList<>();
+        final StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append(c);
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static class Result {
+
+        final String mode;
+        final double score;
+        final String unit;
+
+        private Result(String mode, double score, String unit) {
+            this.mode = mode;
+            this.score = score;
+            this.unit = unit;
+        }
+
+        boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.turbogwt.core.util.shared.Registration;
+import org.turbogwt.net.serialization.client.Deserializer;
+import org.turbogwt.net.serialization.client.SerdesManager;
+import org.turbogwt.net.serialization.client.Serializer;
+
+/**
+ * Measures the resolution of serializers and deserializers by {@link SerdesManager}.
+ * <p/>
+ *
+ * Lookups exercise the content-type matching, with and without wildcards; the registration benchmark exercises the
+ * ordering of the registered patterns.
+ *
+ * @author Danilo Reinert
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class SerdesResolutionBenchmark {
+
+    private SerdesManager serdesManager;
+    private NoOpSerdes<Object> extraSerdes;
+
+    @Setup
+    public void setup() {
+        serdesManager = new SerdesManager();
+        serdesManager.registerSerdes(String.class, new NoOpSerdes<>(String.class, "text/plain", "*/*"));
+        serdesManager.registerSerdes(Number.class, new NoOpSerdes<>(Number.class, "application/json"));
+        serdesManager.registerSerdes(Object.class, new NoOpSerdes<>(Object.class, "application/json",
+                "application/*+json", "text/*"));
+        serdesManager.registerSerdes(Object.class, new NoOpSerdes<>(Object.class, "application/x-msgpack"));
+        extraSerdes = new NoOpSerdes<>(Object.class, "application/xml", "*/xml");
+    }
+
+    @Benchmark
+    public Deserializer<Object> deserializerExactMatch() {
+        return serdesManager.getDeserializer(Object.class, "application/json");
+    }
+
+    @Benchmark
+    public Deserializer<Object> deserializerSubtypeWildcard() {
+        return serdesManager.getDeserializer(Object.class, "text/html");
+    }
+
+    @Benchmark
+    public Deserializer<Object> deserializerRequestedWildcard() {
+        return serdesManager.getDeserializer(Object.class, "application/*");
+    }
+
+    @Benchmark
+    public Deserializer<String> deserializerCatchAll() {
+        return serdesManager.getDeserializer(String.class, "application/octet-stream");
+    }
+
+    @Benchmark
+    public Serializer<Object> serializerLastRegistered() {
+        return serdesManager.getSerializer(Object.class, "application/x-msgpack");
+    }
+
+    @Benchmark
+    public SerdesManager registerAndRemove() {
+        final Registration registration = serdesManager.registerSerdes(Object.class, extraSerdes);
+        registration.removeHandler();
+        return serdesManager;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.turbogwt.net.shared.MultivaluedParamComposition;
+import org.turbogwt.net.shared.Uri;
+import org.turbogwt.net.shared.UriBuilder;
+
+/**
+ * Measures the building of URIs by the pure Java {@link UriBuilder}.
+ *
+ * @author Danilo Reinert
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class UriBuilderBenchmark {
+
+    @Benchmark
+    public Uri buildPath() {
+        return UriBuilder.fromPath("server").segment("root", "resource").build();
+    }
+
+    @Benchmark
+    public Uri buildFullUri() {
+        return UriBuilder.newInstance()
+                .scheme("http")
+                .user("user")
+                .password("pwd")
+                .host("localhost")
+                .port(8888)
+                .path("server")
+                .segment("root", "resource")
+                .matrixParam("class", 2, 5, 6)
+                .segment("child")
+                .matrixParam("group", "A")
+                .queryParam("age", 12)
+                .queryParam("name", "Aa", "Zz")
+                .fragment("first")
+                .build();
+    }
+
+    @Benchmark
+    public Uri buildCommaSeparatedParams() {
+        return UriBuilder.fromPath("server")
+                .multivaluedParamComposition(MultivaluedParamComposition.COMMA_SEPARATED_VALUE)
+                .segment("root")
+                .matrixParam("class", 2, 5, 6)
+                .queryParam("name", "Aa", "Zz", "needs encoding")
+                .build();
+    }
+
+    @Benchmark
+    public Uri buildTemplate() {
+        return UriBuilder.fromPath("users/{userId}")
+                .segment("posts", "{postId}")
+                .queryParam("q", "x y&z")
+                .build(42, "hello world");
+    }
+}
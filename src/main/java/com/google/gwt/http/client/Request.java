@@ -108,6 +108,16 @@ public class Request {
             timeoutMillis);
     }-*/;
 
+    // ADDED BY TURBO GWT
+    private static native int createPhaseTimeout(Request request, RequestCallback callback, int timeoutMillis,
+                                                 boolean headers) /*-{
+        return @com.google.gwt.core.client.impl.Impl::setTimeout(Lcom/google/gwt/core/client/JavaScriptObject;I)(
+            $entry(function() {
+                request.@com.google.gwt.http.client.Request::fireOnPhaseTimeout(Lcom/google/gwt/http/client/RequestCallback;Z)(callback, headers);
+            }),
+            timeoutMillis);
+    }-*/;
+
     /**
      * The number of milliseconds to wait for this HTTP request to complete.
      */
@@ -126,6 +136,13 @@ public class Request {
      */
     private XMLHttpRequest xmlHttpRequest;
 
+    // ADDED BY TURBO GWT
+    private RequestCallback callback;
+    private int headersTimeoutMillis;
+    private int idleTimeoutMillis;
+    private int headersTimerId;
+    private int idleTimerId;
+
     /**
      * Only used for building a
      * {@link com.google.gwt.user.client.rpc.impl.FailedRequest}.
@@ -267,6 +284,86 @@ public class Request {
         if (timeoutMillis > 0) {
             Impl.clearTimeout(timerId);
         }
+        // ADDED BY TURBO GWT
+        cancelHeadersTimer();
+        cancelIdleTimer();
+    }
+
+    // ADDED BY TURBO GWT
+    /**
+     * Starts the deadlines for receiving the response headers and for the idle time between the progress events
+     * of the response. Only meaningful if the timeouts are greater than zero.
+     *
+     * @param headersTimeoutMillis maximum time until the headers are received
+     * @param idleTimeoutMillis maximum time without progress after the headers are received
+     * @param callback callback interface to notify the timeouts
+     */
+    void startPhaseTimeouts(int headersTimeoutMillis, int idleTimeoutMillis, RequestCallback callback) {
+        this.headersTimeoutMillis = headersTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.callback = callback;
+        if (headersTimeoutMillis > 0) {
+            headersTimerId = createPhaseTimeout(this, callback, headersTimeoutMillis, true);
+        }
+    }
+
+    // ADDED BY TURBO GWT
+    /**
+     * Called when the response headers are received. Stops the headers deadline and starts the idle one.
+     */
+    void onHeadersReceived() {
+        cancelHeadersTimer();
+        onActivity();
+    }
+
+    // ADDED BY TURBO GWT
+    /**
+     * Called when the response makes progress. Restarts the idle deadline.
+     */
+    void onActivity() {
+        if (idleTimeoutMillis > 0 && xmlHttpRequest != null) {
+            cancelIdleTimer();
+            idleTimerId = createPhaseTimeout(this, callback, idleTimeoutMillis, false);
+        }
+    }
+
+    // ADDED BY TURBO GWT
+    private void cancelHeadersTimer() {
+        if (headersTimerId != 0) {
+            Impl.clearTimeout(headersTimerId);
+            headersTimerId = 0;
+        }
+    }
+
+    // ADDED BY TURBO GWT
+    private void cancelIdleTimer() {
+        if (idleTimerId != 0) {
+            Impl.clearTimeout(idleTimerId);
+            idleTimerId = 0;
+        }
+    }
+
+    // ADDED BY TURBO GWT
+    /*
+     * Method called when the headers or the idle deadline expires.
+     *
+     * NOTE: this method is called from JSNI
+     */
+    private void fireOnPhaseTimeout(RequestCallback callback, boolean headers) {
+        if (xmlHttpRequest == null) {
+            // the request has been received at this point
+            return;
+        }
+
+        if (headers) {
+            headersTimerId = 0;
+        } else {
+            idleTimerId = 0;
+        }
+        cancel();
+
+        callback.onError(this, headers ? new RequestHeadersTimeoutException(this, headersTimeoutMillis)
+                : new RequestIdleTimeoutException(this, idleTimeoutMillis));
     }
 
     /*
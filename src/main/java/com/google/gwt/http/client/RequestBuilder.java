@@ -16,6 +16,7 @@
 package com.google.gwt.http.client;
 
 import com.google.gwt.core.client.JavaScriptException;
+import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.xhr.client.ProgressHandler;
 import com.google.gwt.xhr.client.ReadyStateChangeHandler;
 import com.google.gwt.xhr.client.XMLHttpRequest;
@@ -122,6 +123,48 @@ public class RequestBuilder {
      */
     private String user;
 
+    // ADDED BY TURBO GWT
+    /**
+     * Whether the request data is a binary string to be sent as raw bytes.
+     */
+    private boolean binaryRequestData;
+
+    // ADDED BY TURBO GWT
+    /**
+     * MIME type to override the one returned by the server.
+     */
+    private String overrideMimeType;
+
+    // ADDED BY TURBO GWT
+    /**
+     * Content-Types of the responses to be read as binary strings.
+     */
+    private String[] binaryContentTypes;
+
+    // ADDED BY TURBO GWT
+    /**
+     * Response type to be set in the JavaScript XmlHttpRequest object.
+     */
+    private String responseType;
+
+    // ADDED BY TURBO GWT
+    /**
+     * Headers set directly on the JavaScript XmlHttpRequest object, without being copied into {@link #headers}.
+     */
+    private Iterable<? extends Header> headerSource;
+
+    // ADDED BY TURBO GWT
+    /**
+     * The number of milliseconds to wait for the response headers.
+     */
+    private int headersTimeoutMillis;
+
+    // ADDED BY TURBO GWT
+    /**
+     * The number of milliseconds to wait between progress events of the response.
+     */
+    private int idleTimeoutMillis;
+
     /**
      * Creates a builder using the parameters for configuration.
      *
@@ -176,10 +219,18 @@ public class RequestBuilder {
      * @param header the name of the header
      */
     public String getHeader(String header) {
-        if (headers == null) {
-            return null;
+        if (headers != null && headers.containsKey(header)) {
+            return headers.get(header);
         }
-        return headers.get(header);
+        // ADDED BY TURBO GWT
+        if (headerSource != null) {
+            for (Header h : headerSource) {
+                if (h.getName().equals(header)) {
+                    return h.getValue();
+                }
+            }
+        }
+        return null;
     }
 
     /**
@@ -241,7 +292,7 @@ public class RequestBuilder {
      */
     public Request send() throws RequestException {
         StringValidator.throwIfNull("callback", callback);
-        return doSend(requestData, callback);
+        return doSend(requestData, null, callback);
     }
 
     /**
@@ -260,7 +311,27 @@ public class RequestBuilder {
     public Request sendRequest(String requestData, RequestCallback callback)
             throws RequestException {
         StringValidator.throwIfNull("callback", callback);
-        return doSend(requestData, callback);
+        return doSend(requestData, null, callback);
+    }
+
+    // ADDED BY TURBO GWT
+    /**
+     * Sends an HTTP request with a native body and the specified callback.
+     * <p>
+     * The body is passed to the XmlHttpRequest as it is, so it can be a Blob (or File), an ArrayBuffer,
+     * a typed array or a FormData. The data is not copied into a string. If no "Content-Type" header has been set,
+     * the browser will infer it from the body (e.g. the multipart boundary of a FormData).
+     *
+     * @param requestBody the native body to send as part of the request
+     * @param callback the response handler to be notified when the request fails
+     *          or completes
+     * @return a {@link Request} object that can be used to track the request
+     * @throws NullPointerException if <code>callback</code> <code>null</code>
+     */
+    public Request sendRequest(JavaScriptObject requestBody, RequestCallback callback)
+            throws RequestException {
+        StringValidator.throwIfNull("callback", callback);
+        return doSend(null, requestBody, callback);
     }
 
     /**
@@ -370,6 +441,140 @@ public class RequestBuilder {
         this.includeCredentials = includeCredentials;
     }
 
+    // ADDED BY TURBO GWT
+    /**
+     * Sets whether the request data is a binary string, i.e., each char holds one byte.
+     * If so, the data is sent as raw bytes instead of being encoded to UTF-8.
+     *
+     * @param binaryRequestData whether the request data is a binary string
+     */
+    public void setBinaryRequestData(boolean binaryRequestData) {
+        this.binaryRequestData = binaryRequestData;
+    }
+
+    // ADDED BY TURBO GWT
+    /**
+     * Sets the MIME type that will override the one returned by the server.
+     *
+     * @param mimeType the MIME type to be considered for the response
+     */
+    public void setOverrideMimeType(String mimeType) {
+        this.overrideMimeType = mimeType;
+    }
+
+    // ADDED BY TURBO GWT
+    /**
+     * Sets the Content-Types of the responses to be read as binary strings, i.e., each char holding one byte.
+     * It is decided once the headers of the response are received, so other responses, e.g. a textual fallback
+     * negotiated by the Accept header, are still decoded according to their charset.
+     *
+     * @param contentTypes the prefixes of the binary Content-Types, in lower case
+     */
+    public void setBinaryContentTypes(String... contentTypes) {
+        this.binaryContentTypes = contentTypes;
+    }
+
+    // ADDED BY TURBO GWT
+    /**
+     * Sets the response type of the request, e.g. "json" to have the response parsed natively by the browser.
+     * The parsed response can be retrieved with {@link ResponseWithJson#getJson()}.
+     * <p/>
+     *
+     * The "json" type is only applied to successful responses with a JSON Content-Type, once their headers are
+     * received. Other responses, e.g. HTML error pages, are read as text, so their body is not lost.
+     *
+     * @param responseType the XmlHttpRequest response type
+     */
+    public void setResponseType(String responseType) {
+        this.responseType = responseType;
+    }
+
+    // ADDED BY TURBO GWT
+    /**
+     * Has the response parsed natively only if it is a successful JSON one.
+     * The response type can be set until the body starts loading; if the browser refuses it, the response is read
+     * as text.
+     */
+    private static void applyJsonResponseType(XMLHttpRequest xhr) {
+        final String contentType = xhr.getResponseHeader("Content-Type");
+        if (xhr.getStatus() / 100 != 2 || contentType == null || !contentType.toLowerCase().contains("json")) return;
+        try {
+            xhr.setResponseType("json");
+        } catch (JavaScriptException e) {
+            // Keeps the text response type
+        }
+    }
+
+    // ADDED BY TURBO GWT
+    /**
+     * Has the response read as a binary string if its Content-Type is one of the given ones.
+     * The MIME type can be overridden until the body starts loading; if the browser refuses it, the response is read
+     * as text.
+     */
+    private static void applyBinaryMimeType(XMLHttpRequest xhr, String[] binaryContentTypes) {
+        final String contentType = xhr.getResponseHeader("Content-Type");
+        if (contentType == null) return;
+        final String lower = contentType.trim().toLowerCase();
+        for (String binaryContentType : binaryContentTypes) {
+            if (lower.startsWith(binaryContentType)) {
+                try {
+                    xhr.overrideMimeType("text/plain; charset=x-user-defined");
+                } catch (JavaScriptException e) {
+                    // Keeps the charset of the response
+                }
+                return;
+            }
+        }
+    }
+
+    // ADDED BY TURBO GWT
+    /**
+     * Sets headers to be added to the JavaScript XmlHttpRequest object in a single pass at send time.
+     * Headers set by {@link #setHeader(String, String)} are added afterwards; they should not repeat these ones,
+     * since the XmlHttpRequest combines the values of repeated headers.
+     *
+     * @param headers the headers of the request
+     */
+    public void setHeaders(Iterable<? extends Header> headers) {
+        this.headerSource = headers;
+    }
+
+    // ADDED BY TURBO GWT
+    /**
+     * Sets the number of milliseconds to wait for the response headers. If the headers are not received in time,
+     * the request is canceled and the callback's onError method is called with a
+     * {@link RequestHeadersTimeoutException}.
+     *
+     * @param headersTimeoutMillis number of milliseconds to wait before canceling the request, a value of zero
+     *                             disables the deadline
+     *
+     * @throws IllegalArgumentException if the timeout value is negative
+     */
+    public void setHeadersTimeoutMillis(int headersTimeoutMillis) {
+        if (headersTimeoutMillis < 0) {
+            throw new IllegalArgumentException("Timeouts cannot be negative");
+        }
+        this.headersTimeoutMillis = headersTimeoutMillis;
+    }
+
+    // ADDED BY TURBO GWT
+    /**
+     * Sets the number of milliseconds the response may go without progress after its headers are received.
+     * If exceeded, the request is canceled and the callback's onError method is called with a
+     * {@link RequestIdleTimeoutException}.
+     *
+     * @param idleTimeoutMillis number of milliseconds to wait before canceling the request, a value of zero
+     *                          disables the deadline
+     *
+     * @throws IllegalArgumentException if the timeout value is negative
+     */
+    public void setIdleTimeoutMillis(int idleTimeoutMillis) {
+        if (idleTimeoutMillis < 0) {
+            throw new IllegalArgumentException("Timeouts cannot be negative");
+        }
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
     /**
      * Sends an HTTP request based on the current builder configuration. If no
      * request headers have been set, the header "Content-Type" will be used with
@@ -380,7 +585,7 @@ public class RequestBuilder {
      * @throws NullPointerException if request data has not been set
      * @throws NullPointerException if a request callback has not been set
      */
-    private Request doSend(String requestData, final RequestCallback callback)
+    private Request doSend(String requestData, JavaScriptObject requestBody, final RequestCallback callback)
             throws RequestException {
         XMLHttpRequest xmlHttpRequest = XMLHttpRequest.create();
 
@@ -399,11 +604,26 @@ public class RequestBuilder {
             throw requestPermissionException;
         }
 
-        setHeaders(xmlHttpRequest);
+        // ADDED BY TURBO GWT
+        setHeaders(xmlHttpRequest, requestBody == null);
         if (includeCredentials) {
             xmlHttpRequest.setWithCredentials(true);
         }
 
+        // ADDED BY TURBO GWT
+        if (overrideMimeType != null) {
+            xmlHttpRequest.overrideMimeType(overrideMimeType);
+        }
+
+        // ADDED BY TURBO GWT
+        // The native JSON parsing is decided when the headers are received
+        final boolean jsonResponseType = "json".equals(responseType);
+        if (responseType != null && !jsonResponseType) {
+            xmlHttpRequest.setResponseType(responseType);
+        }
+        // The binary reading is decided when the headers are received too
+        final String[] binaryContentTypes = this.binaryContentTypes;
+
         final Request request = new Request(xmlHttpRequest, timeoutMillis, callback);
 
         // Must set the onreadystatechange handler before calling send().
@@ -412,6 +632,13 @@ public class RequestBuilder {
                 if (xhr.getReadyState() == XMLHttpRequest.DONE) {
                     xhr.clearOnReadyStateChange();
                     request.fireOnResponseReceived(callback);
+                // ADDED BY TURBO GWT
+                } else if (xhr.getReadyState() == XMLHttpRequest.HEADERS_RECEIVED) {
+                    if (jsonResponseType) applyJsonResponseType(xhr);
+                    if (binaryContentTypes != null) applyBinaryMimeType(xhr, binaryContentTypes);
+                    request.onHeadersReceived();
+                } else if (xhr.getReadyState() == XMLHttpRequest.LOADING) {
+                    request.onActivity();
                 }
             }
         });
@@ -422,18 +649,39 @@ public class RequestBuilder {
             xmlHttpRequest.setOnProgress(new ProgressHandler() {
                 @Override
                 public void onProgress(XhrRequestProgress progress) {
+                    request.onActivity();
                     pCallback.onProgress(new RequestProgressImpl(progress));
                 }
             });
+        } else if (idleTimeoutMillis > 0) {
+            xmlHttpRequest.setOnProgress(new ProgressHandler() {
+                @Override
+                public void onProgress(XhrRequestProgress progress) {
+                    request.onActivity();
+                }
+            });
         }
 
 
         try {
-            xmlHttpRequest.send(requestData);
+            // ADDED BY TURBO GWT
+            if (requestBody != null) {
+                xmlHttpRequest.send(requestBody);
+            } else if (binaryRequestData && requestData != null) {
+                xmlHttpRequest.sendAsBinary(requestData);
+            } else {
+                xmlHttpRequest.send(requestData);
+            }
         } catch (JavaScriptException e) {
             throw new RequestException(e.getMessage());
         }
 
+        // ADDED BY TURBO GWT
+        request.startPhaseTimeouts(headersTimeoutMillis, idleTimeoutMillis, callback);
+        if (callback instanceof RequestSentCallback) {
+            ((RequestSentCallback) callback).onSent(request);
+        }
+
         return request;
     }
 
@@ -443,8 +691,22 @@ public class RequestBuilder {
      * the "Content-Type" to "text/plain; charset=utf-8". This is really lining us
      * up for integration with RPC.
      */
-    private void setHeaders(XMLHttpRequest xmlHttpRequest)
+    private void setHeaders(XMLHttpRequest xmlHttpRequest, boolean setDefaultContentType)
             throws RequestException {
+        boolean hasHeaders = false;
+        // ADDED BY TURBO GWT
+        if (headerSource != null) {
+            for (Header header : headerSource) {
+                StringValidator.throwIfEmptyOrNull("header", header.getName());
+                StringValidator.throwIfEmptyOrNull("value", header.getValue());
+                try {
+                    xmlHttpRequest.setRequestHeader(header.getName(), header.getValue());
+                } catch (JavaScriptException e) {
+                    throw new RequestException(e.getMessage());
+                }
+                hasHeaders = true;
+            }
+        }
         if (headers != null && headers.size() > 0) {
             for (Map.Entry<String, String> header : headers.entrySet()) {
                 try {
@@ -453,7 +715,7 @@ public class RequestBuilder {
                     throw new RequestException(e.getMessage());
                 }
             }
-        } else {
+        } else if (setDefaultContentType && !hasHeaders) { // ADDED BY TURBO GWT
             xmlHttpRequest.setRequestHeader("Content-Type",
                     "text/plain; charset=utf-8");
         }
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.gwt.http.client;
+
+/**
+ * Thrown to indicate that the response made no progress for too long.
+ * It is a {@link RequestTimeoutException}, so handlers of the total timeout also handle it.
+ */
+public class RequestIdleTimeoutException extends RequestTimeoutException {
+
+    public RequestIdleTimeoutException(Request request, int timeoutMillis) {
+        super(request, timeoutMillis);
+    }
+
+    @Override
+    public String getMessage() {
+        return "The response made no progress for " + getTimeoutMillis() + " ms.";
+    }
+}
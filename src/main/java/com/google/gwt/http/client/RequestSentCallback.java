@@ -0,0 +1,30 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.gwt.http.client;
+
+/**
+ * A {@link RequestCallback} which is handed the {@link Request} as soon as it is sent,
+ * so the caller is able to cancel it while it is pending.
+ */
+public interface RequestSentCallback extends RequestCallback {
+
+    /**
+     * Called right after a {@link com.google.gwt.http.client.Request} is sent.
+     *
+     * @param request the pending request
+     */
+    void onSent(Request request);
+}
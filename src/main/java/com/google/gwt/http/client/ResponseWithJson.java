@@ -0,0 +1,35 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.gwt.http.client;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * A {@link Response} whose content may have been natively parsed by the browser.
+ * <p/>
+ *
+ * It happens when the request was sent with the "json" response type
+ * (see {@link RequestBuilder#setResponseType(String)}).
+ */
+public interface ResponseWithJson {
+
+    /**
+     * Returns the JSON object or array parsed by the browser.
+     *
+     * @return the parsed response, or null if the response was not natively parsed
+     */
+    JavaScriptObject getJson();
+}
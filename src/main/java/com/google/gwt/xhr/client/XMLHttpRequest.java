@@ -205,6 +205,20 @@ public class XMLHttpRequest extends JavaScriptObject {
         return this.response;
     }-*/;
 
+    // ADDED BY TURBO GWT
+    /**
+     * Get the response natively parsed by the browser when the response type is "json".
+     * <p>
+     * Only objects and arrays are returned. Other JSON values (and parse failures) result in null.
+     *
+     * @return the parsed response, or null if the request is in progress, failed
+     *     or the response is not a JSON object or array
+     */
+    public final native JavaScriptObject getResponseJson() /*-{
+        var r = this.response;
+        return (r !== null && typeof r === 'object') ? r : null;
+    }-*/;
+
     /**
      * Gets an HTTP response header.
      * <p>
@@ -315,7 +329,7 @@ public class XMLHttpRequest extends JavaScriptObject {
      * no-argument <code>send()</code> method is unavailable on Firefox.
      */
     public final void send() {
-        send(null);
+        send((String) null); // ADDED BY TURBO GWT: cast disambiguates from send(JavaScriptObject)
     }
 
     /**
@@ -330,6 +344,45 @@ public class XMLHttpRequest extends JavaScriptObject {
         this.send(requestData);
     }-*/;
 
+    // ADDED BY TURBO GWT
+    /**
+     * Initiates a request with a native body, i.e., a Blob (or File), an ArrayBuffer, a typed array or a FormData.
+     * The body is handed to the browser as it is, without being copied into a string.
+     *
+     * @param requestData the native body to be sent with the request
+     */
+    public final native void send(JavaScriptObject requestData) /*-{
+        this.send(requestData);
+    }-*/;
+
+    // ADDED BY TURBO GWT
+    /**
+     * Initiates a request with binary data. Each char of the given string is taken as one byte (its lower 8 bits),
+     * and the bytes are sent as they are, without being encoded to UTF-8.
+     *
+     * @param binaryData the binary string to be sent with the request
+     */
+    public final native void sendAsBinary(String binaryData) /*-{
+        var bytes = new Uint8Array(binaryData.length);
+        for (var i = 0; i < binaryData.length; i++) {
+            bytes[i] = binaryData.charCodeAt(i) & 0xff;
+        }
+        this.send(bytes);
+    }-*/;
+
+    // ADDED BY TURBO GWT
+    /**
+     * Overrides the MIME type returned by the server.
+     * <p>
+     * See <a href="http://www.w3.org/TR/XMLHttpRequest/#the-overridemimetype()-method"
+     * >http://www.w3.org/TR/XMLHttpRequest/#the-overridemimetype()-method</a>.
+     *
+     * @param mimeType the MIME type to be considered for the response
+     */
+    public final native void overrideMimeType(String mimeType) /*-{
+        this.overrideMimeType(mimeType);
+    }-*/;
+
     /**
      * Sets the {@link ReadyStateChangeHandler} to be notified when the object's
      * ready-state changes.
@@ -18,10 +18,7 @@ package org.turbogwt.net.client;
 
 import com.google.gwt.core.client.JsArrayString;
 import com.google.gwt.core.shared.GWT;
-import com.google.gwt.http.client.URL;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -30,6 +27,8 @@ import org.turbogwt.net.shared.MultivaluedParamComposition;
 import org.turbogwt.net.shared.Uri;
 import org.turbogwt.net.shared.UriBuilder;
 import org.turbogwt.net.shared.UriBuilderException;
+import org.turbogwt.net.shared.UriEncoder;
+import org.turbogwt.net.shared.UriTemplate;
 
 /**
  * Default implementation of {@link org.turbogwt.net.shared.UriBuilder}.
@@ -38,6 +37,9 @@ import org.turbogwt.net.shared.UriBuilderException;
  */
 public class UriBuilderImpl extends UriBuilder {
 
+    private static final int TEMPLATE_CACHE_LIMIT = 256;
+    private static final Map<String, UriTemplate> TEMPLATE_CACHE = GWT.create(LightMap.class);
+
     private MultivaluedParamComposition strategy = MultivaluedParamComposition.REPEATED_PARAM;
     private String scheme;
     private String user;
@@ -173,14 +175,21 @@ public class UriBuilderImpl extends UriBuilder {
         final String encPassword = encodePart(password);
         final String encHost = encodePart(host);
 
-        List<String> templateParams = new ArrayList<>();
+        // Encoded values of the template params shared among all templated parts
+        Map<String, String> templateValues = null;
+        int position = 0;
 
         StringBuilder pathBuilder = new StringBuilder();
         if (segments != null) {
             for (int i = 0; i < segments.length(); i++) {
                 final String segment = segments.get(i);
-                final String parsed = parsePart(values, templateParams, segment);
-                pathBuilder.append(URL.encodePathSegment(parsed));
+                final UriTemplate template = getTemplate(segment);
+                if (template == null) {
+                    pathBuilder.append(UriEncoder.encodePathSegment(segment));
+                } else {
+                    if (templateValues == null) templateValues = UriTemplate.newValuesMap();
+                    position = template.expandShared(pathBuilder, templateValues, values, position);
+                }
 
                 // Check if there are matrix params for this segment
                 if (matrixParams != null) {
@@ -189,14 +198,15 @@ public class UriBuilderImpl extends UriBuilder {
                         pathBuilder.append(";");
                         Set<String> params = segmentParams.keySet();
                         for (String param : params) {
-                            pathBuilder.append(strategy.asUriPart(";", param, segmentParams.get(param))).append(';');
+                            strategy.appendUriPart(pathBuilder, ";", param, segmentParams.get(param));
+                            pathBuilder.append(';');
                         }
                         pathBuilder.deleteCharAt(pathBuilder.length() - 1);
                     }
                 }
                 pathBuilder.append('/');
             }
-            pathBuilder.deleteCharAt(pathBuilder.length() - 1);
+            if (pathBuilder.length() > 0) pathBuilder.deleteCharAt(pathBuilder.length() - 1);
         }
         final String encPath = pathBuilder.toString();
 
@@ -205,45 +215,47 @@ public class UriBuilderImpl extends UriBuilder {
             queryBuilder = new StringBuilder();
             Set<String> params = queryParams.keySet();
             for (String param : params) {
-                queryBuilder.append(strategy.asUriPart("&", param, queryParams.get(param))).append('&');
+                strategy.appendUriPart(queryBuilder, "&", param, queryParams.get(param));
+                queryBuilder.append('&');
             }
             queryBuilder.deleteCharAt(queryBuilder.length() - 1);
         }
         final String encQuery = queryBuilder != null ? queryBuilder.toString() : null;
 
-        final String encFragment = fragment != null ? encodePart(parsePart(values, templateParams, fragment)) : null;
+        String encFragment = null;
+        if (fragment != null) {
+            final UriTemplate template = getTemplate(fragment);
+            if (template == null) {
+                encFragment = encodePart(fragment);
+            } else {
+                if (templateValues == null) templateValues = UriTemplate.newValuesMap();
+                final StringBuilder fragmentBuilder = new StringBuilder();
+                template.expandShared(fragmentBuilder, templateValues, values, position);
+                encFragment = fragmentBuilder.toString();
+            }
+        }
 
         return new Uri(encScheme, encUser, encPassword, encHost, port, encPath, encQuery, encFragment);
     }
 
     private String encodePart(String segment) {
-        return segment != null ? URL.encodePathSegment(segment) : null;
+        return segment != null ? UriEncoder.encodePathSegment(segment) : null;
     }
 
-    private String parsePart(Object[] values, List<String> templateParams, String segment) {
-        int cursor = segment.indexOf("{");
-        while (cursor > -1) {
-            int closingBracket = segment.indexOf("}", cursor);
-            if (closingBracket > -1) {
-                final String param = segment.substring(cursor + 1, closingBracket);
-                int i = templateParams.indexOf(param);
-                if (i == -1) {
-                    // Check if has more template values
-                    if (values.length < templateParams.size() + 1)
-                        throw new UriBuilderException("The supplied values are not enough to replace the existing " +
-                                "template params");
-                    // Add template param
-                    i = templateParams.size();
-                    templateParams.add(param);
-                }
-                final String value = values[i].toString();
-                segment = segment.substring(0, cursor) + value + segment.substring(closingBracket + 1);
-                cursor = segment.indexOf("{", closingBracket + 1);
-            } else {
-                cursor = -1;
-            }
+    /**
+     * Returns the compiled template of the segment or null if the segment has no template params.
+     * Compiled templates are cached, since the same templated segments are usually built over and over.
+     */
+    private static UriTemplate getTemplate(String segment) {
+        if (segment.indexOf('{') == -1) return null;
+
+        UriTemplate template = TEMPLATE_CACHE.get(segment);
+        if (template == null) {
+            if (TEMPLATE_CACHE.size() >= TEMPLATE_CACHE_LIMIT) TEMPLATE_CACHE.clear();
+            template = UriTemplate.compileSegment(segment);
+            TEMPLATE_CACHE.put(segment, template);
         }
-        return segment;
+        return template;
     }
 
     /**
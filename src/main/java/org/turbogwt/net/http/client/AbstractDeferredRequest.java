@@ -0,0 +1,47 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.net.http.client;
+
+import com.google.gwt.http.client.Request;
+
+import org.turbogwt.core.future.shared.impl.DeferredObject;
+
+/**
+ * Base {@link DeferredRequest} holding the underlying request, so it can be aborted.
+ *
+ * @param <T> Type of the result
+ *
+ * @author Danilo Reinert
+ */
+abstract class AbstractDeferredRequest<T> extends DeferredObject<T, Throwable, RequestProgress>
+        implements DeferredRequest<T> {
+
+    private Request request;
+
+    @Override
+    public void setRequest(Request request) {
+        this.request = request;
+        // The promise may have been aborted while the request was held by filters
+        if (!isPending()) request.cancel();
+    }
+
+    @Override
+    public void abort() {
+        if (!isPending()) return;
+        if (request != null) request.cancel();
+        reject(new RequestAbortException());
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client;
+
+import com.google.gwt.http.client.RequestBuilder;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.RequestException;
+
+import javax.annotation.Nullable;
+
+/**
+ * Base class for {@link ServerConnection}s, sending every request through
+ * {@link #sendRequest(ConnectionRequest, RequestCallback)}.
+ * <p/>
+ *
+ * Extend it instead of implementing the interface directly, so only that method must be implemented.
+ *
+ * @author Danilo Reinert
+ */
+public abstract class AbstractServerConnection implements ServerConnection {
+
+    @Override
+    public void sendRequest(RequestBuilder.Method method, String url, String data, RequestCallback callback)
+            throws RequestException {
+        sendRequest(new ConnectionRequest(method, url).payload(data == null ? null : new Payload(data)), callback);
+    }
+
+    @Override
+    public void sendRequest(int timeout, @Nullable String user, @Nullable String password, @Nullable Headers headers,
+                            RequestBuilder.Method method, String url, String data, RequestCallback callback)
+            throws RequestException {
+        sendRequest(new ConnectionRequest(method, url).timeout(timeout).user(user).password(password).headers(headers)
+                .payload(data == null ? null : new Payload(data)), callback);
+    }
+}
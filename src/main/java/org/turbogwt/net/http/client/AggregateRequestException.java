@@ -0,0 +1,49 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.net.http.client;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown to indicate that all of many joined requests failed.
+ * It provides access to the failure of each request in order to better handle them.
+ *
+ * @author Danilo Reinert
+ */
+public class AggregateRequestException extends RuntimeException {
+
+    private final List<Throwable> errors;
+
+    /**
+     * Constructs the exception with the failures of the requests.
+     *
+     * @param errors The failures, in the order of the requests.
+     */
+    public AggregateRequestException(List<Throwable> errors) {
+        super("All of the " + errors.size() + " requests failed.");
+        this.errors = Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * Returns the failures of the requests, in the order of the requests.
+     *
+     * @return The failures.
+     */
+    public List<Throwable> getErrors() {
+        return errors;
+    }
+}
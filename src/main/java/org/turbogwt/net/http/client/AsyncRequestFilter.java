@@ -0,0 +1,45 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client;
+
+import org.turbogwt.core.future.shared.Promise;
+
+/**
+ * An extension interface implemented by request filters which need to wait for something before the request is sent,
+ * e.g. the refresh of an expired access token.
+ * <p/>
+ *
+ * Async filters are executed one after another, after all {@link RequestFilter}s, and the request is only sent when
+ * the promise returned by the last one is resolved. If any promise is rejected, the request is not sent and its
+ * promise is rejected with the same reason.
+ * <p/>
+ *
+ * Use a {@link SingleFlight} to share a single refresh among all requests waiting for it.
+ *
+ * @author Danilo Reinert
+ */
+public interface AsyncRequestFilter {
+
+    /**
+     * Filter method called before a request has been dispatched to a client transport layer.
+     *
+     * @param request   The request to be dispatched.
+     *
+     * @return  A promise resolved when the request may proceed.
+     */
+    Promise<?, Throwable, ?> filter(Request request);
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client;
+
+import com.google.gwt.http.client.RequestBuilder;
+
+import javax.annotation.Nullable;
+
+/**
+ * A request as handed to the {@link ServerConnection}.
+ * <p/>
+ *
+ * Only the method and the url are required. New request options are added here, so they reach the connections
+ * without changing their interface.
+ *
+ * <pre>
+ * connection.sendRequest(new ConnectionRequest(RequestBuilder.GET, "/books").timeout(5000), callback);
+ * </pre>
+ *
+ * @author Danilo Reinert
+ */
+public class ConnectionRequest {
+
+    private final RequestBuilder.Method method;
+    private final String url;
+    private int timeout;
+    private int headersTimeout;
+    private int idleTimeout;
+    private String user;
+    private String password;
+    private Headers headers;
+    private Payload payload;
+    private String responseType;
+
+    public ConnectionRequest(RequestBuilder.Method method, String url) {
+        if (method == null) throw new NullPointerException("Method cannot be null.");
+        if (url == null) throw new NullPointerException("Url cannot be null.");
+        this.method = method;
+        this.url = url;
+    }
+
+    /**
+     * Sets the total timeout of the request in milliseconds. Zero means no timeout.
+     *
+     * @param timeoutMillis the timeout
+     *
+     * @return this request
+     */
+    public ConnectionRequest timeout(int timeoutMillis) {
+        this.timeout = timeoutMillis;
+        return this;
+    }
+
+    /**
+     * Sets the timeout for the response headers in milliseconds. Zero means no timeout.
+     *
+     * @param timeoutMillis the timeout
+     *
+     * @return this request
+     */
+    public ConnectionRequest headersTimeout(int timeoutMillis) {
+        this.headersTimeout = timeoutMillis;
+        return this;
+    }
+
+    /**
+     * Sets the maximum gap between progress events in milliseconds, once the headers arrived. Zero means no timeout.
+     *
+     * @param timeoutMillis the timeout
+     *
+     * @return this request
+     */
+    public ConnectionRequest idleTimeout(int timeoutMillis) {
+        this.idleTimeout = timeoutMillis;
+        return this;
+    }
+
+    public ConnectionRequest user(@Nullable String user) {
+        this.user = user;
+        return this;
+    }
+
+    public ConnectionRequest password(@Nullable String password) {
+        this.password = password;
+        return this;
+    }
+
+    public ConnectionRequest headers(@Nullable Headers headers) {
+        this.headers = headers;
+        return this;
+    }
+
+    public ConnectionRequest payload(@Nullable Payload payload) {
+        this.payload = payload;
+        return this;
+    }
+
+    /**
+     * Sets the XHR responseType, e.g. "json".
+     *
+     * @param responseType the response type or null for the default
+     *
+     * @return this request
+     */
+    public ConnectionRequest responseType(@Nullable String responseType) {
+        this.responseType = responseType;
+        return this;
+    }
+
+    public RequestBuilder.Method getMethod() {
+        return method;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getTimeout() {
+        return timeout;
+    }
+
+    public int getHeadersTimeout() {
+        return headersTimeout;
+    }
+
+    public int getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    @Nullable
+    public String getUser() {
+        return user;
+    }
+
+    @Nullable
+    public String getPassword() {
+        return password;
+    }
+
+    @Nullable
+    public Headers getHeaders() {
+        return headers;
+    }
+
+    @Nullable
+    public Payload getPayload() {
+        return payload;
+    }
+
+    @Nullable
+    public String getResponseType() {
+        return responseType;
+    }
+}
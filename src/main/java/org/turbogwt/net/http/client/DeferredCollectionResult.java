@@ -16,19 +16,21 @@
 
 package org.turbogwt.net.http.client;
 
+import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.http.client.Response;
+import com.google.gwt.http.client.ResponseWithJson;
 
 import java.util.Collection;
 
-import org.turbogwt.core.future.shared.impl.DeferredObject;
 import org.turbogwt.net.http.client.serialization.HttpDeserializationContext;
 import org.turbogwt.net.serialization.client.ContainerFactoryManager;
 import org.turbogwt.net.serialization.client.DeserializationContext;
 import org.turbogwt.net.serialization.client.Deserializer;
 import org.turbogwt.net.serialization.client.SerdesManager;
+import org.turbogwt.net.serialization.client.json.EvaluatedJson;
+import org.turbogwt.net.serialization.client.json.EvaluatedJsonDeserializer;
 
-class DeferredCollectionResult<T> extends DeferredObject<Collection<T>, Throwable, RequestProgress>
-        implements DeferredRequest<Collection<T>> {
+class DeferredCollectionResult<T> extends AbstractDeferredRequest<Collection<T>> {
 
     private final Class<T> responseType;
     private final Class<? extends Collection> containerType;
@@ -44,14 +46,29 @@ class DeferredCollectionResult<T> extends DeferredObject<Collection<T>, Throwabl
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public DeferredRequest<Collection<T>> resolve(Response response) {
-        final Headers headers = new Headers(response.getHeaders());
+        // Check if the result was already provided by a transformer
+        if (response instanceof TransformedResponse && ((TransformedResponse) response).getResult() != null) {
+            super.resolve((Collection<T>) ((TransformedResponse) response).getResult());
+            return this;
+        }
+
+        final Headers headers = new ResponseHeaders(response);
         final String responseContentType = headers.getValue("Content-Type");
 
         final Deserializer<T> deserializer = serdesManager.getDeserializer(responseType, responseContentType);
         final DeserializationContext context = new HttpDeserializationContext(headers, containerFactoryManager);
-        @SuppressWarnings("unchecked")
-        Collection<T> result = deserializer.deserializeAsCollection(containerType, response.getText(), context);
+        final JavaScriptObject json = response instanceof ResponseWithJson ? ((ResponseWithJson) response).getJson()
+                : null;
+        Collection<T> result;
+        if (EvaluatedJson.isArray(json) && deserializer instanceof EvaluatedJsonDeserializer) {
+            // The response was already parsed by the browser; other contents are validated by the text path
+            result = ((EvaluatedJsonDeserializer<T>) deserializer).deserializeAsCollection(containerType, json,
+                    context);
+        } else {
+            result = deserializer.deserializeAsCollection(containerType, response.getText(), context);
+        }
 
         super.resolve(result);
         return this;
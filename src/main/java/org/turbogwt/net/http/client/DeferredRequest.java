@@ -25,4 +25,6 @@ interface DeferredRequest<T> extends RequestPromise<T> , Deferred<T, Throwable,
     DeferredRequest<T> resolve(Response response);
 
     DeferredRequest<T> reject(Response response);
+
+    void setRequest(com.google.gwt.http.client.Request request);
 }
@@ -16,16 +16,19 @@
 
 package org.turbogwt.net.http.client;
 
+import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.http.client.Response;
+import com.google.gwt.http.client.ResponseWithJson;
 
-import org.turbogwt.core.future.shared.impl.DeferredObject;
 import org.turbogwt.net.http.client.serialization.HttpDeserializationContext;
 import org.turbogwt.net.serialization.client.ContainerFactoryManager;
 import org.turbogwt.net.serialization.client.DeserializationContext;
 import org.turbogwt.net.serialization.client.Deserializer;
 import org.turbogwt.net.serialization.client.SerdesManager;
+import org.turbogwt.net.serialization.client.json.EvaluatedJson;
+import org.turbogwt.net.serialization.client.json.EvaluatedJsonDeserializer;
 
-class DeferredSingleResult<T> extends DeferredObject<T, Throwable, RequestProgress> implements DeferredRequest<T> {
+class DeferredSingleResult<T> extends AbstractDeferredRequest<T> {
 
     private final Class<T> responseType;
     private final SerdesManager serdesManager;
@@ -48,12 +51,28 @@ class DeferredSingleResult<T> extends DeferredObject<T, Throwable, RequestProgre
             return this;
         }
 
-        final Headers headers = new Headers(response.getHeaders());
+        // Check if the result was already provided by a transformer
+        if (response instanceof TransformedResponse && ((TransformedResponse) response).getResult() != null) {
+            @SuppressWarnings("unchecked")
+            final T result = (T) ((TransformedResponse) response).getResult();
+            super.resolve(result);
+            return this;
+        }
+
+        final Headers headers = new ResponseHeaders(response);
         final String responseContentType = headers.getValue("Content-Type");
 
         final Deserializer<T> deserializer = serdesManager.getDeserializer(responseType, responseContentType);
         final DeserializationContext context = new HttpDeserializationContext(headers, containerFactoryManager);
-        T result = deserializer.deserialize(response.getText(), context);
+        final JavaScriptObject json = response instanceof ResponseWithJson ? ((ResponseWithJson) response).getJson()
+                : null;
+        T result;
+        if (EvaluatedJson.isObject(json) && deserializer instanceof EvaluatedJsonDeserializer) {
+            // The response was already parsed by the browser; other contents are validated by the text path
+            result = ((EvaluatedJsonDeserializer<T>) deserializer).deserialize(json, context);
+        } else {
+            result = deserializer.deserialize(response.getText(), context);
+        }
 
         super.resolve(result);
         return this;
@@ -16,26 +16,29 @@
 
 package org.turbogwt.net.http.client;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
 import org.turbogwt.core.util.shared.Registration;
 
 /**
- * A manager for {@link RequestFilter} and {@link ResponseFilter}.
+ * A manager for {@link RequestFilter}, {@link ResponseFilter} and {@link ResponseTransformer}.
+ * It also holds the {@link RequestMetricsListener}s, which are notified of every request.
+ * <p/>
+ *
+ * Filters may be scoped to a path prefix, so only the filters matching the path of a request are applied to it.
+ * The chains are copy-on-write snapshots: registering or removing a filter never affects a chain being executed,
+ * e.g., by a filter which unregisters itself.
  *
  * @author Danilo Reinert
  */
 class FilterManager {
 
-    private final List<RequestFilter> requestFilters = new ArrayList<>();
-    private final List<ResponseFilter> responseFilters = new ArrayList<>();
-
-    @SuppressWarnings("unchecked")
-    private List<RequestFilter> requestFiltersCopy = Collections.EMPTY_LIST;
-    @SuppressWarnings("unchecked")
-    private List<ResponseFilter> responseFiltersCopy = Collections.EMPTY_LIST;
+    private final FilterTrie<RequestFilter> requestFilters = new FilterTrie<>(new RequestFilter[0]);
+    private final FilterTrie<ResponseFilter> responseFilters = new FilterTrie<>(new ResponseFilter[0]);
+    private final FilterTrie<AsyncRequestFilter> asyncRequestFilters =
+            new FilterTrie<>(new AsyncRequestFilter[0]);
+    private final FilterTrie<ResponseTransformer> responseTransformers =
+            new FilterTrie<>(new ResponseTransformer[0]);
+    private final FilterTrie<RequestMetricsListener> metricsListeners =
+            new FilterTrie<>(new RequestMetricsListener[0]);
 
     /**
      * Register a request filter.
@@ -45,15 +48,21 @@ class FilterManager {
      * @return  The {@link org.turbogwt.core.util.shared.Registration} object, capable of cancelling this registration
      *          to the {@link FilterManager}.
      */
-    public Registration registerRequestFilter(final RequestFilter requestFilter) {
-        addRequestFilter(requestFilter);
-
-        return new Registration() {
-            @Override
-            public void removeHandler() {
-                removeRequestFilter(requestFilter);
-            }
-        };
+    public Registration registerRequestFilter(RequestFilter requestFilter) {
+        return requestFilters.register(null, requestFilter);
+    }
+
+    /**
+     * Register a request filter applied only to the requests whose path starts with the given prefix.
+     *
+     * @param pathPrefix    The path prefix, e.g. "/api/books".
+     * @param requestFilter The request filter to be registered.
+     *
+     * @return  The {@link Registration} object, capable of cancelling this registration
+     *          to the {@link FilterManager}.
+     */
+    public Registration registerRequestFilter(String pathPrefix, RequestFilter requestFilter) {
+        return requestFilters.register(pathPrefix, requestFilter);
     }
 
     /**
@@ -64,60 +73,138 @@ class FilterManager {
      * @return  The {@link Registration} object, capable of cancelling this registration
      *          to the {@link FilterManager}.
      */
-    public Registration registerResponseFilter(final ResponseFilter responseFilter) {
-        addResponseFilter(responseFilter);
-
-        return new Registration() {
-            @Override
-            public void removeHandler() {
-                removeResponseFilter(responseFilter);
-            }
-        };
+    public Registration registerResponseFilter(ResponseFilter responseFilter) {
+        return responseFilters.register(null, responseFilter);
     }
 
     /**
-     * Returns an immutable copy of the filters.
+     * Register a response filter applied only to the responses of requests whose path starts with the given prefix.
      *
-     * @return The request filters.
+     * @param pathPrefix        The path prefix, e.g. "/api/books".
+     * @param responseFilter    The response filter to be registered.
+     *
+     * @return  The {@link Registration} object, capable of cancelling this registration
+     *          to the {@link FilterManager}.
      */
-    public List<RequestFilter> getRequestFilters() {
-        return requestFiltersCopy;
+    public Registration registerResponseFilter(String pathPrefix, ResponseFilter responseFilter) {
+        return responseFilters.register(pathPrefix, responseFilter);
     }
 
     /**
-     * Returns an immutable copy of the filters.
+     * Register an async request filter.
      *
-     * @return The response filters.
+     * @param asyncRequestFilter The async request filter to be registered.
+     *
+     * @return  The {@link Registration} object, capable of cancelling this registration
+     *          to the {@link FilterManager}.
+     */
+    public Registration registerAsyncRequestFilter(AsyncRequestFilter asyncRequestFilter) {
+        return asyncRequestFilters.register(null, asyncRequestFilter);
+    }
+
+    /**
+     * Register an async request filter applied only to the requests whose path starts with the given prefix.
+     *
+     * @param pathPrefix            The path prefix, e.g. "/api/books".
+     * @param asyncRequestFilter    The async request filter to be registered.
+     *
+     * @return  The {@link Registration} object, capable of cancelling this registration
+     *          to the {@link FilterManager}.
+     */
+    public Registration registerAsyncRequestFilter(String pathPrefix, AsyncRequestFilter asyncRequestFilter) {
+        return asyncRequestFilters.register(pathPrefix, asyncRequestFilter);
+    }
+
+    /**
+     * Register a response transformer.
+     *
+     * @param responseTransformer The response transformer to be registered.
+     *
+     * @return  The {@link Registration} object, capable of cancelling this registration
+     *          to the {@link FilterManager}.
      */
-    public List<ResponseFilter> getResponseFilters() {
-        return responseFiltersCopy;
+    public Registration registerResponseTransformer(ResponseTransformer responseTransformer) {
+        return responseTransformers.register(null, responseTransformer);
     }
 
-    private void addRequestFilter(RequestFilter requestFilter) {
-        requestFilters.add(requestFilter);
-        updateRequestFiltersCopy();
+    /**
+     * Register a response transformer applied only to the responses of requests whose path starts with the given
+     * prefix.
+     *
+     * @param pathPrefix            The path prefix, e.g. "/api/books".
+     * @param responseTransformer   The response transformer to be registered.
+     *
+     * @return  The {@link Registration} object, capable of cancelling this registration
+     *          to the {@link FilterManager}.
+     */
+    public Registration registerResponseTransformer(String pathPrefix, ResponseTransformer responseTransformer) {
+        return responseTransformers.register(pathPrefix, responseTransformer);
+    }
+
+    /**
+     * Returns a snapshot of the filters applying to the given URI. The array must not be modified.
+     *
+     * @param uri The request URI.
+     *
+     * @return The request filters.
+     */
+    public RequestFilter[] getRequestFilters(String uri) {
+        return requestFilters.getFilters(uri);
     }
 
-    private void addResponseFilter(ResponseFilter responseFilter) {
-        responseFilters.add(responseFilter);
-        updateResponseFiltersCopy();
+    /**
+     * Returns a snapshot of the filters applying to the given URI. The array must not be modified.
+     *
+     * @param uri The request URI.
+     *
+     * @return The response filters.
+     */
+    public ResponseFilter[] getResponseFilters(String uri) {
+        return responseFilters.getFilters(uri);
     }
 
-    private void removeRequestFilter(RequestFilter requestFilter) {
-        requestFilters.remove(requestFilter);
-        updateRequestFiltersCopy();
+    /**
+     * Returns a snapshot of the filters applying to the given URI. The array must not be modified.
+     *
+     * @param uri The request URI.
+     *
+     * @return The async request filters.
+     */
+    public AsyncRequestFilter[] getAsyncRequestFilters(String uri) {
+        return asyncRequestFilters.getFilters(uri);
     }
 
-    private void removeResponseFilter(ResponseFilter responseFilter) {
-        responseFilters.remove(responseFilter);
-        updateResponseFiltersCopy();
+    /**
+     * Returns a snapshot of the transformers applying to the given URI. The array must not be modified.
+     *
+     * @param uri The request URI.
+     *
+     * @return The response transformers.
+     */
+    public ResponseTransformer[] getResponseTransformers(String uri) {
+        return responseTransformers.getFilters(uri);
     }
 
-    private void updateRequestFiltersCopy() {
-        requestFiltersCopy = Collections.unmodifiableList(requestFilters);
+    /**
+     * Register a listener of the metrics of every request.
+     *
+     * @param listener The request metrics listener to be registered.
+     *
+     * @return  The {@link Registration} object, capable of cancelling this registration
+     *          to the {@link FilterManager}.
+     */
+    public Registration registerRequestMetricsListener(RequestMetricsListener listener) {
+        return metricsListeners.register(null, listener);
     }
 
-    private void updateResponseFiltersCopy() {
-        responseFiltersCopy = Collections.unmodifiableList(responseFilters);
+    /**
+     * Returns a snapshot of the request metrics listeners. The array must not be modified.
+     *
+     * @param uri The request URI.
+     *
+     * @return The request metrics listeners.
+     */
+    public RequestMetricsListener[] getRequestMetricsListeners(String uri) {
+        return metricsListeners.getFilters(uri);
     }
 }
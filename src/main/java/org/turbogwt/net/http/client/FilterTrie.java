@@ -0,0 +1,209 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.turbogwt.core.util.shared.Registration;
+
+/**
+ * Filters organized by path prefix in a trie of path segments.
+ * <p/>
+ *
+ * A filter registered with a prefix applies to the requests whose path starts with the prefix segments, e.g.,
+ * <code>/books</code> matches <code>/books</code> and <code>/books/1</code> but not <code>/bookstore</code>.
+ * Filters registered without prefix apply to every request.
+ * <p/>
+ *
+ * The chain of a trie node, in registration order, is computed on demand and memoized until some filter is registered
+ * or removed. The chains are never modified after computed, so they can be iterated safely while filters change.
+ *
+ * @param <F> Type of the filter
+ *
+ * @author Danilo Reinert
+ */
+class FilterTrie<F> {
+
+    private static final Comparator<Entry<?>> ORDER = new Comparator<Entry<?>>() {
+        @Override
+        public int compare(Entry<?> e1, Entry<?> e2) {
+            return e1.order < e2.order ? -1 : (e1.order == e2.order ? 0 : 1);
+        }
+    };
+
+    private final F[] empty;
+    private final Node<F> root = new Node<>();
+    private int order;
+    private int version;
+    private int scopedCount;
+
+    /**
+     * @param empty An empty array of the filter type, used to create the chains.
+     */
+    FilterTrie(F[] empty) {
+        this.empty = empty;
+    }
+
+    /**
+     * Registers a filter for the given path prefix.
+     *
+     * @param pathPrefix    The path prefix or null to apply the filter to every request
+     * @param filter        The filter
+     *
+     * @return The registration of the filter
+     */
+    public Registration register(String pathPrefix, F filter) {
+        Node<F> node = root;
+        if (pathPrefix != null) {
+            for (String segment : pathPrefix.split("/")) {
+                if (segment.isEmpty()) continue;
+                Node<F> child = node.children.get(segment);
+                if (child == null) {
+                    child = new Node<>();
+                    node.children.put(segment, child);
+                }
+                node = child;
+            }
+        }
+
+        final Node<F> target = node;
+        final Entry<F> entry = new Entry<>(filter, order++);
+        target.entries.add(entry);
+        if (target != root) scopedCount++;
+        version++;
+
+        return new Registration() {
+            @Override
+            public void removeHandler() {
+                if (target.entries.remove(entry)) {
+                    if (target != root) scopedCount--;
+                    version++;
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns the chain of filters applying to the given URI. The array must not be modified.
+     *
+     * @param uri The request URI
+     *
+     * @return The filters in registration order
+     */
+    public F[] getFilters(String uri) {
+        if (scopedCount == 0) return getChain(root, null);
+
+        final int pathEnd = pathEnd(uri);
+        final int pathStart = pathStart(uri, pathEnd);
+        if (pathStart == -1) return getChain(root, null);
+
+        final List<Node<F>> nodes = new ArrayList<>();
+        Node<F> node = root;
+        nodes.add(node);
+        int start = pathStart;
+        while (start <= pathEnd) {
+            int end = uri.indexOf('/', start);
+            if (end == -1 || end > pathEnd) end = pathEnd;
+            int segmentEnd = uri.indexOf(';', start);
+            if (segmentEnd == -1 || segmentEnd > end) segmentEnd = end;
+            if (segmentEnd > start) {
+                final Node<F> child = node.children.get(uri.substring(start, segmentEnd));
+                if (child == null) break;
+                node = child;
+                nodes.add(node);
+            }
+            start = end + 1;
+        }
+        return getChain(node, nodes);
+    }
+
+    /**
+     * Returns where the path of the URI ends, i.e., at the query, the fragment or the end of the URI.
+     */
+    private static int pathEnd(String uri) {
+        int end = uri.indexOf('?');
+        if (end == -1) end = uri.length();
+        final int fragment = uri.indexOf('#');
+        return fragment > -1 && fragment < end ? fragment : end;
+    }
+
+    /**
+     * Returns where the path of the URI starts, skipping the scheme and the authority, or -1 if it has no path.
+     * The URI is scanned instead of parsed, since this is done on every dispatch.
+     */
+    private static int pathStart(String uri, int pathEnd) {
+        int authorityStart = -1;
+        final int scheme = uri.indexOf("://");
+        if (scheme > -1 && scheme < pathEnd && uri.lastIndexOf('/', scheme) == -1) {
+            authorityStart = scheme + 3;
+        } else if (uri.startsWith("//")) {
+            authorityStart = 2;
+        }
+        if (authorityStart == -1) return 0;
+
+        final int start = uri.indexOf('/', authorityStart);
+        return start == -1 || start >= pathEnd ? -1 : start;
+    }
+
+    /**
+     * Returns the memoized chain of the node, computing it from the nodes along its path if outdated.
+     */
+    private F[] getChain(Node<F> node, List<Node<F>> path) {
+        if (node.chainVersion == version) return node.chain;
+
+        final List<Entry<F>> entries = new ArrayList<>();
+        if (path == null) {
+            entries.addAll(node.entries);
+        } else {
+            for (Node<F> n : path) {
+                entries.addAll(n.entries);
+            }
+            Collections.sort(entries, ORDER);
+        }
+
+        final F[] chain = Arrays.copyOf(empty, entries.size());
+        for (int i = 0; i < chain.length; i++) {
+            chain[i] = entries.get(i).filter;
+        }
+        node.chain = chain;
+        node.chainVersion = version;
+        return chain;
+    }
+
+    private static class Node<F> {
+        final Map<String, Node<F>> children = new HashMap<>();
+        final List<Entry<F>> entries = new ArrayList<>();
+        F[] chain;
+        int chainVersion = -1;
+    }
+
+    private static class Entry<F> {
+        final F filter;
+        final int order;
+
+        Entry(F filter, int order) {
+            this.filter = filter;
+            this.order = order;
+        }
+    }
+}
@@ -31,20 +31,38 @@ import org.turbogwt.core.collections.client.JsMapInteger;
 public class Headers implements Iterable<Header> {
 
     private final JsArrayList<Header> headers;
-    private final JsMapInteger indexes = JsMapInteger.create();
+    private final JsMapInteger indexes;
 
     protected Headers() {
-        this.headers = new JsArrayList<>();
+        this(new JsArrayList<Header>(), JsMapInteger.create());
     }
 
     Headers(Header... headers) {
-        this.headers = new JsArrayList<>(headers);
+        this(new JsArrayList<>(headers), JsMapInteger.create());
         for (int i = 0; i < headers.length; i++) {
             Header header = headers[i];
             indexes.set(header.getName(), i);
         }
     }
 
+    /**
+     * Copies the given headers into a new mutable container.
+     */
+    Headers(Headers headers) {
+        this();
+        for (Header header : headers) {
+            add(header);
+        }
+    }
+
+    /**
+     * Constructor for subclasses which provide the headers by themselves. The storage may be null in this case.
+     */
+    Headers(JsArrayList<Header> headers, JsMapInteger indexes) {
+        this.headers = headers;
+        this.indexes = indexes;
+    }
+
     public boolean contains(String header) {
         return indexes.contains(header);
     }
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.net.http.client;
+
+import java.util.Arrays;
+
+import javax.annotation.Nullable;
+
+/**
+ * A policy for hedging idempotent GET requests.
+ * <p/>
+ *
+ * When no response has arrived after the hedging delay, a duplicate request is sent, optionally to another origin.
+ * The first response wins and the other request is aborted.
+ * The delay is either fixed or taken from a percentile of the latencies observed by the policy, so the same instance
+ * should be shared by the requests of an endpoint.
+ * <p/>
+ *
+ * Hedges are limited by a budget: each request earns a fraction of a hedge and each hedge spends a whole one, so the
+ * hedges never exceed that fraction of the requests. Up to {@value #MAX_BURST} unspent hedges are saved for bursts.
+ *
+ * <pre>
+ * HedgingPolicy policy = HedgingPolicy.atPercentile(0.95, 200).withBudget(0.05);
+ * requestor.request("/books").hedge(policy).get(Book.class, List.class);
+ * </pre>
+ *
+ * @author Danilo Reinert
+ */
+public class HedgingPolicy {
+
+    /**
+     * The maximum number of saved hedges.
+     */
+    public static final int MAX_BURST = 10;
+
+    /**
+     * The number of latencies observed to estimate the percentile.
+     */
+    static final int WINDOW_SIZE = 128;
+
+    /**
+     * The minimum number of latencies observed before the percentile replaces the fallback delay.
+     */
+    static final int MIN_SAMPLES = 16;
+
+    private static final double DEFAULT_BUDGET = 0.1;
+
+    private final int fixedDelay;
+    private final double percentile;
+    private double budget = DEFAULT_BUDGET;
+    private double tokens;
+    private String origin;
+
+    private final int[] latencies;
+    private int samples;
+    private int next;
+    private int percentileDelay = -1;
+
+    private int requestCount;
+    private int hedgeCount;
+
+    private HedgingPolicy(int fixedDelay, double percentile) {
+        this.fixedDelay = fixedDelay;
+        this.percentile = percentile;
+        this.latencies = percentile > 0 ? new int[WINDOW_SIZE] : null;
+    }
+
+    /**
+     * Creates a policy hedging the requests after a fixed delay.
+     *
+     * @param delayMillis the delay in milliseconds
+     *
+     * @return the policy
+     */
+    public static HedgingPolicy after(int delayMillis) {
+        if (delayMillis < 0) throw new IllegalArgumentException("Delay cannot be negative.");
+        return new HedgingPolicy(delayMillis, 0);
+    }
+
+    /**
+     * Creates a policy hedging the requests after the given percentile of the observed latencies.
+     * While too few latencies were observed, the fallback delay is used.
+     *
+     * @param percentile            the percentile, e.g. 0.95
+     * @param fallbackDelayMillis   the delay in milliseconds used until enough latencies are observed
+     *
+     * @return the policy
+     */
+    public static HedgingPolicy atPercentile(double percentile, int fallbackDelayMillis) {
+        if (percentile <= 0 || percentile >= 1)
+            throw new IllegalArgumentException("Percentile must be between 0 and 1 (exclusive).");
+        if (fallbackDelayMillis < 0) throw new IllegalArgumentException("Delay cannot be negative.");
+        return new HedgingPolicy(fallbackDelayMillis, percentile);
+    }
+
+    /**
+     * Sets the fraction of the requests which may be hedged. The default is 0.1.
+     *
+     * @param ratio the hedging budget, from 0 (no hedges) to 1 (hedge every request)
+     *
+     * @return this policy
+     */
+    public HedgingPolicy withBudget(double ratio) {
+        if (ratio < 0 || ratio > 1) throw new IllegalArgumentException("Budget must be between 0 and 1.");
+        this.budget = ratio;
+        return this;
+    }
+
+    /**
+     * Sends the hedges to another origin, e.g. "https://mirror.example.com".
+     * The path and query of the request are kept.
+     *
+     * @param origin the origin of the hedges or null to hedge to the same URI
+     *
+     * @return this policy
+     */
+    public HedgingPolicy toOrigin(@Nullable String origin) {
+        this.origin = origin;
+        return this;
+    }
+
+    /**
+     * Returns the current hedging delay.
+     *
+     * @return the delay in milliseconds
+     */
+    public int getDelay() {
+        if (latencies == null || samples < MIN_SAMPLES) return fixedDelay;
+        if (percentileDelay < 0) {
+            final int[] sorted = Arrays.copyOf(latencies, samples);
+            Arrays.sort(sorted);
+            percentileDelay = sorted[Math.min(samples - 1, (int) Math.ceil(percentile * samples) - 1)];
+        }
+        return percentileDelay;
+    }
+
+    /**
+     * Returns the number of requests dispatched with this policy.
+     *
+     * @return the request count
+     */
+    public int getRequestCount() {
+        return requestCount;
+    }
+
+    /**
+     * Returns the number of hedges sent by this policy.
+     *
+     * @return the hedge count
+     */
+    public int getHedgeCount() {
+        return hedgeCount;
+    }
+
+    /**
+     * Counts a request, earning its fraction of a hedge.
+     */
+    void onRequest() {
+        requestCount++;
+        tokens = Math.min(MAX_BURST, tokens + budget);
+    }
+
+    /**
+     * Spends a hedge from the budget, if there is any.
+     *
+     * @return {@code true} if the hedge may be sent
+     */
+    boolean tryHedge() {
+        if (tokens < 1) return false;
+        tokens--;
+        hedgeCount++;
+        return true;
+    }
+
+    /**
+     * Records the latency of a request, replacing the oldest one of the window.
+     */
+    void recordLatency(int millis) {
+        if (latencies == null) return;
+        latencies[next] = millis;
+        next = (next + 1) % WINDOW_SIZE;
+        if (samples < WINDOW_SIZE) samples++;
+        // Recompute the percentile lazily
+        percentileDelay = -1;
+    }
+
+    /**
+     * Returns the URI the hedge of the given request is sent to.
+     */
+    String getHedgeUri(String uri) {
+        if (origin == null) return uri;
+
+        // Keep the path and query of absolute URIs
+        final int scheme = uri.indexOf("://");
+        if (scheme > -1) {
+            final int path = uri.indexOf('/', scheme + 3);
+            uri = path > -1 ? uri.substring(path) : "/";
+        }
+        final boolean slash = origin.endsWith("/");
+        if (uri.startsWith("/")) return slash ? origin + uri.substring(1) : origin + uri;
+        return slash ? origin + uri : origin + '/' + uri;
+    }
+}
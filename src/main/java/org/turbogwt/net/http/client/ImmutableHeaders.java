@@ -0,0 +1,41 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client;
+
+import com.google.gwt.http.client.Header;
+
+/**
+ * Headers which cannot be modified after construction, so they can be shared among many requests.
+ *
+ * @author Danilo Reinert
+ */
+final class ImmutableHeaders extends Headers {
+
+    ImmutableHeaders(Header... headers) {
+        super(headers);
+    }
+
+    @Override
+    protected boolean add(Header header) {
+        throw new UnsupportedOperationException("Shared headers cannot be modified.");
+    }
+
+    @Override
+    protected boolean remove(String name) {
+        throw new UnsupportedOperationException("Shared headers cannot be modified.");
+    }
+}
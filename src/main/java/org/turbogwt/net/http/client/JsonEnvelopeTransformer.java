@@ -0,0 +1,92 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.net.http.client;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsonUtils;
+import com.google.gwt.http.client.Response;
+import com.google.gwt.http.client.ResponseWithJson;
+
+/**
+ * A {@link ResponseTransformer} unwrapping the content of JSON envelopes, e.g. <code>{"data": {...}}</code>.
+ * <p/>
+ *
+ * The envelope is parsed only once (or not at all, if the browser already parsed it) and the inner JSON is handed
+ * to the deserializer as evaluated JSON. Responses which are not JSON, are malformed or do not have the property are
+ * left as they are.
+ *
+ * <pre>
+ * requestor.registerResponseTransformer("/api", new JsonEnvelopeTransformer("data"));
+ * </pre>
+ *
+ * @author Danilo Reinert
+ */
+public class JsonEnvelopeTransformer implements ResponseTransformer {
+
+    private final String property;
+
+    /**
+     * @param property The name of the envelope property holding the content.
+     */
+    public JsonEnvelopeTransformer(String property) {
+        if (property == null) throw new NullPointerException("Property cannot be null.");
+        this.property = property;
+    }
+
+    @Override
+    public Response transform(Response response) {
+        final String contentType = response.getHeader("Content-Type");
+        if (contentType == null || !contentType.contains("json")) return response;
+
+        JavaScriptObject envelope = response instanceof ResponseWithJson ? ((ResponseWithJson) response).getJson()
+                : null;
+        if (envelope == null) {
+            final String text = response.getText();
+            if (text == null || text.isEmpty()) return response;
+            try {
+                envelope = JsonUtils.safeEval(text);
+            } catch (IllegalArgumentException e) {
+                // Malformed JSON is left for the deserializer to report
+                return response;
+            }
+        }
+
+        if (!hasProperty(envelope, property)) return response;
+        if (isObject(envelope, property)) {
+            return new TransformedResponse(response).json(getObject(envelope, property));
+        }
+        // Primitive contents cannot be handed as evaluated JSON
+        return new TransformedResponse(response).text(stringify(envelope, property));
+    }
+
+    private static native boolean hasProperty(JavaScriptObject envelope, String property) /*-{
+        return envelope != null && typeof envelope === 'object' && envelope.hasOwnProperty(property);
+    }-*/;
+
+    private static native boolean isObject(JavaScriptObject envelope, String property) /*-{
+        var content = envelope[property];
+        return content !== null && typeof content === 'object';
+    }-*/;
+
+    private static native JavaScriptObject getObject(JavaScriptObject envelope, String property) /*-{
+        return envelope[property];
+    }-*/;
+
+    private static native String stringify(JavaScriptObject envelope, String property) /*-{
+        var content = envelope[property];
+        return content === undefined ? 'null' : JSON.stringify(content);
+    }-*/;
+}
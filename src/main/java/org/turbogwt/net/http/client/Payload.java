@@ -0,0 +1,99 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+import javax.annotation.Nullable;
+
+/**
+ * The body of a request as handed to the {@link ServerConnection}.
+ * <p/>
+ *
+ * It holds either a serialized String or a native body.
+ * Native bodies (Blob, File, ArrayBuffer, typed arrays and FormData) are sent as they are, without being copied into
+ * a String.
+ *
+ * @author Danilo Reinert
+ */
+public class Payload {
+
+    private final String string;
+    private final JavaScriptObject javaScriptObject;
+
+    public Payload(String string) {
+        this.string = string;
+        this.javaScriptObject = null;
+    }
+
+    public Payload(JavaScriptObject javaScriptObject) {
+        this.string = null;
+        this.javaScriptObject = javaScriptObject;
+    }
+
+    /**
+     * Checks if the given object is a body natively accepted by the XMLHttpRequest,
+     * i.e., a Blob (or File), an ArrayBuffer, a typed array (or DataView) or a FormData.
+     *
+     * @param o The object to be checked
+     *
+     * @return {@code true} if the object can be sent as it is, {@code false} otherwise
+     */
+    public static native boolean isNativeBody(Object o) /*-{
+        if (o === null || typeof o !== 'object') return false;
+        // The type tag is checked instead of instanceof, since the objects may come from the host page window
+        var tag = Object.prototype.toString.call(o);
+        return tag === '[object Blob]' || tag === '[object File]' || tag === '[object FormData]'
+            || tag === '[object ArrayBuffer]' || tag === '[object DataView]'
+            || /^\[object (Ui|I)nt(8|16|32)(Clamped)?Array\]$/.test(tag)
+            || /^\[object (Float(32|64)|Big(Int|Uint)64)Array\]$/.test(tag);
+    }-*/;
+
+    /**
+     * Returns the serialized body.
+     *
+     * @return the body as String or null if it is a native body
+     */
+    @Nullable
+    public String asString() {
+        return string;
+    }
+
+    /**
+     * Returns the native body.
+     *
+     * @return the body as JavaScriptObject or null if it is a String
+     */
+    @Nullable
+    public JavaScriptObject asJavaScriptObject() {
+        return javaScriptObject;
+    }
+
+    /**
+     * Checks if the body is a native FormData, whose Content-Type must be set by the browser
+     * so that the multipart boundary is included.
+     *
+     * @return {@code true} if the body is a FormData, {@code false} otherwise
+     */
+    public boolean isFormData() {
+        return javaScriptObject != null && isFormData(javaScriptObject);
+    }
+
+    private static native boolean isFormData(JavaScriptObject o) /*-{
+        return Object.prototype.toString.call(o) === '[object FormData]';
+    }-*/;
+}
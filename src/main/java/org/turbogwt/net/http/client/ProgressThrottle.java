@@ -0,0 +1,162 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.net.http.client;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.core.client.Scheduler.ScheduledCommand;
+import com.google.gwt.http.client.RequestProgress;
+
+/**
+ * Configuration of the rate of the progress notifications of requests.
+ * <p/>
+ *
+ * Browsers may fire hundreds of progress events while downloading a large response. The throttle coalesces them,
+ * notifying only the latest progress at most once per animation frame or once per interval. The last progress
+ * before the response is received is always notified, before the promise is resolved or rejected.
+ *
+ * <pre>
+ * requestor.setProgressThrottle(ProgressThrottle.perAnimationFrame());
+ * </pre>
+ *
+ * @author Danilo Reinert
+ */
+public class ProgressThrottle {
+
+    interface Listener {
+
+        void onProgress(RequestProgress progress);
+    }
+
+    private final int intervalMillis;
+
+    private ProgressThrottle(int intervalMillis) {
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * Creates a throttle notifying the progress at most once per animation frame.
+     * Where requestAnimationFrame is not available, a 16 ms interval is used.
+     *
+     * @return The progress throttle
+     */
+    public static ProgressThrottle perAnimationFrame() {
+        return new ProgressThrottle(0);
+    }
+
+    /**
+     * Creates a throttle notifying the progress at most once per interval.
+     *
+     * @param intervalMillis The minimum interval between notifications, in milliseconds
+     *
+     * @return The progress throttle
+     */
+    public static ProgressThrottle every(int intervalMillis) {
+        if (intervalMillis <= 0) throw new IllegalArgumentException("Interval must be positive.");
+        return new ProgressThrottle(intervalMillis);
+    }
+
+    /**
+     * Returns the minimum interval between notifications.
+     *
+     * @return The interval in milliseconds or 0 if throttled per animation frame
+     */
+    public int getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    /**
+     * Creates a gate coalescing the progress events of a single request.
+     */
+    Gate open(Listener listener) {
+        return new Gate(listener);
+    }
+
+    class Gate {
+
+        private final Listener listener;
+        private final ScheduledCommand flushCommand = new ScheduledCommand() {
+            @Override
+            public void execute() {
+                scheduled = false;
+                flush();
+            }
+        };
+        private RequestProgress latest;
+        private boolean scheduled;
+        private double lastNotification = Double.NEGATIVE_INFINITY;
+
+        private Gate(Listener listener) {
+            this.listener = listener;
+        }
+
+        /**
+         * Receives a progress event, notifying it now or later with the events that may follow.
+         */
+        void offer(RequestProgress progress) {
+            latest = progress;
+            if (scheduled) return;
+
+            if (intervalMillis > 0) {
+                final double elapsed = Duration.currentTimeMillis() - lastNotification;
+                if (elapsed >= intervalMillis) {
+                    flush();
+                } else {
+                    schedule((int) (intervalMillis - elapsed));
+                }
+            } else {
+                schedule(0);
+            }
+        }
+
+        /**
+         * Notifies the latest progress, if not yet notified.
+         */
+        void flush() {
+            if (latest == null) return;
+            final RequestProgress progress = latest;
+            latest = null;
+            lastNotification = Duration.currentTimeMillis();
+            listener.onProgress(progress);
+        }
+
+        private void schedule(int delayMillis) {
+            scheduled = true;
+            if (delayMillis > 0) {
+                Scheduler.get().scheduleFixedDelay(new Scheduler.RepeatingCommand() {
+                    @Override
+                    public boolean execute() {
+                        flushCommand.execute();
+                        return false;
+                    }
+                }, delayMillis);
+            } else {
+                requestAnimationFrame(flushCommand);
+            }
+        }
+    }
+
+    private static native void requestAnimationFrame(ScheduledCommand command) /*-{
+        var callback = $entry(function() {
+            command.@com.google.gwt.core.client.Scheduler.ScheduledCommand::execute()();
+        });
+        if ($wnd.requestAnimationFrame) {
+            $wnd.requestAnimationFrame(callback);
+        } else {
+            $wnd.setTimeout(callback, 16);
+        }
+    }-*/;
+}
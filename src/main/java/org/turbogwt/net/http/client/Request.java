@@ -17,8 +17,10 @@
 package org.turbogwt.net.http.client;
 
 import com.google.gwt.http.client.Header;
+import com.google.gwt.http.client.Response;
 
 import org.turbogwt.net.http.client.header.AcceptHeader;
+import org.turbogwt.net.shared.Uri;
 
 /**
  * This type provides fluent style request building.
@@ -27,6 +29,29 @@ import org.turbogwt.net.http.client.header.AcceptHeader;
  */
 public interface Request {
 
+    /**
+     * Returns the canonical form of the request URI.
+     *
+     * @return the parsed URI
+     */
+    Uri getUri();
+
+    /**
+     * Ends the dispatch of this request with the given response, which is handled as if it had been received from
+     * the server: the response filters are applied and the request promise is resolved or rejected by its status.
+     * The server is not called.
+     * <p/>
+     *
+     * It is intended to be called by request filters, e.g. to serve cached, mocked or offline responses.
+     * No further request filter is applied after it.
+     *
+     * @param response The response of this request
+     *
+     * @throws NullPointerException if response is null
+     * @throws IllegalStateException if no request filter of this request is running
+     */
+    void respond(Response response);
+
     /**
      * Set the content type of this request.
      *
@@ -125,6 +150,46 @@ public interface Request {
      */
     Request timeout(int timeoutMillis);
 
+    /**
+     * Sets the number of milliseconds to wait for the response headers. It detects servers that are down or stuck
+     * without limiting the time to download the response. Should the headers not arrive in time, the promise is
+     * rejected with a {@link com.google.gwt.http.client.RequestHeadersTimeoutException}.
+     *
+     * @param timeoutMillis number of milliseconds to wait before canceling the
+     *          request, a value of zero disables this timeout
+     *
+     * @throws IllegalArgumentException if the timeout value is negative
+     */
+    Request headersTimeout(int timeoutMillis);
+
+    /**
+     * Sets the maximum number of milliseconds between progress events of the response, once its headers were
+     * received. It detects stalled downloads while letting healthy large downloads take as long as they need.
+     * Should the response stall, the promise is rejected with a
+     * {@link com.google.gwt.http.client.RequestIdleTimeoutException}.
+     *
+     * @param timeoutMillis number of milliseconds to wait before canceling the
+     *          request, a value of zero disables this timeout
+     *
+     * @throws IllegalArgumentException if the timeout value is negative
+     */
+    Request idleTimeout(int timeoutMillis);
+
+    /**
+     * Sets whether the JSON response should be natively parsed by the browser (XmlHttpRequest response type "json").
+     * <p/>
+     *
+     * The response is then parsed during download and the deserializers implementing
+     * {@link org.turbogwt.net.serialization.client.json.EvaluatedJsonDeserializer} receive the parsed object
+     * directly, skipping the evaluation of the response text. Other deserializers receive the parsed object
+     * stringified back.
+     *
+     * @param enabled {@code true} to let the browser parse the JSON response
+     *
+     * @return the updated Request
+     */
+    Request nativeJsonParsing(boolean enabled);
+
 //    /**
 //     * Append a path parameter to the existing set of path parameters of the current final segment of the URI path.
 //     *
@@ -178,6 +243,10 @@ public interface Request {
      *
      * This object will be serialized considering its class and the current content-type.<br/>
      * If no serializer was found matching these two factors, the a exception is thrown.
+     * <p/>
+     *
+     * Native bodies (Blob, File, ArrayBuffer, typed arrays and FormData) are not serialized;
+     * they are sent as they are. The Content-Type of a FormData is always set by the browser.
      *
      * @param object the payload of the request
      *
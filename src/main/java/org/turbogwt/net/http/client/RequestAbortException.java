@@ -0,0 +1,32 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.net.http.client;
+
+/**
+ * Thrown to indicate that a request was aborted before its response was received.
+ *
+ * @author Danilo Reinert
+ */
+public class RequestAbortException extends RuntimeException {
+
+    public RequestAbortException() {
+        super("The request was aborted.");
+    }
+
+    public RequestAbortException(String s) {
+        super(s);
+    }
+}
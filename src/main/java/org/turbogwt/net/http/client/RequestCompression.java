@@ -0,0 +1,152 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+import javax.annotation.Nullable;
+
+/**
+ * Configuration of the gzip compression of request bodies.
+ * <p/>
+ *
+ * Serialized bodies longer than the threshold are compressed with the browser's CompressionStream API
+ * and sent with the "Content-Encoding: gzip" header.
+ * In environments without CompressionStream, the {@link Fallback} is used if set; otherwise the body is sent
+ * uncompressed.
+ * <p/>
+ *
+ * Native bodies (Blob, ArrayBuffer, FormData) and binary string bodies (MessagePack) are never compressed.
+ *
+ * @author Danilo Reinert
+ */
+public class RequestCompression {
+
+    /**
+     * Synchronous gzip compressor used when CompressionStream is not available.
+     */
+    public interface Fallback {
+
+        /**
+         * Compresses the body with gzip.
+         *
+         * @param body The serialized body
+         *
+         * @return The compressed body as a Blob, ArrayBuffer or typed array,
+         *         or {@code null} to send the body uncompressed
+         */
+        @Nullable
+        JavaScriptObject gzip(String body);
+    }
+
+    interface Callback {
+
+        void onCompressed(JavaScriptObject compressed);
+
+        void onUncompressed();
+    }
+
+    public static final int DEFAULT_THRESHOLD = 1024;
+
+    private final int threshold;
+    private final Fallback fallback;
+
+    private RequestCompression(int threshold, Fallback fallback) {
+        this.threshold = threshold;
+        this.fallback = fallback;
+    }
+
+    /**
+     * Creates a gzip compression for bodies longer than {@link #DEFAULT_THRESHOLD} characters.
+     *
+     * @return The request compression
+     */
+    public static RequestCompression gzip() {
+        return gzip(DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Creates a gzip compression for bodies longer than the given number of characters.
+     *
+     * @param threshold The minimum length of the body to be compressed
+     *
+     * @return The request compression
+     */
+    public static RequestCompression gzip(int threshold) {
+        if (threshold < 0) throw new IllegalArgumentException("Threshold cannot be negative.");
+        return new RequestCompression(threshold, null);
+    }
+
+    /**
+     * Returns a copy of this compression using the given fallback when CompressionStream is not available.
+     *
+     * @param fallback The synchronous compressor
+     *
+     * @return The request compression with the fallback
+     */
+    public RequestCompression withFallback(Fallback fallback) {
+        return new RequestCompression(threshold, fallback);
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    @Nullable
+    public Fallback getFallback() {
+        return fallback;
+    }
+
+    /**
+     * Checks if the browser provides the CompressionStream API.
+     *
+     * @return {@code true} if CompressionStream is available, {@code false} otherwise
+     */
+    public static native boolean isCompressionStreamSupported() /*-{
+        return typeof $wnd.CompressionStream !== 'undefined' && typeof $wnd.Blob !== 'undefined'
+            && typeof $wnd.Response !== 'undefined' && typeof $wnd.Blob.prototype.stream === 'function';
+    }-*/;
+
+    boolean accepts(String body) {
+        return body != null && body.length() > threshold;
+    }
+
+    void compress(String body, Callback callback) {
+        if (isCompressionStreamSupported()) {
+            gzipWithCompressionStream(body, callback);
+            return;
+        }
+
+        final JavaScriptObject compressed = fallback != null ? fallback.gzip(body) : null;
+        if (compressed != null) {
+            callback.onCompressed(compressed);
+        } else {
+            callback.onUncompressed();
+        }
+    }
+
+    private static native void gzipWithCompressionStream(String body, Callback callback) /*-{
+        var stream = new $wnd.Blob([body]).stream().pipeThrough(new $wnd.CompressionStream('gzip'));
+        new $wnd.Response(stream).blob().then(
+            $entry(function(blob) {
+                callback.@org.turbogwt.net.http.client.RequestCompression.Callback::onCompressed(Lcom/google/gwt/core/client/JavaScriptObject;)(blob);
+            }),
+            $entry(function() {
+                callback.@org.turbogwt.net.http.client.RequestCompression.Callback::onUncompressed()();
+            }));
+    }-*/;
+}
@@ -20,6 +20,8 @@ import com.google.gwt.http.client.Header;
 
 import java.util.Collection;
 
+import javax.annotation.Nullable;
+
 import org.turbogwt.net.http.client.header.AcceptHeader;
 
 /**
@@ -51,6 +53,15 @@ public interface RequestDispatcher extends Request {
     @Override
     RequestDispatcher timeout(int timeoutMillis);
 
+    @Override
+    RequestDispatcher headersTimeout(int timeoutMillis);
+
+    @Override
+    RequestDispatcher idleTimeout(int timeoutMillis);
+
+    @Override
+    RequestDispatcher nativeJsonParsing(boolean enabled);
+
 //    @Override
 //    RequestDispatcher pathParam(String name, Object value) throws IllegalArgumentException;
 //
@@ -63,6 +74,16 @@ public interface RequestDispatcher extends Request {
     @Override
     RequestDispatcher payload(Object object) throws IllegalArgumentException;
 
+    /**
+     * Sets the policy for hedging this request, if dispatched as GET.
+     * Requests dispatched with other methods are never hedged, since they may not be idempotent.
+     *
+     * @param hedgingPolicy the hedging policy or null to disable hedging
+     *
+     * @return the updated RequestDispatcher
+     */
+    RequestDispatcher hedge(@Nullable HedgingPolicy hedgingPolicy);
+
     RequestPromise<Void> get();
 
     <T> RequestPromise<T> get(Class<T> responseType);
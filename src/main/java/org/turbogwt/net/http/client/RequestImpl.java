@@ -16,20 +16,29 @@
 
 package org.turbogwt.net.http.client;
 
+import com.google.gwt.core.client.Duration;
 import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.core.client.Scheduler.ScheduledCommand;
 import com.google.gwt.http.client.Header;
 import com.google.gwt.http.client.Request;
 import com.google.gwt.http.client.RequestBuilder;
 import com.google.gwt.http.client.RequestCallback;
 import com.google.gwt.http.client.RequestCallbackWithProgress;
 import com.google.gwt.http.client.RequestException;
+import com.google.gwt.http.client.RequestSentCallback;
 import com.google.gwt.http.client.RequestProgress;
 import com.google.gwt.http.client.Response;
 
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.List;
 
+import javax.annotation.Nullable;
+
+import org.turbogwt.core.future.shared.DoneCallback;
+import org.turbogwt.core.future.shared.FailCallback;
+import org.turbogwt.core.future.shared.Promise;
 import org.turbogwt.net.http.client.header.AcceptHeader;
 import org.turbogwt.net.http.client.header.ContentTypeHeader;
 import org.turbogwt.net.http.client.header.SimpleHeader;
@@ -37,6 +46,8 @@ import org.turbogwt.net.http.client.serialization.HttpSerializationContext;
 import org.turbogwt.net.serialization.client.ContainerFactoryManager;
 import org.turbogwt.net.serialization.client.SerdesManager;
 import org.turbogwt.net.serialization.client.Serializer;
+import org.turbogwt.net.serialization.client.msgpack.MsgPackSerdes;
+import org.turbogwt.net.shared.Uri;
 
 /**
  * Default implementation for {@link Request}.
@@ -47,22 +58,60 @@ public class RequestImpl implements RequestDispatcher {
     private final SerdesManager serdesManager;
     private final ContainerFactoryManager containerFactoryManager;
     private final String uri;
+    private Uri parsedUri;
     private final FilterManager filterManager;
+    private final Headers defaultHeaders;
     private Headers headers;
     private String user;
     private String password;
     private int timeout;
+    private int headersTimeout;
+    private int idleTimeout;
     private String contentType;
     private AcceptHeader accept;
     private Object payload;
+    private boolean nativeJsonParsing;
+    private RequestCompression requestCompression;
+    private ProgressThrottle progressThrottle;
+    private HedgingPolicy hedgingPolicy;
+    // The dispatch whose filters are running, which receives the responses of the filters
+    private DeferredRequestCallback<?> filtering;
 
     public RequestImpl(String uri, SerdesManager serdesManager, ContainerFactoryManager containerFactoryManager,
                        FilterManager filterManager) {
+        this(uri, serdesManager, containerFactoryManager, filterManager, null);
+    }
+
+    /**
+     * Constructs a request sharing the given default headers.
+     * <p/>
+     *
+     * The default headers are used as they are while the request keeps their Content-Type and Accept and sets no
+     * other header. Otherwise the request copies them before writing its own.
+     */
+    RequestImpl(String uri, SerdesManager serdesManager, ContainerFactoryManager containerFactoryManager,
+                FilterManager filterManager, @Nullable Headers defaultHeaders) {
         this.serdesManager = serdesManager;
         this.containerFactoryManager = containerFactoryManager;
         this.filterManager = filterManager;
-        // TODO: parse URI
         this.uri = uri;
+        this.defaultHeaders = defaultHeaders;
+    }
+
+    /**
+     * Returns the canonical form of the request URI, suitable as a request key.
+     * <p/>
+     *
+     * The URI is parsed lazily; the request is still dispatched to the URI as it was given.
+     *
+     * @return the parsed URI
+     */
+    @Override
+    public Uri getUri() {
+        if (parsedUri == null) {
+            parsedUri = Uri.parse(uri);
+        }
+        return parsedUri;
     }
 
     @Override
@@ -73,7 +122,7 @@ public class RequestImpl implements RequestDispatcher {
 
     @Override
     public RequestDispatcher accept(String contentType) {
-        this.accept = new AcceptHeader(contentType);
+        this.accept = AcceptHeader.parse(contentType);
         return this;
     }
 
@@ -85,13 +134,13 @@ public class RequestImpl implements RequestDispatcher {
 
     @Override
     public RequestDispatcher header(String header, String value) {
-        ensureHeaders().add(new SimpleHeader(header, value));
+        ensureMutableHeaders().add(new SimpleHeader(header, value));
         return this;
     }
 
     @Override
     public RequestDispatcher header(Header header) {
-        ensureHeaders().add(header);
+        ensureMutableHeaders().add(header);
         return this;
     }
 
@@ -113,12 +162,63 @@ public class RequestImpl implements RequestDispatcher {
         return this;
     }
 
+    @Override
+    public RequestDispatcher headersTimeout(int timeoutMillis) {
+        if (timeoutMillis < 0) throw new IllegalArgumentException("Timeouts cannot be negative.");
+        headersTimeout = timeoutMillis;
+        return this;
+    }
+
+    @Override
+    public RequestDispatcher idleTimeout(int timeoutMillis) {
+        if (timeoutMillis < 0) throw new IllegalArgumentException("Timeouts cannot be negative.");
+        idleTimeout = timeoutMillis;
+        return this;
+    }
+
+    @Override
+    public RequestDispatcher nativeJsonParsing(boolean enabled) {
+        nativeJsonParsing = enabled;
+        return this;
+    }
+
+    /**
+     * Sets the compression to be applied to the serialized body of this request.
+     *
+     * @param requestCompression the request compression or null to disable it
+     */
+    void setRequestCompression(@Nullable RequestCompression requestCompression) {
+        this.requestCompression = requestCompression;
+    }
+
+    /**
+     * Sets the throttle coalescing the progress notifications of this request.
+     *
+     * @param progressThrottle the progress throttle or null to notify every progress event
+     */
+    void setProgressThrottle(@Nullable ProgressThrottle progressThrottle) {
+        this.progressThrottle = progressThrottle;
+    }
+
+    @Override
+    public void respond(Response response) {
+        if (response == null) throw new NullPointerException("Response cannot be null.");
+        if (filtering == null) throw new IllegalStateException("Only request filters can respond to the request.");
+        filtering.filterResponse = response;
+    }
+
     @Override
     public RequestDispatcher payload(Object object) throws IllegalArgumentException {
         payload = object;
         return this;
     }
 
+    @Override
+    public RequestDispatcher hedge(@Nullable HedgingPolicy hedgingPolicy) {
+        this.hedgingPolicy = hedgingPolicy;
+        return this;
+    }
+
     @Override
     public RequestPromise<Void> get() {
         return send(RequestBuilder.GET, Void.class);
@@ -199,7 +299,12 @@ public class RequestImpl implements RequestDispatcher {
         final DeferredSingleResult<T> deferred = new DeferredSingleResult<T>(responseType, serdesManager,
                 containerFactoryManager);
 
-        RequestCallback callback = createRequestCallback(deferred);
+        if (isHedged(method)) {
+            return sendHedged(method, deferred, new DeferredSingleResult<T>(responseType, serdesManager,
+                    containerFactoryManager));
+        }
+
+        DeferredRequestCallback<T> callback = createRequestCallback(deferred);
 
         dispatch(method, callback);
 
@@ -212,67 +317,242 @@ public class RequestImpl implements RequestDispatcher {
         final DeferredCollectionResult<T> deferred = new DeferredCollectionResult<T>(responseType, containerType,
                 serdesManager, containerFactoryManager);
 
-        RequestCallback callback = createRequestCallback(deferred);
+        if (isHedged(method)) {
+            return sendHedged(method, deferred, new DeferredCollectionResult<T>(responseType, containerType,
+                    serdesManager, containerFactoryManager));
+        }
+
+        DeferredRequestCallback<Collection<T>> callback = createRequestCallback(deferred);
 
         dispatch(method, callback);
 
         return deferred;
     }
 
-    private <D> RequestCallback createRequestCallback(final DeferredRequest<D> deferred) {
-        return new RequestCallbackWithProgress() {
-                @Override
-                public void onResponseReceived(Request request, Response response) {
-                    // Execute filters on this response
-                    final List<ResponseFilter> filters = filterManager.getResponseFilters();
-                    for (ResponseFilter filter : filters) {
-                        filter.filter(response);
-                    }
+    private boolean isHedged(RequestBuilder.Method method) {
+        return hedgingPolicy != null && method == RequestBuilder.GET;
+    }
 
-                    if (response.getStatusCode() / 100 == 2) {
-                        deferred.resolve(response);
-                    } else {
-                        deferred.reject(response);
+    /**
+     * Dispatches the request and, if no response has arrived after the hedging delay, sends it again.
+     * The filters run only once, so the hedge carries the very request they produced and both are timed as one.
+     * The first to succeed wins and the other is aborted. A hedge never makes the outcome worse: its failure is ignored
+     * while the primary is pending, and the request fails with the error of the primary once both have failed.
+     */
+    private <D> RequestPromise<D> sendHedged(final RequestBuilder.Method method, final DeferredRequest<D> primary,
+                                             final DeferredRequest<D> hedge) {
+        final HedgingPolicy policy = hedgingPolicy;
+        final double start = Duration.currentTimeMillis();
+        final DeferredRequestCallback<D> primaryCallback = createRequestCallback(primary);
+        final RequestPromise<D> winner = RequestPromises.hedged(primary, hedge);
+        primaryCallback.reportOn(winner);
+        final boolean[] hedgeSent = new boolean[1];
+
+        dispatch(method, primaryCallback);
+        policy.onRequest();
+
+        // The latency is the one seen by the caller, so slow primaries beaten by their hedges are kept in the window
+        winner.done(new DoneCallback<D>() {
+            @Override
+            public void onDone(D result) {
+                policy.recordLatency((int) (Duration.currentTimeMillis() - start));
+            }
+        });
+
+        // A hedge never sent cannot rescue a failed primary
+        primary.fail(new FailCallback<Throwable>() {
+            @Override
+            public void onFail(Throwable reason) {
+                if (!hedgeSent[0]) hedge.abort();
+            }
+        });
+
+        Scheduler.get().scheduleFixedDelay(new Scheduler.RepeatingCommand() {
+            @Override
+            public boolean execute() {
+                // A primary still held by async filters is not hedged
+                if (primaryCallback.sent && primary.isPending() && hedge.isPending() && policy.tryHedge()) {
+                    final DeferredRequestCallback<D> hedgeCallback = createRequestCallback(hedge);
+                    hedgeCallback.hedge(primaryCallback);
+                    hedgeSent[0] = true;
+                    try {
+                        sendToServer(method, policy.getHedgeUri(uri), primaryCallback.sentHeaders,
+                                primaryCallback.sentBody, hedgeCallback);
+                    } catch (RuntimeException e) {
+                        hedgeCallback.onError(null, e);
                     }
                 }
+                return false;
+            }
+        }, policy.getDelay());
 
-                @Override
-                public void onProgress(RequestProgress requestProgress) {
-                    deferred.notify(new RequestProgressImpl(requestProgress));
-                }
+        return winner;
+    }
 
-                @Override
-                public void onError(Request request, Throwable exception) {
-                    deferred.reject(exception);
-                }
-            };
+    private <D> DeferredRequestCallback<D> createRequestCallback(final DeferredRequest<D> deferred) {
+        return new DeferredRequestCallback<D>(deferred);
     }
 
-    private void dispatch(RequestBuilder.Method method, RequestCallback callback) {
+    private void dispatch(final RequestBuilder.Method method, final DeferredRequestCallback<?> callback) {
+        // Requests are timed only if someone listens to their metrics
+        final RequestMetricsListener[] metricsListeners = filterManager.getRequestMetricsListeners(uri);
+        if (metricsListeners.length > 0) {
+            callback.record(new RequestMetricsRecorder(metricsListeners, uri, method.toString()));
+        }
+
         ensureHeaders();
 
         // Execute filters on this request
-        final List<RequestFilter> filters = filterManager.getRequestFilters();
+        final RequestFilter[] filters = filterManager.getRequestFilters(uri);
         for (RequestFilter filter : filters) {
+            filtering = callback;
             filter.filter(this);
+            if (respondIfShortCircuited(callback)) return;
+        }
+
+        final AsyncRequestFilter[] asyncFilters = filterManager.getAsyncRequestFilters(uri);
+        if (asyncFilters.length == 0) {
+            serializeAndSend(method, callback);
+        } else {
+            // The request is held until every async filter is done, so dispatch failures go through the callback
+            applyAsyncFilter(asyncFilters, 0, method, callback);
         }
+    }
 
-        String body = serializePayload();
+    private void applyAsyncFilter(final AsyncRequestFilter[] filters, final int index,
+                                  final RequestBuilder.Method method, final DeferredRequestCallback<?> callback) {
+        if (respondIfShortCircuited(callback)) return;
 
-        ServerConnection connection = server.getConnection();
+        if (index == filters.length) {
+            try {
+                serializeAndSend(method, callback);
+            } catch (RuntimeException e) {
+                callback.onError(null, e);
+            }
+            return;
+        }
+
+        final Promise<?, Throwable, ?> promise;
+        try {
+            filtering = callback;
+            promise = filters[index].filter(this);
+        } catch (RuntimeException e) {
+            callback.onError(null, e);
+            return;
+        }
+        whenDone(promise, new ScheduledCommand() {
+            @Override
+            public void execute() {
+                applyAsyncFilter(filters, index + 1, method, callback);
+            }
+        }, callback);
+    }
+
+    private static <D> void whenDone(Promise<D, Throwable, ?> promise, final ScheduledCommand next,
+                                     final RequestCallback callback) {
+        promise.done(new DoneCallback<D>() {
+            @Override
+            public void onDone(D result) {
+                next.execute();
+            }
+        }).fail(new FailCallback<Throwable>() {
+            @Override
+            public void onFail(Throwable reason) {
+                callback.onError(null, reason);
+            }
+        });
+    }
+
+    /**
+     * Delivers the response supplied by a filter, if any, as if it had been received from the server.
+     */
+    private boolean respondIfShortCircuited(DeferredRequestCallback<?> callback) {
+        if (callback.filterResponse == null) return false;
+        callback.onResponseReceived(null, callback.filterResponse);
+        return true;
+    }
 
+    private void serializeAndSend(final RequestBuilder.Method method, final DeferredRequestCallback<?> callback) {
+        if (callback.metrics != null) callback.metrics.markFiltered();
+
+        final Payload body = serializePayload();
+        if (callback.metrics != null) callback.metrics.setRequestBody(body);
+
+        if (shouldCompress(body)) {
+            // Compression is asynchronous, so dispatch failures are reported through the callback
+            requestCompression.compress(body.asString(), new RequestCompression.Callback() {
+                @Override
+                public void onCompressed(JavaScriptObject compressed) {
+                    sendPayloadSafely(method, new Payload(compressed), true, callback);
+                }
+
+                @Override
+                public void onUncompressed() {
+                    sendPayloadSafely(method, body, false, callback);
+                }
+            });
+            return;
+        }
+
+        sendPayload(method, headers, body, callback);
+    }
+
+    /**
+     * Checks the headers set by the caller only, since the Content-Encoding added by compression is never stored in
+     * this request.
+     */
+    private boolean shouldCompress(@Nullable Payload body) {
+        return requestCompression != null && body != null && requestCompression.accepts(body.asString())
+                && !MsgPackSerdes.isMsgPack(contentType) && !headers.contains("Content-Encoding");
+    }
+
+    /**
+     * Sends the payload from an asynchronous job, so any failure must be reported through the callback.
+     * The Content-Encoding of a compressed body is set on a copy of the headers, which is used for this sending only.
+     */
+    private void sendPayloadSafely(RequestBuilder.Method method, @Nullable Payload body, boolean gzipped,
+                                   DeferredRequestCallback<?> callback) {
         try {
-            connection.sendRequest(timeout, user, password, headers, method, uri, body, callback);
+            Headers sendHeaders = headers;
+            if (gzipped) {
+                sendHeaders = new Headers(headers);
+                sendHeaders.add(new SimpleHeader("Content-Encoding", "gzip"));
+            }
+            sendPayload(method, sendHeaders, body, callback);
+        } catch (RuntimeException e) {
+            callback.onError(null, e);
+        }
+    }
+
+    private void sendPayload(RequestBuilder.Method method, Headers sendHeaders, @Nullable Payload body,
+                             DeferredRequestCallback<?> callback) {
+        if (callback.metrics != null) callback.metrics.markSerialized();
+        sendToServer(method, uri, sendHeaders, body, callback);
+        callback.sent = true;
+        callback.sentHeaders = sendHeaders;
+        callback.sentBody = body;
+    }
+
+    private void sendToServer(RequestBuilder.Method method, String uri, Headers sendHeaders, @Nullable Payload body,
+                              DeferredRequestCallback<?> callback) {
+        ServerConnection connection = server.getConnection();
+        try {
+            connection.sendRequest(new ConnectionRequest(method, uri).timeout(timeout).headersTimeout(headersTimeout)
+                    .idleTimeout(idleTimeout).user(user).password(password).headers(sendHeaders).payload(body)
+                    .responseType(nativeJsonParsing ? "json" : null), callback);
         } catch (final RequestException e) {
             throw new RequestDispatchException("It was not possible to dispatch the request.", e);
         }
     }
 
-    private String serializePayload() {
+    private Payload serializePayload() {
         String body = null;
 
         if (payload != null) {
-            if (payload instanceof Collection) {
+            if (Payload.isNativeBody(payload)) {
+                // Native bodies are sent as they are
+                return new Payload((JavaScriptObject) payload);
+            } else if (payload instanceof Collection) {
                 Collection c = (Collection) payload;
                 final Iterator iterator = c.iterator();
                 Object item = null;
@@ -294,15 +574,171 @@ public class RequestImpl implements RequestDispatcher {
                 body = serializer.serialize(payload, new HttpSerializationContext(ensureHeaders()));
             }
         }
-        return body;
+        return body == null ? null : new Payload(body);
     }
 
     private Headers ensureHeaders() {
         if (headers == null) {
-            headers = new Headers();
-            headers.add(new ContentTypeHeader(contentType));
-            headers.add(accept);
+            if (isDefaultHeaders()) {
+                headers = defaultHeaders;
+            } else {
+                headers = new Headers();
+                headers.add(new ContentTypeHeader(contentType));
+                headers.add(accept);
+            }
+        }
+        return headers;
+    }
+
+    /**
+     * Returns headers owned by this request, copying the shared default headers on the first write.
+     */
+    private Headers ensureMutableHeaders() {
+        if (ensureHeaders() == defaultHeaders) {
+            headers = new Headers(defaultHeaders);
         }
         return headers;
     }
+
+    private boolean isDefaultHeaders() {
+        return defaultHeaders != null && accept == defaultHeaders.get("Accept")
+                && contentType != null && contentType.equals(defaultHeaders.getValue("Content-Type"));
+    }
+
+    /**
+     * Settles the deferred with the response. Callbacks arriving after the deferred was aborted are ignored.
+     */
+    private class DeferredRequestCallback<D> implements RequestCallbackWithProgress, RequestSentCallback {
+
+        private final DeferredRequest<D> deferred;
+        private RequestPromise<D> outcome;
+        private ProgressThrottle.Gate progressGate;
+        private RequestMetricsRecorder metrics;
+        private Response filterResponse;
+        private boolean hedge;
+        private boolean sent;
+        private Headers sentHeaders;
+        private Payload sentBody;
+
+        DeferredRequestCallback(DeferredRequest<D> deferred) {
+            this.deferred = deferred;
+            this.outcome = deferred;
+        }
+
+        /**
+         * Reports the metrics once the given promise settles, instead of the deferred of this callback.
+         * It must be called before dispatching.
+         */
+        void reportOn(RequestPromise<D> promise) {
+            outcome = promise;
+        }
+
+        /**
+         * Times this request with the given recorder, which reports it once the deferred settles.
+         * The callbacks are added before the promise is returned, so the metrics are reported before the callbacks
+         * of the caller run.
+         */
+        void record(final RequestMetricsRecorder recorder) {
+            recorder.markDispatched();
+            report(recorder);
+        }
+
+        /**
+         * Makes this callback the hedge of the given one, sharing its metrics, which the primary reports once both
+         * requests settle as one. The phases up to the sending are kept from the primary request.
+         */
+        void hedge(DeferredRequestCallback<?> primary) {
+            hedge = true;
+            metrics = primary.metrics;
+        }
+
+        private void report(final RequestMetricsRecorder recorder) {
+            metrics = recorder;
+            outcome.done(new DoneCallback<D>() {
+                @Override
+                public void onDone(D result) {
+                    recorder.markDeserialized();
+                    recorder.report();
+                }
+            }).fail(new FailCallback<Throwable>() {
+                @Override
+                public void onFail(Throwable reason) {
+                    if (!(reason instanceof RequestAbortException)) recorder.report();
+                }
+            });
+        }
+
+        @Override
+        public void onSent(Request request) {
+            if (metrics != null && !hedge) metrics.markSent();
+            deferred.setRequest(request);
+        }
+
+        @Override
+        public void onResponseReceived(Request request, Response response) {
+            if (!deferred.isPending()) return;
+            if (metrics != null) metrics.markReceived(response);
+            flushProgress();
+
+            try {
+                // Execute filters on this response
+                final ResponseFilter[] filters = filterManager.getResponseFilters(uri);
+                for (ResponseFilter filter : filters) {
+                    filter.filter(response);
+                }
+
+                if (response.getStatusCode() / 100 == 2) {
+                    // Transform the response before deserializing it
+                    for (ResponseTransformer transformer : filterManager.getResponseTransformers(uri)) {
+                        response = transformer.transform(response);
+                    }
+                }
+            } catch (RuntimeException e) {
+                // A failing filter or transformer must not leave the promise pending
+                deferred.reject(e);
+                return;
+            }
+
+            if (response.getStatusCode() / 100 == 2) {
+                if (metrics != null) metrics.markResponseFiltered();
+                deferred.resolve(response);
+            } else {
+                if (metrics != null) metrics.markResponseFiltered();
+                deferred.reject(response);
+            }
+        }
+
+        @Override
+        public void onProgress(RequestProgress requestProgress) {
+            if (metrics != null) metrics.markProgress();
+            if (progressThrottle == null) {
+                if (deferred.isPending()) deferred.notify(new RequestProgressImpl(requestProgress));
+                return;
+            }
+            if (progressGate == null) {
+                progressGate = progressThrottle.open(new ProgressThrottle.Listener() {
+                    @Override
+                    public void onProgress(RequestProgress progress) {
+                        if (deferred.isPending()) deferred.notify(new RequestProgressImpl(progress));
+                    }
+                });
+            }
+            progressGate.offer(requestProgress);
+        }
+
+        @Override
+        public void onError(Request request, Throwable exception) {
+            if (!deferred.isPending()) return;
+            if (metrics != null) metrics.markFailed();
+            flushProgress();
+            deferred.reject(exception);
+        }
+
+        /**
+         * Delivers the last progress still held by the throttle, so it is notified before the deferred settles.
+         */
+        private void flushProgress() {
+            if (progressGate != null) progressGate.flush();
+        }
+    }
 }
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client;
+
+/**
+ * The timings and sizes of a settled request.
+ * <p/>
+ *
+ * The time of a request is split into consecutive phases, all in milliseconds:
+ * <ol>
+ *     <li>request filters: from the dispatch until every request filter, sync or async, is done;</li>
+ *     <li>serialization: serializing and, if enabled, compressing the payload;</li>
+ *     <li>queueing: from handing the request to the connection until the XMLHttpRequest is sent;</li>
+ *     <li>time to first byte: from the request being sent until the first progress event or, if none, the
+ *     response;</li>
+ *     <li>download: from the first progress event until the whole response is received;</li>
+ *     <li>response filters: executing the response filters and transformers;</li>
+ *     <li>deserialization: deserializing the response into the result.</li>
+ * </ol>
+ *
+ * The phases not reached are 0, e.g., all phases but the request filters of a request answered by a filter.
+ * Note that the browser may hold a sent request while its connections are busy, so that time is accounted in the
+ * time to first byte.
+ *
+ * @author Danilo Reinert
+ */
+public class RequestMetrics {
+
+    private static final String ID_SEGMENT = "\\d+|[0-9a-fA-F]{8}(-[0-9a-fA-F]{4}){3}-[0-9a-fA-F]{12}"
+            + "|(?=.*\\d)[0-9a-fA-F]{16,}";
+
+    private final String uri;
+    private final String method;
+    private final int status;
+    private final int requestSize;
+    private final int responseSize;
+    private final double requestFilterMillis;
+    private final double serializationMillis;
+    private final double queueingMillis;
+    private final double timeToFirstByteMillis;
+    private final double downloadMillis;
+    private final double responseFilterMillis;
+    private final double deserializationMillis;
+    private String uriTemplate;
+
+    RequestMetrics(String uri, String method, int status, int requestSize, int responseSize,
+                   double requestFilterMillis, double serializationMillis, double queueingMillis,
+                   double timeToFirstByteMillis, double downloadMillis, double responseFilterMillis,
+                   double deserializationMillis) {
+        this.uri = uri;
+        this.method = method;
+        this.status = status;
+        this.requestSize = requestSize;
+        this.responseSize = responseSize;
+        this.requestFilterMillis = requestFilterMillis;
+        this.serializationMillis = serializationMillis;
+        this.queueingMillis = queueingMillis;
+        this.timeToFirstByteMillis = timeToFirstByteMillis;
+        this.downloadMillis = downloadMillis;
+        this.responseFilterMillis = responseFilterMillis;
+        this.deserializationMillis = deserializationMillis;
+    }
+
+    /**
+     * Returns the URI the request was sent to.
+     *
+     * @return the request URI
+     */
+    public String getUri() {
+        return uri;
+    }
+
+    /**
+     * Returns the URI with the query and fragment removed and the path segments looking like identifiers, i.e.,
+     * numbers, UUIDs and long hexadecimal strings, replaced by "{id}", e.g. "/books/{id}/reviews" for
+     * "/books/42/reviews?page=2". It groups the requests to the same endpoint.
+     *
+     * @return the URI template
+     */
+    public String getUriTemplate() {
+        if (uriTemplate == null) uriTemplate = toTemplate(uri);
+        return uriTemplate;
+    }
+
+    /**
+     * Returns the HTTP method of the request, e.g. "GET".
+     *
+     * @return the request method
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Returns the status code of the response or 0 if the request failed without a response.
+     *
+     * @return the response status code
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns the number of characters of the serialized payload, before compression, or -1 if it is unknown,
+     * e.g. for Blob bodies. A request without payload has size 0.
+     *
+     * @return the request size
+     */
+    public int getRequestSize() {
+        return requestSize;
+    }
+
+    /**
+     * Returns the Content-Length of the response or, if absent, the length of its text.
+     * It is -1 if it is unknown, e.g. for a failed request or a response parsed natively as JSON.
+     *
+     * @return the response size
+     */
+    public int getResponseSize() {
+        return responseSize;
+    }
+
+    public double getRequestFilterMillis() {
+        return requestFilterMillis;
+    }
+
+    public double getSerializationMillis() {
+        return serializationMillis;
+    }
+
+    public double getQueueingMillis() {
+        return queueingMillis;
+    }
+
+    public double getTimeToFirstByteMillis() {
+        return timeToFirstByteMillis;
+    }
+
+    public double getDownloadMillis() {
+        return downloadMillis;
+    }
+
+    public double getResponseFilterMillis() {
+        return responseFilterMillis;
+    }
+
+    public double getDeserializationMillis() {
+        return deserializationMillis;
+    }
+
+    /**
+     * Returns the time spent in the network, i.e., from the request being sent until the response is received.
+     *
+     * @return the network time
+     */
+    public double getNetworkMillis() {
+        return timeToFirstByteMillis + downloadMillis;
+    }
+
+    /**
+     * Returns the time spent in the client, i.e., in filters, serialization and deserialization.
+     *
+     * @return the client time
+     */
+    public double getClientMillis() {
+        return requestFilterMillis + serializationMillis + responseFilterMillis + deserializationMillis;
+    }
+
+    /**
+     * Returns the time from the dispatch until the request settled.
+     *
+     * @return the total time
+     */
+    public double getTotalMillis() {
+        return getClientMillis() + queueingMillis + getNetworkMillis();
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + getUriTemplate() + " " + status
+                + " [requestFilters=" + requestFilterMillis + ", serialization=" + serializationMillis
+                + ", queueing=" + queueingMillis + ", timeToFirstByte=" + timeToFirstByteMillis
+                + ", download=" + downloadMillis + ", responseFilters=" + responseFilterMillis
+                + ", deserialization=" + deserializationMillis + ", requestSize=" + requestSize
+                + ", responseSize=" + responseSize + "]";
+    }
+
+    static String toTemplate(String uri) {
+        int end = uri.length();
+        final int query = uri.indexOf('?');
+        if (query > -1) end = query;
+        final int fragment = uri.indexOf('#');
+        if (fragment > -1 && fragment < end) end = fragment;
+
+        final StringBuilder template = new StringBuilder(end);
+        int start = 0;
+        while (start <= end) {
+            int slash = uri.indexOf('/', start);
+            if (slash == -1 || slash > end) slash = end;
+            final String segment = uri.substring(start, slash);
+            template.append(segment.matches(ID_SEGMENT) ? "{id}" : segment);
+            if (slash < end) template.append('/');
+            start = slash + 1;
+        }
+        return template.toString();
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client;
+
+/**
+ * An extension interface implemented by listeners of the timings of the requests.
+ * The listeners are notified once each request settles, i.e., its promise is resolved or rejected, before the
+ * callbacks registered on the promise are called. Aborted requests are not reported.
+ *
+ * @author Danilo Reinert
+ */
+public interface RequestMetricsListener {
+
+    /**
+     * Called when a request has settled.
+     *
+     * @param metrics   The timings and sizes of the request.
+     */
+    void onRequestMetrics(RequestMetrics metrics);
+}
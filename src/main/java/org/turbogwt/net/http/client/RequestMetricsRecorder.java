@@ -0,0 +1,155 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.http.client.Response;
+import com.google.gwt.http.client.ResponseWithJson;
+
+import javax.annotation.Nullable;
+
+/**
+ * Marks the end of each phase of a request and reports its {@link RequestMetrics} to the listeners.
+ * A phase whose end was not marked was skipped, so it lasts 0 and its time is accounted in the next marked phase,
+ * e.g., the request filters of a request answered by a filter last until the response is received.
+ *
+ * @author Danilo Reinert
+ */
+class RequestMetricsRecorder {
+
+    private static final int DISPATCHED = 0;
+    private static final int FILTERED = 1;
+    private static final int SERIALIZED = 2;
+    private static final int SENT = 3;
+    private static final int FIRST_BYTE = 4;
+    private static final int RECEIVED = 5;
+    private static final int RESPONSE_FILTERED = 6;
+    private static final int DESERIALIZED = 7;
+
+    private final RequestMetricsListener[] listeners;
+    private final String uri;
+    private final String method;
+    private final double[] marks = new double[8];
+    private int status;
+    private int requestSize;
+    private int responseSize = -1;
+
+    RequestMetricsRecorder(RequestMetricsListener[] listeners, String uri, String method) {
+        this.listeners = listeners;
+        this.uri = uri;
+        this.method = method;
+    }
+
+    void markDispatched() {
+        mark(DISPATCHED);
+    }
+
+    void markFiltered() {
+        mark(FILTERED);
+    }
+
+    void setRequestBody(@Nullable Payload body) {
+        requestSize = body == null ? 0 : body.asString() == null ? -1 : body.asString().length();
+    }
+
+    void markSerialized() {
+        mark(SERIALIZED);
+    }
+
+    void markSent() {
+        mark(SENT);
+    }
+
+    void markProgress() {
+        if (marks[FIRST_BYTE] == 0) mark(FIRST_BYTE);
+    }
+
+    void markReceived(Response response) {
+        mark(RECEIVED);
+        status = response.getStatusCode();
+        responseSize = sizeOf(response);
+    }
+
+    void markFailed() {
+        mark(RECEIVED);
+    }
+
+    void markResponseFiltered() {
+        mark(RESPONSE_FILTERED);
+    }
+
+    void markDeserialized() {
+        mark(DESERIALIZED);
+    }
+
+    void report() {
+        // Connections which do not notify the sending have no queueing
+        if (marks[SENT] == 0) marks[SENT] = marks[SERIALIZED];
+
+        // The phases after the last marked one were not reached and the others unmarked were skipped
+        int last = marks.length - 1;
+        while (marks[last] == 0) last--;
+        for (int i = last + 1; i < marks.length; i++) {
+            marks[i] = marks[last];
+        }
+        for (int i = last - 1; i > DISPATCHED; i--) {
+            if (marks[i] == 0) marks[i] = marks[i + 1];
+        }
+
+        final RequestMetrics metrics = new RequestMetrics(uri, method, status, requestSize, responseSize,
+                marks[FILTERED] - marks[DISPATCHED], marks[SERIALIZED] - marks[FILTERED],
+                marks[SENT] - marks[SERIALIZED], marks[FIRST_BYTE] - marks[SENT], marks[RECEIVED] - marks[FIRST_BYTE],
+                marks[RESPONSE_FILTERED] - marks[RECEIVED], marks[DESERIALIZED] - marks[RESPONSE_FILTERED]);
+        for (RequestMetricsListener listener : listeners) {
+            // Listeners run before the callbacks of the request, which must not be broken by a faulty listener
+            try {
+                listener.onRequestMetrics(metrics);
+            } catch (RuntimeException e) {
+                reportListenerFailure(e);
+            }
+        }
+    }
+
+    private static void reportListenerFailure(RuntimeException e) {
+        final GWT.UncaughtExceptionHandler handler = GWT.getUncaughtExceptionHandler();
+        if (handler != null) {
+            handler.onUncaughtException(e);
+        } else {
+            GWT.log("A request metrics listener has failed.", e);
+        }
+    }
+
+    private void mark(int phase) {
+        marks[phase] = Duration.currentTimeMillis();
+    }
+
+    private static int sizeOf(Response response) {
+        final String contentLength = response.getHeader("Content-Length");
+        if (contentLength != null && !contentLength.isEmpty()) {
+            try {
+                return Integer.parseInt(contentLength.trim());
+            } catch (NumberFormatException e) {
+                // Falls back to the text length
+            }
+        }
+        // The text of a response parsed by the browser would have to be stringified
+        if (response instanceof ResponseWithJson && ((ResponseWithJson) response).getJson() != null) return -1;
+        final String text = response.getText();
+        return text == null ? -1 : text.length();
+    }
+}
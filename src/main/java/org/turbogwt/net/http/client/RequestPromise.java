@@ -24,4 +24,11 @@ import org.turbogwt.core.future.shared.Promise;
  * @param <T> The type of successful result
  */
 public interface RequestPromise<T> extends Promise<T, Throwable, RequestProgress> {
+
+    /**
+     * Aborts the request if it is still pending, cancelling its underlying XHR.
+     * The promise is then rejected with a {@link RequestAbortException}.
+     * It does nothing if the promise was already resolved or rejected.
+     */
+    void abort();
 }
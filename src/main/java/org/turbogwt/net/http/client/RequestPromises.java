@@ -0,0 +1,424 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.net.http.client;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.turbogwt.core.future.shared.DoneCallback;
+import org.turbogwt.core.future.shared.FailCallback;
+import org.turbogwt.core.future.shared.ProgressCallback;
+import org.turbogwt.core.future.shared.impl.DeferredObject;
+
+/**
+ * Combinators joining many {@link RequestPromise}s into one.
+ * <p/>
+ *
+ * The joined promise notifies the progress summed over all requests, and aborting it aborts every pending request.
+ * Requests whose results can no longer affect the joined promise are aborted as soon as it settles, releasing their
+ * connections:
+ * <ul>
+ *     <li>{@link #all} aborts the remaining requests when one fails;</li>
+ *     <li>{@link #any} aborts the remaining requests when one succeeds;</li>
+ *     <li>{@link #race} aborts the remaining requests when one settles;</li>
+ *     <li>{@link #allSettled} never aborts.</li>
+ * </ul>
+ *
+ * <pre>
+ * RequestPromises.all(requestor.request("/books/1").get(Book.class),
+ *                     requestor.request("/books/2").get(Book.class))
+ *         .done(new DoneCallback&lt;List&lt;Book&gt;&gt;() { ... });
+ * </pre>
+ *
+ * @author Danilo Reinert
+ */
+public final class RequestPromises {
+
+    private RequestPromises() {
+    }
+
+    /**
+     * Returns a promise resolved with the results of all the given promises, in the same order,
+     * or rejected with the first failure.
+     *
+     * @param promises the promises to join
+     * @param <T> the type of the results
+     *
+     * @return the joined promise
+     */
+    @SafeVarargs
+    public static <T> RequestPromise<List<T>> all(RequestPromise<? extends T>... promises) {
+        return all(Arrays.asList(promises));
+    }
+
+    /**
+     * Returns a promise resolved with the results of all the given promises, in the same order,
+     * or rejected with the first failure.
+     *
+     * @param promises the promises to join
+     * @param <T> the type of the results
+     *
+     * @return the joined promise
+     */
+    public static <T> RequestPromise<List<T>> all(List<? extends RequestPromise<? extends T>> promises) {
+        final JoinedPromise<List<T>> joined = new JoinedPromise<>(promises);
+        final List<T> results = nullList(promises.size());
+        final int[] remaining = {promises.size()};
+        if (remaining[0] == 0) joined.resolve(results);
+
+        for (int i = 0; i < promises.size(); i++) {
+            final int index = i;
+            RequestPromises.<T>cast(promises.get(i)).done(new DoneCallback<T>() {
+                @Override
+                public void onDone(T result) {
+                    if (!joined.isPending()) return;
+                    results.set(index, result);
+                    if (--remaining[0] == 0) joined.resolve(results);
+                }
+            }).fail(new FailCallback<Throwable>() {
+                @Override
+                public void onFail(Throwable error) {
+                    joined.settle(null, error);
+                }
+            });
+        }
+        return joined;
+    }
+
+    /**
+     * Returns a promise resolved, when all the given promises are either resolved or rejected,
+     * with the outcome of each one in the same order. It is never rejected.
+     *
+     * @param promises the promises to join
+     * @param <T> the type of the results
+     *
+     * @return the joined promise
+     */
+    @SafeVarargs
+    public static <T> RequestPromise<List<Settled<T>>> allSettled(RequestPromise<? extends T>... promises) {
+        return allSettled(Arrays.asList(promises));
+    }
+
+    /**
+     * Returns a promise resolved, when all the given promises are either resolved or rejected,
+     * with the outcome of each one in the same order. It is never rejected.
+     *
+     * @param promises the promises to join
+     * @param <T> the type of the results
+     *
+     * @return the joined promise
+     */
+    public static <T> RequestPromise<List<Settled<T>>> allSettled(
+            List<? extends RequestPromise<? extends T>> promises) {
+        final JoinedPromise<List<Settled<T>>> joined = new JoinedPromise<>(promises);
+        final List<Settled<T>> outcomes = nullList(promises.size());
+        final int[] remaining = {promises.size()};
+        if (remaining[0] == 0) joined.resolve(outcomes);
+
+        for (int i = 0; i < promises.size(); i++) {
+            final int index = i;
+            RequestPromises.<T>cast(promises.get(i)).done(new DoneCallback<T>() {
+                @Override
+                public void onDone(T result) {
+                    outcomes.set(index, new Settled<T>(true, result, null));
+                    if (joined.isPending() && --remaining[0] == 0) joined.resolve(outcomes);
+                }
+            }).fail(new FailCallback<Throwable>() {
+                @Override
+                public void onFail(Throwable error) {
+                    outcomes.set(index, new Settled<T>(false, null, error));
+                    if (joined.isPending() && --remaining[0] == 0) joined.resolve(outcomes);
+                }
+            });
+        }
+        return joined;
+    }
+
+    /**
+     * Returns a promise resolved with the result of the first given promise to be resolved, or rejected with an
+     * {@link AggregateRequestException} if all of them are rejected.
+     *
+     * @param promises the competing promises
+     * @param <T> the type of the results
+     *
+     * @return the joined promise
+     */
+    @SafeVarargs
+    public static <T> RequestPromise<T> any(RequestPromise<? extends T>... promises) {
+        return any(Arrays.asList(promises));
+    }
+
+    /**
+     * Returns a promise resolved with the result of the first given promise to be resolved, or rejected with an
+     * {@link AggregateRequestException} if all of them are rejected.
+     *
+     * @param promises the competing promises
+     * @param <T> the type of the results
+     *
+     * @return the joined promise
+     */
+    public static <T> RequestPromise<T> any(List<? extends RequestPromise<? extends T>> promises) {
+        final JoinedPromise<T> joined = new JoinedPromise<>(promises);
+        final List<Throwable> errors = nullList(promises.size());
+        final int[] remaining = {promises.size()};
+        if (remaining[0] == 0) joined.reject(new AggregateRequestException(errors));
+
+        for (int i = 0; i < promises.size(); i++) {
+            final int index = i;
+            RequestPromises.<T>cast(promises.get(i)).done(new DoneCallback<T>() {
+                @Override
+                public void onDone(T result) {
+                    joined.settle(result, null);
+                }
+            }).fail(new FailCallback<Throwable>() {
+                @Override
+                public void onFail(Throwable error) {
+                    if (!joined.isPending()) return;
+                    errors.set(index, error);
+                    if (--remaining[0] == 0) joined.reject(new AggregateRequestException(errors));
+                }
+            });
+        }
+        return joined;
+    }
+
+    /**
+     * Returns a promise settled like the first given promise to be either resolved or rejected.
+     *
+     * @param promises the competing promises
+     * @param <T> the type of the results
+     *
+     * @return the joined promise
+     */
+    @SafeVarargs
+    public static <T> RequestPromise<T> race(RequestPromise<? extends T>... promises) {
+        return race(Arrays.asList(promises));
+    }
+
+    /**
+     * Returns a promise settled like the first given promise to be either resolved or rejected.
+     *
+     * @param promises the competing promises
+     * @param <T> the type of the results
+     *
+     * @return the joined promise
+     */
+    public static <T> RequestPromise<T> race(List<? extends RequestPromise<? extends T>> promises) {
+        final JoinedPromise<T> joined = new JoinedPromise<>(promises);
+        for (RequestPromise<? extends T> promise : promises) {
+            RequestPromises.<T>cast(promise).done(new DoneCallback<T>() {
+                @Override
+                public void onDone(T result) {
+                    joined.settle(result, null);
+                }
+            }).fail(new FailCallback<Throwable>() {
+                @Override
+                public void onFail(Throwable error) {
+                    joined.settle(null, error);
+                }
+            });
+        }
+        return joined;
+    }
+
+    /**
+     * Returns a promise resolved with the result of the first given promise to be resolved, like {@link #any}, but
+     * rejected with the failure of the primary. The failure of the hedge is ignored while the primary is pending, so
+     * the hedge must be aborted if it is never sent.
+     *
+     * @param primary the original request
+     * @param hedge the duplicate of the request
+     * @param <T> the type of the results
+     *
+     * @return the joined promise
+     */
+    static <T> RequestPromise<T> hedged(final RequestPromise<T> primary, final RequestPromise<T> hedge) {
+        final JoinedPromise<T> joined = new JoinedPromise<>(Arrays.asList(primary, hedge));
+        final Throwable[] primaryError = new Throwable[1];
+        final DoneCallback<T> doneCallback = new DoneCallback<T>() {
+            @Override
+            public void onDone(T result) {
+                joined.settle(result, null);
+            }
+        };
+
+        primary.done(doneCallback).fail(new FailCallback<Throwable>() {
+            @Override
+            public void onFail(Throwable error) {
+                primaryError[0] = error;
+                if (!hedge.isPending()) joined.settle(null, error);
+            }
+        });
+        hedge.done(doneCallback).fail(new FailCallback<Throwable>() {
+            @Override
+            public void onFail(Throwable error) {
+                if (primaryError[0] != null) joined.settle(null, primaryError[0]);
+            }
+        });
+        return joined;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> RequestPromise<T> cast(RequestPromise<? extends T> promise) {
+        // Safe since the promise only produces Ts
+        return (RequestPromise<T>) promise;
+    }
+
+    private static <E> List<E> nullList(int size) {
+        return new ArrayList<>(Collections.<E>nCopies(size, null));
+    }
+
+    /**
+     * The outcome of a settled promise.
+     *
+     * @param <T> the type of the result
+     */
+    public static class Settled<T> {
+
+        private final boolean resolved;
+        private final T result;
+        private final Throwable error;
+
+        Settled(boolean resolved, T result, Throwable error) {
+            this.resolved = resolved;
+            this.result = result;
+            this.error = error;
+        }
+
+        /**
+         * Tells if the promise was resolved.
+         *
+         * @return {@code true} if resolved, {@code false} if rejected
+         */
+        public boolean isResolved() {
+            return resolved;
+        }
+
+        /**
+         * Returns the result of the resolved promise.
+         *
+         * @return the result or null if the promise was rejected
+         */
+        public T getResult() {
+            return result;
+        }
+
+        /**
+         * Returns the failure of the rejected promise.
+         *
+         * @return the failure or null if the promise was resolved
+         */
+        public Throwable getError() {
+            return error;
+        }
+    }
+
+    /**
+     * A promise joining many requests, summing their progress and aborting the pending ones once settled.
+     */
+    private static class JoinedPromise<T> extends DeferredObject<T, Throwable, RequestProgress>
+            implements RequestPromise<T> {
+
+        private final List<? extends RequestPromise<?>> promises;
+        private final RequestProgress[] progresses;
+
+        JoinedPromise(List<? extends RequestPromise<?>> promises) {
+            this.promises = promises;
+            this.progresses = new RequestProgress[promises.size()];
+            for (int i = 0; i < promises.size(); i++) {
+                final int index = i;
+                promises.get(i).progress(new ProgressCallback<RequestProgress>() {
+                    @Override
+                    public void onProgress(RequestProgress progress) {
+                        progresses[index] = progress;
+                        if (isPending()) JoinedPromise.this.notify(new SummedProgress(progresses));
+                    }
+                });
+            }
+        }
+
+        /**
+         * Settles this promise, if still pending, and aborts the remaining requests.
+         */
+        void settle(T result, Throwable error) {
+            if (!isPending()) return;
+            if (error == null) {
+                resolve(result);
+            } else {
+                reject(error);
+            }
+            abortPending();
+        }
+
+        @Override
+        public void abort() {
+            if (!isPending()) return;
+            reject(new RequestAbortException());
+            abortPending();
+        }
+
+        private void abortPending() {
+            for (RequestPromise<?> promise : promises) {
+                promise.abort();
+            }
+        }
+    }
+
+    /**
+     * The progress summed over many requests. The length is computable only if it is computable for all of them.
+     */
+    private static class SummedProgress implements RequestProgress {
+
+        private final boolean lengthComputable;
+        private final double loaded;
+        private final double total;
+
+        SummedProgress(RequestProgress[] progresses) {
+            boolean lengthComputable = true;
+            double loaded = 0;
+            double total = 0;
+            for (RequestProgress progress : progresses) {
+                if (progress == null) {
+                    lengthComputable = false;
+                    continue;
+                }
+                lengthComputable &= progress.isLengthComputable();
+                loaded += progress.loaded().doubleValue();
+                if (progress.isLengthComputable()) total += progress.total().doubleValue();
+            }
+            this.lengthComputable = lengthComputable;
+            this.loaded = loaded;
+            this.total = total;
+        }
+
+        @Override
+        public boolean isLengthComputable() {
+            return lengthComputable;
+        }
+
+        @Override
+        public Number loaded() {
+            return loaded;
+        }
+
+        @Override
+        public Number total() {
+            return total;
+        }
+    }
+}
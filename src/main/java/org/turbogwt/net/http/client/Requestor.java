@@ -18,6 +18,8 @@ package org.turbogwt.net.http.client;
 
 import java.util.Collection;
 
+import javax.annotation.Nullable;
+
 import org.turbogwt.core.util.shared.Factory;
 import org.turbogwt.core.util.shared.Registration;
 import org.turbogwt.net.serialization.client.Deserializer;
@@ -57,6 +59,32 @@ public interface Requestor {
 
     String getDefaultContentType();
 
+    /**
+     * Set the compression to be applied to the serialized bodies of the requests.
+     * <p/>
+     *
+     * It is disabled by default.
+     *
+     * @param requestCompression The request compression or null to disable it
+     */
+    void setRequestCompression(@Nullable RequestCompression requestCompression);
+
+    @Nullable
+    RequestCompression getRequestCompression();
+
+    /**
+     * Set the throttle coalescing the progress notifications of the requests.
+     * <p/>
+     *
+     * It is disabled by default, i.e., every progress event is notified.
+     *
+     * @param progressThrottle The progress throttle or null to disable it
+     */
+    void setProgressThrottle(@Nullable ProgressThrottle progressThrottle);
+
+    @Nullable
+    ProgressThrottle getProgressThrottle();
+
     <T> Deserializer<T> getDeserializer(Class<T> type, String contentType);
 
     <T> Serializer<T> getSerializer(Class<T> type, String contentType);
@@ -90,6 +118,37 @@ public interface Requestor {
      */
     Registration registerRequestFilter(RequestFilter requestFilter);
 
+    /**
+     * Register a request filter applied only to the requests whose path starts with the given prefix.
+     * The prefix is matched by whole path segments, e.g. "/books" matches "/books/1" but not "/bookstore".
+     *
+     * @param pathPrefix    The path prefix.
+     * @param requestFilter The request filter to be registered.
+     *
+     * @return  The {@link org.turbogwt.core.util.shared.Registration} object, capable of cancelling this registration.
+     */
+    Registration registerRequestFilter(String pathPrefix, RequestFilter requestFilter);
+
+    /**
+     * Register an async request filter, which may hold the request until its returned promise is resolved.
+     *
+     * @param asyncRequestFilter The async request filter to be registered.
+     *
+     * @return  The {@link org.turbogwt.core.util.shared.Registration} object, capable of cancelling this registration.
+     */
+    Registration registerAsyncRequestFilter(AsyncRequestFilter asyncRequestFilter);
+
+    /**
+     * Register an async request filter applied only to the requests whose path starts with the given prefix.
+     * The prefix is matched by whole path segments, e.g. "/books" matches "/books/1" but not "/bookstore".
+     *
+     * @param pathPrefix    The path prefix.
+     * @param asyncRequestFilter The async request filter to be registered.
+     *
+     * @return  The {@link org.turbogwt.core.util.shared.Registration} object, capable of cancelling this registration.
+     */
+    Registration registerAsyncRequestFilter(String pathPrefix, AsyncRequestFilter asyncRequestFilter);
+
     /**
      * Register a response filter.
      *
@@ -99,6 +158,48 @@ public interface Requestor {
      */
     Registration registerResponseFilter(ResponseFilter responseFilter);
 
+    /**
+     * Register a response filter applied only to the responses of requests whose path starts with the given prefix.
+     * The prefix is matched by whole path segments, e.g. "/books" matches "/books/1" but not "/bookstore".
+     *
+     * @param pathPrefix    The path prefix.
+     * @param responseFilter The response filter to be registered.
+     *
+     * @return  The {@link org.turbogwt.core.util.shared.Registration} object, capable of cancelling this registration.
+     */
+    Registration registerResponseFilter(String pathPrefix, ResponseFilter responseFilter);
+
+    /**
+     * Register a response transformer, applied to successful responses after the response filters and before
+     * deserialization.
+     *
+     * @param responseTransformer The response transformer to be registered.
+     *
+     * @return  The {@link org.turbogwt.core.util.shared.Registration} object, capable of cancelling this registration.
+     */
+    Registration registerResponseTransformer(ResponseTransformer responseTransformer);
+
+    /**
+     * Register a response transformer applied only to the responses of requests whose path starts with the given
+     * prefix. The prefix is matched by whole path segments, e.g. "/books" matches "/books/1" but not "/bookstore".
+     *
+     * @param pathPrefix            The path prefix.
+     * @param responseTransformer   The response transformer to be registered.
+     *
+     * @return  The {@link org.turbogwt.core.util.shared.Registration} object, capable of cancelling this registration.
+     */
+    Registration registerResponseTransformer(String pathPrefix, ResponseTransformer responseTransformer);
+
+    /**
+     * Register a listener notified of the timings and sizes of every request once it settles.
+     * When no listener is registered, the requests are not timed.
+     *
+     * @param listener  The request metrics listener to be registered.
+     *
+     * @return  The {@link org.turbogwt.core.util.shared.Registration} object, capable of cancelling this registration.
+     */
+    Registration registerRequestMetricsListener(RequestMetricsListener listener);
+
     /**
      * Register a serializer/deserializer of the given type.
      *
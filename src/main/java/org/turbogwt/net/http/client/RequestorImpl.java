@@ -21,8 +21,12 @@ import com.google.gwt.core.client.JavaScriptObject;
 
 import java.util.Collection;
 
+import javax.annotation.Nullable;
+
 import org.turbogwt.core.util.shared.Factory;
 import org.turbogwt.core.util.shared.Registration;
+import org.turbogwt.net.http.client.header.AcceptHeader;
+import org.turbogwt.net.http.client.header.ContentTypeHeader;
 import org.turbogwt.net.http.client.serialization.FormParamSerializer;
 import org.turbogwt.net.serialization.client.ContainerFactoryManager;
 import org.turbogwt.net.serialization.client.Deserializer;
@@ -35,6 +39,8 @@ import org.turbogwt.net.serialization.client.json.JsonStringSerdes;
 import org.turbogwt.net.serialization.client.json.OverlaySerdes;
 import org.turbogwt.net.serialization.client.misc.TextDeserializer;
 import org.turbogwt.net.serialization.client.misc.VoidSerdes;
+import org.turbogwt.net.serialization.client.msgpack.MsgPackObjectSerdes;
+import org.turbogwt.net.serialization.client.msgpack.MsgPackOverlaySerdes;
 
 /**
  * Default implementation for {@link Requestor}.
@@ -47,9 +53,14 @@ public class RequestorImpl implements Requestor {
     private final FilterManager filterManager = new FilterManager();
     private final ContainerFactoryManager collectionFactoryManager = new ContainerFactoryManager();
     private String defaultContentType = "application/json";
+    private AcceptHeader defaultAccept;
+    private Headers defaultHeaders;
+    private RequestCompression requestCompression;
+    private ProgressThrottle progressThrottle;
 
     public RequestorImpl() {
         initSerdesManager();
+        initDefaultHeaders();
     }
 
     //===================================================================
@@ -68,6 +79,7 @@ public class RequestorImpl implements Requestor {
     @Override
     public void setDefaultContentType(String contentType) {
         this.defaultContentType = contentType;
+        initDefaultHeaders();
     }
 
     @Override
@@ -75,6 +87,26 @@ public class RequestorImpl implements Requestor {
         return defaultContentType;
     }
 
+    @Override
+    public void setRequestCompression(@Nullable RequestCompression requestCompression) {
+        this.requestCompression = requestCompression;
+    }
+
+    @Override
+    public RequestCompression getRequestCompression() {
+        return requestCompression;
+    }
+
+    @Override
+    public void setProgressThrottle(@Nullable ProgressThrottle progressThrottle) {
+        this.progressThrottle = progressThrottle;
+    }
+
+    @Override
+    public ProgressThrottle getProgressThrottle() {
+        return progressThrottle;
+    }
+
     @Override
     public <T> Deserializer<T> getDeserializer(Class<T> type, String contentType) {
         return serdesManager.getDeserializer(type, contentType);
@@ -105,29 +137,76 @@ public class RequestorImpl implements Requestor {
         return filterManager.registerRequestFilter(requestFilter);
     }
 
+    @Override
+    public Registration registerRequestFilter(String pathPrefix, RequestFilter requestFilter) {
+        return filterManager.registerRequestFilter(pathPrefix, requestFilter);
+    }
+
+    @Override
+    public Registration registerAsyncRequestFilter(AsyncRequestFilter asyncRequestFilter) {
+        return filterManager.registerAsyncRequestFilter(asyncRequestFilter);
+    }
+
+    @Override
+    public Registration registerAsyncRequestFilter(String pathPrefix, AsyncRequestFilter asyncRequestFilter) {
+        return filterManager.registerAsyncRequestFilter(pathPrefix, asyncRequestFilter);
+    }
+
     @Override
     public Registration registerResponseFilter(ResponseFilter responseFilter) {
         return filterManager.registerResponseFilter(responseFilter);
     }
 
+    @Override
+    public Registration registerResponseFilter(String pathPrefix, ResponseFilter responseFilter) {
+        return filterManager.registerResponseFilter(pathPrefix, responseFilter);
+    }
+
+    @Override
+    public Registration registerResponseTransformer(ResponseTransformer responseTransformer) {
+        return filterManager.registerResponseTransformer(responseTransformer);
+    }
+
+    @Override
+    public Registration registerResponseTransformer(String pathPrefix, ResponseTransformer responseTransformer) {
+        return filterManager.registerResponseTransformer(pathPrefix, responseTransformer);
+    }
+
+    @Override
+    public Registration registerRequestMetricsListener(RequestMetricsListener listener) {
+        return filterManager.registerRequestMetricsListener(listener);
+    }
+
     @Override
     public <C extends Collection> Registration registerContainerFactoy(Class<C> collectionType, Factory<C> factory) {
         return collectionFactoryManager.registerFactory(collectionType, factory);
     }
 
     private RequestDispatcher createRequest(String uri) {
-        final RequestImpl request = new RequestImpl(uri, serdesManager, collectionFactoryManager, filterManager);
+        final RequestImpl request = new RequestImpl(uri, serdesManager, collectionFactoryManager, filterManager,
+                defaultHeaders);
         request.contentType(defaultContentType);
-        request.accept(defaultContentType);
+        request.accept(defaultAccept);
+        request.setRequestCompression(requestCompression);
+        request.setProgressThrottle(progressThrottle);
         return request;
     }
 
+    /**
+     * Precomputes the default headers, which are shared by all requests until they set their own headers.
+     */
+    private void initDefaultHeaders() {
+        defaultAccept = AcceptHeader.parse(defaultContentType);
+        defaultHeaders = new ImmutableHeaders(new ContentTypeHeader(defaultContentType), defaultAccept);
+    }
+
     private void initSerdesManager() {
         serdesManager.registerSerdes(String.class, JsonStringSerdes.getInstance());
         serdesManager.registerSerdes(Number.class, JsonNumberSerdes.getInstance());
         serdesManager.registerSerdes(Boolean.class, JsonBooleanSerdes.getInstance());
         serdesManager.registerSerdes(Void.class, VoidSerdes.getInstance());
         serdesManager.registerSerdes(JavaScriptObject.class, OverlaySerdes.getInstance());
+        serdesManager.registerSerdes(JavaScriptObject.class, MsgPackOverlaySerdes.getInstance());
         serdesManager.registerDeserializer(String.class, TextDeserializer.getInstance());
         serdesManager.registerSerializer(FormParam.class, FormParamSerializer.getInstance());
 
@@ -135,6 +214,7 @@ public class RequestorImpl implements Requestor {
         for (Serdes<?> serdes : generatedJsonSerdes) {
             final Class handledType = serdes.handledType();
             serdesManager.registerSerdes(handledType, serdes);
+            serdesManager.registerSerdes(handledType, new MsgPackObjectSerdes(serdes));
         }
     }
 }
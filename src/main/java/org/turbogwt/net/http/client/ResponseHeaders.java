@@ -0,0 +1,107 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client;
+
+import com.google.gwt.http.client.Header;
+import com.google.gwt.http.client.Response;
+
+import java.util.Iterator;
+
+import org.turbogwt.core.collections.client.JsArrayList;
+import org.turbogwt.core.collections.client.JsMapInteger;
+import org.turbogwt.net.http.client.header.SimpleHeader;
+
+/**
+ * Read-only view of the headers of a response.
+ * <p/>
+ *
+ * Single lookups are delegated to {@link Response#getHeader(String)}, so the raw headers are not parsed when only a
+ * few of them are read, e.g. the Content-Type. A case-insensitive index is built on the first iteration and then
+ * cached.
+ *
+ * @author Danilo Reinert
+ */
+class ResponseHeaders extends Headers {
+
+    private final Response response;
+    private JsArrayList<Header> headers;
+    private JsMapInteger indexes;
+
+    ResponseHeaders(Response response) {
+        super(null, null);
+        this.response = response;
+    }
+
+    @Override
+    public boolean contains(String header) {
+        return getValue(header) != null;
+    }
+
+    @Override
+    public String getValue(String name) {
+        if (indexes != null) {
+            final int i = indexes.get(name.toLowerCase(), -1);
+            return i > -1 ? headers.get(i).getValue() : null;
+        }
+        return response.getHeader(name);
+    }
+
+    @Override
+    public Header get(String name) {
+        if (indexes != null) {
+            final int i = indexes.get(name.toLowerCase(), -1);
+            return i > -1 ? headers.get(i) : null;
+        }
+        final String value = response.getHeader(name);
+        return value != null ? new SimpleHeader(name, value) : null;
+    }
+
+    @Override
+    public Iterator<Header> iterator() {
+        ensureIndexes();
+        return headers.iterator();
+    }
+
+    @Override
+    protected boolean add(Header header) {
+        throw new UnsupportedOperationException("Response headers cannot be modified.");
+    }
+
+    @Override
+    protected boolean remove(String name) {
+        throw new UnsupportedOperationException("Response headers cannot be modified.");
+    }
+
+    private void ensureIndexes() {
+        if (indexes != null) return;
+
+        final Header[] rawHeaders = response.getHeaders();
+        headers = new JsArrayList<>();
+        indexes = JsMapInteger.create();
+        for (Header header : rawHeaders) {
+            if (header == null) continue;
+            final String key = header.getName().toLowerCase();
+            final int i = indexes.get(key, -1);
+            if (i > -1) {
+                headers.set(i, header);
+            } else {
+                indexes.set(key, headers.size());
+                headers.add(header);
+            }
+        }
+    }
+}
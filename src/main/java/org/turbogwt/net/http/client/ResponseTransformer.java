@@ -0,0 +1,40 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.net.http.client;
+
+import com.google.gwt.http.client.Response;
+
+/**
+ * An extension interface implemented by response transformers.
+ * <p/>
+ *
+ * Response transformers run after the response filters and before deserialization, only for successful responses.
+ * They may return another response, e.g. a {@link TransformedResponse}, replacing the body text or headers that the
+ * deserializer sees, unwrapping an envelope or even providing the already deserialized result.
+ *
+ * @author Danilo Reinert
+ */
+public interface ResponseTransformer {
+
+    /**
+     * Transforms a successful response before it is deserialized.
+     *
+     * @param response  The received response.
+     *
+     * @return The response to be deserialized, which may be the same received response.
+     */
+    Response transform(Response response);
+}
@@ -24,15 +24,33 @@ import javax.annotation.Nullable;
 
 /**
  * Represents a connection with server-side.
+ * <p/>
+ *
+ * Requests are sent through {@link #sendRequest(ConnectionRequest, RequestCallback)}. Implementations should extend
+ * {@link AbstractServerConnection}, which maps the deprecated overloads to it.
  *
  * @author Danilo Reinert
  */
 public interface ServerConnection {
 
+    /**
+     * @deprecated Use {@link #sendRequest(ConnectionRequest, RequestCallback)} instead.
+     */
+    @Deprecated
     void sendRequest(RequestBuilder.Method method, String url, String data, RequestCallback callback)
             throws RequestException;
 
+    /**
+     * @deprecated Use {@link #sendRequest(ConnectionRequest, RequestCallback)} instead.
+     */
+    @Deprecated
     void sendRequest(int timeout, @Nullable String user, @Nullable String password, @Nullable Headers headers,
                      RequestBuilder.Method method, String url, String data, RequestCallback callback)
             throws RequestException;
+
+    /**
+     * Sends the request with every option it carries. New options are added to {@link ConnectionRequest}, so
+     * implementations are not broken by them.
+     */
+    void sendRequest(ConnectionRequest request, RequestCallback callback) throws RequestException;
 }
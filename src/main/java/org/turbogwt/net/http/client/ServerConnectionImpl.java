@@ -21,35 +21,51 @@ import com.google.gwt.http.client.RequestBuilder;
 import com.google.gwt.http.client.RequestCallback;
 import com.google.gwt.http.client.RequestException;
 
-import javax.annotation.Nullable;
+import org.turbogwt.net.serialization.client.msgpack.MsgPackSerdes;
 
 /**
  * Default implementation for {@link ServerConnection}.
  *
  * @author Danilo Reinert
  */
-public class ServerConnectionImpl implements ServerConnection {
+public class ServerConnectionImpl extends AbstractServerConnection {
 
     @Override
-    public void sendRequest(RequestBuilder.Method method, String url, String data, RequestCallback callback)
-            throws RequestException {
-        new RequestBuilder(method, url).sendRequest(data, callback);
-    }
+    public void sendRequest(ConnectionRequest request, RequestCallback callback) throws RequestException {
+        final String user = request.getUser();
+        final String password = request.getPassword();
+        final Headers headers = request.getHeaders();
+        final Payload payload = request.getPayload();
 
-    @Override
-    public void sendRequest(int timeout, @Nullable String user, @Nullable String password, @Nullable Headers headers,
-                            RequestBuilder.Method method, String url, String data, RequestCallback callback)
-            throws RequestException {
-        final RequestBuilder requestBuilder = new RequestBuilder(method, url);
-        if (timeout > 0) requestBuilder.setTimeoutMillis(timeout);
+        final RequestBuilder requestBuilder = new RequestBuilder(request.getMethod(), request.getUrl());
+        if (request.getTimeout() > 0) requestBuilder.setTimeoutMillis(request.getTimeout());
+        if (request.getHeadersTimeout() > 0) requestBuilder.setHeadersTimeoutMillis(request.getHeadersTimeout());
+        if (request.getIdleTimeout() > 0) requestBuilder.setIdleTimeoutMillis(request.getIdleTimeout());
         if (user != null) requestBuilder.setUser(user);
         if (password != null) requestBuilder.setPassword(password);
         if (user != null && password != null) requestBuilder.setIncludeCredentials(true);
         if (headers != null) {
-            for (Header header : headers) {
-                requestBuilder.setHeader(header.getName(), header.getValue());
+            if (payload != null && payload.isFormData()) {
+                for (Header header : headers) {
+                    // The browser must set the Content-Type of FormData bodies in order to include the boundary
+                    if (header.getName().equalsIgnoreCase("Content-Type")) continue;
+                    requestBuilder.setHeader(header.getName(), header.getValue());
+                }
+            } else {
+                // Headers are set straight onto the XHR at send time, without intermediate copies
+                requestBuilder.setHeaders(headers);
             }
+            // MessagePack contents are exchanged as binary strings
+            if (MsgPackSerdes.isMsgPack(headers.getValue("Content-Type")))
+                requestBuilder.setBinaryRequestData(true);
+        }
+        // The response is read as a binary string only if its Content-Type is MessagePack, whatever was accepted
+        requestBuilder.setBinaryContentTypes(MsgPackSerdes.CONTENT_TYPE_PATTERNS);
+        if (request.getResponseType() != null) requestBuilder.setResponseType(request.getResponseType());
+        if (payload != null && payload.asJavaScriptObject() != null) {
+            requestBuilder.sendRequest(payload.asJavaScriptObject(), callback);
+        } else {
+            requestBuilder.sendRequest(payload == null ? null : payload.asString(), callback);
         }
-        requestBuilder.sendRequest(data, callback);
     }
 }
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client;
+
+import org.turbogwt.core.future.shared.Deferred;
+import org.turbogwt.core.future.shared.DoneCallback;
+import org.turbogwt.core.future.shared.FailCallback;
+import org.turbogwt.core.future.shared.Promise;
+import org.turbogwt.core.future.shared.impl.DeferredObject;
+
+/**
+ * Ensures only one execution of an asynchronous call is in flight at a time.
+ * <p/>
+ *
+ * While a call is pending, every other caller receives the promise of that same call instead of starting a new one.
+ * Once it is resolved or rejected, the next caller starts a new call.
+ * <p/>
+ *
+ * E.g., an access token refreshed only once it is expired, even if many requests find it expired at once:
+ * <pre>
+ * final SingleFlight&lt;Token&gt; tokenRefresh = new SingleFlight&lt;&gt;();
+ *
+ * requestor.registerAsyncRequestFilter(new AsyncRequestFilter() {
+ *     public Promise&lt;?, Throwable, ?&gt; filter(final Request request) {
+ *         if (!token.isExpired()) {
+ *             request.header("Authorization", "Bearer " + token.getValue());
+ *             return new DeferredObject&lt;Token, Throwable, Void&gt;().resolve(token);
+ *         }
+ *         return tokenRefresh.call(refreshCall).done(new DoneCallback&lt;Token&gt;() {
+ *             public void onDone(Token refreshed) {
+ *                 token = refreshed;
+ *                 request.header("Authorization", "Bearer " + refreshed.getValue());
+ *             }
+ *         });
+ *     }
+ * });
+ * </pre>
+ *
+ * @param <T> Type of the call result
+ *
+ * @author Danilo Reinert
+ */
+public class SingleFlight<T> {
+
+    /**
+     * An asynchronous call.
+     *
+     * @param <T> Type of the call result
+     */
+    public interface Call<T> {
+
+        /**
+         * Starts the call.
+         *
+         * @return The promise of the call result
+         */
+        Promise<T, Throwable, ?> start();
+    }
+
+    private Deferred<T, Throwable, Void> inFlight;
+
+    /**
+     * Starts the call unless another one is pending, in which case the promise of the pending call is returned.
+     *
+     * @param call The call to start
+     *
+     * @return The promise of the call in flight
+     */
+    public Promise<T, Throwable, Void> call(Call<T> call) {
+        if (inFlight != null) return inFlight.promise();
+
+        final Deferred<T, Throwable, Void> deferred = new DeferredObject<>();
+        inFlight = deferred;
+
+        final Promise<T, Throwable, ?> promise;
+        try {
+            promise = call.start();
+        } catch (RuntimeException e) {
+            inFlight = null;
+            deferred.reject(e);
+            return deferred.promise();
+        }
+
+        promise.done(new DoneCallback<T>() {
+            @Override
+            public void onDone(T result) {
+                inFlight = null;
+                deferred.resolve(result);
+            }
+        }).fail(new FailCallback<Throwable>() {
+            @Override
+            public void onFail(Throwable reason) {
+                inFlight = null;
+                deferred.reject(reason);
+            }
+        });
+
+        return deferred.promise();
+    }
+
+    /**
+     * Checks if there is a call in flight.
+     *
+     * @return {@code true} if a call is pending, {@code false} otherwise
+     */
+    public boolean isInFlight() {
+        return inFlight != null;
+    }
+}
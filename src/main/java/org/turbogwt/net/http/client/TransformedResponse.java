@@ -0,0 +1,213 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.turbogwt.net.http.client;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.http.client.Header;
+import com.google.gwt.http.client.Response;
+import com.google.gwt.http.client.ResponseWithJson;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A response derived from another, with some of its parts replaced by a {@link ResponseTransformer}.
+ * <p/>
+ *
+ * Besides the text and headers, the parsed JSON and the deserialized result can be replaced:
+ * <ul>
+ *     <li>when the JSON is set, deserializers capable of reading evaluated JSON use it directly, and the text is only
+ *     produced (by stringifying the JSON) if some other deserializer asks for it;</li>
+ *     <li>when the result is set, no deserialization happens at all and the result is handed to the caller as is.</li>
+ * </ul>
+ *
+ * <pre>
+ * requestor.registerResponseTransformer(new ResponseTransformer() {
+ *     public Response transform(Response response) {
+ *         return new TransformedResponse(response).header("Content-Type", "application/json");
+ *     }
+ * });
+ * </pre>
+ *
+ * @author Danilo Reinert
+ */
+public class TransformedResponse extends Response implements ResponseWithJson {
+
+    private final Response delegate;
+    private final List<Header> headers = new ArrayList<>();
+    private String text;
+    private JavaScriptObject json;
+    private Object result;
+
+    public TransformedResponse(Response delegate) {
+        if (delegate == null) throw new NullPointerException("Response cannot be null.");
+        this.delegate = delegate;
+    }
+
+    /**
+     * Replaces the response text. It also discards any parsed JSON of the original response.
+     *
+     * @param text The new response text
+     *
+     * @return This response
+     */
+    public TransformedResponse text(String text) {
+        this.text = text;
+        this.json = null;
+        return this;
+    }
+
+    /**
+     * Replaces the content by an already parsed JSON.
+     *
+     * @param json The JSON object or array
+     *
+     * @return This response
+     */
+    public TransformedResponse json(JavaScriptObject json) {
+        this.json = json;
+        this.text = null;
+        return this;
+    }
+
+    /**
+     * Sets the result of the request, skipping the deserialization.
+     * The object must be of the type requested, or a collection of it when a collection was requested.
+     *
+     * @param result The deserialized result
+     *
+     * @return This response
+     */
+    public TransformedResponse result(Object result) {
+        this.result = result;
+        return this;
+    }
+
+    /**
+     * Sets a header, replacing the original one with the same name.
+     *
+     * @param name  The header name
+     * @param value The header value
+     *
+     * @return This response
+     */
+    public TransformedResponse header(final String name, final String value) {
+        removeHeader(name);
+        headers.add(new Header() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getValue() {
+                return value;
+            }
+
+            @Override
+            public String toString() {
+                return name + ": " + value;
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Returns the result set by {@link #result(Object)}, if any.
+     *
+     * @return The deserialized result or null
+     */
+    public Object getResult() {
+        return result;
+    }
+
+    @Override
+    public String getHeader(String header) {
+        if (header == null) throw new NullPointerException("Header param cannot be null.");
+        if (header.isEmpty()) throw new IllegalArgumentException("Header param cannot be empty.");
+        for (Header h : headers) {
+            if (h.getName().equalsIgnoreCase(header)) return h.getValue();
+        }
+        return delegate.getHeader(header);
+    }
+
+    @Override
+    public Header[] getHeaders() {
+        if (headers.isEmpty()) return delegate.getHeaders();
+
+        final List<Header> merged = new ArrayList<>(headers);
+        for (Header h : delegate.getHeaders()) {
+            if (indexOf(h.getName()) == -1) merged.add(h);
+        }
+        return merged.toArray(new Header[merged.size()]);
+    }
+
+    @Override
+    public String getHeadersAsString() {
+        if (headers.isEmpty()) return delegate.getHeadersAsString();
+
+        final StringBuilder sb = new StringBuilder();
+        for (Header h : getHeaders()) {
+            sb.append(h.getName()).append(": ").append(h.getValue()).append("\r\n");
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public int getStatusCode() {
+        return delegate.getStatusCode();
+    }
+
+    @Override
+    public String getStatusText() {
+        return delegate.getStatusText();
+    }
+
+    @Override
+    public String getText() {
+        if (text == null) {
+            if (json != null) {
+                // Stringify only when some deserializer needs the text
+                text = stringify(json);
+            } else {
+                return delegate.getText();
+            }
+        }
+        return text;
+    }
+
+    @Override
+    public JavaScriptObject getJson() {
+        if (json != null || text != null) return json;
+        return delegate instanceof ResponseWithJson ? ((ResponseWithJson) delegate).getJson() : null;
+    }
+
+    private int indexOf(String name) {
+        for (int i = 0; i < headers.size(); i++) {
+            if (headers.get(i).getName().equalsIgnoreCase(name)) return i;
+        }
+        return -1;
+    }
+
+    private void removeHeader(String name) {
+        final int i = indexOf(name);
+        if (i > -1) headers.remove(i);
+    }
+
+    private static native String stringify(JavaScriptObject json) /*-{
+        return JSON.stringify(json);
+    }-*/;
+}
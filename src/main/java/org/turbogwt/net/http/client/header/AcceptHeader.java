@@ -16,6 +16,12 @@
 
 package org.turbogwt.net.http.client.header;
 
+import com.google.gwt.core.client.GWT;
+
+import java.util.Map;
+
+import org.turbogwt.core.collections.client.LightMap;
+
 /**
  * The HTTP Accept Header.
  *
@@ -23,6 +29,8 @@ package org.turbogwt.net.http.client.header;
  */
 public class AcceptHeader extends QualityFactorHeader {
 
+    private static final Map<String, AcceptHeader> CACHE = GWT.create(LightMap.class);
+
     public AcceptHeader(Value... values) {
         super("Accept", values);
     }
@@ -30,4 +38,24 @@ public class AcceptHeader extends QualityFactorHeader {
     public AcceptHeader(String... values) {
         super("Accept", values);
     }
+
+    /**
+     * Parses a raw Accept value like <code>"application/json, text/plain;q=0.5"</code>.
+     * Parsed headers are cached by the raw value. Malformed quality factors are tolerated.
+     *
+     * @param rawValue The raw value of the header
+     *
+     * @return The parsed header
+     *
+     * @see QualityFactorHeader#parse(String, String)
+     */
+    public static AcceptHeader parse(String rawValue) {
+        AcceptHeader header = CACHE.get(rawValue);
+        if (header == null) {
+            header = new AcceptHeader(parseValues(rawValue));
+            header.setRawValue(rawValue);
+            cache(CACHE, rawValue, header);
+        }
+        return header;
+    }
 }
@@ -16,10 +16,18 @@
 
 package org.turbogwt.net.http.client.header;
 
+import com.google.gwt.core.client.GWT;
+
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.turbogwt.core.collections.client.JsArrayIterator;
+import org.turbogwt.core.collections.client.LightMap;
 
 /**
  * HTTP Header with relative quality factors.
@@ -28,7 +36,11 @@ import org.turbogwt.core.collections.client.JsArrayIterator;
  */
 public class QualityFactorHeader extends MultivaluedHeader implements Iterable<QualityFactorHeader.Value> {
 
+    private static final int CACHE_LIMIT = 64;
+    private static final Map<String, QualityFactorHeader> CACHE = GWT.create(LightMap.class);
+
     private final Value[] values;
+    private String rawValue;
 
     public QualityFactorHeader(String name, Value... values) {
         super(name, (Object[]) values);
@@ -42,11 +54,73 @@ public class QualityFactorHeader extends MultivaluedHeader implements Iterable<Q
             String value = values[i];
             this.values[i] = new Value(value);
         }
-        Arrays.sort(values);
+        Arrays.sort(this.values);
+    }
+
+    /**
+     * Parses a raw header value like <code>"text/html;level=1, application/json;q=0.8"</code>.
+     * <p/>
+     *
+     * The values are sorted by descending quality factor, keeping the given order among equal factors.
+     * The header value is kept as it was given. Parsed headers are cached by name and raw value,
+     * so the same header is not parsed repeatedly.
+     * <p/>
+     *
+     * Malformed values are tolerated, as servers tolerate them: a quality factor which is not a number is ignored
+     * and one out of the range [0, 1] is clamped to it.
+     *
+     * @param name      The name of the header
+     * @param rawValue  The raw value of the header
+     *
+     * @return The parsed header
+     */
+    public static QualityFactorHeader parse(String name, String rawValue) {
+        final String key = name + ':' + rawValue;
+        QualityFactorHeader header = CACHE.get(key);
+        if (header == null) {
+            header = new QualityFactorHeader(name, parseValues(rawValue));
+            header.setRawValue(rawValue);
+            cache(CACHE, key, header);
+        }
+        return header;
+    }
+
+    /**
+     * Parses a raw header value into values sorted by descending quality factor.
+     * Malformed quality factors are tolerated as in {@link #parse(String, String)}.
+     *
+     * @param rawValue  The raw value of the header
+     *
+     * @return The sorted values
+     */
+    public static Value[] parseValues(String rawValue) {
+        final List<Value> values = new ArrayList<>();
+        final int length = rawValue.length();
+        int start = 0;
+        while (start < length) {
+            final int end = indexOfUnquoted(rawValue, ',', start, length);
+            final Value value = parseValue(rawValue, start, end);
+            if (value != null) values.add(value);
+            start = end + 1;
+        }
+        final Value[] sorted = values.toArray(new Value[values.size()]);
+        Arrays.sort(sorted);
+        return sorted;
     }
 
+    @Override
+    public String getValue() {
+        return rawValue != null ? rawValue : super.getValue();
+    }
+
+    /**
+     * Returns the values sorted by quality factor.
+     * Parsed headers are cached and shared among requests, so the array is a copy.
+     *
+     * @return a copy of the values
+     */
     public Value[] getQualityFactorValues() {
-        return values;
+        return Arrays.copyOf(values, values.length);
     }
 
     @Override
@@ -54,6 +128,71 @@ public class QualityFactorHeader extends MultivaluedHeader implements Iterable<Q
         return new JsArrayIterator<>(values);
     }
 
+    /**
+     * Puts the header in a bounded cache, clearing it when full.
+     */
+    static <H extends QualityFactorHeader> H cache(Map<String, H> cache, String key, H header) {
+        if (cache.size() >= CACHE_LIMIT) cache.clear();
+        cache.put(key, header);
+        return header;
+    }
+
+    /**
+     * Marks the header as parsed from the given raw value, which becomes its value.
+     */
+    void setRawValue(String rawValue) {
+        this.rawValue = rawValue;
+    }
+
+    private static Value parseValue(String raw, int start, int end) {
+        int paramStart = indexOfUnquoted(raw, ';', start, end);
+        final String token = raw.substring(start, paramStart).trim();
+        if (token.isEmpty()) return null;
+
+        double factor = 1;
+        Map<String, String> params = null;
+        while (paramStart < end) {
+            final int paramEnd = indexOfUnquoted(raw, ';', paramStart + 1, end);
+            final String param = raw.substring(paramStart + 1, paramEnd);
+            final int eq = param.indexOf('=');
+            final String key = (eq > -1 ? param.substring(0, eq) : param).trim();
+            final String value = eq > -1 ? unquote(param.substring(eq + 1).trim()) : "";
+            if (key.equalsIgnoreCase("q")) {
+                try {
+                    factor = Math.min(1, Math.max(0, Double.parseDouble(value)));
+                } catch (NumberFormatException e) {
+                    // Ignores the malformed factor, keeping the default one
+                }
+            } else if (!key.isEmpty()) {
+                if (params == null) params = new LinkedHashMap<>();
+                params.put(key, value);
+            }
+            paramStart = paramEnd;
+        }
+        return new Value(factor, token, params);
+    }
+
+    private static int indexOfUnquoted(String s, char c, int from, int to) {
+        boolean quoted = false;
+        for (int i = from; i < to; i++) {
+            final char ch = s.charAt(i);
+            if (ch == '"') {
+                quoted = !quoted;
+            } else if (ch == '\\' && quoted) {
+                i++;
+            } else if (ch == c && !quoted) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    private static String unquote(String value) {
+        if (value.length() > 1 && value.charAt(0) == '"' && value.charAt(value.length() - 1) == '"')
+            return value.substring(1, value.length() - 1);
+        return value;
+    }
+
     /**
      * Represents a HTTP Header value with relative quality factor associated.
      */
@@ -61,18 +200,25 @@ public class QualityFactorHeader extends MultivaluedHeader implements Iterable<Q
 
         private final double factor;
         private final String value;
+        private final Map<String, String> params;
 
         public Value(String value) {
             this(1, value);
         }
 
         public Value(double factor, String value) throws IllegalArgumentException {
+            this(factor, value, null);
+        }
+
+        public Value(double factor, String value, Map<String, String> params) throws IllegalArgumentException {
             if (factor > 1.0 || factor < 0.0)
                 throw new IllegalArgumentException("Factor must be between 0 and 1.");
             if (value == null || value.isEmpty())
                 throw new IllegalArgumentException("Value cannot be empty or null.");
             this.factor = factor;
             this.value = value;
+            this.params = params == null || params.isEmpty() ? Collections.<String, String>emptyMap()
+                    : Collections.unmodifiableMap(params);
         }
 
         public double getFactor() {
@@ -83,11 +229,32 @@ public class QualityFactorHeader extends MultivaluedHeader implements Iterable<Q
             return value;
         }
 
+        /**
+         * Returns the parameters of the value other than the quality factor, e.g. <code>level=1</code>
+         * in <code>text/html;level=1</code>.
+         *
+         * @return the unmodifiable parameters in the order they were declared
+         */
+        public Map<String, String> getParameters() {
+            return params;
+        }
+
+        public String getParameter(String name) {
+            return params.get(name);
+        }
+
         public String toString() {
-            if (factor == 1) {
-                return value;
+            if (params.isEmpty()) {
+                return factor == 1 ? value : value + "; " + factor;
+            }
+            final StringBuilder result = new StringBuilder(value);
+            for (Map.Entry<String, String> param : params.entrySet()) {
+                result.append(';').append(param.getKey()).append('=').append(param.getValue());
+            }
+            if (factor != 1) {
+                result.append("; ").append(factor);
             }
-            return value + "; " + factor;
+            return result.toString();
         }
 
         @Override
@@ -112,6 +279,9 @@ public class QualityFactorHeader extends MultivaluedHeader implements Iterable<Q
             if (!value.equals(value1.value)) {
                 return false;
             }
+            if (!params.equals(value1.params)) {
+                return false;
+            }
 
             return true;
         }
@@ -123,6 +293,7 @@ public class QualityFactorHeader extends MultivaluedHeader implements Iterable<Q
             temp = Double.doubleToLongBits(factor);
             result = (int) (temp ^ (temp >>> 32));
             result = 31 * result + value.hashCode();
+            result = 31 * result + params.hashCode();
             return result;
         }
     }
@@ -53,7 +53,9 @@ public class FormParamSerializer implements Serializer<FormParam> {
 
     @Override
     public String serialize(FormParam formParam, SerializationContext context) {
-        return multivaluedParamComposition.asUriPart("&", formParam.getName(), formParam.getValues());
+        final StringBuilder out = new StringBuilder();
+        multivaluedParamComposition.appendUriPart(out, "&", formParam.getName(), formParam.getValues());
+        return out.toString();
     }
 
     @Override
@@ -63,13 +65,13 @@ public class FormParamSerializer implements Serializer<FormParam> {
             FormData data = (FormData) c;
             if (data.getMultivaluedParamComposition() != null) strategy = data.getMultivaluedParamComposition();
         }
-        String serialized = "";
-        String sep = "";
+        // All params are appended to the same builder, so serialization is linear in the size of the form
+        final StringBuilder serialized = new StringBuilder();
         for (FormParam formParam : c) {
-            serialized += sep + strategy.asUriPart("&", formParam.getName(), formParam.getValues());
-            sep = "&";
+            if (serialized.length() > 0) serialized.append('&');
+            strategy.appendUriPart(serialized, "&", formParam.getName(), formParam.getValues());
         }
-        return serialized;
+        return serialized.toString();
     }
 
     public MultivaluedParamComposition getMultivaluedParamComposition() {
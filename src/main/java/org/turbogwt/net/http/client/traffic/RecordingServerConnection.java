@@ -0,0 +1,183 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client.traffic;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.http.client.Header;
+import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.RequestCallbackWithProgress;
+import com.google.gwt.http.client.RequestException;
+import com.google.gwt.http.client.RequestProgress;
+import com.google.gwt.http.client.RequestSentCallback;
+import com.google.gwt.http.client.Response;
+
+import org.turbogwt.net.http.client.AbstractServerConnection;
+import org.turbogwt.net.http.client.ConnectionRequest;
+import org.turbogwt.net.http.client.Headers;
+import org.turbogwt.net.http.client.Payload;
+import org.turbogwt.net.http.client.ServerConnection;
+import org.turbogwt.net.http.client.ServerConnectionImpl;
+
+/**
+ * A {@link ServerConnection} recording every request and response, with their timings, to a {@link TrafficLog}.
+ * <p/>
+ *
+ * Enable it by inheriting the module <code>org.turbogwt.net.http.HttpRecord</code>, then save the log's HAR contents
+ * (see {@link #getTrafficLog()}) to replay them later with {@link ReplayServerConnection}.
+ * <p/>
+ *
+ * The waiting time is measured until the first progress event of the response, or until the response itself if no
+ * progress was notified. Binary request bodies are not recorded.
+ * <p/>
+ *
+ * Since the log may be saved to a file, the values of credential headers (Authorization, Proxy-Authorization, Cookie
+ * and Set-Cookie) are redacted unless {@link #setCredentialsRecorded(boolean)} is enabled. The log keeps only the
+ * latest {@value #DEFAULT_MAX_ENTRIES} entries by default; see {@link #setMaxEntries(int)}.
+ *
+ * @author Danilo Reinert
+ */
+public class RecordingServerConnection extends AbstractServerConnection {
+
+    /**
+     * The default number of entries kept by the log.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    static final String REDACTED = "[REDACTED]";
+
+    private static final TrafficLog TRAFFIC_LOG = TrafficLog.create();
+    private static int maxEntries = DEFAULT_MAX_ENTRIES;
+    private static boolean credentialsRecorded;
+
+    private final ServerConnection delegate;
+
+    public RecordingServerConnection() {
+        this(new ServerConnectionImpl());
+    }
+
+    public RecordingServerConnection(ServerConnection delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Returns the log shared by all recording connections.
+     *
+     * @return the traffic log
+     */
+    public static TrafficLog getTrafficLog() {
+        return TRAFFIC_LOG;
+    }
+
+    /**
+     * Sets the number of entries kept by the log. Once it is reached, the oldest entries are dropped.
+     *
+     * @param maxEntries the maximum number of entries
+     */
+    public static void setMaxEntries(int maxEntries) {
+        if (maxEntries < 1) throw new IllegalArgumentException("The log must keep at least one entry.");
+        RecordingServerConnection.maxEntries = maxEntries;
+        TRAFFIC_LOG.trim(maxEntries);
+    }
+
+    /**
+     * Sets whether the values of credential headers are recorded as they are. They are redacted by default.
+     *
+     * @param recorded {@code true} to record the credentials
+     */
+    public static void setCredentialsRecorded(boolean recorded) {
+        credentialsRecorded = recorded;
+    }
+
+    private static String record(String headerName, String value) {
+        if (credentialsRecorded) return value;
+        return headerName.equalsIgnoreCase("Authorization") || headerName.equalsIgnoreCase("Proxy-Authorization")
+                || headerName.equalsIgnoreCase("Cookie") || headerName.equalsIgnoreCase("Set-Cookie")
+                ? REDACTED : value;
+    }
+
+    @Override
+    public void sendRequest(ConnectionRequest request, RequestCallback callback) throws RequestException {
+        final TrafficEntry entry = TrafficEntry.create(request.getMethod().toString(), request.getUrl());
+        final Headers headers = request.getHeaders();
+        final Payload payload = request.getPayload();
+        String contentType = null;
+        if (headers != null) {
+            for (Header header : headers) {
+                entry.addRequestHeader(header.getName(), record(header.getName(), header.getValue()));
+            }
+            contentType = headers.getValue("Content-Type");
+        }
+        if (payload != null && payload.asJavaScriptObject() == null && payload.asString() != null) {
+            entry.setRequestBody(contentType, payload.asString());
+        }
+        TRAFFIC_LOG.add(entry);
+        TRAFFIC_LOG.trim(maxEntries);
+
+        delegate.sendRequest(request, new RecordingCallback(entry, callback));
+    }
+
+    private static class RecordingCallback implements RequestCallbackWithProgress, RequestSentCallback {
+
+        private final TrafficEntry entry;
+        private final RequestCallback callback;
+        private final double start = Duration.currentTimeMillis();
+        private double firstByte = -1;
+
+        private RecordingCallback(TrafficEntry entry, RequestCallback callback) {
+            this.entry = entry;
+            this.callback = callback;
+        }
+
+        @Override
+        public void onSent(Request request) {
+            if (callback instanceof RequestSentCallback) ((RequestSentCallback) callback).onSent(request);
+        }
+
+        @Override
+        public void onProgress(RequestProgress requestProgress) {
+            if (firstByte < 0) firstByte = Duration.currentTimeMillis();
+            if (callback instanceof RequestCallbackWithProgress)
+                ((RequestCallbackWithProgress) callback).onProgress(requestProgress);
+        }
+
+        @Override
+        public void onResponseReceived(Request request, Response response) {
+            recordTimings();
+            entry.setResponse(response.getStatusCode(), response.getStatusText(), response.getHeader("Content-Type"),
+                    response.getText());
+            for (Header header : response.getHeaders()) {
+                if (header != null)
+                    entry.addResponseHeader(header.getName(), record(header.getName(), header.getValue()));
+            }
+            callback.onResponseReceived(request, response);
+        }
+
+        @Override
+        public void onError(Request request, Throwable exception) {
+            recordTimings();
+            entry.setError(exception.getMessage());
+            callback.onError(request, exception);
+        }
+
+        private void recordTimings() {
+            final double end = Duration.currentTimeMillis();
+            final double received = firstByte < 0 ? end : firstByte;
+            entry.setTimings(received - start, end - received);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client.traffic;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.RequestCallbackWithProgress;
+import com.google.gwt.http.client.RequestException;
+import com.google.gwt.http.client.RequestProgress;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.turbogwt.net.http.client.AbstractServerConnection;
+import org.turbogwt.net.http.client.ConnectionRequest;
+import org.turbogwt.net.http.client.ServerConnection;
+
+/**
+ * A {@link ServerConnection} serving the traffic of a {@link TrafficLog} back, with no backend.
+ * <p/>
+ *
+ * Enable it by inheriting the module <code>org.turbogwt.net.http.HttpReplay</code>, then load the recorded traffic
+ * with {@link #replay(TrafficLog, double)} before sending requests.
+ * <p/>
+ *
+ * Requests are matched to the recorded entries by method and by the path and query of the url, so the absolute urls
+ * of HAR files exported by the browsers match the relative ones of the application. Urls not starting with a slash are
+ * resolved against the path of the host page. Repeated requests are answered by the matching entries in the order
+ * they were recorded; once they are exhausted, the last one is repeated. Each response is delivered after its
+ * recorded waiting and receiving times, multiplied by the time scale. Requests with no recorded entry fail with a
+ * {@link RequestException}.
+ * <p/>
+ *
+ * The timeouts of the requests are ignored while replaying. Recorded errors, timeouts included, are delivered as
+ * plain {@link RequestException}s carrying the recorded message, since the HAR format does not keep their types.
+ *
+ * @author Danilo Reinert
+ */
+public class ReplayServerConnection extends AbstractServerConnection {
+
+    private static final RequestProgress REQUEST_PROGRESS = new RequestProgress() {
+        @Override
+        public boolean isLengthComputable() {
+            return false;
+        }
+
+        @Override
+        public Number loaded() {
+            return null;
+        }
+
+        @Override
+        public Number total() {
+            return null;
+        }
+    };
+
+    private static final Map<String, List<TrafficEntry>> entries = new HashMap<>();
+    private static final Map<String, Integer> positions = new HashMap<>();
+    private static double timeScale = 1;
+
+    /**
+     * Replays the traffic with the recorded timings.
+     *
+     * @param trafficLog the recorded traffic
+     */
+    public static void replay(TrafficLog trafficLog) {
+        replay(trafficLog, 1);
+    }
+
+    /**
+     * Replays the traffic with scaled timings. Any previously loaded traffic is discarded.
+     *
+     * @param trafficLog the recorded traffic
+     * @param timeScale  the factor applied to the recorded timings; 0 delivers the responses as soon as possible
+     */
+    public static void replay(TrafficLog trafficLog, double timeScale) {
+        if (timeScale < 0) throw new IllegalArgumentException("Time scale cannot be negative.");
+        ReplayServerConnection.timeScale = timeScale;
+        entries.clear();
+        positions.clear();
+        for (int i = 0; i < trafficLog.size(); i++) {
+            final TrafficEntry entry = trafficLog.get(i);
+            final String key = key(entry.getMethod(), entry.getUrl());
+            List<TrafficEntry> keyEntries = entries.get(key);
+            if (keyEntries == null) {
+                keyEntries = new ArrayList<>();
+                entries.put(key, keyEntries);
+            }
+            keyEntries.add(entry);
+        }
+    }
+
+    @Override
+    public void sendRequest(ConnectionRequest request, final RequestCallback callback) throws RequestException {
+        final TrafficEntry entry = next(request.getMethod().toString(), request.getUrl());
+        if (entry == null) {
+            throw new RequestException("There is no recorded traffic for " + request.getMethod() + " "
+                    + request.getUrl() + ".");
+        }
+
+        final int wait = (int) Math.round(entry.getWaitMillis() * timeScale);
+        final int receive = (int) Math.round(entry.getReceiveMillis() * timeScale);
+        schedule(wait, new Scheduler.ScheduledCommand() {
+            @Override
+            public void execute() {
+                if (entry.getError() != null) {
+                    callback.onError(null, new RequestException(entry.getError()));
+                    return;
+                }
+                if (callback instanceof RequestCallbackWithProgress)
+                    ((RequestCallbackWithProgress) callback).onProgress(REQUEST_PROGRESS);
+                schedule(receive, new Scheduler.ScheduledCommand() {
+                    @Override
+                    public void execute() {
+                        callback.onResponseReceived(null, new ReplayedResponse(entry));
+                    }
+                });
+            }
+        });
+    }
+
+    private static TrafficEntry next(String method, String url) {
+        final String key = key(method, url);
+        final List<TrafficEntry> keyEntries = entries.get(key);
+        if (keyEntries == null) return null;
+        final Integer position = positions.get(key);
+        final int index = position == null ? 0 : Math.min(position, keyEntries.size() - 1);
+        positions.put(key, index + 1);
+        return keyEntries.get(index);
+    }
+
+    private static String key(String method, String url) {
+        return method.toUpperCase() + ' ' + pathAndQuery(url);
+    }
+
+    /**
+     * Reduces the url to its path and query, resolving relative paths against the path of the host page.
+     */
+    static String pathAndQuery(String url) {
+        final int fragment = url.indexOf('#');
+        if (fragment > -1) url = url.substring(0, fragment);
+
+        final String path = stripOrigin(url);
+        if (path != null) return path;
+        if (url.startsWith("/")) return url;
+
+        final String base = stripOrigin(GWT.getHostPageBaseURL());
+        return base == null ? '/' + url : base.substring(0, base.lastIndexOf('/') + 1) + url;
+    }
+
+    /**
+     * Returns the path and query of an absolute url, or null if the url has no scheme nor authority.
+     */
+    private static String stripOrigin(String url) {
+        int authority = -1;
+        final int scheme = url.indexOf("://");
+        if (url.startsWith("//")) {
+            authority = 2;
+        } else if (scheme > -1 && url.lastIndexOf('/', scheme) == -1 && url.lastIndexOf('?', scheme) == -1) {
+            authority = scheme + 3;
+        }
+        if (authority == -1) return null;
+
+        int path = authority;
+        while (path < url.length() && url.charAt(path) != '/' && url.charAt(path) != '?') path++;
+        return path == url.length() || url.charAt(path) == '?' ? '/' + url.substring(path) : url.substring(path);
+    }
+
+    private static void schedule(int delayMillis, final Scheduler.ScheduledCommand command) {
+        if (delayMillis <= 0) {
+            Scheduler.get().scheduleDeferred(command);
+            return;
+        }
+        Scheduler.get().scheduleFixedDelay(new Scheduler.RepeatingCommand() {
+            @Override
+            public boolean execute() {
+                command.execute();
+                return false;
+            }
+        }, delayMillis);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client.traffic;
+
+import com.google.gwt.http.client.Header;
+import com.google.gwt.http.client.Response;
+
+/**
+ * A {@link Response} replayed from a {@link TrafficEntry}.
+ *
+ * @author Danilo Reinert
+ */
+class ReplayedResponse extends Response {
+
+    private final TrafficEntry entry;
+    private Header[] headers;
+
+    ReplayedResponse(TrafficEntry entry) {
+        this.entry = entry;
+    }
+
+    @Override
+    public String getHeader(String header) {
+        if (header == null) throw new NullPointerException("Header param cannot be null.");
+        if (header.isEmpty()) throw new IllegalArgumentException("Header param cannot be empty.");
+        for (int i = 0; i < entry.getResponseHeaderCount(); i++) {
+            if (entry.getResponseHeaderName(i).equalsIgnoreCase(header)) return entry.getResponseHeaderValue(i);
+        }
+        return null;
+    }
+
+    @Override
+    public Header[] getHeaders() {
+        if (headers == null) {
+            headers = new Header[entry.getResponseHeaderCount()];
+            for (int i = 0; i < headers.length; i++) {
+                final String name = entry.getResponseHeaderName(i);
+                final String value = entry.getResponseHeaderValue(i);
+                headers[i] = new Header() {
+                    @Override
+                    public String getName() {
+                        return name;
+                    }
+
+                    @Override
+                    public String getValue() {
+                        return value;
+                    }
+
+                    @Override
+                    public String toString() {
+                        return name + " : " + value;
+                    }
+                };
+            }
+        }
+        return headers;
+    }
+
+    @Override
+    public String getHeadersAsString() {
+        final StringBuilder headersAsString = new StringBuilder();
+        for (int i = 0; i < entry.getResponseHeaderCount(); i++) {
+            headersAsString.append(entry.getResponseHeaderName(i)).append(": ")
+                    .append(entry.getResponseHeaderValue(i)).append("\r\n");
+        }
+        return headersAsString.toString();
+    }
+
+    @Override
+    public int getStatusCode() {
+        return entry.getStatus();
+    }
+
+    @Override
+    public String getStatusText() {
+        return entry.getStatusText();
+    }
+
+    @Override
+    public String getText() {
+        return entry.getResponseText();
+    }
+}
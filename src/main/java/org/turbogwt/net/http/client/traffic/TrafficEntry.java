@@ -0,0 +1,155 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client.traffic;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * An exchange of a request and its response, in the format of the entries of HAR (HTTP Archive) files.
+ * <p/>
+ *
+ * Entries of HAR files exported by browsers are read as well. Only the fields used for replaying are exposed.
+ *
+ * @author Danilo Reinert
+ */
+public final class TrafficEntry extends JavaScriptObject {
+
+    protected TrafficEntry() {
+    }
+
+    /**
+     * Creates an entry of a request started now, whose response is not known yet.
+     *
+     * @param method the HTTP method
+     * @param url    the requested url
+     *
+     * @return the entry
+     */
+    public static native TrafficEntry create(String method, String url) /*-{
+        return {
+            startedDateTime: new Date().toISOString(),
+            time: 0,
+            request: {method: method, url: url, httpVersion: 'HTTP/1.1', cookies: [], headers: [], queryString: [],
+                headersSize: -1, bodySize: -1},
+            response: {status: 0, statusText: '', httpVersion: 'HTTP/1.1', cookies: [], headers: [],
+                content: {size: 0, mimeType: ''}, redirectURL: '', headersSize: -1, bodySize: -1},
+            cache: {},
+            timings: {send: 0, wait: -1, receive: -1}
+        };
+    }-*/;
+
+    public native String getMethod() /*-{
+        return this.request.method;
+    }-*/;
+
+    public native String getUrl() /*-{
+        return this.request.url;
+    }-*/;
+
+    public native void addRequestHeader(String name, String value) /*-{
+        this.request.headers.push({name: name, value: value});
+    }-*/;
+
+    public native void setRequestBody(String mimeType, String text) /*-{
+        this.request.postData = {mimeType: mimeType || '', params: [], text: text};
+        this.request.bodySize = text.length;
+    }-*/;
+
+    public native int getStatus() /*-{
+        return this.response.status;
+    }-*/;
+
+    public native String getStatusText() /*-{
+        return this.response.statusText;
+    }-*/;
+
+    /**
+     * Returns the text of the response's content, decoding it if it was base64 encoded.
+     *
+     * @return the response text or null if the content was not recorded
+     */
+    public native String getResponseText() /*-{
+        var content = this.response.content;
+        if (!content || content.text == null) return null;
+        return content.encoding === 'base64' ? $wnd.atob(content.text) : content.text;
+    }-*/;
+
+    public native void setResponse(int status, String statusText, String mimeType, String text) /*-{
+        this.response.status = status;
+        this.response.statusText = statusText || '';
+        this.response.content = {size: text == null ? 0 : text.length, mimeType: mimeType || ''};
+        if (text != null) this.response.content.text = text;
+        this.response.bodySize = this.response.content.size;
+    }-*/;
+
+    public native int getResponseHeaderCount() /*-{
+        return this.response.headers.length;
+    }-*/;
+
+    public native String getResponseHeaderName(int index) /*-{
+        return this.response.headers[index].name;
+    }-*/;
+
+    public native String getResponseHeaderValue(int index) /*-{
+        return this.response.headers[index].value;
+    }-*/;
+
+    public native void addResponseHeader(String name, String value) /*-{
+        this.response.headers.push({name: name, value: value});
+    }-*/;
+
+    /**
+     * Returns the message of the network error the request failed with, or null if a response was received.
+     * The message is kept in the custom field <code>_error</code> of the entry.
+     *
+     * @return the error message
+     */
+    public native String getError() /*-{
+        return this._error == null ? null : this._error;
+    }-*/;
+
+    public native void setError(String message) /*-{
+        this._error = message || 'Request failed.';
+    }-*/;
+
+    /**
+     * Returns the time waiting for the first byte of the response, in milliseconds.
+     *
+     * @return the waiting time, or zero if unknown
+     */
+    public native double getWaitMillis() /*-{
+        var t = this.timings || {};
+        return Math.max(t.wait || 0, 0) + Math.max(t.blocked || 0, 0) + Math.max(t.dns || 0, 0)
+            + Math.max(t.connect || 0, 0) + Math.max(t.send || 0, 0);
+    }-*/;
+
+    /**
+     * Returns the time receiving the response, in milliseconds.
+     *
+     * @return the receiving time, or zero if unknown
+     */
+    public native double getReceiveMillis() /*-{
+        var t = this.timings || {};
+        return Math.max(t.receive || 0, 0);
+    }-*/;
+
+    public native void setTimings(double waitMillis, double receiveMillis) /*-{
+        this.timings.wait = waitMillis;
+        this.timings.receive = receiveMillis;
+        this.time = this.timings.send + waitMillis + receiveMillis;
+    }-*/;
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client.traffic;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsonUtils;
+
+/**
+ * A log of HTTP traffic in the HAR (HTTP Archive) format.
+ * <p/>
+ *
+ * Logs are written by {@link RecordingServerConnection} and read by {@link ReplayServerConnection}.
+ * HAR files exported by the browsers' developer tools can be read as well.
+ *
+ * @author Danilo Reinert
+ */
+public final class TrafficLog extends JavaScriptObject {
+
+    protected TrafficLog() {
+    }
+
+    /**
+     * Creates an empty log.
+     *
+     * @return the log
+     */
+    public static native TrafficLog create() /*-{
+        return {log: {version: '1.2', creator: {name: 'turbogwt-http', version: '0.4'}, pages: [], entries: []}};
+    }-*/;
+
+    /**
+     * Reads a log from the contents of a HAR file.
+     *
+     * @param har the HAR contents
+     *
+     * @return the log
+     *
+     * @throws IllegalArgumentException if the contents are not a HAR log
+     */
+    public static TrafficLog fromHar(String har) throws IllegalArgumentException {
+        final TrafficLog log = JsonUtils.safeEval(har);
+        if (!log.isValid()) throw new IllegalArgumentException("The contents are not a HAR log.");
+        return log;
+    }
+
+    /**
+     * Returns the contents of the HAR file of this log.
+     *
+     * @return the HAR contents
+     */
+    public native String toHar() /*-{
+        return JSON.stringify(this);
+    }-*/;
+
+    public native int size() /*-{
+        return this.log.entries.length;
+    }-*/;
+
+    public native TrafficEntry get(int index) /*-{
+        return this.log.entries[index];
+    }-*/;
+
+    public native void add(TrafficEntry entry) /*-{
+        this.log.entries.push(entry);
+    }-*/;
+
+    /**
+     * Drops the oldest entries, so that at most the given number of entries is kept.
+     *
+     * @param maxEntries the maximum number of entries
+     */
+    public native void trim(int maxEntries) /*-{
+        var entries = this.log.entries;
+        if (entries.length > maxEntries) entries.splice(0, entries.length - maxEntries);
+    }-*/;
+
+    public native void clear() /*-{
+        this.log.entries = [];
+    }-*/;
+
+    private native boolean isValid() /*-{
+        return this.log != null && Object.prototype.toString.call(this.log.entries) === '[object Array]';
+    }-*/;
+}
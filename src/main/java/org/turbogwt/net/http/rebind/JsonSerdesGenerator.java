@@ -20,6 +20,8 @@ import com.github.nmorel.gwtjackson.client.ObjectMapper;
 import com.github.nmorel.gwtjackson.client.ObjectReader;
 import com.github.nmorel.gwtjackson.client.ObjectWriter;
 import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsonUtils;
 import com.google.gwt.core.ext.Generator;
 import com.google.gwt.core.ext.GeneratorContext;
 import com.google.gwt.core.ext.TreeLogger;
@@ -133,6 +135,8 @@ public class JsonSerdesGenerator extends Generator {
                 ObjectWriter.class.getCanonicalName(),
                 // com.google.gwt
                 GWT.class.getCanonicalName(),
+                JavaScriptObject.class.getCanonicalName(),
+                JsonUtils.class.getCanonicalName(),
                 // org.turbogwt
                 Overlays.class.getCanonicalName(),
                 DeserializationContext.class.getCanonicalName(),
@@ -289,6 +293,22 @@ public class JsonSerdesGenerator extends Generator {
         srcWriter.println("        else");
         srcWriter.println("            return super.serializeFromCollection(c, ctx);");
         srcWriter.println("    }");
+        srcWriter.println();
+
+        // serializeEvaluated: the mappers only write JSON text, since writeJson is not implemented
+        srcWriter.println("    @Override");
+        srcWriter.println("    public JavaScriptObject serializeEvaluated(%s o, SerializationContext ctx) {",
+                qualifiedSourceName);
+        srcWriter.println("        return JsonUtils.safeEval(serialize(o, ctx));");
+        srcWriter.println("    }");
+        srcWriter.println();
+
+        // serializeEvaluatedFromCollection
+        srcWriter.println("    @Override");
+        srcWriter.println("    public JavaScriptObject serializeEvaluatedFromCollection(Collection<%s> c, " +
+                "SerializationContext ctx) {", qualifiedSourceName);
+        srcWriter.println("        return JsonUtils.safeEval(serializeFromCollection(c, ctx));");
+        srcWriter.println("    }");
 
         // end anonymous class
         srcWriter.println("};");
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.serialization.client.json;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Checks the shape of evaluated JSON before it is handed to a deserializer.
+ *
+ * @author Danilo Reinert
+ */
+public final class EvaluatedJson {
+
+    private EvaluatedJson() {
+    }
+
+    /**
+     * Checks if the evaluated JSON is an object, i.e., neither a primitive, null nor an array.
+     *
+     * @param json the evaluated JSON
+     *
+     * @return {@code true} if it is an object
+     */
+    public static native boolean isObject(JavaScriptObject json) /*-{
+        return json != null && typeof json === 'object' && Object.prototype.toString.call(json) !== '[object Array]';
+    }-*/;
+
+    /**
+     * Checks if the evaluated JSON is an array.
+     *
+     * @param json the evaluated JSON
+     *
+     * @return {@code true} if it is an array
+     */
+    public static native boolean isArray(JavaScriptObject json) /*-{
+        return Object.prototype.toString.call(json) === '[object Array]';
+    }-*/;
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.serialization.client.json;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+import java.util.Collection;
+
+import org.turbogwt.net.serialization.client.DeserializationContext;
+import org.turbogwt.net.serialization.client.Deserializer;
+
+/**
+ * A {@link Deserializer} capable of deserializing JSON already evaluated.
+ * <p/>
+ *
+ * When the response is natively parsed by the browser, the evaluated JSON is handed directly to these deserializers,
+ * skipping the evaluation of the response text.
+ *
+ * @param <T> The type it can deserialize
+ *
+ * @author Danilo Reinert
+ */
+public interface EvaluatedJsonDeserializer<T> extends Deserializer<T> {
+
+    /**
+     * Deserialize the evaluated JSON into an object of type T.
+     *
+     * @param evaluated The evaluated JSON object
+     * @param context   Context of deserialization
+     *
+     * @return The object deserialized
+     */
+    T deserialize(JavaScriptObject evaluated, DeserializationContext context);
+
+    /**
+     * Deserialize the evaluated JSON array into a collection of T.
+     *
+     * @param collectionType    The class of the collection
+     * @param evaluated         The evaluated JSON array
+     * @param context           Context of deserialization
+     *
+     * @return The object deserialized
+     */
+    <C extends Collection<T>> C deserializeAsCollection(Class<C> collectionType, JavaScriptObject evaluated,
+                                                        DeserializationContext context);
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.serialization.client.json;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+import java.util.Collection;
+
+import org.turbogwt.net.serialization.client.SerializationContext;
+import org.turbogwt.net.serialization.client.Serializer;
+
+/**
+ * A {@link Serializer} capable of serializing into JSON not yet stringified.
+ * <p/>
+ *
+ * When the content is encoded by other means than JSON#stringify, e.g. as MessagePack, the evaluated JSON is taken
+ * directly from these serializers, skipping the stringification and the parsing of the JSON text.
+ *
+ * @param <T> The type it can serialize
+ *
+ * @author Danilo Reinert
+ */
+public interface EvaluatedJsonSerializer<T> extends Serializer<T> {
+
+    /**
+     * Serialize T into an evaluated JSON.
+     *
+     * @param t         The object to be serialized
+     * @param context   Context of the serialization
+     *
+     * @return The evaluated JSON
+     */
+    JavaScriptObject serializeEvaluated(T t, SerializationContext context);
+
+    /**
+     * Serialize a collection of T into an evaluated JSON array.
+     *
+     * @param c         The collection of the object to be serialized
+     * @param context   Context of the serialization
+     *
+     * @return The evaluated JSON array
+     */
+    JavaScriptObject serializeEvaluatedFromCollection(Collection<T> c, SerializationContext context);
+}
@@ -34,7 +34,8 @@ import org.turbogwt.net.serialization.client.UnableToDeserializeException;
  *
  * @author Danilo Reinert
  */
-public abstract class JsonObjectSerdes<T> extends JsonSerdes<T> {
+public abstract class JsonObjectSerdes<T> extends JsonSerdes<T> implements EvaluatedJsonDeserializer<T>,
+        EvaluatedJsonSerializer<T> {
 
     public JsonObjectSerdes(Class<T> handledType) {
         super(handledType);
@@ -83,18 +84,31 @@ public abstract class JsonObjectSerdes<T> extends JsonSerdes<T> {
     public T deserialize(String response, DeserializationContext context) {
         if (!isObject(response))
             throw new UnableToDeserializeException("Response content is not an object");
-        final JavaScriptObject deserialized = eval(response);
-        return readJson((JsonRecordReader) deserialized, context);
+        return deserialize(eval(response), context);
+    }
+
+    @Override
+    public T deserialize(JavaScriptObject evaluated, DeserializationContext context) {
+        if (!EvaluatedJson.isObject(evaluated))
+            throw new UnableToDeserializeException("Response content is not an object");
+        return readJson((JsonRecordReader) evaluated, context);
     }
 
     @Override
     public <C extends Collection<T>> C deserializeAsCollection(Class<C> collectionType, String response,
                                                                DeserializationContext context) {
         if (!isArray(response)) throw new UnableToDeserializeException("Response content is not an array.");
+        return deserializeAsCollection(collectionType, eval(response), context);
+    }
 
+    @Override
+    public <C extends Collection<T>> C deserializeAsCollection(Class<C> collectionType, JavaScriptObject evaluated,
+                                                               DeserializationContext context) {
+        if (!EvaluatedJson.isArray(evaluated))
+            throw new UnableToDeserializeException("Response content is not an array.");
         C col = getCollectionInstance(context, collectionType);
         @SuppressWarnings("unchecked")
-        JsArray<JavaScriptObject> jsArray = (JsArray<JavaScriptObject>) eval(response);
+        JsArray<JavaScriptObject> jsArray = (JsArray<JavaScriptObject>) evaluated;
         for (int i = 0; i < jsArray.length(); i++) {
             JavaScriptObject jso = jsArray.get(i);
             col.add(readJson((JsonRecordReader) jso, context));
@@ -104,9 +118,23 @@ public abstract class JsonObjectSerdes<T> extends JsonSerdes<T> {
 
     @Override
     public String serialize(T t, SerializationContext context) {
+        return Overlays.stringify(serializeEvaluated(t, context));
+    }
+
+    @Override
+    public JavaScriptObject serializeEvaluated(T t, SerializationContext context) {
         final JsonRecordWriter writer = JsonRecordWriter.create();
         writeJson(t, writer, context);
-        return Overlays.stringify(writer);
+        return writer;
+    }
+
+    @Override
+    public JavaScriptObject serializeEvaluatedFromCollection(Collection<T> c, SerializationContext context) {
+        final JsArray<JavaScriptObject> jsArray = JavaScriptObject.createArray().cast();
+        for (T t : c) {
+            jsArray.push(serializeEvaluated(t, context));
+        }
+        return jsArray;
     }
 
     /**
@@ -36,7 +36,7 @@ import org.turbogwt.net.serialization.client.SerializationContext;
  *
  * @author Danilo Reinert
  */
-public class OverlaySerdes<T extends JavaScriptObject> implements Serdes<T> {
+public class OverlaySerdes<T extends JavaScriptObject> implements Serdes<T>, EvaluatedJsonDeserializer<T> {
 
     private static OverlaySerdes<JavaScriptObject> INSTANCE = new OverlaySerdes<>();
 
@@ -67,10 +67,21 @@ public class OverlaySerdes<T extends JavaScriptObject> implements Serdes<T> {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
+    public T deserialize(JavaScriptObject evaluated, DeserializationContext context) {
+        return evaluated.cast();
+    }
+
+    @Override
     public <C extends Collection<T>> C deserializeAsCollection(Class<C> collectionType, String response,
                                                                DeserializationContext context) {
-        JsArray<T> jsArray = JsonUtils.safeEval(response);
+        return deserializeAsCollection(collectionType, JsonUtils.safeEval(response), context);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <C extends Collection<T>> C deserializeAsCollection(Class<C> collectionType, JavaScriptObject evaluated,
+                                                               DeserializationContext context) {
+        JsArray<T> jsArray = evaluated.cast();
         if (collectionType.equals(List.class) || collectionType.equals(Collection.class)) {
             return (C) new JsArrayList(jsArray);
         } else {
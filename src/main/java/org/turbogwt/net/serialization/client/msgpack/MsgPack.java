@@ -0,0 +1,311 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.serialization.client.msgpack;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Encoder/decoder of <a href="http://msgpack.org">MessagePack</a> contents.
+ * <p/>
+ *
+ * The encoded content is represented as a binary string, i.e., a string whose chars hold one byte each.
+ * When decoding, only the lower 8 bits of each char are considered, so responses read with the
+ * "text/plain; charset=x-user-defined" MIME type can be decoded directly.
+ *
+ * @author Danilo Reinert
+ */
+public final class MsgPack {
+
+    private MsgPack() {
+    }
+
+    /**
+     * Encodes a JavaScript value into MessagePack.
+     * <p/>
+     *
+     * Integers are encoded with the smallest int format that fits them (up to 32 bits),
+     * other numbers are encoded as float 64. Properties holding functions or undefined values are ignored.
+     *
+     * @param value The JavaScript value to be encoded
+     *
+     * @return The MessagePack content as a binary string
+     */
+    public static native String encode(JavaScriptObject value) /*-{
+        var out = [];
+
+        var writeUint = function(n, bytes) {
+            for (var i = bytes - 1; i >= 0; i--) {
+                out.push((n / Math.pow(256, i)) & 0xff);
+            }
+        };
+
+        var writeString = function(s) {
+            var utf8 = [];
+            for (var i = 0; i < s.length; i++) {
+                var c = s.charCodeAt(i);
+                if (c >= 0xd800 && c <= 0xdbff && i + 1 < s.length) {
+                    c = 0x10000 + ((c - 0xd800) << 10) + (s.charCodeAt(++i) - 0xdc00);
+                }
+                if (c < 0x80) {
+                    utf8.push(c);
+                } else if (c < 0x800) {
+                    utf8.push(0xc0 | (c >> 6), 0x80 | (c & 0x3f));
+                } else if (c < 0x10000) {
+                    utf8.push(0xe0 | (c >> 12), 0x80 | ((c >> 6) & 0x3f), 0x80 | (c & 0x3f));
+                } else {
+                    utf8.push(0xf0 | (c >> 18), 0x80 | ((c >> 12) & 0x3f), 0x80 | ((c >> 6) & 0x3f),
+                        0x80 | (c & 0x3f));
+                }
+            }
+            var len = utf8.length;
+            if (len < 32) {
+                out.push(0xa0 | len);
+            } else if (len < 0x100) {
+                out.push(0xd9, len);
+            } else if (len < 0x10000) {
+                out.push(0xda);
+                writeUint(len, 2);
+            } else {
+                out.push(0xdb);
+                writeUint(len, 4);
+            }
+            for (var j = 0; j < len; j++) {
+                out.push(utf8[j]);
+            }
+        };
+
+        var writeNumber = function(n) {
+            if (n % 1 === 0 && n >= -0x80000000 && n <= 0xffffffff) {
+                if (n >= 0) {
+                    if (n < 0x80) {
+                        out.push(n);
+                    } else if (n < 0x100) {
+                        out.push(0xcc, n);
+                    } else if (n < 0x10000) {
+                        out.push(0xcd);
+                        writeUint(n, 2);
+                    } else {
+                        out.push(0xce);
+                        writeUint(n, 4);
+                    }
+                } else if (n >= -32) {
+                    out.push(n & 0xff);
+                } else if (n >= -0x80) {
+                    out.push(0xd0, n & 0xff);
+                } else if (n >= -0x8000) {
+                    out.push(0xd1, (n >> 8) & 0xff, n & 0xff);
+                } else {
+                    out.push(0xd2, (n >> 24) & 0xff, (n >> 16) & 0xff, (n >> 8) & 0xff, n & 0xff);
+                }
+            } else {
+                var view = new DataView(new ArrayBuffer(8));
+                view.setFloat64(0, n);
+                out.push(0xcb);
+                for (var i = 0; i < 8; i++) {
+                    out.push(view.getUint8(i));
+                }
+            }
+        };
+
+        var writeValue = function(v) {
+            if (v === null || v === undefined) {
+                out.push(0xc0);
+            } else if (v === false) {
+                out.push(0xc2);
+            } else if (v === true) {
+                out.push(0xc3);
+            } else if (typeof v === 'number') {
+                writeNumber(v);
+            } else if (typeof v === 'string') {
+                writeString(v);
+            } else if (v instanceof Date) {
+                writeNumber(v.getTime());
+            } else if (Object.prototype.toString.call(v) === '[object Array]') {
+                var len = v.length;
+                if (len < 16) {
+                    out.push(0x90 | len);
+                } else if (len < 0x10000) {
+                    out.push(0xdc);
+                    writeUint(len, 2);
+                } else {
+                    out.push(0xdd);
+                    writeUint(len, 4);
+                }
+                for (var i = 0; i < len; i++) {
+                    writeValue(v[i]);
+                }
+            } else {
+                var keys = [];
+                for (var k in v) {
+                    if (v.hasOwnProperty(k) && v[k] !== undefined && typeof v[k] !== 'function') {
+                        keys.push(k);
+                    }
+                }
+                var size = keys.length;
+                if (size < 16) {
+                    out.push(0x80 | size);
+                } else if (size < 0x10000) {
+                    out.push(0xde);
+                    writeUint(size, 2);
+                } else {
+                    out.push(0xdf);
+                    writeUint(size, 4);
+                }
+                for (var j = 0; j < size; j++) {
+                    writeString(keys[j]);
+                    writeValue(v[keys[j]]);
+                }
+            }
+        };
+
+        writeValue(value);
+
+        // Convert in chunks to avoid exceeding the arguments limit of apply
+        var result = '';
+        for (var c = 0; c < out.length; c += 8192) {
+            result += String.fromCharCode.apply(null, out.slice(c, c + 8192));
+        }
+        return result;
+    }-*/;
+
+    /**
+     * Decodes a MessagePack content into a JavaScript value.
+     * <p/>
+     *
+     * Binary (bin) values are decoded as arrays of bytes.
+     * 64-bit integers are decoded as numbers, thus they may lose precision beyond 2^53.
+     *
+     * @param binaryData The MessagePack content as a binary string
+     *
+     * @return The decoded JavaScript value
+     */
+    public static native <T extends JavaScriptObject> T decode(String binaryData) /*-{
+        var pos = 0;
+
+        var readByte = function() {
+            if (pos >= binaryData.length) {
+                throw new Error('Unexpected end of MessagePack content.');
+            }
+            return binaryData.charCodeAt(pos++) & 0xff;
+        };
+
+        var readUint = function(bytes) {
+            var n = 0;
+            for (var i = 0; i < bytes; i++) {
+                n = n * 256 + readByte();
+            }
+            return n;
+        };
+
+        var readInt = function(bytes) {
+            var n = readUint(bytes);
+            var limit = Math.pow(2, bytes * 8 - 1);
+            return n >= limit ? n - limit * 2 : n;
+        };
+
+        var readFloat = function(bytes) {
+            var view = new DataView(new ArrayBuffer(bytes));
+            for (var i = 0; i < bytes; i++) {
+                view.setUint8(i, readByte());
+            }
+            return bytes === 4 ? view.getFloat32(0) : view.getFloat64(0);
+        };
+
+        var readString = function(len) {
+            var s = '';
+            var end = pos + len;
+            while (pos < end) {
+                var c = readByte();
+                if (c >= 0xf0) {
+                    c = ((c & 0x07) << 18) | ((readByte() & 0x3f) << 12) | ((readByte() & 0x3f) << 6)
+                        | (readByte() & 0x3f);
+                    c -= 0x10000;
+                    s += String.fromCharCode(0xd800 + (c >> 10), 0xdc00 + (c & 0x3ff));
+                    continue;
+                } else if (c >= 0xe0) {
+                    c = ((c & 0x0f) << 12) | ((readByte() & 0x3f) << 6) | (readByte() & 0x3f);
+                } else if (c >= 0xc0) {
+                    c = ((c & 0x1f) << 6) | (readByte() & 0x3f);
+                }
+                s += String.fromCharCode(c);
+            }
+            return s;
+        };
+
+        var readBinary = function(len) {
+            var bytes = [];
+            for (var i = 0; i < len; i++) {
+                bytes.push(readByte());
+            }
+            return bytes;
+        };
+
+        var readArray = function(len) {
+            var array = [];
+            for (var i = 0; i < len; i++) {
+                array.push(readValue());
+            }
+            return array;
+        };
+
+        var readMap = function(size) {
+            var map = {};
+            for (var i = 0; i < size; i++) {
+                var key = readValue();
+                map[key] = readValue();
+            }
+            return map;
+        };
+
+        var readValue = function() {
+            var b = readByte();
+            if (b < 0x80) return b;
+            if (b < 0x90) return readMap(b & 0x0f);
+            if (b < 0xa0) return readArray(b & 0x0f);
+            if (b < 0xc0) return readString(b & 0x1f);
+            if (b >= 0xe0) return b - 0x100;
+            switch (b) {
+                case 0xc0: return null;
+                case 0xc2: return false;
+                case 0xc3: return true;
+                case 0xc4: return readBinary(readUint(1));
+                case 0xc5: return readBinary(readUint(2));
+                case 0xc6: return readBinary(readUint(4));
+                case 0xca: return readFloat(4);
+                case 0xcb: return readFloat(8);
+                case 0xcc: return readUint(1);
+                case 0xcd: return readUint(2);
+                case 0xce: return readUint(4);
+                case 0xcf: return readUint(8);
+                case 0xd0: return readInt(1);
+                case 0xd1: return readInt(2);
+                case 0xd2: return readInt(4);
+                case 0xd3: return readInt(8);
+                case 0xd9: return readString(readUint(1));
+                case 0xda: return readString(readUint(2));
+                case 0xdb: return readString(readUint(4));
+                case 0xdc: return readArray(readUint(2));
+                case 0xdd: return readArray(readUint(4));
+                case 0xde: return readMap(readUint(2));
+                case 0xdf: return readMap(readUint(4));
+            }
+            throw new Error('Unsupported MessagePack type: 0x' + b.toString(16) + '.');
+        };
+
+        return readValue();
+    }-*/;
+}
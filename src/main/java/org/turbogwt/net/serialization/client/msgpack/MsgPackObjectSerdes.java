@@ -0,0 +1,90 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.serialization.client.msgpack;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArray;
+import com.google.gwt.core.client.JsonUtils;
+
+import java.util.Collection;
+
+import org.turbogwt.core.util.client.Overlays;
+import org.turbogwt.net.serialization.client.DeserializationContext;
+import org.turbogwt.net.serialization.client.Serdes;
+import org.turbogwt.net.serialization.client.SerializationContext;
+import org.turbogwt.net.serialization.client.json.EvaluatedJsonDeserializer;
+import org.turbogwt.net.serialization.client.json.EvaluatedJsonSerializer;
+
+/**
+ * MessagePack Serializer/Deserializer of objects already handled by a JSON {@link Serdes}.
+ * <p/>
+ *
+ * It allows the {@link org.turbogwt.net.serialization.shared.Json} annotated types to be exchanged as MessagePack.
+ * When the JSON serdes is an {@link EvaluatedJsonDeserializer}, the decoded content is handed directly to it,
+ * so no JSON text is parsed. Likewise, when it is an {@link EvaluatedJsonSerializer}, the content is encoded from the
+ * evaluated JSON it builds, so no JSON text is produced.
+ *
+ * @param <T>   Type of the object to be serialized/deserialized
+ *
+ * @author Danilo Reinert
+ */
+public class MsgPackObjectSerdes<T> extends MsgPackSerdes<T> {
+
+    private final Serdes<T> jsonSerdes;
+
+    public MsgPackObjectSerdes(Serdes<T> jsonSerdes) {
+        super(jsonSerdes.handledType());
+        this.jsonSerdes = jsonSerdes;
+    }
+
+    @Override
+    public T deserialize(String response, DeserializationContext context) {
+        final JavaScriptObject decoded = decode(response);
+        if (jsonSerdes instanceof EvaluatedJsonDeserializer) {
+            return ((EvaluatedJsonDeserializer<T>) jsonSerdes).deserialize(decoded, context);
+        }
+        return jsonSerdes.deserialize(Overlays.stringify(decoded), context);
+    }
+
+    @Override
+    public <C extends Collection<T>> C deserializeAsCollection(Class<C> collectionType, String response,
+                                                               DeserializationContext context) {
+        final JsArray<JavaScriptObject> jsArray = decodeArray(response);
+        if (jsonSerdes instanceof EvaluatedJsonDeserializer) {
+            return ((EvaluatedJsonDeserializer<T>) jsonSerdes).deserializeAsCollection(collectionType, jsArray,
+                    context);
+        }
+        return jsonSerdes.deserializeAsCollection(collectionType, Overlays.stringify(jsArray), context);
+    }
+
+    @Override
+    public String serialize(T t, SerializationContext context) {
+        if (jsonSerdes instanceof EvaluatedJsonSerializer) {
+            return MsgPack.encode(((EvaluatedJsonSerializer<T>) jsonSerdes).serializeEvaluated(t, context));
+        }
+        return MsgPack.encode(JsonUtils.safeEval(jsonSerdes.serialize(t, context)));
+    }
+
+    @Override
+    public String serializeFromCollection(Collection<T> c, SerializationContext context) {
+        if (jsonSerdes instanceof EvaluatedJsonSerializer) {
+            return MsgPack.encode(((EvaluatedJsonSerializer<T>) jsonSerdes).serializeEvaluatedFromCollection(c,
+                    context));
+        }
+        return MsgPack.encode(JsonUtils.safeEval(jsonSerdes.serializeFromCollection(c, context)));
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.serialization.client.msgpack;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArray;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.turbogwt.core.collections.client.JsArrayList;
+import org.turbogwt.net.serialization.client.DeserializationContext;
+import org.turbogwt.net.serialization.client.SerializationContext;
+
+/**
+ * MessagePack Serializer/Deserializer of Overlay types.
+ *
+ * @param <T> The overlay type of the data to be serialized.
+ *
+ * @author Danilo Reinert
+ */
+public class MsgPackOverlaySerdes<T extends JavaScriptObject> extends MsgPackSerdes<T> {
+
+    private static MsgPackOverlaySerdes<JavaScriptObject> INSTANCE = new MsgPackOverlaySerdes<>();
+
+    @SuppressWarnings("unchecked")
+    public MsgPackOverlaySerdes() {
+        super((Class<T>) JavaScriptObject.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <O extends JavaScriptObject> MsgPackOverlaySerdes<O> getInstance() {
+        return (MsgPackOverlaySerdes<O>) INSTANCE;
+    }
+
+    @Override
+    public T deserialize(String response, DeserializationContext context) {
+        return decode(response).cast();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <C extends Collection<T>> C deserializeAsCollection(Class<C> collectionType, String response,
+                                                               DeserializationContext context) {
+        JsArray<T> jsArray = decodeArray(response).cast();
+        if (collectionType.equals(List.class) || collectionType.equals(Collection.class)) {
+            return (C) new JsArrayList(jsArray);
+        } else {
+            C col = getCollectionInstance(context, collectionType);
+            for (int i = 0; i < jsArray.length(); i++) {
+                T t = jsArray.get(i);
+                col.add(t);
+            }
+            return col;
+        }
+    }
+
+    @Override
+    public String serialize(T t, SerializationContext context) {
+        return MsgPack.encode(t);
+    }
+
+    @Override
+    public String serializeFromCollection(Collection<T> c, SerializationContext context) {
+        if (c instanceof JsArrayList) {
+            return MsgPack.encode(((JsArrayList<T>) c).asJsArray());
+        }
+
+        if (c instanceof JavaScriptObject) {
+            return MsgPack.encode((JavaScriptObject) c);
+        }
+
+        @SuppressWarnings("unchecked")
+        JsArray<T> jsArray = (JsArray<T>) JsArray.createArray();
+        for (T t : c) {
+            jsArray.push(t);
+        }
+        return MsgPack.encode(jsArray);
+    }
+}
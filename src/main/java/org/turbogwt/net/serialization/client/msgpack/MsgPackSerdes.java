@@ -0,0 +1,125 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.serialization.client.msgpack;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArray;
+
+import java.util.Collection;
+
+import org.turbogwt.net.serialization.client.DeserializationContext;
+import org.turbogwt.net.serialization.client.Serdes;
+import org.turbogwt.net.serialization.client.UnableToDeserializeException;
+import org.turbogwt.net.serialization.client.json.EvaluatedJson;
+
+/**
+ * Base class for all SerDes that manipulates MessagePack contents.
+ * <p/>
+ *
+ * The serialized contents are binary strings as produced by {@link MsgPack#encode}.
+ *
+ * @param <T>   Type of the object to be serialized/deserialized
+ *
+ * @author Danilo Reinert
+ */
+public abstract class MsgPackSerdes<T> implements Serdes<T> {
+
+    public static String[] ACCEPT_PATTERNS = new String[] { "application/msgpack", "application/x-msgpack" };
+    public static String[] CONTENT_TYPE_PATTERNS = new String[] { "application/msgpack", "application/x-msgpack" };
+
+    private final Class<T> handledType;
+
+    protected MsgPackSerdes(Class<T> handledType) {
+        this.handledType = handledType;
+    }
+
+    /**
+     * Checks if the given content-type (or the first value of an Accept header) is a MessagePack one.
+     *
+     * @param contentType The content-type
+     *
+     * @return {@code true} if the content-type is MessagePack, {@code false} otherwise
+     */
+    public static boolean isMsgPack(String contentType) {
+        if (contentType == null) return false;
+        final String lower = contentType.trim().toLowerCase();
+        for (String pattern : CONTENT_TYPE_PATTERNS) {
+            if (lower.startsWith(pattern)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Class<T> handledType() {
+        return handledType;
+    }
+
+    @Override
+    public String[] accept() {
+        return ACCEPT_PATTERNS;
+    }
+
+    @Override
+    public String[] contentType() {
+        return CONTENT_TYPE_PATTERNS;
+    }
+
+    /**
+     * Decodes the MessagePack content, checking if it is an array.
+     *
+     * @param response The serialized content
+     *
+     * @return The decoded array
+     */
+    protected JsArray<JavaScriptObject> decodeArray(String response) {
+        final JavaScriptObject decoded = decode(response);
+        if (!EvaluatedJson.isArray(decoded))
+            throw new UnableToDeserializeException("Response content is not an array.");
+        return decoded.cast();
+    }
+
+    /**
+     * Decodes the MessagePack content, wrapping any decoding failure.
+     *
+     * @param response The serialized content
+     *
+     * @return The decoded JavaScriptObject
+     */
+    protected JavaScriptObject decode(String response) {
+        try {
+            return MsgPack.decode(response);
+        } catch (RuntimeException e) {
+            throw new UnableToDeserializeException("Could not decode MessagePack content.", e);
+        }
+    }
+
+    /**
+     * Given a collection class, returns a new instance of it.
+     *
+     * @param collectionType    The class of the collection.
+     * @param <C>               The type of the collection.
+     *
+     * @return A new instance to the collection.
+     */
+    protected <C extends Collection<T>> C getCollectionInstance(DeserializationContext context,
+                                                                Class<C> collectionType) {
+        final C col = context.getContainerInstance(collectionType);
+        if (col == null)
+            throw new UnableToDeserializeException("Could not instantiate the given collection type.");
+        return col;
+    }
+}
@@ -16,8 +16,6 @@
 
 package org.turbogwt.net.shared;
 
-import com.google.gwt.http.client.URL;
-
 /**
  * Class that defines how multiple values will be appended to the URI along with its param name.
  *
@@ -40,6 +38,23 @@ public abstract class MultivaluedParamComposition {
      */
     public abstract String asUriPart(String separator, String name, Object... values);
 
+    /**
+     * Append the URI part of the given values to the builder.
+     * <p/>
+     *
+     * Prefer this method over {@link #asUriPart} when composing many parameters, so all of them are written
+     * into the same builder. The default implementation appends the result of {@link #asUriPart}.
+     *
+     * @param out       the builder the URI part is appended to
+     * @param separator the separator of parameters from current URI part
+     * @param name      the parameter name
+     * @param values    the parameter value(s), each object will be converted to a {@code String} using its {@code
+     *                  toString()} method.
+     */
+    public void appendUriPart(StringBuilder out, String separator, String name, Object... values) {
+        out.append(asUriPart(separator, name, values));
+    }
+
     /**
      * Assert that the value is not null or empty.
      *
@@ -71,18 +86,23 @@ public abstract class MultivaluedParamComposition {
          */
         @Override
         public String asUriPart(String separator, String name, Object... values) {
+            final StringBuilder out = new StringBuilder();
+            appendUriPart(out, separator, name, values);
+            return out.toString();
+        }
+
+        @Override
+        public void appendUriPart(StringBuilder out, String separator, String name, Object... values) {
             assertNotNullOrEmpty(name, "Parameter name cannot be null or empty.");
-            String uriPart = "";
-            String sep = "";
-            for (Object value : values) {
-                String strValue = value.toString();
+            final String encodedName = UriEncoder.encodeQueryString(name);
+            for (int i = 0; i < values.length; i++) {
+                String strValue = values[i].toString();
                 assertNotNullOrEmpty(strValue, "Parameter value of *" + name
                         + "* null or empty. You must inform a valid value");
 
-                uriPart += sep + URL.encodeQueryString(name) + "=" + URL.encodeQueryString(strValue);
-                sep = separator;
+                if (i > 0) out.append(separator);
+                out.append(encodedName).append('=').append(UriEncoder.encodeQueryString(strValue));
             }
-            return uriPart;
         }
     }
 
@@ -103,18 +123,23 @@ public abstract class MultivaluedParamComposition {
          */
         @Override
         public String asUriPart(String separator, String name, Object... values) {
+            final StringBuilder out = new StringBuilder();
+            appendUriPart(out, separator, name, values);
+            return out.toString();
+        }
+
+        @Override
+        public void appendUriPart(StringBuilder out, String separator, String name, Object... values) {
             assertNotNullOrEmpty(name, "Parameter name cannot be null or empty.");
-            String uriPart = URL.encodeQueryString(name) + "=";
-            String sep = "";
-            for (Object value : values) {
-                String strValue = value.toString();
+            out.append(UriEncoder.encodeQueryString(name)).append('=');
+            for (int i = 0; i < values.length; i++) {
+                String strValue = values[i].toString();
                 assertNotNullOrEmpty(strValue, "Parameter value of *" + name
                         + "* null or empty. You must inform a valid value");
 
-                uriPart += sep + URL.encodeQueryString(strValue);
-                sep = ",";
+                if (i > 0) out.append(',');
+                out.append(UriEncoder.encodeQueryString(strValue));
             }
-            return uriPart;
         }
     }
 }
@@ -16,23 +16,57 @@
 
 package org.turbogwt.net.shared;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Represents a URI.
+ * <p/>
+ *
+ * URIs created by {@link #parse(String)} are canonical: scheme and host are lowercased, default ports are dropped
+ * and query parameters are stably ordered by name. Thus, its string form can be used as a cheap request key.
  */
 public class Uri implements Comparable<Uri> {
 
-    private String scheme;
-    private String user;
-    private String password;
-    private String host;
-    private Integer port;
-    private String path;
-    private String query;
-    private String fragment;
+    private static final int CACHE_SIZE = 64;
+
+    private static final Map<String, Uri> CACHE = new LinkedHashMap<String, Uri>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Uri> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private static final Comparator<String> PARAM_NAME_COMPARATOR = new Comparator<String>() {
+        @Override
+        public int compare(String p1, String p2) {
+            return paramName(p1).compareTo(paramName(p2));
+        }
+    };
+
+    private final String scheme;
+    private final String user;
+    private final String password;
+    private final String host;
+    private final Integer port;
+    private final String path;
+    private final String query;
+    private final String fragment;
+    private final boolean relativePath;
     private String uriString;
+    private int hash;
 
     public Uri(String scheme, String user, String password, String host, Integer port, String path, String query,
                String fragment) {
+        this(scheme, user, password, host, port, path, query, fragment, false);
+    }
+
+    private Uri(String scheme, String user, String password, String host, Integer port, String path, String query,
+                String fragment, boolean relativePath) {
         // TODO: validate
         this.scheme = scheme;
         this.user = user;
@@ -42,6 +76,158 @@ public class Uri implements Comparable<Uri> {
         this.path = path;
         this.query = query;
         this.fragment = fragment;
+        this.relativePath = relativePath;
+    }
+
+    /**
+     * Parses the URI into its canonical form.
+     * <p/>
+     *
+     * The scheme and the host are lowercased, default ports (e.g. 80 for http) are dropped and the query parameters
+     * are stably sorted by name. Recently parsed URIs are cached, so parsing the same string again is cheap.
+     *
+     * @param uri The URI string
+     *
+     * @return The canonical URI
+     *
+     * @throws IllegalArgumentException if the uri is null or has an invalid port
+     */
+    public static Uri parse(String uri) throws IllegalArgumentException {
+        if (uri == null) throw new IllegalArgumentException("URI cannot be null.");
+
+        synchronized (CACHE) {
+            final Uri cached = CACHE.get(uri);
+            if (cached != null) return cached;
+        }
+
+        final Uri parsed = doParse(uri.trim());
+
+        synchronized (CACHE) {
+            CACHE.put(uri, parsed);
+        }
+        return parsed;
+    }
+
+    private static Uri doParse(String s) {
+        String fragment = null;
+        final int fragmentIdx = s.indexOf('#');
+        if (fragmentIdx > -1) {
+            fragment = s.substring(fragmentIdx + 1);
+            s = s.substring(0, fragmentIdx);
+        }
+
+        String query = null;
+        final int queryIdx = s.indexOf('?');
+        if (queryIdx > -1) {
+            query = canonicalQuery(s.substring(queryIdx + 1));
+            s = s.substring(0, queryIdx);
+        }
+
+        String scheme = null;
+        String authority = null;
+        final int schemeIdx = s.indexOf("://");
+        if (schemeIdx > 0 && s.lastIndexOf('/', schemeIdx) == -1) {
+            scheme = s.substring(0, schemeIdx).toLowerCase();
+            s = s.substring(schemeIdx + 1);
+        }
+        if (s.startsWith("//")) {
+            final int pathIdx = s.indexOf('/', 2);
+            authority = pathIdx > -1 ? s.substring(2, pathIdx) : s.substring(2);
+            s = pathIdx > -1 ? s.substring(pathIdx) : "";
+        }
+
+        String user = null;
+        String password = null;
+        String host = null;
+        Integer port = null;
+        if (authority != null) {
+            final int userInfoIdx = authority.lastIndexOf('@');
+            if (userInfoIdx > -1) {
+                final String userInfo = authority.substring(0, userInfoIdx);
+                final int passwordIdx = userInfo.indexOf(':');
+                if (passwordIdx > -1) {
+                    user = userInfo.substring(0, passwordIdx);
+                    password = userInfo.substring(passwordIdx + 1);
+                } else {
+                    user = userInfo;
+                }
+                authority = authority.substring(userInfoIdx + 1);
+            }
+
+            // IPv6 hosts are enclosed in brackets
+            final int portIdx = authority.indexOf(':', authority.startsWith("[") ? authority.indexOf(']') : 0);
+            if (portIdx > -1) {
+                final String portString = authority.substring(portIdx + 1);
+                if (!portString.isEmpty()) {
+                    try {
+                        port = Integer.valueOf(portString);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Invalid port '" + portString + "'.");
+                    }
+                }
+                authority = authority.substring(0, portIdx);
+            }
+            host = authority.isEmpty() ? null : authority.toLowerCase();
+
+            if (port != null && port.equals(defaultPort(scheme))) {
+                port = null;
+            }
+        }
+
+        boolean relativePath = false;
+        String path = null;
+        if (s.startsWith("/")) {
+            path = s.substring(1);
+        } else if (!s.isEmpty()) {
+            path = s;
+            relativePath = authority == null;
+        } else if (authority == null) {
+            relativePath = true;
+        }
+        if (path != null && path.isEmpty()) path = null;
+
+        return new Uri(scheme, user, password, host, port, path, query, fragment, relativePath);
+    }
+
+    private static String canonicalQuery(String query) {
+        if (query.isEmpty()) return null;
+
+        final String[] params = query.split("&");
+        final List<String> sorted = new ArrayList<>(params.length);
+        for (String param : params) {
+            if (!param.isEmpty()) sorted.add(param);
+        }
+        if (sorted.isEmpty()) return null;
+
+        // Collections#sort is stable, so values of repeated params keep their order
+        Collections.sort(sorted, PARAM_NAME_COMPARATOR);
+
+        final StringBuilder canonical = new StringBuilder(query.length());
+        for (String param : sorted) {
+            canonical.append(param).append('&');
+        }
+        return canonical.substring(0, canonical.length() - 1);
+    }
+
+    private static String paramName(String param) {
+        final int i = param.indexOf('=');
+        return i > -1 ? param.substring(0, i) : param;
+    }
+
+    private static Integer defaultPort(String scheme) {
+        if (scheme == null) return null;
+        switch (scheme) {
+            case "http":
+            case "ws":
+                return 80;
+            case "https":
+            case "wss":
+                return 443;
+            case "ftp":
+                return 21;
+            default:
+                return null;
+        }
     }
 
     public String getScheme() {
@@ -101,7 +287,9 @@ public class Uri implements Comparable<Uri> {
                 uri.append(':').append(port);
             }
 
-            uri.append('/');
+            if (!relativePath) {
+                uri.append('/');
+            }
 
             if (path != null) {
                 uri.append(path);
@@ -132,97 +320,79 @@ public class Uri implements Comparable<Uri> {
 
         final Uri uri = (Uri) o;
 
-        if (fragment != null ? !fragment.equals(uri.fragment) : uri.fragment != null) {
-            return false;
-        }
-        if (host != null ? !host.equals(uri.host) : uri.host != null) {
-            return false;
-        }
-        if (password != null ? !password.equals(uri.password) : uri.password != null) {
-            return false;
-        }
-        if (path != null ? !path.equals(uri.path) : uri.path != null) {
-            return false;
-        }
-        if (port != null ? !port.equals(uri.port) : uri.port != null) {
-            return false;
-        }
-        if (query != null ? !query.equals(uri.query) : uri.query != null) {
-            return false;
-        }
-        if (scheme != null ? !scheme.equals(uri.scheme) : uri.scheme != null) {
-            return false;
-        }
-        if (user != null ? !user.equals(uri.user) : uri.user != null) {
+        // The hash is cached, so it is a cheap way to discard different URIs
+        if (hashCode() != uri.hashCode()) {
             return false;
         }
 
-        return true;
+        return relativePath == uri.relativePath
+                && equal(path, uri.path)
+                && equal(host, uri.host)
+                && equal(query, uri.query)
+                && equal(port, uri.port)
+                && equal(scheme, uri.scheme)
+                && equal(fragment, uri.fragment)
+                && equal(user, uri.user)
+                && equal(password, uri.password);
     }
 
     @Override
     public int hashCode() {
-        int result = scheme != null ? scheme.hashCode() : 0;
-        result = 31 * result + (user != null ? user.hashCode() : 0);
-        result = 31 * result + (password != null ? password.hashCode() : 0);
-        result = 31 * result + (host != null ? host.hashCode() : 0);
-        result = 31 * result + (port != null ? port.hashCode() : 0);
-        result = 31 * result + (path != null ? path.hashCode() : 0);
-        result = 31 * result + (query != null ? query.hashCode() : 0);
-        result = 31 * result + (fragment != null ? fragment.hashCode() : 0);
-        return result;
+        if (hash == 0) {
+            int result = scheme != null ? scheme.hashCode() : 0;
+            result = 31 * result + (user != null ? user.hashCode() : 0);
+            result = 31 * result + (password != null ? password.hashCode() : 0);
+            result = 31 * result + (host != null ? host.hashCode() : 0);
+            result = 31 * result + (port != null ? port.hashCode() : 0);
+            result = 31 * result + (path != null ? path.hashCode() : 0);
+            result = 31 * result + (query != null ? query.hashCode() : 0);
+            result = 31 * result + (fragment != null ? fragment.hashCode() : 0);
+            result = 31 * result + (relativePath ? 1 : 0);
+            hash = result;
+        }
+        return hash;
     }
 
     @Override
     public int compareTo(Uri that) {
-        if (this.scheme.compareTo(that.scheme) < 0) {
-            return -1;
-        } else if (this.scheme.compareTo(that.scheme) > 0) {
-            return 1;
-        }
+        int result = compare(this.scheme, that.scheme);
+        if (result != 0) return result;
 
-        if (this.host.compareTo(that.host) < 0) {
-            return -1;
-        } else if (this.host.compareTo(that.host) > 0) {
-            return 1;
-        }
+        result = compare(this.host, that.host);
+        if (result != 0) return result;
 
-        if (this.port.compareTo(that.port) < 0) {
-            return -1;
-        } else if (this.port.compareTo(that.port) > 0) {
-            return 1;
-        }
+        result = compare(this.port, that.port);
+        if (result != 0) return result;
 
-        if (this.path.compareTo(that.path) < 0) {
-            return -1;
-        } else if (this.path.compareTo(that.path) > 0) {
-            return 1;
-        }
+        result = compare(this.path, that.path);
+        if (result != 0) return result;
 
-        if (this.query.compareTo(that.query) < 0) {
-            return -1;
-        } else if (this.query.compareTo(that.query) > 0) {
-            return 1;
-        }
+        result = compare(this.query, that.query);
+        if (result != 0) return result;
 
-        if (this.fragment.compareTo(that.fragment) < 0) {
-            return -1;
-        } else if (this.fragment.compareTo(that.fragment) > 0) {
-            return 1;
-        }
+        result = compare(this.fragment, that.fragment);
+        if (result != 0) return result;
 
-        if (this.user.compareTo(that.user) < 0) {
-            return -1;
-        } else if (this.user.compareTo(that.user) > 0) {
-            return 1;
-        }
+        result = compare(this.user, that.user);
+        if (result != 0) return result;
 
-        if (this.password.compareTo(that.password) < 0) {
-            return -1;
-        } else if (this.password.compareTo(that.password) > 0) {
-            return 1;
-        }
+        result = compare(this.password, that.password);
+        if (result != 0) return result;
+
+        return this.relativePath == that.relativePath ? 0 : (this.relativePath ? 1 : -1);
+    }
+
+    private static boolean equal(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
 
-        return 0;
+    /**
+     * Null-safe comparison, in which null values come first.
+     */
+    private static <T extends Comparable<T>> int compare(T a, T b) {
+        if (a == null) return b == null ? 0 : -1;
+        if (b == null) return 1;
+        final int result = a.compareTo(b);
+        return result < 0 ? -1 : (result > 0 ? 1 : 0);
     }
 }
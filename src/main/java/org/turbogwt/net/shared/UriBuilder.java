@@ -35,13 +35,19 @@ import com.google.gwt.core.shared.GWT;
 public abstract class UriBuilder {
 
     public static UriBuilder fromPath(String path) {
-        final UriBuilder uriBuilder = GWT.create(UriBuilder.class);
+        final UriBuilder uriBuilder = newInstance();
         uriBuilder.path(path);
         return uriBuilder;
     }
 
+    /**
+     * Creates a new UriBuilder. Outside GWT, a pure Java implementation producing the same URIs is returned.
+     *
+     * @return a new UriBuilder
+     */
     public static UriBuilder newInstance() {
-        return GWT.create(UriBuilder.class);
+        if (GWT.isClient()) return GWT.create(UriBuilder.class);
+        return new UriBuilderJreImpl();
     }
 
     /**
@@ -0,0 +1,309 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.shared;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pure Java implementation of {@link UriBuilder}, used when running outside GWT.
+ * <p/>
+ *
+ * It builds the same URIs as the GWT implementation: the templated parts are expanded by the same {@link UriTemplate}
+ * and the params are iterated in the order of the JavaScript objects backing the GWT maps.
+ *
+ * @author Danilo Reinert
+ */
+class UriBuilderJreImpl extends UriBuilder {
+
+    private MultivaluedParamComposition strategy = MultivaluedParamComposition.REPEATED_PARAM;
+    private String scheme;
+    private String user;
+    private String password;
+    private String host;
+    private Integer port;
+    private List<String> segments;
+    private String fragment;
+    private Map<String, Object[]> queryParams;
+    private Map<String, Map<String, Object[]>> matrixParams;
+
+    @Override
+    public UriBuilder multivaluedParamComposition(MultivaluedParamComposition strategy)
+            throws IllegalArgumentException {
+        assertNotNull(strategy, "MultivaluedParamComposition strategy cannot be null.");
+        this.strategy = strategy;
+        return this;
+    }
+
+    @Override
+    public UriBuilder scheme(String scheme) throws IllegalArgumentException {
+        this.scheme = scheme;
+        return this;
+    }
+
+    @Override
+    public UriBuilder user(String user) {
+        if (user == null) {
+            this.user = null;
+            this.password = null;
+        } else {
+            this.user = user;
+        }
+        return this;
+    }
+
+    @Override
+    public UriBuilder password(String password) {
+        this.password = password;
+        return this;
+    }
+
+    @Override
+    public UriBuilder host(String host) throws IllegalArgumentException {
+        this.host = host;
+        return this;
+    }
+
+    @Override
+    public UriBuilder port(int port) throws IllegalArgumentException {
+        if (port > -1) {
+            this.port = port;
+        } else {
+            this.port = null;
+        }
+        return this;
+    }
+
+    @Override
+    public UriBuilder path(String path) {
+        assertNotNull(path, "Path cannot be null.");
+        if (!path.isEmpty()) {
+            ensureSegments();
+            int start = 0;
+            int slash = path.indexOf('/');
+            while (slash > -1) {
+                if (slash > start) segments.add(path.substring(start, slash));
+                start = slash + 1;
+                slash = path.indexOf('/', start);
+            }
+            if (start < path.length()) segments.add(path.substring(start));
+        }
+        return this;
+    }
+
+    @Override
+    public UriBuilder segment(Object... segments) throws IllegalArgumentException {
+        assertNotNull(segments, "Segments cannot be null.");
+        ensureSegments();
+        for (Object o : segments) {
+            String segment = o.toString();
+            assertNotNullOrEmpty(segment, "Segment cannot be null or empty.");
+            this.segments.add(segment);
+        }
+        return this;
+    }
+
+    @Override
+    public UriBuilder matrixParam(String name, Object... values) throws IllegalArgumentException {
+        assertNotNullOrEmpty(name, "Parameter name cannot be null or empty.");
+        assertNotNull(values, "Parameter values cannot be null.");
+        assertNotNull(segments, "There is no segment added to the URI. " +
+                "There must be at least one segment added in order to bind matrix parameters");
+
+        if (matrixParams == null) {
+            matrixParams = new HashMap<>();
+        }
+
+        String segment = segments.get(segments.size() - 1);
+
+        Map<String, Object[]> segmentParams = matrixParams.get(segment);
+        if (segmentParams == null) {
+            segmentParams = new LinkedHashMap<>();
+            matrixParams.put(segment, segmentParams);
+        }
+        segmentParams.put(name, values);
+
+        return this;
+    }
+
+    @Override
+    public UriBuilder queryParam(String name, Object... values) throws IllegalArgumentException {
+        assertNotNull(name, "Parameter name cannot be null.");
+        assertNotNull(values, "Parameter values cannot be null.");
+        if (queryParams == null)
+            queryParams = new LinkedHashMap<>();
+        queryParams.put(name, values);
+        return this;
+    }
+
+    @Override
+    public UriBuilder fragment(String fragment) {
+        this.fragment = fragment;
+        return this;
+    }
+
+    @Override
+    public Uri build(Object... values) {
+        final String encScheme = encodePart(scheme);
+        final String encUser = encodePart(user);
+        final String encPassword = encodePart(password);
+        final String encHost = encodePart(host);
+
+        // Encoded values of the template params shared among all templated parts
+        Map<String, String> templateValues = null;
+        int position = 0;
+
+        final StringBuilder pathBuilder = new StringBuilder();
+        if (segments != null) {
+            for (String segment : segments) {
+                final UriTemplate template = getTemplate(segment);
+                if (template == null) {
+                    pathBuilder.append(UriEncoder.encodePathSegment(segment));
+                } else {
+                    if (templateValues == null) templateValues = UriTemplate.newValuesMap();
+                    position = template.expandShared(pathBuilder, templateValues, values, position);
+                }
+
+                // Check if there are matrix params for this segment
+                if (matrixParams != null) {
+                    Map<String, Object[]> segmentParams = matrixParams.get(segment);
+                    if (segmentParams != null) {
+                        pathBuilder.append(';');
+                        for (String param : jsKeyOrder(segmentParams.keySet())) {
+                            strategy.appendUriPart(pathBuilder, ";", param, segmentParams.get(param));
+                            pathBuilder.append(';');
+                        }
+                        pathBuilder.deleteCharAt(pathBuilder.length() - 1);
+                    }
+                }
+                pathBuilder.append('/');
+            }
+            if (pathBuilder.length() > 0) pathBuilder.deleteCharAt(pathBuilder.length() - 1);
+        }
+        final String encPath = pathBuilder.toString();
+
+        String encQuery = null;
+        if (queryParams != null) {
+            final StringBuilder queryBuilder = new StringBuilder();
+            for (String param : jsKeyOrder(queryParams.keySet())) {
+                strategy.appendUriPart(queryBuilder, "&", param, queryParams.get(param));
+                queryBuilder.append('&');
+            }
+            queryBuilder.deleteCharAt(queryBuilder.length() - 1);
+            encQuery = queryBuilder.toString();
+        }
+
+        String encFragment = null;
+        if (fragment != null) {
+            final UriTemplate template = getTemplate(fragment);
+            if (template == null) {
+                encFragment = encodePart(fragment);
+            } else {
+                if (templateValues == null) templateValues = UriTemplate.newValuesMap();
+                final StringBuilder fragmentBuilder = new StringBuilder();
+                template.expandShared(fragmentBuilder, templateValues, values, position);
+                encFragment = fragmentBuilder.toString();
+            }
+        }
+
+        return new Uri(encScheme, encUser, encPassword, encHost, port, encPath, encQuery, encFragment);
+    }
+
+    /**
+     * Returns the compiled template of the part or null if the part has no template params.
+     * The templates are not cached, since compiling is cheap in Java and a shared cache would not be thread-safe.
+     */
+    private static UriTemplate getTemplate(String part) {
+        return part.indexOf('{') == -1 ? null : UriTemplate.compileSegment(part);
+    }
+
+    /**
+     * Sorts the keys like the properties of a JavaScript object, which back the maps of the GWT implementation:
+     * the array indexes first in ascending order, then the other keys in insertion order.
+     */
+    private static List<String> jsKeyOrder(Set<String> keys) {
+        final List<String> ordered = new ArrayList<>(keys);
+        Collections.sort(ordered, new Comparator<String>() {
+            @Override
+            public int compare(String a, String b) {
+                final long indexA = arrayIndex(a);
+                final long indexB = arrayIndex(b);
+                if (indexA == -1 || indexB == -1) return indexA == -1 ? (indexB == -1 ? 0 : 1) : -1;
+                return indexA < indexB ? -1 : (indexA == indexB ? 0 : 1);
+            }
+        });
+        return ordered;
+    }
+
+    /**
+     * Returns the array index represented by the key, i.e., its canonical decimal value below 2^32 - 1, or -1.
+     */
+    private static long arrayIndex(String key) {
+        final int length = key.length();
+        if (length == 0 || length > 10 || (key.charAt(0) == '0' && length > 1)) return -1;
+        long index = 0;
+        for (int i = 0; i < length; i++) {
+            final char c = key.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            index = index * 10 + (c - '0');
+        }
+        return index < 4294967295L ? index : -1;
+    }
+
+    private String encodePart(String segment) {
+        return segment != null ? UriEncoder.encodePathSegment(segment) : null;
+    }
+
+    /**
+     * Assert that the value is not null.
+     *
+     * @param value   the value
+     * @param message the message to include with any exceptions
+     *
+     * @throws IllegalArgumentException if value is null
+     */
+    private void assertNotNull(Object value, String message) throws IllegalArgumentException {
+        if (value == null) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    /**
+     * Assert that the value is not null or empty.
+     *
+     * @param value   the value
+     * @param message the message to include with any exceptions
+     *
+     * @throws IllegalArgumentException if value is null or empty
+     */
+    private void assertNotNullOrEmpty(String value, String message) throws IllegalArgumentException {
+        if (value == null || value.length() == 0) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    private void ensureSegments() {
+        if (this.segments == null)
+            this.segments = new ArrayList<>();
+    }
+}
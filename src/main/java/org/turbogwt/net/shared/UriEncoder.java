@@ -0,0 +1,230 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.shared;
+
+import com.google.gwt.core.shared.GWT;
+import com.google.gwt.http.client.URL;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Memoizing percent-encoder for URI parts.
+ * <p/>
+ *
+ * Strings made only of unreserved chars (letters, digits, '-', '.', '_' and '~') are returned as they are.
+ * Other strings are encoded by {@link URL} and the results are kept in bounded LRU caches, since the same names,
+ * values and segments are usually encoded over and over.
+ * <p/>
+ *
+ * Outside GWT (e.g., in server code or plain JVM tests) the strings are encoded by a char buffer based encoder
+ * producing the same output as the browser's encodeURIComponent. The caches are not used there, since encoding in
+ * Java is cheap and they are not thread-safe.
+ *
+ * @author Danilo Reinert
+ */
+public final class UriEncoder {
+
+    private static final int CACHE_SIZE = 256;
+    private static final boolean CLIENT = GWT.isClient();
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private static final Map<String, String> QUERY_STRING_CACHE = createCache();
+    private static final Map<String, String> PATH_SEGMENT_CACHE = createCache();
+
+    private static int hitCount;
+    private static int missCount;
+
+    private UriEncoder() {
+    }
+
+    /**
+     * Encodes a query string name or value, like {@link URL#encodeQueryString(String)}.
+     *
+     * @param decodedURLComponent the string to be encoded
+     *
+     * @return the encoded string
+     */
+    public static String encodeQueryString(String decodedURLComponent) {
+        if (isUnreserved(decodedURLComponent)) return decodedURLComponent;
+        if (!CLIENT) return encodeComponent(decodedURLComponent, true);
+
+        String encoded = QUERY_STRING_CACHE.get(decodedURLComponent);
+        if (encoded != null) {
+            hitCount++;
+            return encoded;
+        }
+        missCount++;
+        encoded = URL.encodeQueryString(decodedURLComponent);
+        QUERY_STRING_CACHE.put(decodedURLComponent, encoded);
+        return encoded;
+    }
+
+    /**
+     * Encodes a path segment, like {@link URL#encodePathSegment(String)}.
+     *
+     * @param decodedURLComponent the string to be encoded
+     *
+     * @return the encoded string
+     */
+    public static String encodePathSegment(String decodedURLComponent) {
+        if (isUnreserved(decodedURLComponent)) return decodedURLComponent;
+        if (!CLIENT) return encodeComponent(decodedURLComponent, false);
+
+        String encoded = PATH_SEGMENT_CACHE.get(decodedURLComponent);
+        if (encoded != null) {
+            hitCount++;
+            return encoded;
+        }
+        missCount++;
+        encoded = URL.encodePathSegment(decodedURLComponent);
+        PATH_SEGMENT_CACHE.put(decodedURLComponent, encoded);
+        return encoded;
+    }
+
+    /**
+     * Encodes a URI keeping its reserved chars, like {@link URL#encode(String)}.
+     * The results are not cached, since this is meant for templates, which are compiled once.
+     *
+     * @param decodedURL the URI to be encoded
+     *
+     * @return the encoded URI
+     */
+    public static String encode(String decodedURL) {
+        if (isUnreserved(decodedURL)) return decodedURL;
+        if (!CLIENT) return encode(decodedURL, false, true);
+        return URL.encode(decodedURL);
+    }
+
+    /**
+     * Returns the number of encodings served from the caches.
+     *
+     * @return the cache hit count
+     */
+    public static int getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of encodings actually performed.
+     * Strings passed through for having only unreserved chars are counted neither as hits nor as misses.
+     *
+     * @return the cache miss count
+     */
+    public static int getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Clears the caches and resets the hit and miss counts.
+     */
+    public static void reset() {
+        QUERY_STRING_CACHE.clear();
+        PATH_SEGMENT_CACHE.clear();
+        hitCount = 0;
+        missCount = 0;
+    }
+
+    private static boolean isUnreserved(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '.' || c == '_' || c == '~')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Percent-encodes the UTF-8 bytes of every char not left unescaped by encodeURIComponent.
+     *
+     * @param spaceAsPlus if true, spaces are encoded as '+' like in {@link URL#encodeQueryString(String)}
+     */
+    static String encodeComponent(String s, boolean spaceAsPlus) {
+        return encode(s, spaceAsPlus, false);
+    }
+
+    /**
+     * Percent-encodes the UTF-8 bytes of every char not left unescaped by encodeURIComponent, or by encodeURI if the
+     * reserved chars are kept.
+     */
+    private static String encode(String s, boolean spaceAsPlus, boolean keepReserved) {
+        final int length = s.length();
+        int i = 0;
+        while (i < length && isUnescaped(s.charAt(i), keepReserved)) i++;
+        if (i == length) return s;
+
+        // A char takes at most 9 encoded chars (3 UTF-8 bytes), a surrogate pair takes 12 (4 UTF-8 bytes)
+        final char[] buffer = new char[i + (length - i) * 9];
+        s.getChars(0, i, buffer, 0);
+        int pos = i;
+        for (; i < length; i++) {
+            final char c = s.charAt(i);
+            if (isUnescaped(c, keepReserved)) {
+                buffer[pos++] = c;
+            } else if (c == ' ' && spaceAsPlus) {
+                buffer[pos++] = '+';
+            } else if (c < 0x80) {
+                pos = appendByte(buffer, pos, c);
+            } else if (c < 0x800) {
+                pos = appendByte(buffer, pos, 0xC0 | (c >> 6));
+                pos = appendByte(buffer, pos, 0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                final int cp = Character.toCodePoint(c, s.charAt(++i));
+                pos = appendByte(buffer, pos, 0xF0 | (cp >> 18));
+                pos = appendByte(buffer, pos, 0x80 | ((cp >> 12) & 0x3F));
+                pos = appendByte(buffer, pos, 0x80 | ((cp >> 6) & 0x3F));
+                pos = appendByte(buffer, pos, 0x80 | (cp & 0x3F));
+            } else if (c >= 0xD800 && c <= 0xDFFF) {
+                throw new IllegalArgumentException("Malformed URI component: unpaired surrogate at index " + i + ".");
+            } else {
+                pos = appendByte(buffer, pos, 0xE0 | (c >> 12));
+                pos = appendByte(buffer, pos, 0x80 | ((c >> 6) & 0x3F));
+                pos = appendByte(buffer, pos, 0x80 | (c & 0x3F));
+            }
+        }
+        return new String(buffer, 0, pos);
+    }
+
+    private static int appendByte(char[] buffer, int pos, int b) {
+        buffer[pos] = '%';
+        buffer[pos + 1] = HEX[(b >> 4) & 0xF];
+        buffer[pos + 2] = HEX[b & 0xF];
+        return pos + 3;
+    }
+
+    private static boolean isUnescaped(char c, boolean keepReserved) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '_' || c == '.' || c == '!' || c == '~' || c == '*' || c == '\'' || c == '('
+                || c == ')' || (keepReserved && isReserved(c));
+    }
+
+    private static boolean isReserved(char c) {
+        return c == ';' || c == '/' || c == '?' || c == ':' || c == '@' || c == '&' || c == '=' || c == '+'
+                || c == '$' || c == ',' || c == '#';
+    }
+
+    private static Map<String, String> createCache() {
+        return new LinkedHashMap<String, String>(CACHE_SIZE, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        };
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.shared;
+
+import com.google.gwt.core.shared.GWT;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.turbogwt.core.collections.client.LightMap;
+
+/**
+ * A URI template compiled once into literal and variable parts, which can be expanded many times.
+ * <p/>
+ *
+ * Variables are declared as <code>{name}</code>. The literal parts are percent-encoded at compile time, so expanding
+ * the template only encodes the values and appends the parts to a single buffer.
+ * The values are encoded as path segments, i.e., reserved chars like '/' and '?' are escaped.
+ * <p/>
+ *
+ * It runs both in GWT and outside it, so the GWT and the pure Java {@link UriBuilder}s expand the templated parts
+ * with the very same code.
+ * <p/>
+ *
+ * <pre>
+ * UriTemplate template = UriTemplate.compile("/books/{id}/chapters/{chapter}");
+ * String uri = template.expand(42, 7); // "/books/42/chapters/7"
+ * </pre>
+ *
+ * @author Danilo Reinert
+ */
+public class UriTemplate {
+
+    private final String template;
+    private final String[] literals;
+    private final int[] slots;
+    private final String[] variables;
+
+    private UriTemplate(String template, String[] literals, int[] slots, String[] variables) {
+        this.template = template;
+        this.literals = literals;
+        this.slots = slots;
+        this.variables = variables;
+    }
+
+    /**
+     * Compiles a URI template. The literal parts are encoded keeping the reserved chars of URIs.
+     *
+     * @param template The URI template
+     *
+     * @return The compiled template
+     *
+     * @throws IllegalArgumentException if the template is null
+     */
+    public static UriTemplate compile(String template) throws IllegalArgumentException {
+        return compile(template, false);
+    }
+
+    /**
+     * Compiles a template of a single path segment. The literal parts are encoded as path segments.
+     *
+     * @param segment The template of the segment
+     *
+     * @return The compiled template
+     *
+     * @throws IllegalArgumentException if the segment is null
+     */
+    public static UriTemplate compileSegment(String segment) throws IllegalArgumentException {
+        return compile(segment, true);
+    }
+
+    private static UriTemplate compile(String template, boolean segment) {
+        if (template == null) throw new IllegalArgumentException("Template cannot be null.");
+
+        final List<String> literals = new ArrayList<>();
+        final List<String> variables = new ArrayList<>();
+        final List<Integer> slots = new ArrayList<>();
+
+        int start = 0;
+        int open = template.indexOf('{');
+        while (open > -1) {
+            final int close = template.indexOf('}', open + 1);
+            if (close == -1) break;
+
+            final String variable = template.substring(open + 1, close);
+            int index = variables.indexOf(variable);
+            if (index == -1) {
+                index = variables.size();
+                variables.add(variable);
+            }
+            literals.add(encodeLiteral(template.substring(start, open), segment));
+            slots.add(index);
+
+            start = close + 1;
+            open = template.indexOf('{', start);
+        }
+        literals.add(encodeLiteral(template.substring(start), segment));
+
+        final int[] slotsArray = new int[slots.size()];
+        for (int i = 0; i < slotsArray.length; i++) {
+            slotsArray[i] = slots.get(i);
+        }
+        return new UriTemplate(template, literals.toArray(new String[literals.size()]), slotsArray,
+                variables.toArray(new String[variables.size()]));
+    }
+
+    /**
+     * Returns the distinct variable names in order of first appearance.
+     *
+     * @return The variable names
+     */
+    public String[] getVariables() {
+        return variables.clone();
+    }
+
+    /**
+     * Tells if this template has any variable.
+     *
+     * @return {@code true} if there are variables, {@code false} if the template is a plain literal
+     */
+    public boolean hasVariables() {
+        return variables.length > 0;
+    }
+
+    /**
+     * Expands the template replacing the variables by the given values in order of first appearance.
+     *
+     * @param values The values of the variables
+     *
+     * @return The expanded URI
+     *
+     * @throws UriBuilderException if there are less values than variables
+     */
+    public String expand(Object... values) throws UriBuilderException {
+        final StringBuilder out = new StringBuilder(template.length() + 16 * slots.length);
+        expand(out, values);
+        return out.toString();
+    }
+
+    /**
+     * Expands the template into the given buffer replacing the variables by the given values
+     * in order of first appearance.
+     *
+     * @param out       The buffer where the URI is appended
+     * @param values    The values of the variables
+     *
+     * @throws UriBuilderException if there are less values than variables
+     */
+    public void expand(StringBuilder out, Object... values) throws UriBuilderException {
+        if (values.length < variables.length)
+            throw new UriBuilderException("The supplied values are not enough to replace the existing " +
+                    "template params");
+
+        final String[] encoded = new String[variables.length];
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = encodeValue(values[i]);
+        }
+        append(out, encoded);
+    }
+
+    /**
+     * Expands the template replacing the variables by the values mapped to their names.
+     *
+     * @param values The values of the variables by name
+     *
+     * @return The expanded URI
+     *
+     * @throws UriBuilderException if some variable has no value
+     */
+    public String expand(Map<String, ?> values) throws UriBuilderException {
+        final String[] encoded = new String[variables.length];
+        for (int i = 0; i < encoded.length; i++) {
+            final Object value = values.get(variables[i]);
+            if (value == null)
+                throw new UriBuilderException("There is no value for the template param '" + variables[i] + "'.");
+            encoded[i] = encodeValue(value);
+        }
+
+        final StringBuilder out = new StringBuilder(template.length() + 16 * slots.length);
+        append(out, encoded);
+        return out.toString();
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+
+    /**
+     * Appends the expanded template to the buffer, taking the encoded values from a map shared among many templates.
+     * Variables not yet present in the map take the next positional value.
+     *
+     * @param out           The buffer where the URI is appended
+     * @param encodedValues The encoded values by variable name, shared among the templates of a URI
+     * @param values        The positional values
+     * @param position      The position of the next value to be taken
+     *
+     * @return the updated position in the values array
+     *
+     * @throws UriBuilderException if there are less values than variables
+     */
+    public int expandShared(StringBuilder out, Map<String, String> encodedValues, Object[] values, int position)
+            throws UriBuilderException {
+        final String[] encoded = new String[variables.length];
+        for (int i = 0; i < encoded.length; i++) {
+            String value = encodedValues.get(variables[i]);
+            if (value == null) {
+                if (position >= values.length)
+                    throw new UriBuilderException("The supplied values are not enough to replace the existing " +
+                            "template params");
+                value = encodeValue(values[position++]);
+                encodedValues.put(variables[i], value);
+            }
+            encoded[i] = value;
+        }
+        append(out, encoded);
+        return position;
+    }
+
+    /**
+     * Creates a map of encoded values to be shared among templates by {@link #expandShared}.
+     *
+     * @return an empty map
+     */
+    public static Map<String, String> newValuesMap() {
+        if (GWT.isClient()) return GWT.create(LightMap.class);
+        return new HashMap<>();
+    }
+
+    private void append(StringBuilder out, String[] encoded) {
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]).append(encoded[slots[i]]);
+        }
+        out.append(literals[slots.length]);
+    }
+
+    private static String encodeValue(Object value) {
+        return UriEncoder.encodePathSegment(value.toString());
+    }
+
+    private static String encodeLiteral(String literal, boolean segment) {
+        if (literal.isEmpty()) return literal;
+        return segment ? UriEncoder.encodePathSegment(literal) : UriEncoder.encode(literal);
+    }
+}
@@ -21,6 +21,10 @@ import com.google.gwt.junit.tools.GWTTestSuite;
 import junit.framework.Test;
 
 import org.turbogwt.net.client.UriBuilderTest;
+import org.turbogwt.net.client.UriEncoderTest;
+import org.turbogwt.net.client.UriTemplateTest;
+import org.turbogwt.net.client.UriTest;
+import org.turbogwt.net.shared.UriBuilderConformanceTest;
 
 /**
  * @author Danilo Reinert
@@ -31,6 +35,10 @@ public class NetGwtTestSuite {
         GWTTestSuite suite = new GWTTestSuite("Net Core Test Suite");
 
         suite.addTestSuite(UriBuilderTest.class);
+        suite.addTestSuite(UriEncoderTest.class);
+        suite.addTestSuite(UriTemplateTest.class);
+        suite.addTestSuite(UriTest.class);
+        suite.addTestSuite(UriBuilderConformanceTest.class);
 
         return suite;
     }
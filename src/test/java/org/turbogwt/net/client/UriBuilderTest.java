@@ -99,6 +99,16 @@ public class UriBuilderTest extends GWTTestCase {
         assertEquals(expected, uri);
     }
 
+    public void testAppendUriPart() {
+        final StringBuilder out = new StringBuilder("q=x&");
+
+        MultivaluedParamComposition.REPEATED_PARAM.appendUriPart(out, "&", "facet", "a b", "c");
+        out.append('&');
+        MultivaluedParamComposition.COMMA_SEPARATED_VALUE.appendUriPart(out, "&", "tag", 1, 2);
+
+        assertEquals("q=x&facet=a+b&facet=c&tag=1,2", out.toString());
+    }
+
     public void testInsufficientTemplateParams() {
         try {
             assertNull(UriBuilder.newInstance()
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.client;
+
+import com.google.gwt.http.client.URL;
+import com.google.gwt.junit.client.GWTTestCase;
+
+import org.turbogwt.net.shared.UriEncoder;
+
+/**
+ * @author Danilo Reinert
+ */
+public class UriEncoderTest extends GWTTestCase {
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.net.NetTest";
+    }
+
+    @Override
+    protected void gwtSetUp() throws Exception {
+        UriEncoder.reset();
+    }
+
+    public void testUnreservedPassThrough() {
+        final String value = "Abc-0.9_x~";
+
+        assertSame(value, UriEncoder.encodeQueryString(value));
+        assertSame(value, UriEncoder.encodePathSegment(value));
+        assertEquals(0, UriEncoder.getHitCount());
+        assertEquals(0, UriEncoder.getMissCount());
+    }
+
+    public void testEncodingMatchesUrl() {
+        final String value = "a b/c?d=\u00e3&e";
+
+        assertEquals(URL.encodeQueryString(value), UriEncoder.encodeQueryString(value));
+        assertEquals(URL.encodePathSegment(value), UriEncoder.encodePathSegment(value));
+    }
+
+    public void testHitsAndMisses() {
+        UriEncoder.encodeQueryString("first name");
+        UriEncoder.encodeQueryString("first name");
+        UriEncoder.encodeQueryString("first name");
+        UriEncoder.encodePathSegment("first name");
+
+        assertEquals(2, UriEncoder.getHitCount());
+        assertEquals(2, UriEncoder.getMissCount());
+    }
+
+    public void testReset() {
+        UriEncoder.encodeQueryString("a b");
+        UriEncoder.reset();
+        UriEncoder.encodeQueryString("a b");
+
+        assertEquals(0, UriEncoder.getHitCount());
+        assertEquals(1, UriEncoder.getMissCount());
+    }
+}
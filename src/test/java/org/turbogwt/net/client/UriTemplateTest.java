@@ -0,0 +1,90 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.client;
+
+import com.google.gwt.junit.client.GWTTestCase;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.turbogwt.net.shared.UriBuilderException;
+import org.turbogwt.net.shared.UriTemplate;
+
+/**
+ * @author Danilo Reinert
+ */
+public class UriTemplateTest extends GWTTestCase {
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.net.NetTest";
+    }
+
+    public void testPositionalExpansion() {
+        final UriTemplate template = UriTemplate.compile("/books/{id}/chapters/{chapter}");
+
+        assertEquals("/books/42/chapters/7", template.expand(42, 7));
+        assertEquals("/books/43/chapters/1", template.expand(43, 1));
+    }
+
+    public void testRepeatedVariable() {
+        final UriTemplate template = UriTemplate.compile("/{a}/{b}/{a}");
+
+        assertEquals(2, template.getVariables().length);
+        assertEquals("/x/y/x", template.expand("x", "y"));
+    }
+
+    public void testNamedExpansion() {
+        final UriTemplate template = UriTemplate.compile("/users/{user}/posts/{post}");
+        final Map<String, Object> values = new HashMap<>();
+        values.put("user", "john");
+        values.put("post", 3);
+
+        assertEquals("/users/john/posts/3", template.expand(values));
+    }
+
+    public void testEncoding() {
+        final UriTemplate template = UriTemplate.compile("/my files/{name}");
+
+        assertEquals("/my%20files/a%2Fb%20c", template.expand("a/b c"));
+    }
+
+    public void testExpansionIntoBuffer() {
+        final UriTemplate template = UriTemplate.compile("/items/{id}");
+        final StringBuilder out = new StringBuilder("http://localhost");
+
+        template.expand(out, 1);
+
+        assertEquals("http://localhost/items/1", out.toString());
+    }
+
+    public void testInsufficientValues() {
+        try {
+            UriTemplate.compile("/{a}/{b}").expand("a");
+            fail("UriBuilderException should have been thrown.");
+        } catch (UriBuilderException e) {
+            assertNotNull(e);
+        }
+    }
+
+    public void testLiteralTemplate() {
+        final UriTemplate template = UriTemplate.compile("/plain/path");
+
+        assertFalse(template.hasVariables());
+        assertEquals("/plain/path", template.expand());
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http;
+
+import com.google.gwt.junit.tools.GWTTestSuite;
+
+import junit.framework.Test;
+
+import org.turbogwt.net.http.client.benchmark.DispatchOverheadBenchmark;
+
+/**
+ * Benchmarks of the library's overhead per request, run in GWT's test environment.
+ * They are not part of the regular test run; use the <code>benchmark</code> profile to run them.
+ *
+ * @author Danilo Reinert
+ */
+public class HttpGwtBenchmarkSuite {
+
+    public static Test suite() {
+        GWTTestSuite suite = new GWTTestSuite("Http Benchmark Suite");
+
+        suite.addTestSuite(DispatchOverheadBenchmark.class);
+
+        return suite;
+    }
+}
@@ -21,14 +21,28 @@ import com.google.gwt.junit.tools.GWTTestSuite;
 import junit.framework.Test;
 
 import org.turbogwt.net.client.UriBuilderTest;
+import org.turbogwt.net.http.client.AsyncRequestFilterTest;
 import org.turbogwt.net.http.client.ContentTypeAcceptPatternsTest;
 import org.turbogwt.net.http.client.GeneratedJsonSerdesTest;
+import org.turbogwt.net.http.client.HedgingPolicyTest;
+import org.turbogwt.net.http.client.LoadSimulationTest;
+import org.turbogwt.net.http.client.MsgPackSerdesTest;
 import org.turbogwt.net.http.client.MultipleHeaderTest;
 import org.turbogwt.net.http.client.MultipleSerdesByClassTest;
+import org.turbogwt.net.http.client.PhaseTimeoutTest;
+import org.turbogwt.net.http.client.ProgressThrottleTest;
 import org.turbogwt.net.http.client.QualityFactorHeaderTest;
+import org.turbogwt.net.http.client.RequestCompressionTest;
+import org.turbogwt.net.http.client.RequestFilterTest;
+import org.turbogwt.net.http.client.RequestMetricsTest;
+import org.turbogwt.net.http.client.RequestPromisesTest;
 import org.turbogwt.net.http.client.RequestTest;
+import org.turbogwt.net.http.client.ResponseHeadersTest;
+import org.turbogwt.net.http.client.ResponseTransformerTest;
+import org.turbogwt.net.http.client.ScopedFilterTest;
 import org.turbogwt.net.http.client.SerializerAndDeserializerPrecedenceTest;
 import org.turbogwt.net.http.client.SimpleHeaderWithParameterTest;
+import org.turbogwt.net.http.client.TrafficReplayTest;
 import org.turbogwt.net.http.client.books.RestTest;
 
 /**
@@ -45,6 +59,19 @@ public class HttpGwtTestSuite {
 
         suite.addTestSuite(UriBuilderTest.class);
         suite.addTestSuite(RequestTest.class);
+        suite.addTestSuite(RequestCompressionTest.class);
+        suite.addTestSuite(AsyncRequestFilterTest.class);
+        suite.addTestSuite(RequestFilterTest.class);
+        suite.addTestSuite(RequestMetricsTest.class);
+        suite.addTestSuite(ScopedFilterTest.class);
+        suite.addTestSuite(ResponseTransformerTest.class);
+        suite.addTestSuite(RequestPromisesTest.class);
+        suite.addTestSuite(HedgingPolicyTest.class);
+        suite.addTestSuite(PhaseTimeoutTest.class);
+        suite.addTestSuite(ProgressThrottleTest.class);
+        suite.addTestSuite(LoadSimulationTest.class);
+        suite.addTestSuite(TrafficReplayTest.class);
+        suite.addTestSuite(ResponseHeadersTest.class);
         suite.addTestSuite(ContentTypeAcceptPatternsTest.class);
 //        suite.addTestSuite(SerializerAndDeserializerMatchTest.class);
         suite.addTestSuite(SerializerAndDeserializerPrecedenceTest.class);
@@ -53,6 +80,7 @@ public class HttpGwtTestSuite {
         suite.addTestSuite(RestTest.class);
 
         suite.addTestSuite(GeneratedJsonSerdesTest.class);
+        suite.addTestSuite(MsgPackSerdesTest.class);
 
         return suite;
     }
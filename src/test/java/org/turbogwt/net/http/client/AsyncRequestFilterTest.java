@@ -0,0 +1,137 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.junit.client.GWTTestCase;
+
+import org.turbogwt.core.future.shared.Deferred;
+import org.turbogwt.core.future.shared.DoneCallback;
+import org.turbogwt.core.future.shared.FailCallback;
+import org.turbogwt.core.future.shared.Promise;
+import org.turbogwt.core.future.shared.impl.DeferredObject;
+import org.turbogwt.net.http.client.header.ContentTypeHeader;
+import org.turbogwt.net.http.client.mock.ResponseMock;
+import org.turbogwt.net.http.client.mock.ServerStub;
+
+/**
+ * @author Danilo Reinert
+ */
+public class AsyncRequestFilterTest extends GWTTestCase {
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.net.http.HttpTest";
+    }
+
+    public void testRequestIsHeldUntilFilterIsDone() {
+        final Requestor requestor = getRequestor();
+        final Deferred<Void, Throwable, Void> gate = new DeferredObject<>();
+        requestor.registerAsyncRequestFilter(new AsyncRequestFilter() {
+            @Override
+            public Promise<?, Throwable, ?> filter(final Request request) {
+                return gate.promise().done(new DoneCallback<Void>() {
+                    @Override
+                    public void onDone(Void result) {
+                        request.header("X-Gate", "open");
+                    }
+                });
+            }
+        });
+
+        final String uri = "/held";
+        ServerStub.responseFor(uri, ResponseMock.of(null, 200, "OK", new ContentTypeHeader("text/plain")));
+
+        requestor.request(uri).get();
+        assertNull(ServerStub.getRequestData(uri));
+
+        gate.resolve(null);
+        assertNotNull(ServerStub.getRequestData(uri));
+        assertEquals("open", ServerStub.getRequestData(uri).getHeaders().getValue("X-Gate"));
+    }
+
+    public void testSingleFlightRefresh() {
+        final Requestor requestor = getRequestor();
+        final int[] refreshes = new int[1];
+        final Deferred<String, Throwable, Void> refresh = new DeferredObject<>();
+        final SingleFlight<String> tokenRefresh = new SingleFlight<>();
+        final SingleFlight.Call<String> refreshCall = new SingleFlight.Call<String>() {
+            @Override
+            public Promise<String, Throwable, ?> start() {
+                refreshes[0]++;
+                return refresh.promise();
+            }
+        };
+        requestor.registerAsyncRequestFilter(new AsyncRequestFilter() {
+            @Override
+            public Promise<?, Throwable, ?> filter(final Request request) {
+                return tokenRefresh.call(refreshCall).done(new DoneCallback<String>() {
+                    @Override
+                    public void onDone(String token) {
+                        request.header("Authorization", "Bearer " + token);
+                    }
+                });
+            }
+        });
+
+        final String[] uris = {"/one", "/two", "/three"};
+        for (String uri : uris) {
+            ServerStub.responseFor(uri, ResponseMock.of(null, 200, "OK", new ContentTypeHeader("text/plain")));
+            requestor.request(uri).get();
+        }
+
+        assertEquals(1, refreshes[0]);
+        assertTrue(tokenRefresh.isInFlight());
+
+        refresh.resolve("abc");
+
+        assertFalse(tokenRefresh.isInFlight());
+        for (String uri : uris) {
+            assertEquals("Bearer abc", ServerStub.getRequestData(uri).getHeaders().getValue("Authorization"));
+        }
+    }
+
+    public void testRejectedFilterFailsRequest() {
+        final Requestor requestor = getRequestor();
+        final Exception reason = new Exception("Refresh failed");
+        requestor.registerAsyncRequestFilter(new AsyncRequestFilter() {
+            @Override
+            public Promise<?, Throwable, ?> filter(Request request) {
+                return new DeferredObject<Void, Throwable, Void>().reject(reason);
+            }
+        });
+
+        final String uri = "/rejected";
+        ServerStub.responseFor(uri, ResponseMock.of(null, 200, "OK", new ContentTypeHeader("text/plain")));
+
+        final Throwable[] failure = new Throwable[1];
+        requestor.request(uri).get().fail(new FailCallback<Throwable>() {
+            @Override
+            public void onFail(Throwable result) {
+                failure[0] = result;
+            }
+        });
+
+        assertSame(reason, failure[0]);
+        assertNull(ServerStub.getRequestData(uri));
+    }
+
+    private Requestor getRequestor() {
+        ServerStub.clearStub();
+        return GWT.create(Requestor.class);
+    }
+}
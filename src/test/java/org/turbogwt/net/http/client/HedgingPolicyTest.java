@@ -0,0 +1,273 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.junit.client.GWTTestCase;
+
+import org.turbogwt.core.future.shared.DoneCallback;
+import org.turbogwt.core.future.shared.FailCallback;
+import org.turbogwt.net.http.client.header.ContentTypeHeader;
+import org.turbogwt.net.http.client.header.SimpleHeader;
+import org.turbogwt.net.http.client.mock.ResponseMock;
+import org.turbogwt.net.http.client.mock.ServerStub;
+
+/**
+ * @author Danilo Reinert
+ */
+public class HedgingPolicyTest extends GWTTestCase {
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.net.http.HttpTest";
+    }
+
+    public void testPercentileDelay() {
+        final HedgingPolicy policy = HedgingPolicy.atPercentile(0.95, 300);
+        for (int i = 1; i < HedgingPolicy.MIN_SAMPLES; i++) {
+            policy.recordLatency(i);
+        }
+        assertEquals(300, policy.getDelay());
+
+        for (int i = HedgingPolicy.MIN_SAMPLES; i <= 100; i++) {
+            policy.recordLatency(i);
+        }
+        assertEquals(95, policy.getDelay());
+    }
+
+    public void testPercentileWindowDropsOldLatencies() {
+        final HedgingPolicy policy = HedgingPolicy.atPercentile(0.5, 300);
+        for (int i = 0; i < HedgingPolicy.WINDOW_SIZE; i++) {
+            policy.recordLatency(1000);
+        }
+        for (int i = 0; i < HedgingPolicy.WINDOW_SIZE; i++) {
+            policy.recordLatency(10);
+        }
+        assertEquals(10, policy.getDelay());
+    }
+
+    public void testBudgetLimitsHedges() {
+        final HedgingPolicy policy = HedgingPolicy.after(0).withBudget(0.25);
+        int hedges = 0;
+        for (int i = 0; i < 100; i++) {
+            policy.onRequest();
+            if (policy.tryHedge()) hedges++;
+        }
+        assertEquals(25, hedges);
+        assertEquals(25, policy.getHedgeCount());
+
+        final HedgingPolicy disabled = HedgingPolicy.after(0).withBudget(0);
+        disabled.onRequest();
+        assertFalse(disabled.tryHedge());
+    }
+
+    public void testHedgeUri() {
+        assertEquals("/books?page=2", HedgingPolicy.after(0).getHedgeUri("/books?page=2"));
+
+        final HedgingPolicy policy = HedgingPolicy.after(0).toOrigin("http://mirror.example.com");
+        assertEquals("http://mirror.example.com/books?page=2", policy.getHedgeUri("/books?page=2"));
+        assertEquals("http://mirror.example.com/books", policy.getHedgeUri("http://example.com/books"));
+        assertEquals("http://mirror.example.com/", policy.getHedgeUri("http://example.com"));
+    }
+
+    public void testSlowRequestIsHedged() {
+        ServerStub.clearStub();
+        final Requestor requestor = GWT.create(Requestor.class);
+        final HedgingPolicy policy = HedgingPolicy.after(10).withBudget(1).toOrigin("http://mirror");
+        final int[] filtered = new int[1];
+        requestor.registerRequestFilter(new RequestFilter() {
+            @Override
+            public void filter(Request request) {
+                request.header(new SimpleHeader("Authorization", "Token " + ++filtered[0]));
+            }
+        });
+
+        ServerStub.responseFor("http://mirror/books", ResponseMock.of("hedged", 200, "OK",
+                new ContentTypeHeader("text/plain")));
+
+        final String[] result = new String[1];
+        requestor.request("/books").hedge(policy).get(String.class).done(new DoneCallback<String>() {
+            @Override
+            public void onDone(String value) {
+                result[0] = value;
+            }
+        });
+        assertNotNull(ServerStub.getRequestData("/books"));
+        assertNull(ServerStub.getRequestData("http://mirror/books"));
+
+        delayTestFinish(2000);
+        Scheduler.get().scheduleFixedDelay(new Scheduler.RepeatingCommand() {
+            @Override
+            public boolean execute() {
+                assertEquals(1, policy.getHedgeCount());
+                assertNotNull(ServerStub.getRequestData("http://mirror/books"));
+
+                // The hedge carries the filtered request instead of filtering it again
+                assertEquals(1, filtered[0]);
+                assertEquals("Token 1", ServerStub.getRequestData("http://mirror/books").getHeaders()
+                        .getValue("Authorization"));
+
+                // The stub responds to the last request sent, i.e., the hedge
+                ServerStub.triggerPendingRequest();
+                assertEquals("hedged", result[0]);
+                finishTest();
+                return false;
+            }
+        }, 100);
+    }
+
+    public void testFailedHedgeIsIgnored() {
+        ServerStub.clearStub();
+        final Requestor requestor = GWT.create(Requestor.class);
+        final HedgingPolicy policy = HedgingPolicy.after(10).withBudget(1).toOrigin("http://mirror");
+
+        ServerStub.responseFor("/books", ResponseMock.of("primary", 200, "OK", new ContentTypeHeader("text/plain")));
+        ServerStub.responseFor("http://mirror/books", ResponseMock.of(null, 503, "Service Unavailable",
+                new ContentTypeHeader("text/plain")));
+
+        final String[] result = new String[1];
+        final Throwable[] error = new Throwable[1];
+        requestor.request("/books").hedge(policy).get(String.class).done(new DoneCallback<String>() {
+            @Override
+            public void onDone(String value) {
+                result[0] = value;
+            }
+        }).fail(new FailCallback<Throwable>() {
+            @Override
+            public void onFail(Throwable reason) {
+                error[0] = reason;
+            }
+        });
+
+        delayTestFinish(2000);
+        Scheduler.get().scheduleFixedDelay(new Scheduler.RepeatingCommand() {
+            @Override
+            public boolean execute() {
+                assertEquals(1, policy.getHedgeCount());
+
+                // The stub responds to the last request sent, so the hedge fails first
+                ServerStub.triggerPendingRequest();
+                assertNull(error[0]);
+                assertNull(result[0]);
+
+                ServerStub.triggerPendingRequest();
+                assertNull(error[0]);
+                assertEquals("primary", result[0]);
+                finishTest();
+                return false;
+            }
+        }, 100);
+    }
+
+    public void testFailedPrimaryWithoutHedgeIsRejected() {
+        ServerStub.clearStub();
+        final Requestor requestor = GWT.create(Requestor.class);
+        final HedgingPolicy policy = HedgingPolicy.after(1000).withBudget(1);
+
+        ServerStub.responseFor("/books", ResponseMock.of(null, 500, "Internal Server Error",
+                new ContentTypeHeader("text/plain")));
+
+        final Throwable[] error = new Throwable[1];
+        requestor.request("/books").hedge(policy).get(String.class).fail(new FailCallback<Throwable>() {
+            @Override
+            public void onFail(Throwable reason) {
+                error[0] = reason;
+            }
+        });
+        ServerStub.triggerPendingRequest();
+
+        assertTrue(error[0] instanceof UnsuccessfulResponseException);
+    }
+
+    public void testLatencyOfWinningHedgeIsRecorded() {
+        ServerStub.clearStub();
+        final Requestor requestor = GWT.create(Requestor.class);
+        final HedgingPolicy policy = HedgingPolicy.atPercentile(0.99, 10).withBudget(1).toOrigin("http://mirror");
+        for (int i = 1; i < HedgingPolicy.MIN_SAMPLES; i++) {
+            policy.recordLatency(0);
+        }
+
+        ServerStub.responseFor("http://mirror/books", ResponseMock.of("hedged", 200, "OK",
+                new ContentTypeHeader("text/plain")));
+
+        requestor.request("/books").hedge(policy).get(String.class);
+
+        delayTestFinish(2000);
+        Scheduler.get().scheduleFixedDelay(new Scheduler.RepeatingCommand() {
+            @Override
+            public boolean execute() {
+                assertEquals(1, policy.getHedgeCount());
+                ServerStub.triggerPendingRequest();
+
+                // The slow request is kept in the window although its primary never finished
+                assertTrue(policy.getDelay() >= 100);
+                finishTest();
+                return false;
+            }
+        }, 100);
+    }
+
+    public void testFailedDispatchDoesNotEarnHedges() {
+        ServerStub.clearStub();
+        final Requestor requestor = GWT.create(Requestor.class);
+        final HedgingPolicy policy = HedgingPolicy.after(10).withBudget(1);
+        requestor.registerRequestFilter(new RequestFilter() {
+            @Override
+            public void filter(Request request) {
+                throw new IllegalStateException("Filter failed.");
+            }
+        });
+
+        try {
+            requestor.request("/books").hedge(policy).get(String.class);
+            fail("The failure of the filter should have been thrown.");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertEquals(0, policy.getRequestCount());
+        assertFalse(policy.tryHedge());
+    }
+
+    public void testFastRequestIsNotHedged() {
+        ServerStub.clearStub();
+        final Requestor requestor = GWT.create(Requestor.class);
+        final HedgingPolicy policy = HedgingPolicy.after(10).withBudget(1);
+
+        ServerStub.responseFor("/books", ResponseMock.of("primary", 200, "OK", new ContentTypeHeader("text/plain")));
+
+        final String[] result = new String[1];
+        requestor.request("/books").hedge(policy).get(String.class).done(new DoneCallback<String>() {
+            @Override
+            public void onDone(String value) {
+                result[0] = value;
+            }
+        });
+        ServerStub.triggerPendingRequest();
+        assertEquals("primary", result[0]);
+
+        delayTestFinish(2000);
+        Scheduler.get().scheduleFixedDelay(new Scheduler.RepeatingCommand() {
+            @Override
+            public boolean execute() {
+                assertEquals(0, policy.getHedgeCount());
+                finishTest();
+                return false;
+            }
+        }, 100);
+    }
+}
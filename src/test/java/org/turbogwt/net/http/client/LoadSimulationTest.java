@@ -0,0 +1,272 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.RequestBuilder;
+import com.google.gwt.http.client.RequestCallbackWithProgress;
+import com.google.gwt.http.client.RequestException;
+import com.google.gwt.http.client.RequestProgress;
+import com.google.gwt.http.client.Response;
+import com.google.gwt.junit.client.GWTTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.turbogwt.core.future.shared.DoneCallback;
+import org.turbogwt.net.http.client.header.ContentTypeHeader;
+import org.turbogwt.net.http.client.mock.LatencyDistribution;
+import org.turbogwt.net.http.client.mock.LoadSimulation;
+import org.turbogwt.net.http.client.mock.ResponseMock;
+import org.turbogwt.net.http.client.mock.ServerConnectionMock;
+import org.turbogwt.net.http.client.mock.ServerStub;
+import org.turbogwt.net.http.client.mock.VirtualScheduler;
+
+/**
+ * @author Danilo Reinert
+ */
+public class LoadSimulationTest extends GWTTestCase {
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.net.http.HttpTest";
+    }
+
+    public void testManyPendingRequests() {
+        final Requestor requestor = getRequestor();
+        final String[] results = new String[3];
+        for (int i = 0; i < results.length; i++) {
+            final int index = i;
+            ServerStub.responseFor("/item/" + i, ResponseMock.of("item " + i, 200, "OK",
+                    new ContentTypeHeader("text/plain")));
+            requestor.request("/item/" + i).get(String.class).done(new DoneCallback<String>() {
+                @Override
+                public void onDone(String result) {
+                    results[index] = result;
+                }
+            });
+        }
+
+        assertEquals(3, ServerStub.getPendingRequestCount());
+        assertEquals(3, ServerStub.getInFlightRequestCount());
+
+        ServerStub.triggerAllPendingRequests();
+
+        assertEquals("item 0", results[0]);
+        assertEquals("item 1", results[1]);
+        assertEquals("item 2", results[2]);
+        assertEquals(0, ServerStub.getInFlightRequestCount());
+        assertEquals(3, ServerStub.getPeakInFlightRequestCount());
+    }
+
+    public void testTriggerPendingRequestAnswersTheLastSent() throws RequestException {
+        ServerStub.clearStub();
+        final RecordingCallback first = send("/first");
+        final RecordingCallback second = send("/second");
+
+        ServerStub.triggerPendingRequest();
+
+        assertNull(first.status);
+        assertEquals("200", second.status);
+        assertEquals(1, ServerStub.getPendingRequestCount());
+
+        ServerStub.triggerPendingRequest();
+
+        assertEquals("200", first.status);
+    }
+
+    public void testFixedLatency() throws RequestException {
+        ServerStub.clearStub();
+        ServerStub.simulate(LoadSimulation.withSeed(1).latency(LatencyDistribution.fixed(100)));
+
+        final RecordingCallback callback = send("/latency");
+        assertEquals(0, ServerStub.getPendingRequestCount());
+        assertEquals(1, ServerStub.getInFlightRequestCount());
+
+        ServerStub.getScheduler().advanceBy(99);
+        assertNull(callback.status);
+
+        ServerStub.getScheduler().advanceBy(1);
+        assertEquals("200", callback.status);
+        assertEquals(100, callback.settledAt);
+        assertEquals(0, ServerStub.getInFlightRequestCount());
+    }
+
+    public void testBandwidthLimitedProgress() throws RequestException {
+        ServerStub.clearStub();
+        ServerStub.simulate(LoadSimulation.withSeed(1)
+                .latency(LatencyDistribution.fixed(50))
+                .bandwidth(1000, 2500));
+
+        final RecordingCallback callback = send("/download", repeat('a', 10000));
+        ServerStub.getScheduler().runAll();
+
+        assertEquals(4, callback.progress.size());
+        assertEquals("2500/10000@2550", callback.progress.get(0));
+        assertEquals("5000/10000@5050", callback.progress.get(1));
+        assertEquals("7500/10000@7550", callback.progress.get(2));
+        assertEquals("10000/10000@10050", callback.progress.get(3));
+        assertEquals("200", callback.status);
+        assertEquals(10050, callback.settledAt);
+    }
+
+    public void testErrorRates() throws RequestException {
+        ServerStub.clearStub();
+        ServerStub.simulate(LoadSimulation.withSeed(1).errorRate(1));
+        final RecordingCallback networkError = send("/error");
+        ServerStub.getScheduler().runAll();
+        assertEquals("error", networkError.status);
+
+        ServerStub.simulate(LoadSimulation.withSeed(1).serverErrorRate(1));
+        final RecordingCallback serverError = send("/error");
+        ServerStub.getScheduler().runAll();
+        assertEquals("503", serverError.status);
+    }
+
+    public void testSameSeedProducesSameTimings() throws RequestException {
+        final List<Long> firstRun = simulateRun(42);
+        final List<Long> secondRun = simulateRun(42);
+
+        assertEquals(firstRun, secondRun);
+        assertFalse(firstRun.equals(simulateRun(43)));
+    }
+
+    public void testConcurrentRequestsThroughRequestor() {
+        final Requestor requestor = getRequestor();
+        ServerStub.simulate(LoadSimulation.withSeed(7).latency(LatencyDistribution.uniform(10, 100)));
+        ServerStub.responseFor("/concurrent", ResponseMock.of("ok", 200, "OK", new ContentTypeHeader("text/plain")));
+
+        final int[] done = new int[1];
+        for (int i = 0; i < 10; i++) {
+            requestor.request("/concurrent").get(String.class).done(new DoneCallback<String>() {
+                @Override
+                public void onDone(String result) {
+                    done[0]++;
+                }
+            });
+        }
+
+        assertEquals(10, ServerStub.getInFlightRequestCount());
+        assertEquals(0, done[0]);
+
+        final VirtualScheduler scheduler = ServerStub.getScheduler();
+        scheduler.runAll();
+
+        assertEquals(10, done[0]);
+        assertEquals(10, ServerStub.getPeakInFlightRequestCount());
+        assertTrue(scheduler.now() >= 10 && scheduler.now() <= 100);
+    }
+
+    public void testAbortedRequestsAreNotInFlight() {
+        final Requestor requestor = getRequestor();
+        ServerStub.simulate(LoadSimulation.withSeed(1).latency(LatencyDistribution.fixed(100)));
+        ServerStub.responseFor("/abort", ResponseMock.of("ok", 200, "OK", new ContentTypeHeader("text/plain")));
+
+        final int[] done = new int[1];
+        final List<RequestPromise<String>> promises = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            final RequestPromise<String> promise = requestor.request("/abort").get(String.class);
+            promise.done(new DoneCallback<String>() {
+                @Override
+                public void onDone(String result) {
+                    done[0]++;
+                }
+            });
+            promises.add(promise);
+        }
+        assertEquals(3, ServerStub.getInFlightRequestCount());
+
+        promises.get(0).abort();
+        promises.get(1).abort();
+        assertEquals(1, ServerStub.getInFlightRequestCount());
+
+        ServerStub.getScheduler().runAll();
+
+        // The scheduled answers of the aborted requests are ignored
+        assertEquals(1, done[0]);
+        assertEquals(0, ServerStub.getInFlightRequestCount());
+        assertEquals(3, ServerStub.getPeakInFlightRequestCount());
+    }
+
+    private List<Long> simulateRun(long seed) throws RequestException {
+        ServerStub.clearStub();
+        ServerStub.simulate(LoadSimulation.withSeed(seed).latency(LatencyDistribution.exponential(100)));
+        final List<RecordingCallback> callbacks = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            callbacks.add(send("/run"));
+        }
+        ServerStub.getScheduler().runAll();
+
+        final List<Long> timings = new ArrayList<>();
+        for (RecordingCallback callback : callbacks) {
+            timings.add(callback.settledAt);
+        }
+        return timings;
+    }
+
+    private RecordingCallback send(String uri) throws RequestException {
+        return send(uri, "ok");
+    }
+
+    private RecordingCallback send(String uri, String text) throws RequestException {
+        ServerStub.responseFor(uri, ResponseMock.of(text, 200, "OK", new ContentTypeHeader("text/plain")));
+        final RecordingCallback callback = new RecordingCallback();
+        new ServerConnectionMock().sendRequest(new ConnectionRequest(RequestBuilder.GET, uri), callback);
+        return callback;
+    }
+
+    private static String repeat(char c, int times) {
+        final StringBuilder sb = new StringBuilder(times);
+        for (int i = 0; i < times; i++) {
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private Requestor getRequestor() {
+        ServerStub.clearStub();
+        return GWT.create(Requestor.class);
+    }
+
+    private static class RecordingCallback implements RequestCallbackWithProgress {
+
+        final List<String> progress = new ArrayList<>();
+        String status;
+        long settledAt = -1;
+
+        @Override
+        public void onProgress(RequestProgress requestProgress) {
+            if (requestProgress.isLengthComputable()) {
+                progress.add(requestProgress.loaded() + "/" + requestProgress.total() + "@"
+                        + ServerStub.getScheduler().now());
+            }
+        }
+
+        @Override
+        public void onResponseReceived(Request request, Response response) {
+            status = String.valueOf(response.getStatusCode());
+            settledAt = ServerStub.getScheduler().now();
+        }
+
+        @Override
+        public void onError(Request request, Throwable exception) {
+            status = "error";
+            settledAt = ServerStub.getScheduler().now();
+        }
+    }
+}
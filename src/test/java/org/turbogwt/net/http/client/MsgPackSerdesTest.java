@@ -0,0 +1,225 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.JsArray;
+import com.google.gwt.http.client.RequestBuilder;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.RequestException;
+import com.google.gwt.http.client.Response;
+import com.google.gwt.junit.client.GWTTestCase;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.turbogwt.core.future.shared.DoneCallback;
+import org.turbogwt.net.http.client.header.ContentTypeHeader;
+import org.turbogwt.net.http.client.header.SimpleHeader;
+import org.turbogwt.net.http.client.mock.ResponseMock;
+import org.turbogwt.net.http.client.mock.ServerStub;
+import org.turbogwt.net.http.client.mock.XhrStub;
+import org.turbogwt.net.http.client.model.Person;
+import org.turbogwt.net.http.client.model.PersonJso;
+import org.turbogwt.net.http.client.model.PersonSerdes;
+import org.turbogwt.net.http.client.serialization.HttpSerializationContext;
+import org.turbogwt.net.serialization.client.SerializationContext;
+import org.turbogwt.net.serialization.client.msgpack.MsgPack;
+import org.turbogwt.net.serialization.client.msgpack.MsgPackObjectSerdes;
+import org.turbogwt.net.serialization.client.msgpack.MsgPackSerdes;
+
+/**
+ * @author Danilo Reinert
+ */
+public class MsgPackSerdesTest extends GWTTestCase {
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.net.http.HttpTest";
+    }
+
+    public void testEncodeDecodeRoundTrip() {
+        final PersonJso person = PersonJso.create(70000, "Jo\u00e3o \u20ac", 1.5, new Date(329356800));
+
+        final PersonJso decoded = MsgPack.decode(MsgPack.encode(person));
+
+        assertEquals(70000, decoded.getId());
+        assertEquals("Jo\u00e3o \u20ac", decoded.getName());
+        assertEquals(1.5, decoded.getWeight());
+    }
+
+    public void testCompactEncoding() {
+        // {"a":1} => fixmap(1), fixstr(1) 'a', positive fixint 1
+        final String encoded = MsgPack.encode(createSingleProperty("a", 1));
+
+        assertEquals(4, encoded.length());
+        assertEquals(0x81, encoded.charAt(0));
+        assertEquals(0xa1, encoded.charAt(1));
+        assertEquals('a', encoded.charAt(2));
+        assertEquals(1, encoded.charAt(3));
+    }
+
+    public void testIsMsgPack() {
+        assertTrue(MsgPackSerdes.isMsgPack("application/msgpack"));
+        assertTrue(MsgPackSerdes.isMsgPack("application/x-msgpack; q=0.9"));
+        assertFalse(MsgPackSerdes.isMsgPack("application/json"));
+        assertFalse(MsgPackSerdes.isMsgPack(null));
+    }
+
+    public void testObjectSerdesEncodesWithoutJsonText() {
+        final PersonSerdes jsonSerdes = new PersonSerdes() {
+            @Override
+            public String serialize(Person person, SerializationContext context) {
+                fail("The JSON text should not be produced.");
+                return null;
+            }
+        };
+        final MsgPackObjectSerdes<Person> serdes = new MsgPackObjectSerdes<>(jsonSerdes);
+        final Person person = new Person(1, "John Doe", 6.3, new Date(329356800));
+
+        final PersonJso encoded = MsgPack.decode(serdes.serialize(person, createSerializationContext()));
+
+        assertEquals(1, encoded.getId());
+        assertEquals("John Doe", encoded.getName());
+        assertEquals(6.3, encoded.getWeight());
+    }
+
+    public void testObjectSerdesEncodesCollection() {
+        final MsgPackObjectSerdes<Person> serdes = new MsgPackObjectSerdes<>(new PersonSerdes());
+        final List<Person> persons = new ArrayList<>();
+        persons.add(new Person(1, "John Doe", 6.3, new Date(329356800)));
+        persons.add(new Person(2, "Alice", 5.1, new Date(329356800)));
+
+        final JsArray<PersonJso> encoded = MsgPack.decode(serdes.serializeFromCollection(persons,
+                createSerializationContext()));
+
+        assertEquals(2, encoded.length());
+        assertEquals("John Doe", encoded.get(0).getName());
+        assertEquals(2, encoded.get(1).getId());
+    }
+
+    public void testObjectSerdesRoundTrip() {
+        final MsgPackObjectSerdes<Person> serdes = new MsgPackObjectSerdes<>(new PersonSerdes());
+        final Person person = new Person(1, "John Doe", 6.3, new Date(329356800));
+
+        final String encoded = serdes.serialize(person, createSerializationContext());
+
+        assertEquals(person, serdes.deserialize(encoded, null));
+    }
+
+    public void testBodyIsSentAsBinary() throws RequestException {
+        final PersonJso person = PersonJso.create(1, "Jo\u00e3o", 6.3, new Date(329356800));
+        final String encoded = MsgPack.encode(person);
+        final Headers headers = new Headers(new ContentTypeHeader("application/msgpack"),
+                new SimpleHeader("Accept", "application/msgpack"));
+
+        final XhrStub xhr = XhrStub.intercept();
+        try {
+            new ServerConnectionImpl().sendRequest(new ConnectionRequest(RequestBuilder.POST, "/msgpack")
+                    .headers(headers).payload(new Payload(encoded)), NO_OP_CALLBACK);
+        } finally {
+            xhr.restore();
+        }
+
+        // Each char of the binary string is sent as a single byte
+        assertEquals(encoded, xhr.getSentBytes());
+    }
+
+    public void testMsgPackResponseIsDecodedAsBinary() throws RequestException {
+        final XhrStub xhr = sendAccepting("application/msgpack, application/json");
+        assertNull(xhr.getOverriddenMimeType());
+
+        xhr.receiveHeaders(200, "application/x-msgpack");
+
+        assertEquals("text/plain; charset=x-user-defined", xhr.getOverriddenMimeType());
+    }
+
+    public void testTextualFallbackIsNotDecodedAsBinary() throws RequestException {
+        final XhrStub xhr = sendAccepting("application/msgpack, application/json");
+
+        xhr.receiveHeaders(200, "application/json; charset=utf-8");
+
+        assertNull(xhr.getOverriddenMimeType());
+    }
+
+    public void testOverlayDeserialization() {
+        final PersonJso person = PersonJso.create(1, "John Doe", 6.3, new Date(329356800));
+
+        final Requestor requestor = getRequestor();
+
+        final String uri = "/person";
+
+        ServerStub.responseFor(uri, ResponseMock.of(MsgPack.encode(person), 200, "OK",
+                new ContentTypeHeader("application/msgpack")));
+
+        final boolean[] callbackDoneCalled = new boolean[1];
+
+        requestor.request(uri).accept("application/msgpack").get(PersonJso.class)
+                .done(new DoneCallback<PersonJso>() {
+                    @Override
+                    public void onDone(PersonJso result) {
+                        callbackDoneCalled[0] = true;
+                        assertEquals(1, result.getId());
+                        assertEquals("John Doe", result.getName());
+                        assertEquals(6.3, result.getWeight());
+                    }
+                });
+
+        ServerStub.triggerPendingRequest();
+
+        assertTrue(callbackDoneCalled[0]);
+    }
+
+    private static final RequestCallback NO_OP_CALLBACK = new RequestCallback() {
+        @Override
+        public void onResponseReceived(com.google.gwt.http.client.Request request, Response response) {
+        }
+
+        @Override
+        public void onError(com.google.gwt.http.client.Request request, Throwable exception) {
+        }
+    };
+
+    private static XhrStub sendAccepting(String accept) throws RequestException {
+        final Headers headers = new Headers(new SimpleHeader("Accept", accept));
+
+        final XhrStub xhr = XhrStub.intercept();
+        try {
+            new ServerConnectionImpl().sendRequest(new ConnectionRequest(RequestBuilder.GET, "/msgpack")
+                    .headers(headers), NO_OP_CALLBACK);
+        } finally {
+            xhr.restore();
+        }
+        return xhr;
+    }
+
+    private static SerializationContext createSerializationContext() {
+        return new HttpSerializationContext(new Headers(new ContentTypeHeader("application/msgpack")));
+    }
+
+    private static native PersonJso createSingleProperty(String key, int value) /*-{
+        var o = {};
+        o[key] = value;
+        return o;
+    }-*/;
+
+    private Requestor getRequestor() {
+        ServerStub.clearStub();
+        return GWT.create(Requestor.class);
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.http.client.RequestBuilder;
+import com.google.gwt.http.client.RequestHeadersTimeoutException;
+import com.google.gwt.http.client.RequestIdleTimeoutException;
+import com.google.gwt.http.client.RequestTimeoutException;
+import com.google.gwt.junit.client.GWTTestCase;
+
+import org.turbogwt.core.future.shared.FailCallback;
+import org.turbogwt.net.http.client.header.ContentTypeHeader;
+import org.turbogwt.net.http.client.mock.ResponseMock;
+import org.turbogwt.net.http.client.mock.ServerStub;
+import org.turbogwt.net.http.client.mock.XhrStub;
+
+/**
+ * @author Danilo Reinert
+ */
+public class PhaseTimeoutTest extends GWTTestCase {
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.net.http.HttpTest";
+    }
+
+    public void testNegativeTimeoutsAreRejected() {
+        final RequestDispatcher request = getRequestor().request("/books");
+        try {
+            request.headersTimeout(-1);
+            fail("Negative headers timeout should be rejected.");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            request.idleTimeout(-1);
+            fail("Negative idle timeout should be rejected.");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        final RequestBuilder requestBuilder = new RequestBuilder(RequestBuilder.GET, "/books");
+        try {
+            requestBuilder.setHeadersTimeoutMillis(-1);
+            fail("Negative headers timeout should be rejected.");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            requestBuilder.setIdleTimeoutMillis(-1);
+            fail("Negative idle timeout should be rejected.");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    public void testPhaseTimeoutExceptionsAreDistinct() {
+        final RequestTimeoutException headers = new RequestHeadersTimeoutException(null, 100);
+        final RequestTimeoutException idle = new RequestIdleTimeoutException(null, 200);
+
+        assertEquals(100, headers.getTimeoutMillis());
+        assertEquals(200, idle.getTimeoutMillis());
+        assertFalse(headers.getMessage().equals(idle.getMessage()));
+    }
+
+    public void testRequestWithPhaseTimeoutsIsDispatched() {
+        final String uri = "/slow";
+        ServerStub.responseFor(uri, ResponseMock.of(null, 200, "OK", new ContentTypeHeader("text/plain")));
+
+        getRequestor().request(uri).timeout(60000).headersTimeout(5000).idleTimeout(10000).get();
+
+        assertNotNull(ServerStub.getRequestData(uri));
+    }
+
+    public void testMissingHeadersRejectTheRequest() {
+        final RequestDispatcher request = getRequestor().request("/slow").headersTimeout(50).idleTimeout(1000);
+
+        delayTestFinish(2000);
+        sendThroughXhr(request, new FailCallback<Throwable>() {
+            @Override
+            public void onFail(Throwable reason) {
+                assertTrue(reason instanceof RequestHeadersTimeoutException);
+                assertEquals(50, ((RequestTimeoutException) reason).getTimeoutMillis());
+                finishTest();
+            }
+        });
+    }
+
+    public void testIdleResponseRejectsTheRequest() {
+        final RequestDispatcher request = getRequestor().request("/slow").headersTimeout(50).idleTimeout(150);
+
+        delayTestFinish(2000);
+        final XhrStub xhr = sendThroughXhr(request, new FailCallback<Throwable>() {
+            @Override
+            public void onFail(Throwable reason) {
+                // The headers deadline was stopped once the headers were received
+                assertTrue(reason instanceof RequestIdleTimeoutException);
+                assertEquals(150, ((RequestTimeoutException) reason).getTimeoutMillis());
+                finishTest();
+            }
+        });
+        xhr.receiveHeaders(200, "text/plain");
+    }
+
+    public void testProgressPushesBackTheIdleDeadline() {
+        final RequestDispatcher request = getRequestor().request("/slow").idleTimeout(200);
+        final int[] progresses = new int[1];
+
+        delayTestFinish(5000);
+        final XhrStub xhr = sendThroughXhr(request, new FailCallback<Throwable>() {
+            @Override
+            public void onFail(Throwable reason) {
+                // Rejected only after the response stopped making progress, although it lasted beyond the deadline
+                assertEquals(6, progresses[0]);
+                assertTrue(reason instanceof RequestIdleTimeoutException);
+                finishTest();
+            }
+        });
+        xhr.receiveHeaders(200, "text/plain");
+
+        Scheduler.get().scheduleFixedDelay(new Scheduler.RepeatingCommand() {
+            @Override
+            public boolean execute() {
+                xhr.progress(++progresses[0] * 100);
+                return progresses[0] < 6;
+            }
+        }, 50);
+    }
+
+    /**
+     * Sends the request through a real connection whose XHR is intercepted, so the test drives its events.
+     */
+    private static XhrStub sendThroughXhr(RequestDispatcher request, FailCallback<Throwable> failCallback) {
+        ServerStub.useConnection(new ServerConnectionImpl());
+        final XhrStub xhr = XhrStub.intercept();
+        try {
+            request.get().fail(failCallback);
+        } finally {
+            xhr.restore();
+        }
+        return xhr;
+    }
+
+    private Requestor getRequestor() {
+        ServerStub.clearStub();
+        return GWT.create(Requestor.class);
+    }
+}
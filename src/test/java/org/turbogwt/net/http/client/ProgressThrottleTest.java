@@ -0,0 +1,147 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.http.client.RequestProgress;
+import com.google.gwt.junit.client.GWTTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.turbogwt.core.future.shared.DoneCallback;
+import org.turbogwt.core.future.shared.ProgressCallback;
+import org.turbogwt.net.http.client.header.ContentTypeHeader;
+import org.turbogwt.net.http.client.mock.ResponseMock;
+import org.turbogwt.net.http.client.mock.ServerStub;
+
+/**
+ * @author Danilo Reinert
+ */
+public class ProgressThrottleTest extends GWTTestCase {
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.net.http.HttpTest";
+    }
+
+    public void testIntervalCoalescesEvents() {
+        final List<RequestProgress> notified = new ArrayList<>();
+        final ProgressThrottle.Gate gate = ProgressThrottle.every(10000).open(new ProgressThrottle.Listener() {
+            @Override
+            public void onProgress(RequestProgress progress) {
+                notified.add(progress);
+            }
+        });
+
+        final RequestProgress first = new ProgressMock(10);
+        final RequestProgress last = new ProgressMock(30);
+        gate.offer(first);
+        gate.offer(new ProgressMock(20));
+        gate.offer(last);
+
+        // The first event passes, the others are held until the interval elapses
+        assertEquals(1, notified.size());
+        assertSame(first, notified.get(0));
+
+        gate.flush();
+        assertEquals(2, notified.size());
+        assertSame(last, notified.get(1));
+
+        gate.flush();
+        assertEquals(2, notified.size());
+    }
+
+    public void testAnimationFrameCoalescesEvents() {
+        final List<RequestProgress> notified = new ArrayList<>();
+        final ProgressThrottle.Gate gate = ProgressThrottle.perAnimationFrame().open(new ProgressThrottle.Listener() {
+            @Override
+            public void onProgress(RequestProgress progress) {
+                notified.add(progress);
+            }
+        });
+
+        final RequestProgress last = new ProgressMock(30);
+        gate.offer(new ProgressMock(10));
+        gate.offer(new ProgressMock(20));
+        gate.offer(last);
+        assertTrue(notified.isEmpty());
+
+        delayTestFinish(2000);
+        Scheduler.get().scheduleFixedDelay(new Scheduler.RepeatingCommand() {
+            @Override
+            public boolean execute() {
+                assertEquals(1, notified.size());
+                assertSame(last, notified.get(0));
+                finishTest();
+                return false;
+            }
+        }, 200);
+    }
+
+    public void testLastProgressIsNotifiedBeforeResolution() {
+        ServerStub.clearStub();
+        final Requestor requestor = GWT.create(Requestor.class);
+        requestor.setProgressThrottle(ProgressThrottle.perAnimationFrame());
+
+        final String uri = "/download";
+        ServerStub.responseFor(uri, ResponseMock.of("content", 200, "OK", new ContentTypeHeader("text/plain")));
+
+        final List<String> events = new ArrayList<>();
+        final ProgressCallback<org.turbogwt.net.http.client.RequestProgress> progressCallback =
+                new ProgressCallback<org.turbogwt.net.http.client.RequestProgress>() {
+                    @Override
+                    public void onProgress(org.turbogwt.net.http.client.RequestProgress progress) {
+                        events.add("progress");
+                    }
+                };
+        requestor.request(uri).get(String.class).progress(progressCallback).done(new DoneCallback<String>() {
+            @Override
+            public void onDone(String result) {
+                events.add("done");
+            }
+        });
+        ServerStub.triggerPendingRequest();
+
+        assertEquals("[progress, done]", events.toString());
+    }
+
+    private static class ProgressMock implements RequestProgress {
+
+        private final int loaded;
+
+        ProgressMock(int loaded) {
+            this.loaded = loaded;
+        }
+
+        @Override
+        public boolean isLengthComputable() {
+            return true;
+        }
+
+        @Override
+        public Number loaded() {
+            return loaded;
+        }
+
+        @Override
+        public Number total() {
+            return 100;
+        }
+    }
+}
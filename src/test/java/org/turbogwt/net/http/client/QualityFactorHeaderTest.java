@@ -18,6 +18,7 @@ package org.turbogwt.net.http.client;
 
 import com.google.gwt.junit.client.GWTTestCase;
 
+import org.turbogwt.net.http.client.header.AcceptHeader;
 import org.turbogwt.net.http.client.header.QualityFactorHeader;
 
 /**
@@ -41,4 +42,61 @@ public class QualityFactorHeaderTest extends GWTTestCase {
 
         assertEquals(expected, header.getValue());
     }
+
+    public void testParseSortsByQualityFactor() {
+        final QualityFactorHeader.Value[] values = QualityFactorHeader.parseValues(
+                "text/plain;q=0.5, text/html;level=1, application/json; q=0.8, */*;q=0.1");
+
+        assertEquals(4, values.length);
+        assertEquals("text/html", values[0].getValue());
+        assertEquals(1.0, values[0].getFactor());
+        assertEquals("1", values[0].getParameter("level"));
+        assertEquals("application/json", values[1].getValue());
+        assertEquals(0.8, values[1].getFactor());
+        assertEquals("text/plain", values[2].getValue());
+        assertEquals("*/*", values[3].getValue());
+    }
+
+    public void testParseKeepsRawValue() {
+        final String raw = "a/b;q=0.2, c/d";
+
+        final AcceptHeader header = AcceptHeader.parse(raw);
+
+        assertEquals("Accept", header.getName());
+        assertEquals(raw, header.getValue());
+        assertEquals("c/d", header.getQualityFactorValues()[0].getValue());
+    }
+
+    public void testParsedHeadersAreCached() {
+        assertSame(AcceptHeader.parse("x/y, z/w;q=0.3"), AcceptHeader.parse("x/y, z/w;q=0.3"));
+        assertSame(QualityFactorHeader.parse("Accept-Language", "pt-BR, en;q=0.5"),
+                QualityFactorHeader.parse("Accept-Language", "pt-BR, en;q=0.5"));
+    }
+
+    public void testCachedValuesCannotBeModified() {
+        final AcceptHeader header = AcceptHeader.parse("e/f, g/h;q=0.5");
+        header.getQualityFactorValues()[0] = new QualityFactorHeader.Value(0.1, "x/y");
+
+        assertEquals("e/f", AcceptHeader.parse("e/f, g/h;q=0.5").getQualityFactorValues()[0].getValue());
+    }
+
+    public void testInvalidQualityFactorIsTolerated() {
+        final QualityFactorHeader.Value[] values = QualityFactorHeader.parseValues("a/b;q=high, c/d;q=2, e/f;q=-1");
+
+        assertEquals("a/b", values[0].getValue());
+        assertEquals(1.0, values[0].getFactor());
+        assertEquals("c/d", values[1].getValue());
+        assertEquals(1.0, values[1].getFactor());
+        assertEquals("e/f", values[2].getValue());
+        assertEquals(0.0, values[2].getFactor());
+    }
+
+    public void testStringValuesAreNotReordered() {
+        final String[] values = {"b", "a"};
+
+        final QualityFactorHeader header = new QualityFactorHeader("name", values);
+
+        assertEquals("b", values[0]);
+        assertEquals("b, a", header.getValue());
+    }
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.junit.client.GWTTestCase;
+
+import org.turbogwt.net.http.client.header.ContentTypeHeader;
+import org.turbogwt.net.http.client.mock.RequestMock;
+import org.turbogwt.net.http.client.mock.ResponseMock;
+import org.turbogwt.net.http.client.mock.ServerStub;
+
+/**
+ * @author Danilo Reinert
+ */
+public class RequestCompressionTest extends GWTTestCase {
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.net.http.HttpTest";
+    }
+
+    public void testFallbackCompressesLargeBody() {
+        // CompressionStream compresses asynchronously; only the synchronous fallback is verified here
+        if (RequestCompression.isCompressionStreamSupported()) return;
+
+        final JavaScriptObject compressed = createBytes(4);
+        final Requestor requestor = getRequestor();
+        requestor.setRequestCompression(RequestCompression.gzip(10).withFallback(new RequestCompression.Fallback() {
+            @Override
+            public JavaScriptObject gzip(String body) {
+                return compressed;
+            }
+        }));
+
+        final String uri = "/bulk";
+        ServerStub.responseFor(uri, ResponseMock.of(null, 200, "OK", new ContentTypeHeader("text/plain")));
+
+        requestor.request(uri).payload("a long and repetitive body").post();
+
+        final RequestMock requestMock = ServerStub.getRequestData(uri);
+        assertSame(compressed, requestMock.getBody());
+        assertEquals("gzip", requestMock.getHeaders().getValue("Content-Encoding"));
+    }
+
+    public void testEachDispatchIsCompressed() {
+        if (RequestCompression.isCompressionStreamSupported()) return;
+
+        final Requestor requestor = getRequestor();
+        requestor.setRequestCompression(RequestCompression.gzip(10).withFallback(new RequestCompression.Fallback() {
+            @Override
+            public JavaScriptObject gzip(String body) {
+                return createBytes(4);
+            }
+        }));
+
+        final String uri = "/bulk";
+        ServerStub.responseFor(uri, ResponseMock.of(null, 200, "OK", new ContentTypeHeader("text/plain")));
+
+        final RequestDispatcher dispatcher = requestor.request(uri).payload("a long and repetitive body");
+        dispatcher.post();
+        final JavaScriptObject firstBody = ServerStub.getRequestData(uri).getBody();
+
+        // The Content-Encoding of the first sending must not make the second one skip the compression
+        dispatcher.post();
+
+        final RequestMock requestMock = ServerStub.getRequestData(uri);
+        assertNotSame(firstBody, requestMock.getBody());
+        assertEquals("gzip", requestMock.getHeaders().getValue("Content-Encoding"));
+    }
+
+    public void testSmallBodyIsNotCompressed() {
+        final Requestor requestor = getRequestor();
+        requestor.setRequestCompression(RequestCompression.gzip(1024));
+
+        final String uri = "/small";
+        ServerStub.responseFor(uri, ResponseMock.of(null, 200, "OK", new ContentTypeHeader("text/plain")));
+
+        requestor.request(uri).payload("short").post();
+
+        final RequestMock requestMock = ServerStub.getRequestData(uri);
+        assertEquals("\"short\"", requestMock.getData());
+        assertNull(requestMock.getHeaders().getValue("Content-Encoding"));
+    }
+
+    public void testBodyIsSentUncompressedWithoutFallback() {
+        if (RequestCompression.isCompressionStreamSupported()) return;
+
+        final Requestor requestor = getRequestor();
+        requestor.setRequestCompression(RequestCompression.gzip(0));
+
+        final String uri = "/no-fallback";
+        ServerStub.responseFor(uri, ResponseMock.of(null, 200, "OK", new ContentTypeHeader("text/plain")));
+
+        requestor.request(uri).payload("body").post();
+
+        final RequestMock requestMock = ServerStub.getRequestData(uri);
+        assertEquals("\"body\"", requestMock.getData());
+        assertNull(requestMock.getHeaders().getValue("Content-Encoding"));
+    }
+
+    private static native JavaScriptObject createBytes(int length) /*-{
+        return new Uint8Array(length);
+    }-*/;
+
+    private Requestor getRequestor() {
+        ServerStub.clearStub();
+        return GWT.create(Requestor.class);
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.http.client.Response;
+import com.google.gwt.junit.client.GWTTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.turbogwt.core.future.shared.DoneCallback;
+import org.turbogwt.core.util.shared.Registration;
+import org.turbogwt.net.http.client.header.ContentTypeHeader;
+import org.turbogwt.net.http.client.mock.ResponseMock;
+import org.turbogwt.net.http.client.mock.ServerStub;
+
+/**
+ * @author Danilo Reinert
+ */
+public class RequestFilterTest extends GWTTestCase {
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.net.http.HttpTest";
+    }
+
+    public void testFilterShortCircuitsDispatch() {
+        final Requestor requestor = getRequestor();
+        final boolean[] laterFilterApplied = new boolean[1];
+        final boolean[] responseFilterApplied = new boolean[1];
+        requestor.registerRequestFilter(new RequestFilter() {
+            @Override
+            public void filter(Request request) {
+                request.respond(ResponseMock.of("\"cached\"", 200, "OK", new ContentTypeHeader("application/json")));
+            }
+        });
+        requestor.registerRequestFilter(new RequestFilter() {
+            @Override
+            public void filter(Request request) {
+                laterFilterApplied[0] = true;
+            }
+        });
+        requestor.registerResponseFilter(new ResponseFilter() {
+            @Override
+            public void filter(Response response) {
+                responseFilterApplied[0] = true;
+            }
+        });
+
+        final String uri = "/cached";
+        final String[] result = new String[1];
+        requestor.request(uri).get(String.class).done(new DoneCallback<String>() {
+            @Override
+            public void onDone(String value) {
+                result[0] = value;
+            }
+        });
+
+        assertEquals("cached", result[0]);
+        assertFalse(laterFilterApplied[0]);
+        assertTrue(responseFilterApplied[0]);
+        assertNull(ServerStub.getRequestData(uri));
+    }
+
+    public void testShortCircuitIsKeptPerDispatch() {
+        final Requestor requestor = getRequestor();
+        final int[] dispatches = new int[1];
+        requestor.registerRequestFilter(new RequestFilter() {
+            @Override
+            public void filter(Request request) {
+                // Only the first dispatch is served from the cache
+                if (dispatches[0]++ == 0) {
+                    request.respond(ResponseMock.of("\"cached\"", 200, "OK",
+                            new ContentTypeHeader("application/json")));
+                }
+            }
+        });
+
+        final String uri = "/refreshed";
+        ServerStub.responseFor(uri, ResponseMock.of("\"fresh\"", 200, "OK",
+                new ContentTypeHeader("application/json")));
+        final List<String> results = new ArrayList<>();
+        final DoneCallback<String> callback = new DoneCallback<String>() {
+            @Override
+            public void onDone(String value) {
+                results.add(value);
+            }
+        };
+
+        final RequestDispatcher dispatcher = requestor.request(uri);
+        dispatcher.get(String.class).done(callback);
+        assertNull(ServerStub.getRequestData(uri));
+
+        dispatcher.get(String.class).done(callback);
+        assertNotNull(ServerStub.getRequestData(uri));
+        ServerStub.triggerPendingRequest();
+
+        assertEquals(2, results.size());
+        assertEquals("cached", results.get(0));
+        assertEquals("fresh", results.get(1));
+    }
+
+    public void testFilterUnregisteringItselfDuringChain() {
+        final Requestor requestor = getRequestor();
+        final Registration[] registration = new Registration[1];
+        final int[] applied = new int[2];
+        registration[0] = requestor.registerRequestFilter(new RequestFilter() {
+            @Override
+            public void filter(Request request) {
+                applied[0]++;
+                registration[0].removeHandler();
+            }
+        });
+        requestor.registerRequestFilter(new RequestFilter() {
+            @Override
+            public void filter(Request request) {
+                applied[1]++;
+            }
+        });
+
+        ServerStub.responseFor("/first", ResponseMock.of(null, 200, "OK", new ContentTypeHeader("text/plain")));
+        ServerStub.responseFor("/second", ResponseMock.of(null, 200, "OK", new ContentTypeHeader("text/plain")));
+
+        requestor.request("/first").get();
+        requestor.request("/second").get();
+
+        assertEquals(1, applied[0]);
+        assertEquals(2, applied[1]);
+        assertNotNull(ServerStub.getRequestData("/first"));
+    }
+
+    private Requestor getRequestor() {
+        ServerStub.clearStub();
+        return GWT.create(Requestor.class);
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.junit.client.GWTTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.turbogwt.core.future.shared.DoneCallback;
+import org.turbogwt.core.util.shared.Registration;
+import org.turbogwt.net.http.client.header.ContentTypeHeader;
+import org.turbogwt.net.http.client.mock.ResponseMock;
+import org.turbogwt.net.http.client.mock.ServerStub;
+
+/**
+ * @author Danilo Reinert
+ */
+public class RequestMetricsTest extends GWTTestCase {
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.net.http.HttpTest";
+    }
+
+    public void testMetricsAreReportedBeforeCallbacks() {
+        final Requestor requestor = getRequestor();
+        final List<RequestMetrics> reported = new ArrayList<>();
+        requestor.registerRequestMetricsListener(new RequestMetricsListener() {
+            @Override
+            public void onRequestMetrics(RequestMetrics metrics) {
+                reported.add(metrics);
+            }
+        });
+
+        final String uri = "/books/42?fields=title";
+        ServerStub.responseFor(uri, ResponseMock.of("\"The Hobbit\"", 200, "OK",
+                new ContentTypeHeader("application/json")));
+
+        final int[] reportedOnDone = new int[1];
+        requestor.request(uri).payload("review").post(String.class).done(new DoneCallback<String>() {
+            @Override
+            public void onDone(String result) {
+                reportedOnDone[0] = reported.size();
+            }
+        });
+        assertTrue(reported.isEmpty());
+
+        ServerStub.triggerPendingRequest();
+
+        assertEquals(1, reportedOnDone[0]);
+        final RequestMetrics metrics = reported.get(0);
+        assertEquals(uri, metrics.getUri());
+        assertEquals("/books/{id}", metrics.getUriTemplate());
+        assertEquals("POST", metrics.getMethod());
+        assertEquals(200, metrics.getStatus());
+        assertEquals("\"review\"".length(), metrics.getRequestSize());
+        assertEquals("\"The Hobbit\"".length(), metrics.getResponseSize());
+        assertPhasesSumUp(metrics);
+    }
+
+    public void testFailedRequestIsReportedWithoutStatus() {
+        final Requestor requestor = getRequestor();
+        final List<RequestMetrics> reported = new ArrayList<>();
+        requestor.registerRequestMetricsListener(new RequestMetricsListener() {
+            @Override
+            public void onRequestMetrics(RequestMetrics metrics) {
+                reported.add(metrics);
+            }
+        });
+
+        ServerStub.setReturnSuccess(false);
+        requestor.request("/books").get();
+        ServerStub.triggerPendingRequest();
+
+        assertEquals(1, reported.size());
+        assertEquals(0, reported.get(0).getStatus());
+        assertEquals(0, reported.get(0).getRequestSize());
+        assertEquals(-1, reported.get(0).getResponseSize());
+        assertEquals(0.0, reported.get(0).getResponseFilterMillis());
+        assertEquals(0.0, reported.get(0).getDeserializationMillis());
+        assertPhasesSumUp(reported.get(0));
+    }
+
+    public void testShortCircuitedRequestHasOnlyFilterTime() {
+        final Requestor requestor = getRequestor();
+        final List<RequestMetrics> reported = new ArrayList<>();
+        requestor.registerRequestMetricsListener(new RequestMetricsListener() {
+            @Override
+            public void onRequestMetrics(RequestMetrics metrics) {
+                reported.add(metrics);
+            }
+        });
+        requestor.registerRequestFilter(new RequestFilter() {
+            @Override
+            public void filter(Request request) {
+                request.respond(ResponseMock.of("\"cached\"", 200, "OK", new ContentTypeHeader("application/json")));
+            }
+        });
+
+        requestor.request("/cached").get(String.class);
+
+        assertEquals(1, reported.size());
+        final RequestMetrics metrics = reported.get(0);
+        assertEquals(200, metrics.getStatus());
+        assertEquals(0.0, metrics.getSerializationMillis());
+        assertEquals(0.0, metrics.getQueueingMillis());
+        assertEquals(0.0, metrics.getNetworkMillis());
+        assertPhasesSumUp(metrics);
+    }
+
+    public void testAbortedRequestIsNotReported() {
+        final Requestor requestor = getRequestor();
+        final List<RequestMetrics> reported = new ArrayList<>();
+        requestor.registerRequestMetricsListener(new RequestMetricsListener() {
+            @Override
+            public void onRequestMetrics(RequestMetrics metrics) {
+                reported.add(metrics);
+            }
+        });
+
+        requestor.request("/books").get().abort();
+
+        // The aborted request is cancelled, so it is not answered
+        assertEquals(0, ServerStub.getPendingRequestCount());
+        assertTrue(reported.isEmpty());
+    }
+
+    public void testFailingListenerDoesNotBreakCallbacks() {
+        final Requestor requestor = getRequestor();
+        requestor.registerRequestMetricsListener(new RequestMetricsListener() {
+            @Override
+            public void onRequestMetrics(RequestMetrics metrics) {
+                throw new IllegalStateException("Listener failed.");
+            }
+        });
+        final List<RequestMetrics> reported = new ArrayList<>();
+        requestor.registerRequestMetricsListener(new RequestMetricsListener() {
+            @Override
+            public void onRequestMetrics(RequestMetrics metrics) {
+                reported.add(metrics);
+            }
+        });
+
+        final Throwable[] uncaught = new Throwable[1];
+        final GWT.UncaughtExceptionHandler handler = GWT.getUncaughtExceptionHandler();
+        GWT.setUncaughtExceptionHandler(new GWT.UncaughtExceptionHandler() {
+            @Override
+            public void onUncaughtException(Throwable e) {
+                uncaught[0] = e;
+            }
+        });
+        try {
+            ServerStub.responseFor("/books", ResponseMock.of("\"The Hobbit\"", 200, "OK",
+                    new ContentTypeHeader("application/json")));
+            final String[] result = new String[1];
+            requestor.request("/books").get(String.class).done(new DoneCallback<String>() {
+                @Override
+                public void onDone(String value) {
+                    result[0] = value;
+                }
+            });
+            ServerStub.triggerPendingRequest();
+
+            assertEquals("The Hobbit", result[0]);
+            assertEquals(1, reported.size());
+            assertTrue(uncaught[0] instanceof IllegalStateException);
+        } finally {
+            GWT.setUncaughtExceptionHandler(handler);
+        }
+    }
+
+    public void testRemovedListenerIsNotNotified() {
+        final Requestor requestor = getRequestor();
+        final List<RequestMetrics> reported = new ArrayList<>();
+        final Registration registration = requestor.registerRequestMetricsListener(new RequestMetricsListener() {
+            @Override
+            public void onRequestMetrics(RequestMetrics metrics) {
+                reported.add(metrics);
+            }
+        });
+
+        ServerStub.responseFor("/books", ResponseMock.of(null, 200, "OK", new ContentTypeHeader("text/plain")));
+        requestor.request("/books").get();
+        ServerStub.triggerPendingRequest();
+        registration.removeHandler();
+        requestor.request("/books").get();
+        ServerStub.triggerPendingRequest();
+
+        assertEquals(1, reported.size());
+    }
+
+    public void testUriTemplate() {
+        assertEquals("/books", RequestMetrics.toTemplate("/books"));
+        assertEquals("/books/{id}/reviews/", RequestMetrics.toTemplate("/books/42/reviews/?page=2#top"));
+        assertEquals("http://api.example.com:8080/users/{id}",
+                RequestMetrics.toTemplate("http://api.example.com:8080/users/123e4567-e89b-12d3-a456-426655440000"));
+        assertEquals("/commits/{id}/files", RequestMetrics.toTemplate("/commits/9fc46b6a5e3d2c1b/files"));
+        assertEquals("/books/the-hobbit/v2", RequestMetrics.toTemplate("/books/the-hobbit/v2"));
+    }
+
+    private static void assertPhasesSumUp(RequestMetrics metrics) {
+        final double[] phases = {metrics.getRequestFilterMillis(), metrics.getSerializationMillis(),
+                metrics.getQueueingMillis(), metrics.getTimeToFirstByteMillis(), metrics.getDownloadMillis(),
+                metrics.getResponseFilterMillis(), metrics.getDeserializationMillis()};
+        double sum = 0;
+        for (double phase : phases) {
+            assertTrue(phase >= 0);
+            sum += phase;
+        }
+        assertEquals(sum, metrics.getTotalMillis(), 0.001);
+    }
+
+    private Requestor getRequestor() {
+        ServerStub.clearStub();
+        return GWT.create(Requestor.class);
+    }
+}
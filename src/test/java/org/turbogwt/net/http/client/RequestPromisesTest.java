@@ -0,0 +1,223 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client;
+
+import com.google.gwt.junit.client.GWTTestCase;
+
+import java.util.List;
+
+import org.turbogwt.core.future.shared.DoneCallback;
+import org.turbogwt.core.future.shared.FailCallback;
+import org.turbogwt.core.future.shared.ProgressCallback;
+import org.turbogwt.core.future.shared.impl.DeferredObject;
+
+/**
+ * @author Danilo Reinert
+ */
+public class RequestPromisesTest extends GWTTestCase {
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.net.http.HttpTest";
+    }
+
+    public void testAllResolvesInOrder() {
+        final PromiseMock<String> first = new PromiseMock<>();
+        final PromiseMock<String> second = new PromiseMock<>();
+        final Object[] result = new Object[1];
+        RequestPromises.all(first, second).done(new DoneCallback<List<String>>() {
+            @Override
+            public void onDone(List<String> values) {
+                result[0] = values;
+            }
+        });
+
+        second.resolve("b");
+        assertNull(result[0]);
+        first.resolve("a");
+        assertEquals("[a, b]", result[0].toString());
+    }
+
+    public void testAllFailsFastAndAbortsTheOthers() {
+        final PromiseMock<String> first = new PromiseMock<>();
+        final PromiseMock<String> second = new PromiseMock<>();
+        final Throwable error = new RuntimeException();
+        final Throwable[] failure = new Throwable[1];
+        RequestPromises.all(first, second).fail(new FailCallback<Throwable>() {
+            @Override
+            public void onFail(Throwable result) {
+                failure[0] = result;
+            }
+        });
+
+        first.reject(error);
+        assertSame(error, failure[0]);
+        assertTrue(second.aborted);
+    }
+
+    public void testAllSettled() {
+        final PromiseMock<String> first = new PromiseMock<>();
+        final PromiseMock<String> second = new PromiseMock<>();
+        final Throwable error = new RuntimeException();
+        final Object[] result = new Object[1];
+        RequestPromises.allSettled(first, second).done(new DoneCallback<List<RequestPromises.Settled<String>>>() {
+            @Override
+            public void onDone(List<RequestPromises.Settled<String>> outcomes) {
+                result[0] = outcomes;
+            }
+        });
+
+        first.reject(error);
+        assertFalse(second.aborted);
+        second.resolve("b");
+
+        @SuppressWarnings("unchecked")
+        final List<RequestPromises.Settled<String>> outcomes = (List<RequestPromises.Settled<String>>) result[0];
+        assertFalse(outcomes.get(0).isResolved());
+        assertSame(error, outcomes.get(0).getError());
+        assertTrue(outcomes.get(1).isResolved());
+        assertEquals("b", outcomes.get(1).getResult());
+    }
+
+    public void testAnyResolvesWithFirstSuccess() {
+        final PromiseMock<String> first = new PromiseMock<>();
+        final PromiseMock<String> second = new PromiseMock<>();
+        final PromiseMock<String> third = new PromiseMock<>();
+        final String[] result = new String[1];
+        RequestPromises.any(first, second, third).done(new DoneCallback<String>() {
+            @Override
+            public void onDone(String value) {
+                result[0] = value;
+            }
+        });
+
+        first.reject(new RuntimeException());
+        second.resolve("b");
+        assertEquals("b", result[0]);
+        assertTrue(third.aborted);
+    }
+
+    public void testAnyRejectsWhenAllFail() {
+        final PromiseMock<String> first = new PromiseMock<>();
+        final PromiseMock<String> second = new PromiseMock<>();
+        final Throwable[] failure = new Throwable[1];
+        RequestPromises.any(first, second).fail(new FailCallback<Throwable>() {
+            @Override
+            public void onFail(Throwable result) {
+                failure[0] = result;
+            }
+        });
+
+        first.reject(new RuntimeException());
+        second.reject(new RuntimeException());
+        assertTrue(failure[0] instanceof AggregateRequestException);
+        assertEquals(2, ((AggregateRequestException) failure[0]).getErrors().size());
+    }
+
+    public void testRaceAbortsTheLosers() {
+        final PromiseMock<String> first = new PromiseMock<>();
+        final PromiseMock<String> second = new PromiseMock<>();
+        final String[] result = new String[1];
+        RequestPromises.race(first, second).done(new DoneCallback<String>() {
+            @Override
+            public void onDone(String value) {
+                result[0] = value;
+            }
+        });
+
+        second.resolve("b");
+        assertEquals("b", result[0]);
+        assertTrue(first.aborted);
+        assertFalse(second.aborted);
+    }
+
+    public void testProgressIsSummed() {
+        final PromiseMock<String> first = new PromiseMock<>();
+        final PromiseMock<String> second = new PromiseMock<>();
+        final RequestProgress[] progress = new RequestProgress[1];
+        RequestPromises.all(first, second).progress(new ProgressCallback<RequestProgress>() {
+            @Override
+            public void onProgress(RequestProgress value) {
+                progress[0] = value;
+            }
+        });
+
+        first.notify(new ProgressMock(10, 100));
+        assertFalse(progress[0].isLengthComputable());
+        second.notify(new ProgressMock(20, 50));
+        assertTrue(progress[0].isLengthComputable());
+        assertEquals(30, progress[0].loaded().intValue());
+        assertEquals(150, progress[0].total().intValue());
+    }
+
+    public void testAbortingTheJoinedPromiseAbortsAll() {
+        final PromiseMock<String> first = new PromiseMock<>();
+        final PromiseMock<String> second = new PromiseMock<>();
+        final Throwable[] failure = new Throwable[1];
+        final RequestPromise<List<String>> joined = RequestPromises.all(first, second);
+        joined.fail(new FailCallback<Throwable>() {
+            @Override
+            public void onFail(Throwable result) {
+                failure[0] = result;
+            }
+        });
+
+        joined.abort();
+        assertTrue(failure[0] instanceof RequestAbortException);
+        assertTrue(first.aborted);
+        assertTrue(second.aborted);
+    }
+
+    private static class PromiseMock<T> extends DeferredObject<T, Throwable, RequestProgress>
+            implements RequestPromise<T> {
+
+        boolean aborted;
+
+        @Override
+        public void abort() {
+            if (!isPending()) return;
+            aborted = true;
+            reject(new RequestAbortException());
+        }
+    }
+
+    private static class ProgressMock implements RequestProgress {
+
+        private final int loaded;
+        private final int total;
+
+        ProgressMock(int loaded, int total) {
+            this.loaded = loaded;
+            this.total = total;
+        }
+
+        @Override
+        public boolean isLengthComputable() {
+            return true;
+        }
+
+        @Override
+        public Number loaded() {
+            return loaded;
+        }
+
+        @Override
+        public Number total() {
+            return total;
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package org.turbogwt.net.http.client;
 
 import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.http.client.Header;
 import com.google.gwt.junit.client.GWTTestCase;
 
@@ -40,6 +41,7 @@ import org.turbogwt.net.http.client.model.PersonJso;
 import org.turbogwt.net.http.client.model.PersonSerdes;
 import org.turbogwt.net.serialization.client.DeserializationContext;
 import org.turbogwt.net.serialization.client.SerializationContext;
+import org.turbogwt.net.serialization.client.UnableToDeserializeException;
 import org.turbogwt.net.serialization.client.json.JsonObjectSerdes;
 import org.turbogwt.net.serialization.client.json.JsonRecordReader;
 import org.turbogwt.net.serialization.client.json.JsonRecordWriter;
@@ -289,6 +291,82 @@ public class RequestTest extends GWTTestCase {
         assertTrue(callbackSuccessCalled[0]);
     }
 
+    public void testNativelyParsedOverlayRequest() {
+        final Requestor requestor = getRequestor();
+
+        final String uri = "/person-jso-native";
+
+        final PersonJso person = PersonJso.create(1, "John Doe", 6.3, new Date(329356800));
+
+        // No response text is available, so the deserializer must use the parsed object
+        ServerStub.responseFor(uri, ResponseMock.ofJson(person, 200, "OK",
+                new ContentTypeHeader("application/json")));
+
+        final boolean[] callbackSuccessCalled = new boolean[1];
+
+        requestor.request(uri).nativeJsonParsing(true).get(PersonJso.class).done(new DoneCallback<PersonJso>() {
+            @Override
+            public void onDone(PersonJso result) {
+                assertSame(person, result);
+                callbackSuccessCalled[0] = true;
+            }
+        });
+        ServerStub.triggerPendingRequest();
+
+        assertTrue(callbackSuccessCalled[0]);
+    }
+
+    public void testNativelyParsedCustomObjectArrayRequest() {
+        final Requestor requestor = getRequestor();
+        requestor.registerSerdes(Person.class, new PersonSerdes());
+
+        final String uri = "/person-array-native";
+
+        final Person p1 = new Person(1, "John Doe", 6.3, new Date(329356800));
+        final Person p2 = new Person(2, "Alice", 5.87, new Date(355343600));
+
+        final JsArray<PersonJso> persons = JsArray.create();
+        persons.push(PersonJso.create(1, "John Doe", 6.3, new Date(329356800)));
+        persons.push(PersonJso.create(2, "Alice", 5.87, new Date(355343600)));
+
+        ServerStub.responseFor(uri, ResponseMock.ofJson(persons, 200, "OK",
+                new ContentTypeHeader("application/json")));
+
+        final boolean[] callbackSuccessCalled = new boolean[1];
+
+        requestor.request(uri).nativeJsonParsing(true).get(Person.class, List.class)
+                .done(new DoneCallback<Collection<Person>>() {
+                    @Override
+                    public void onDone(Collection<Person> result) {
+                        assertTrue(Arrays.equals(new Person[]{p1, p2}, result.toArray()));
+                        callbackSuccessCalled[0] = true;
+                    }
+                });
+        ServerStub.triggerPendingRequest();
+
+        assertTrue(callbackSuccessCalled[0]);
+    }
+
+    public void testNativelyParsedContentIsValidated() {
+        final PersonSerdes serdes = new PersonSerdes();
+        final JsArray<PersonJso> persons = JsArray.create();
+        persons.push(PersonJso.create(1, "John Doe", 6.3, new Date(329356800)));
+
+        try {
+            serdes.deserialize(persons, null);
+            fail("An array should not be deserialized as an object.");
+        } catch (UnableToDeserializeException e) {
+            // expected
+        }
+
+        try {
+            serdes.deserializeAsCollection(List.class, persons.get(0), null);
+            fail("An object should not be deserialized as an array.");
+        } catch (UnableToDeserializeException e) {
+            // expected
+        }
+    }
+
     public void testRequestHeaders() {
         final Requestor requestor = getRequestor();
 
@@ -321,6 +399,29 @@ public class RequestTest extends GWTTestCase {
         assertTrue(acceptHeaderOk);
     }
 
+    public void testDefaultHeadersAreSharedUntilWritten() {
+        final Requestor requestor = getRequestor();
+
+        ServerStub.responseFor("/a", ResponseMock.of(null, 200, "OK", new ContentTypeHeader("text/plain")));
+        ServerStub.responseFor("/b", ResponseMock.of(null, 200, "OK", new ContentTypeHeader("text/plain")));
+        ServerStub.responseFor("/c", ResponseMock.of(null, 200, "OK", new ContentTypeHeader("text/plain")));
+
+        requestor.request("/a").get();
+        requestor.request("/b").get();
+        requestor.request("/c").header("X-Custom", "1").get();
+
+        final Headers a = ServerStub.getRequestData("/a").getHeaders();
+        final Headers b = ServerStub.getRequestData("/b").getHeaders();
+        final Headers c = ServerStub.getRequestData("/c").getHeaders();
+
+        assertSame(a, b);
+        assertNotSame(a, c);
+        assertFalse(a.contains("X-Custom"));
+        assertEquals("1", c.getValue("X-Custom"));
+        assertEquals("application/json", c.getValue("Content-Type"));
+        assertEquals("application/json", c.getValue("Accept"));
+    }
+
     public void testStringArrayRequest() {
         final Requestor requestor = getRequestor();
 
@@ -402,6 +503,21 @@ public class RequestTest extends GWTTestCase {
         assertEquals(serialized, requestMock.getData());
     }
 
+    public void testNativeBodyRequest() {
+        final Requestor requestor = getRequestor();
+
+        final String uri = "/upload";
+        ServerStub.responseFor(uri, ResponseMock.of(null, 200, "OK", new ContentTypeHeader("text/plain")));
+
+        final JavaScriptObject bytes = createBytes(1024);
+
+        requestor.request(uri).contentType("application/octet-stream").payload(bytes).post();
+
+        final RequestMock requestMock = ServerStub.getRequestData(uri);
+        assertSame(bytes, requestMock.getBody());
+        assertNull(requestMock.getData());
+    }
+
     public void testResponseResult() {
         final Requestor requestor = getRequestor();
 
@@ -424,6 +540,10 @@ public class RequestTest extends GWTTestCase {
         assertTrue(callbackSuccessCalled[0]);
     }
 
+    private static native JavaScriptObject createBytes(int length) /*-{
+        return new Uint8Array(length);
+    }-*/;
+
     private Requestor getRequestor() {
         ServerStub.clearStub();
         return GWT.create(Requestor.class);
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.http.client.Header;
+import com.google.gwt.junit.client.GWTTestCase;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.turbogwt.core.future.shared.DoneCallback;
+import org.turbogwt.net.http.client.header.SimpleHeader;
+import org.turbogwt.net.http.client.mock.ResponseMock;
+import org.turbogwt.net.http.client.mock.ServerStub;
+
+/**
+ * @author Danilo Reinert
+ */
+public class ResponseHeadersTest extends GWTTestCase {
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.net.http.HttpTest";
+    }
+
+    public void testCaseInsensitiveLookup() {
+        final ResponseHeaders headers = new ResponseHeaders(ResponseMock.of(null, 200, "OK",
+                new SimpleHeader("content-type", "application/json"), new SimpleHeader("X-Total", "3")));
+
+        assertEquals("application/json", headers.getValue("Content-Type"));
+        assertTrue(headers.contains("x-total"));
+        assertEquals("3", headers.get("X-TOTAL").getValue());
+        assertNull(headers.getValue("ETag"));
+        assertNull(headers.get("ETag"));
+    }
+
+    public void testIterationBuildsCaseInsensitiveIndex() {
+        final ResponseHeaders headers = new ResponseHeaders(ResponseMock.of(null, 200, "OK",
+                new SimpleHeader("content-type", "application/json"), new SimpleHeader("X-Total", "3")));
+
+        int count = 0;
+        for (Header header : headers) {
+            assertNotNull(header);
+            count++;
+        }
+
+        assertEquals(2, count);
+        assertEquals("application/json", headers.getValue("CONTENT-TYPE"));
+        assertEquals("X-Total", headers.get("x-total").getName());
+    }
+
+    public void testLowerCaseContentTypeSelectsDeserializer() {
+        ServerStub.clearStub();
+        final Requestor requestor = GWT.create(Requestor.class);
+
+        final String uri = "/lower-case";
+        ServerStub.responseFor(uri, ResponseMock.of("[\"a\",\"b\"]", 200, "OK",
+                new SimpleHeader("content-type", "application/json")));
+
+        final boolean[] callbackDoneCalled = new boolean[1];
+
+        requestor.request(uri).get(String.class, List.class)
+                .done(new DoneCallback<Collection<String>>() {
+                    @Override
+                    public void onDone(Collection<String> result) {
+                        callbackDoneCalled[0] = true;
+                        assertEquals(2, result.size());
+                    }
+                });
+
+        ServerStub.triggerPendingRequest();
+
+        assertTrue(callbackDoneCalled[0]);
+    }
+}
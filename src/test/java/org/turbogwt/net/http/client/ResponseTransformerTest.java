@@ -0,0 +1,233 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArray;
+import com.google.gwt.http.client.Response;
+import com.google.gwt.http.client.ResponseWithJson;
+import com.google.gwt.junit.client.GWTTestCase;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.turbogwt.core.future.shared.DoneCallback;
+import org.turbogwt.core.future.shared.FailCallback;
+import org.turbogwt.net.http.client.header.ContentTypeHeader;
+import org.turbogwt.net.http.client.mock.ResponseMock;
+import org.turbogwt.net.http.client.mock.ServerStub;
+import org.turbogwt.net.http.client.model.PersonJso;
+
+/**
+ * @author Danilo Reinert
+ */
+public class ResponseTransformerTest extends GWTTestCase {
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.net.http.HttpTest";
+    }
+
+    public void testTransformerReplacesText() {
+        final Requestor requestor = getRequestor();
+        requestor.registerResponseTransformer(new ResponseTransformer() {
+            @Override
+            public Response transform(Response response) {
+                return new TransformedResponse(response).text(response.getText().toUpperCase());
+            }
+        });
+
+        ServerStub.responseFor("/text", ResponseMock.of("text", 200, "OK", new ContentTypeHeader("text/plain")));
+        assertEquals("TEXT", get(requestor, "/text"));
+    }
+
+    public void testTransformerProvidesResult() {
+        final Requestor requestor = getRequestor();
+        requestor.registerResponseTransformer(new ResponseTransformer() {
+            @Override
+            public Response transform(Response response) {
+                return new TransformedResponse(response).result("provided");
+            }
+        });
+
+        ServerStub.responseFor("/result", ResponseMock.of("not json", 200, "OK",
+                new ContentTypeHeader("application/json")));
+        assertEquals("provided", get(requestor, "/result"));
+    }
+
+    public void testEnvelopeIsUnwrapped() {
+        final Requestor requestor = getRequestor();
+        requestor.registerResponseTransformer("/api", new JsonEnvelopeTransformer("data"));
+
+        ServerStub.responseFor("/api/name", ResponseMock.of("{\"data\": \"Danilo\", \"version\": 2}", 200, "OK",
+                new ContentTypeHeader("application/json")));
+        ServerStub.responseFor("/other", ResponseMock.of("{\"data\": \"Danilo\"}", 200, "OK",
+                new ContentTypeHeader("text/plain")));
+
+        assertEquals("Danilo", get(requestor, "/api/name"));
+        assertEquals("{\"data\": \"Danilo\"}", get(requestor, "/other"));
+    }
+
+    public void testObjectEnvelopeIsUnwrappedAsEvaluatedJson() {
+        final Requestor requestor = getRequestor();
+        requestor.registerResponseTransformer("/api", new JsonEnvelopeTransformer("data"));
+        final JavaScriptObject[] unwrapped = captureJson(requestor, "/api");
+
+        ServerStub.responseFor("/api/person", ResponseMock.of("{\"data\": {\"id\": 1, \"name\": \"John Doe\"}}",
+                200, "OK", new ContentTypeHeader("application/json")));
+
+        final PersonJso[] result = new PersonJso[1];
+        requestor.request("/api/person").get(PersonJso.class).done(new DoneCallback<PersonJso>() {
+            @Override
+            public void onDone(PersonJso person) {
+                result[0] = person;
+            }
+        });
+        ServerStub.triggerPendingRequest();
+
+        assertNotNull(result[0]);
+        assertEquals(1, result[0].getId());
+        assertEquals("John Doe", result[0].getName());
+        // The inner JSON is handed to the deserializer as it is, instead of being stringified and parsed again
+        assertSame(unwrapped[0], result[0]);
+    }
+
+    public void testArrayEnvelopeIsUnwrappedAsEvaluatedJson() {
+        final Requestor requestor = getRequestor();
+        requestor.registerResponseTransformer("/api", new JsonEnvelopeTransformer("data"));
+        final JavaScriptObject[] unwrapped = captureJson(requestor, "/api");
+
+        ServerStub.responseFor("/api/persons", ResponseMock.of("{\"data\": [{\"id\": 1, \"name\": \"John Doe\"}, "
+                + "{\"id\": 2, \"name\": \"Alice\"}]}", 200, "OK", new ContentTypeHeader("application/json")));
+
+        final List<PersonJso> result = new ArrayList<>();
+        requestor.request("/api/persons").get(PersonJso.class, List.class).done(
+                new DoneCallback<Collection<PersonJso>>() {
+                    @Override
+                    public void onDone(Collection<PersonJso> persons) {
+                        result.addAll(persons);
+                    }
+                });
+        ServerStub.triggerPendingRequest();
+
+        assertEquals(2, result.size());
+        assertEquals("John Doe", result.get(0).getName());
+        assertEquals("Alice", result.get(1).getName());
+        assertSame(unwrapped[0].<JsArray<PersonJso>>cast().get(1), result.get(1));
+    }
+
+    public void testMalformedEnvelopeIsLeftUntransformed() {
+        final Requestor requestor = getRequestor();
+        requestor.registerResponseTransformer("/api", new JsonEnvelopeTransformer("data"));
+        final String[] text = new String[1];
+        requestor.registerResponseTransformer("/api", new ResponseTransformer() {
+            @Override
+            public Response transform(Response response) {
+                text[0] = response.getText();
+                return response;
+            }
+        });
+
+        ServerStub.responseFor("/api/malformed", ResponseMock.of("{\"data\": ", 200, "OK",
+                new ContentTypeHeader("application/json")));
+
+        get(requestor, "/api/malformed");
+        assertEquals("{\"data\": ", text[0]);
+    }
+
+    public void testFailingTransformerRejectsRequest() {
+        final Requestor requestor = getRequestor();
+        final RuntimeException failure = new RuntimeException("Transformation failed.");
+        requestor.registerResponseTransformer(new ResponseTransformer() {
+            @Override
+            public Response transform(Response response) {
+                throw failure;
+            }
+        });
+
+        ServerStub.responseFor("/text", ResponseMock.of("text", 200, "OK", new ContentTypeHeader("text/plain")));
+
+        final Throwable[] reason = new Throwable[1];
+        requestor.request("/text").get(String.class).fail(new FailCallback<Throwable>() {
+            @Override
+            public void onFail(Throwable result) {
+                reason[0] = result;
+            }
+        });
+        ServerStub.triggerPendingRequest();
+
+        assertSame(failure, reason[0]);
+    }
+
+    public void testUnsuccessfulResponseIsNotTransformed() {
+        final Requestor requestor = getRequestor();
+        final boolean[] transformed = new boolean[1];
+        requestor.registerResponseTransformer(new ResponseTransformer() {
+            @Override
+            public Response transform(Response response) {
+                transformed[0] = true;
+                return response;
+            }
+        });
+
+        ServerStub.responseFor("/error", ResponseMock.of("error", 500, "Internal Server Error",
+                new ContentTypeHeader("text/plain")));
+
+        final boolean[] failed = new boolean[1];
+        requestor.request("/error").get(String.class).fail(new FailCallback<Throwable>() {
+            @Override
+            public void onFail(Throwable result) {
+                failed[0] = true;
+            }
+        });
+        ServerStub.triggerPendingRequest();
+
+        assertTrue(failed[0]);
+        assertFalse(transformed[0]);
+    }
+
+    private String get(Requestor requestor, String uri) {
+        final String[] result = new String[1];
+        requestor.request(uri).get(String.class).done(new DoneCallback<String>() {
+            @Override
+            public void onDone(String value) {
+                result[0] = value;
+            }
+        });
+        ServerStub.triggerPendingRequest();
+        return result[0];
+    }
+
+    private JavaScriptObject[] captureJson(Requestor requestor, String pathPrefix) {
+        final JavaScriptObject[] json = new JavaScriptObject[1];
+        requestor.registerResponseTransformer(pathPrefix, new ResponseTransformer() {
+            @Override
+            public Response transform(Response response) {
+                json[0] = ((ResponseWithJson) response).getJson();
+                return response;
+            }
+        });
+        return json;
+    }
+
+    private Requestor getRequestor() {
+        ServerStub.clearStub();
+        return GWT.create(Requestor.class);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.junit.client.GWTTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.turbogwt.core.util.shared.Registration;
+import org.turbogwt.net.http.client.header.ContentTypeHeader;
+import org.turbogwt.net.http.client.mock.ResponseMock;
+import org.turbogwt.net.http.client.mock.ServerStub;
+
+/**
+ * @author Danilo Reinert
+ */
+public class ScopedFilterTest extends GWTTestCase {
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.net.http.HttpTest";
+    }
+
+    public void testFiltersAreAppliedByPathPrefixInRegistrationOrder() {
+        final Requestor requestor = getRequestor();
+        final List<String> applied = new ArrayList<>();
+        requestor.registerRequestFilter(new NamedFilter("global", applied));
+        requestor.registerRequestFilter("/books", new NamedFilter("books", applied));
+        requestor.registerRequestFilter("/books/1", new NamedFilter("book1", applied));
+        requestor.registerRequestFilter("/authors", new NamedFilter("authors", applied));
+
+        request(requestor, "/books/1/chapters?page=2");
+        assertEquals("[global, books, book1]", applied.toString());
+
+        applied.clear();
+        request(requestor, "/bookstore");
+        assertEquals("[global]", applied.toString());
+
+        applied.clear();
+        request(requestor, "/books");
+        assertEquals("[global, books]", applied.toString());
+    }
+
+    public void testScopedFilterRemoval() {
+        final Requestor requestor = getRequestor();
+        final List<String> applied = new ArrayList<>();
+        final Registration registration = requestor.registerRequestFilter("/books",
+                new NamedFilter("books", applied));
+
+        request(requestor, "/books/1");
+        registration.removeHandler();
+        request(requestor, "/books/1");
+
+        assertEquals("[books]", applied.toString());
+    }
+
+    private void request(Requestor requestor, String uri) {
+        ServerStub.responseFor(uri, ResponseMock.of(null, 200, "OK", new ContentTypeHeader("text/plain")));
+        requestor.request(uri).get();
+    }
+
+    private Requestor getRequestor() {
+        ServerStub.clearStub();
+        return GWT.create(Requestor.class);
+    }
+
+    private static class NamedFilter implements RequestFilter {
+
+        private final String name;
+        private final List<String> applied;
+
+        NamedFilter(String name, List<String> applied) {
+            this.name = name;
+            this.applied = applied;
+        }
+
+        @Override
+        public void filter(Request request) {
+            applied.add(name);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.RequestBuilder;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.RequestException;
+import com.google.gwt.http.client.Response;
+import com.google.gwt.junit.client.GWTTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.turbogwt.net.http.client.header.ContentTypeHeader;
+import org.turbogwt.net.http.client.header.SimpleHeader;
+import org.turbogwt.net.http.client.mock.ResponseMock;
+import org.turbogwt.net.http.client.mock.ServerConnectionMock;
+import org.turbogwt.net.http.client.mock.ServerStub;
+import org.turbogwt.net.http.client.traffic.RecordingServerConnection;
+import org.turbogwt.net.http.client.traffic.ReplayServerConnection;
+import org.turbogwt.net.http.client.traffic.TrafficEntry;
+import org.turbogwt.net.http.client.traffic.TrafficLog;
+
+/**
+ * @author Danilo Reinert
+ */
+public class TrafficReplayTest extends GWTTestCase {
+
+    private static final String HAR = "{\"log\":{\"version\":\"1.2\",\"entries\":["
+            + entry("GET", "/books", 200, "first", 5, 5) + ","
+            + entry("GET", "/books", 200, "second", 0, 0) + ","
+            + entry("POST", "/books", 201, "created", 0, 0) + ","
+            + "{\"request\":{\"method\":\"GET\",\"url\":\"/down\"},\"response\":{\"status\":0,\"headers\":[]},"
+            + "\"timings\":{\"wait\":0,\"receive\":0},\"_error\":\"Network down\"}"
+            + "]}}";
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.net.http.HttpTest";
+    }
+
+    public void testRecording() throws RequestException {
+        ServerStub.clearStub();
+        ServerStub.responseFor("/books", ResponseMock.of("[]", 200, "OK", new ContentTypeHeader("application/json"),
+                new SimpleHeader("ETag", "\"v1\"")));
+        final TrafficLog log = RecordingServerConnection.getTrafficLog();
+        log.clear();
+
+        final RecordingCallback callback = new RecordingCallback();
+        new RecordingServerConnection(new ServerConnectionMock()).sendRequest(0, null, null,
+                new Headers(new ContentTypeHeader("application/json")), RequestBuilder.POST, "/books",
+                "{\"title\":\"Dune\"}", callback);
+
+        assertEquals(1, log.size());
+        assertEquals(0, log.get(0).getStatus());
+
+        ServerStub.triggerPendingRequest();
+
+        assertEquals("[]", callback.texts.get(0));
+        final TrafficEntry entry = TrafficLog.fromHar(log.toHar()).get(0);
+        assertEquals("POST", entry.getMethod());
+        assertEquals("/books", entry.getUrl());
+        assertEquals(200, entry.getStatus());
+        assertEquals("OK", entry.getStatusText());
+        assertEquals("[]", entry.getResponseText());
+        assertEquals(2, entry.getResponseHeaderCount());
+        assertEquals("ETag", entry.getResponseHeaderName(1));
+        assertEquals("\"v1\"", entry.getResponseHeaderValue(1));
+        assertNull(entry.getError());
+        assertTrue(entry.getWaitMillis() >= 0);
+    }
+
+    public void testCredentialsAreRedacted() throws RequestException {
+        ServerStub.clearStub();
+        ServerStub.responseFor("/me", ResponseMock.of("{}", 200, "OK", new ContentTypeHeader("application/json"),
+                new SimpleHeader("Set-Cookie", "session=secret")));
+        final TrafficLog log = RecordingServerConnection.getTrafficLog();
+        log.clear();
+
+        final Headers headers = new Headers(new SimpleHeader("Authorization", "Bearer secret"),
+                new SimpleHeader("Accept", "application/json"));
+        new RecordingServerConnection(new ServerConnectionMock()).sendRequest(
+                new ConnectionRequest(RequestBuilder.GET, "/me").headers(headers), new RecordingCallback());
+        ServerStub.triggerPendingRequest();
+
+        final String har = log.toHar();
+        assertFalse(har.contains("secret"));
+        assertTrue(har.contains("application/json"));
+
+        RecordingServerConnection.setCredentialsRecorded(true);
+        try {
+            new RecordingServerConnection(new ServerConnectionMock()).sendRequest(
+                    new ConnectionRequest(RequestBuilder.GET, "/me").headers(headers), new RecordingCallback());
+            ServerStub.triggerPendingRequest();
+            assertTrue(log.toHar().contains("Bearer secret"));
+        } finally {
+            RecordingServerConnection.setCredentialsRecorded(false);
+        }
+    }
+
+    public void testLogKeepsLatestEntries() throws RequestException {
+        ServerStub.clearStub();
+        final TrafficLog log = RecordingServerConnection.getTrafficLog();
+        log.clear();
+
+        RecordingServerConnection.setMaxEntries(2);
+        try {
+            final RecordingServerConnection connection = new RecordingServerConnection(new ServerConnectionMock());
+            connection.sendRequest(new ConnectionRequest(RequestBuilder.GET, "/first"), new RecordingCallback());
+            connection.sendRequest(new ConnectionRequest(RequestBuilder.GET, "/second"), new RecordingCallback());
+            connection.sendRequest(new ConnectionRequest(RequestBuilder.GET, "/third"), new RecordingCallback());
+
+            assertEquals(2, log.size());
+            assertEquals("/second", log.get(0).getUrl());
+            assertEquals("/third", log.get(1).getUrl());
+        } finally {
+            RecordingServerConnection.setMaxEntries(RecordingServerConnection.DEFAULT_MAX_ENTRIES);
+        }
+    }
+
+    public void testReplayInRecordedOrder() throws RequestException {
+        ReplayServerConnection.replay(TrafficLog.fromHar(HAR), 0);
+        final ReplayServerConnection connection = new ReplayServerConnection();
+        final RecordingCallback callback = new RecordingCallback();
+
+        connection.sendRequest(new ConnectionRequest(RequestBuilder.GET, "/books"), callback);
+        connection.sendRequest(new ConnectionRequest(RequestBuilder.POST, "/books"), callback);
+        connection.sendRequest(new ConnectionRequest(RequestBuilder.GET, "/books"), callback);
+        connection.sendRequest(new ConnectionRequest(RequestBuilder.GET, "/books"), callback);
+        connection.sendRequest(new ConnectionRequest(RequestBuilder.GET, "/down"), callback);
+
+        delayTestFinish(1000);
+        Scheduler.get().scheduleFixedDelay(new Scheduler.RepeatingCommand() {
+            @Override
+            public boolean execute() {
+                if (callback.texts.size() < 5) return true;
+                // With no delays, errors come first since they are not received; responses keep the request order
+                assertEquals("error Network down", callback.texts.get(0));
+                assertEquals("200 first", callback.texts.get(1));
+                assertEquals("201 created", callback.texts.get(2));
+                assertEquals("200 second", callback.texts.get(3));
+                assertEquals("200 second", callback.texts.get(4));
+                finishTest();
+                return false;
+            }
+        }, 10);
+    }
+
+    public void testReplayOfAbsoluteUrls() throws RequestException {
+        // Browsers export HAR files with absolute urls
+        ReplayServerConnection.replay(TrafficLog.fromHar("{\"log\":{\"version\":\"1.2\",\"entries\":["
+                + entry("GET", "https://example.com/books?page=2", 200, "page 2", 0, 0) + ","
+                + entry("GET", GWT.getHostPageBaseURL() + "authors", 200, "authors", 0, 0)
+                + "]}}"), 0);
+        final ReplayServerConnection connection = new ReplayServerConnection();
+        final RecordingCallback callback = new RecordingCallback();
+
+        connection.sendRequest(new ConnectionRequest(RequestBuilder.GET, "/books?page=2"), callback);
+        connection.sendRequest(new ConnectionRequest(RequestBuilder.GET, "authors"), callback);
+
+        delayTestFinish(1000);
+        Scheduler.get().scheduleFixedDelay(new Scheduler.RepeatingCommand() {
+            @Override
+            public boolean execute() {
+                if (callback.texts.size() < 2) return true;
+                assertEquals("200 page 2", callback.texts.get(0));
+                assertEquals("200 authors", callback.texts.get(1));
+                finishTest();
+                return false;
+            }
+        }, 10);
+    }
+
+    public void testReplayWithoutRecordedTraffic() {
+        ReplayServerConnection.replay(TrafficLog.fromHar(HAR), 0);
+        try {
+            new ReplayServerConnection().sendRequest(new ConnectionRequest(RequestBuilder.DELETE, "/books"), new RecordingCallback());
+            fail("RequestException should have been thrown.");
+        } catch (RequestException e) {
+            assertNotNull(e);
+        }
+    }
+
+    public void testInvalidHar() {
+        try {
+            TrafficLog.fromHar("{\"entries\":[]}");
+            fail("IllegalArgumentException should have been thrown.");
+        } catch (IllegalArgumentException e) {
+            assertNotNull(e);
+        }
+    }
+
+    private static String entry(String method, String url, int status, String text, int wait, int receive) {
+        return "{\"startedDateTime\":\"2014-09-01T12:00:00.000Z\",\"request\":{\"method\":\"" + method
+                + "\",\"url\":\"" + url + "\",\"headers\":[]},\"response\":{\"status\":" + status
+                + ",\"statusText\":\"\",\"headers\":[{\"name\":\"Content-Type\",\"value\":\"text/plain\"}],"
+                + "\"content\":{\"mimeType\":\"text/plain\",\"text\":\"" + text + "\"}},"
+                + "\"timings\":{\"send\":0,\"wait\":" + wait + ",\"receive\":" + receive + "}}";
+    }
+
+    private static class RecordingCallback implements RequestCallback {
+
+        final List<String> texts = new ArrayList<>();
+
+        @Override
+        public void onResponseReceived(Request request, Response response) {
+            if (response.getStatusCode() == 200 && response.getText().equals("[]")) {
+                texts.add(response.getText());
+            } else {
+                texts.add(response.getStatusCode() + " " + response.getText());
+            }
+        }
+
+        @Override
+        public void onError(Request request, Throwable exception) {
+            texts.add("error " + exception.getMessage());
+        }
+    }
+}
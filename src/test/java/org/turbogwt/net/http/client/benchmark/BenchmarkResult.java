@@ -0,0 +1,88 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * Result of a benchmark measured by {@link BenchmarkRunner}.
+ *
+ * @author Danilo Reinert
+ */
+public class BenchmarkResult {
+
+    private final String name;
+    private final int operations;
+    private final double totalMillis;
+    private final double[] sortedSamples;
+
+    BenchmarkResult(String name, int operations, double totalMillis, double[] samples) {
+        this.name = name;
+        this.operations = operations;
+        this.totalMillis = totalMillis;
+        this.sortedSamples = samples;
+        Arrays.sort(samples);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getOperations() {
+        return operations;
+    }
+
+    public double getTotalMillis() {
+        return totalMillis;
+    }
+
+    /**
+     * Returns the number of operations per second over all measured batches.
+     * If the timer did not advance at all, the result is infinite.
+     *
+     * @return the throughput
+     */
+    public double getOpsPerSecond() {
+        return totalMillis > 0 ? operations * 1000 / totalMillis : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the time per operation at the given percentile of the batch samples, by the nearest-rank method.
+     *
+     * @param percentile a number between 0 (exclusive) and 100 (inclusive)
+     *
+     * @return the time per operation in milliseconds
+     */
+    public double getPercentile(double percentile) {
+        if (percentile <= 0 || percentile > 100)
+            throw new IllegalArgumentException("Percentile must be greater than 0 and not greater than 100.");
+        final int rank = (int) Math.ceil(percentile / 100 * sortedSamples.length);
+        return sortedSamples[Math.max(rank, 1) - 1];
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + round(getOpsPerSecond()) + " ops/s, p50 " + round(getPercentile(50)) + " ms, p90 "
+                + round(getPercentile(90)) + " ms, p99 " + round(getPercentile(99)) + " ms (" + operations + " ops in "
+                + round(totalMillis) + " ms)";
+    }
+
+    private static double round(double value) {
+        if (Double.isInfinite(value)) return value;
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client.benchmark;
+
+import com.google.gwt.core.client.GWT;
+
+/**
+ * Runs an operation repeatedly in the browser and measures its throughput and latency percentiles.
+ * <p/>
+ *
+ * The timer resolution of browsers is too coarse to time a single fast operation, so the operation is run in batches
+ * and each sample is the mean time of one batch. The first batches warm up the code and are discarded.
+ *
+ * @author Danilo Reinert
+ */
+public class BenchmarkRunner {
+
+    private final int warmupBatches;
+    private final int batches;
+    private final int batchSize;
+
+    /**
+     * @param warmupBatches number of discarded batches run before measuring
+     * @param batches       number of measured batches, i.e., of samples
+     * @param batchSize     number of operations run per batch
+     */
+    public BenchmarkRunner(int warmupBatches, int batches, int batchSize) {
+        if (warmupBatches < 0 || batches < 1 || batchSize < 1)
+            throw new IllegalArgumentException("There must be at least one batch of one operation to measure.");
+        this.warmupBatches = warmupBatches;
+        this.batches = batches;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Measures the operation and reports the result.
+     *
+     * @param name      name of the benchmark, used in the report
+     * @param operation operation to measure
+     *
+     * @return the measured result
+     */
+    public BenchmarkResult run(String name, Runnable operation) {
+        for (int i = 0; i < warmupBatches * batchSize; i++) {
+            operation.run();
+        }
+
+        final double[] samples = new double[batches];
+        double totalMillis = 0;
+        for (int b = 0; b < batches; b++) {
+            final double start = now();
+            for (int i = 0; i < batchSize; i++) {
+                operation.run();
+            }
+            final double elapsed = now() - start;
+            samples[b] = elapsed / batchSize;
+            totalMillis += elapsed;
+        }
+
+        final BenchmarkResult result = new BenchmarkResult(name, batches * batchSize, totalMillis, samples);
+        report(result.toString());
+        return result;
+    }
+
+    private static void report(String line) {
+        if (GWT.isScript()) {
+            log(line);
+        } else {
+            System.out.println(line);
+        }
+    }
+
+    private static native void log(String line) /*-{
+        if ($wnd.console && $wnd.console.log) $wnd.console.log(line);
+    }-*/;
+
+    /**
+     * High resolution time when available, in milliseconds.
+     */
+    private static native double now() /*-{
+        return $wnd.performance && $wnd.performance.now ? $wnd.performance.now() : new Date().getTime();
+    }-*/;
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client.benchmark;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.http.client.Response;
+import com.google.gwt.junit.client.GWTTestCase;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.turbogwt.core.future.shared.DoneCallback;
+import org.turbogwt.net.http.client.Request;
+import org.turbogwt.net.http.client.RequestFilter;
+import org.turbogwt.net.http.client.Requestor;
+import org.turbogwt.net.http.client.ResponseFilter;
+import org.turbogwt.net.http.client.header.ContentTypeHeader;
+import org.turbogwt.net.http.client.header.SimpleHeader;
+import org.turbogwt.net.http.client.mock.ResponseMock;
+import org.turbogwt.net.http.client.mock.ServerStub;
+import org.turbogwt.net.http.client.model.Person;
+import org.turbogwt.net.http.client.model.PersonSerdes;
+
+/**
+ * Measures the library's own cost per request, with responses served synchronously by {@link ServerStub}.
+ * <p/>
+ *
+ * Every operation dispatches one request and triggers its response, so the results include no network time.
+ * The results are reported to the console; the assertions only check that the measured work was actually done.
+ *
+ * @author Danilo Reinert
+ */
+public class DispatchOverheadBenchmark extends GWTTestCase {
+
+    private static final BenchmarkRunner FAST_RUNNER = new BenchmarkRunner(10, 30, 50);
+    private static final BenchmarkRunner MEDIUM_RUNNER = new BenchmarkRunner(5, 20, 10);
+    private static final BenchmarkRunner SLOW_RUNNER = new BenchmarkRunner(3, 10, 2);
+
+    private static final int SMALL_PAYLOAD = 1;
+    private static final int MEDIUM_PAYLOAD = 100;
+    private static final int LARGE_PAYLOAD = 1000;
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.net.http.HttpTest";
+    }
+
+    public void testDispatch() {
+        final Requestor requestor = getRequestor();
+        ServerStub.responseFor("/dispatch", ResponseMock.of(null, 200, "OK", new ContentTypeHeader("text/plain")));
+
+        final int[] done = new int[1];
+        final BenchmarkResult result = FAST_RUNNER.run("dispatch", new Runnable() {
+            @Override
+            public void run() {
+                requestor.request("/dispatch").get().done(new DoneCallback<Void>() {
+                    @Override
+                    public void onDone(Void result) {
+                        done[0]++;
+                    }
+                });
+                ServerStub.triggerPendingRequest();
+            }
+        });
+
+        assertAllDone(result, done[0]);
+    }
+
+    public void testFilterChain() {
+        final Requestor requestor = getRequestor();
+        final int[] applied = new int[1];
+        for (int i = 0; i < 5; i++) {
+            requestor.registerRequestFilter(new RequestFilter() {
+                @Override
+                public void filter(Request request) {
+                    applied[0]++;
+                }
+            });
+            requestor.registerResponseFilter(new ResponseFilter() {
+                @Override
+                public void filter(Response response) {
+                    applied[0]++;
+                }
+            });
+        }
+        requestor.registerRequestFilter("/filtered", new RequestFilter() {
+            @Override
+            public void filter(Request request) {
+                applied[0]++;
+            }
+        });
+        requestor.registerRequestFilter("/elsewhere", new RequestFilter() {
+            @Override
+            public void filter(Request request) {
+                fail("Filter scoped to another path should not be applied.");
+            }
+        });
+        ServerStub.responseFor("/filtered/resource", ResponseMock.of(null, 200, "OK",
+                new ContentTypeHeader("text/plain")));
+
+        final BenchmarkResult result = FAST_RUNNER.run("filter chain (11 filters)", new Runnable() {
+            @Override
+            public void run() {
+                requestor.request("/filtered/resource").get();
+                ServerStub.triggerPendingRequest();
+            }
+        });
+
+        assertTrue(applied[0] >= result.getOperations() * 11);
+    }
+
+    public void testHeaders() {
+        final Requestor requestor = getRequestor();
+        final String[] etag = new String[1];
+        requestor.registerResponseFilter(new ResponseFilter() {
+            @Override
+            public void filter(Response response) {
+                etag[0] = response.getHeader("ETag");
+            }
+        });
+        ServerStub.responseFor("/headers", ResponseMock.of("ok", 200, "OK",
+                new ContentTypeHeader("text/plain"),
+                new SimpleHeader("Cache-Control", "no-cache"),
+                new SimpleHeader("Date", "Mon, 01 Sep 2014 12:00:00 GMT"),
+                new SimpleHeader("ETag", "\"abc\""),
+                new SimpleHeader("Server", "stub"),
+                new SimpleHeader("Vary", "Accept, Accept-Encoding"),
+                new SimpleHeader("X-Request-Id", "1"),
+                new SimpleHeader("X-Response-Time", "1ms")));
+
+        final int[] done = new int[1];
+        final BenchmarkResult result = FAST_RUNNER.run("headers (5 sent, 8 received)", new Runnable() {
+            @Override
+            public void run() {
+                requestor.request("/headers")
+                        .accept("text/plain, application/json;q=0.9, */*;q=0.1")
+                        .header("Authorization", "Bearer token")
+                        .header("X-Request-Id", "1")
+                        .header("X-Client", "benchmark")
+                        .header("If-None-Match", "\"abc\"")
+                        .get(String.class).done(new DoneCallback<String>() {
+                            @Override
+                            public void onDone(String result) {
+                                done[0]++;
+                            }
+                        });
+                ServerStub.triggerPendingRequest();
+            }
+        });
+
+        assertAllDone(result, done[0]);
+        assertEquals("\"abc\"", etag[0]);
+    }
+
+    public void testSerdesResolution() {
+        final Requestor requestor = getRequestor();
+        requestor.registerSerdes(Person.class, new PersonSerdes());
+
+        final Object[] resolved = new Object[1];
+        FAST_RUNNER.run("serdes resolution", new Runnable() {
+            @Override
+            public void run() {
+                resolved[0] = requestor.getDeserializer(Person.class, "application/json");
+                resolved[0] = requestor.getSerializer(Person.class, "application/json");
+                resolved[0] = requestor.getDeserializer(String.class, "text/plain");
+            }
+        });
+
+        assertNotNull(resolved[0]);
+    }
+
+    public void testDeserializeSmallPayload() {
+        benchmarkDeserialization(FAST_RUNNER, SMALL_PAYLOAD);
+    }
+
+    public void testDeserializeMediumPayload() {
+        benchmarkDeserialization(MEDIUM_RUNNER, MEDIUM_PAYLOAD);
+    }
+
+    public void testDeserializeLargePayload() {
+        benchmarkDeserialization(SLOW_RUNNER, LARGE_PAYLOAD);
+    }
+
+    private void benchmarkDeserialization(BenchmarkRunner runner, final int size) {
+        final Requestor requestor = getRequestor();
+        requestor.registerSerdes(Person.class, new PersonSerdes());
+        final String uri = "/people/" + size;
+        ServerStub.responseFor(uri, ResponseMock.of(personsJson(size), 200, "OK",
+                new ContentTypeHeader("application/json")));
+
+        final int[] received = new int[1];
+        final BenchmarkResult result = runner.run("deserialization of " + size + " objects", new Runnable() {
+            @Override
+            public void run() {
+                requestor.request(uri).get(Person.class, List.class).done(new DoneCallback<Collection<Person>>() {
+                    @Override
+                    public void onDone(Collection<Person> result) {
+                        received[0] += result.size();
+                    }
+                });
+                ServerStub.triggerPendingRequest();
+            }
+        });
+
+        assertAllDone(result, received[0] / size);
+    }
+
+    private static String personsJson(int size) {
+        final StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"id\":").append(i).append(",\"name\":\"Person ").append(i)
+                    .append("\",\"weight\":").append(60 + i % 40).append(".5,\"birthday\":-479617200000}");
+        }
+        return json.append(']').toString();
+    }
+
+    private void assertAllDone(BenchmarkResult result, int done) {
+        assertTrue(done >= result.getOperations());
+    }
+
+    private Requestor getRequestor() {
+        ServerStub.clearStub();
+        return GWT.create(Requestor.class);
+    }
+}
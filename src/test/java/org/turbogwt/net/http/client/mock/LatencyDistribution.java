@@ -0,0 +1,112 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client.mock;
+
+import java.util.Random;
+
+/**
+ * Distribution of the simulated latencies until the first byte of a response.
+ *
+ * @author Danilo Reinert
+ */
+public abstract class LatencyDistribution {
+
+    /**
+     * Every request takes the same time.
+     *
+     * @param millis the latency in milliseconds
+     *
+     * @return the distribution
+     */
+    public static LatencyDistribution fixed(final long millis) {
+        checkNotNegative(millis);
+        return new LatencyDistribution() {
+            @Override
+            public long nextLatency(Random random) {
+                return millis;
+            }
+        };
+    }
+
+    /**
+     * Latencies are uniformly distributed between the bounds.
+     *
+     * @param minMillis the minimum latency in milliseconds
+     * @param maxMillis the maximum latency in milliseconds
+     *
+     * @return the distribution
+     */
+    public static LatencyDistribution uniform(final long minMillis, final long maxMillis) {
+        checkNotNegative(minMillis);
+        if (maxMillis < minMillis) throw new IllegalArgumentException("Maximum latency cannot be less than minimum.");
+        return new LatencyDistribution() {
+            @Override
+            public long nextLatency(Random random) {
+                return minMillis + Math.round(random.nextDouble() * (maxMillis - minMillis));
+            }
+        };
+    }
+
+    /**
+     * Latencies are exponentially distributed around the mean, as the waiting times of independent arrivals.
+     *
+     * @param meanMillis the mean latency in milliseconds
+     *
+     * @return the distribution
+     */
+    public static LatencyDistribution exponential(final double meanMillis) {
+        checkNotNegative(meanMillis);
+        return new LatencyDistribution() {
+            @Override
+            public long nextLatency(Random random) {
+                return Math.round(-meanMillis * Math.log(1 - random.nextDouble()));
+            }
+        };
+    }
+
+    /**
+     * Latencies follow a log-normal distribution, whose long tail resembles the latencies of real servers.
+     *
+     * @param medianMillis the median latency in milliseconds
+     * @param sigma        the standard deviation of the latency's logarithm; the higher, the longer the tail
+     *
+     * @return the distribution
+     */
+    public static LatencyDistribution logNormal(final double medianMillis, final double sigma) {
+        if (medianMillis <= 0) throw new IllegalArgumentException("Median latency must be positive.");
+        checkNotNegative(sigma);
+        return new LatencyDistribution() {
+            @Override
+            public long nextLatency(Random random) {
+                return Math.round(medianMillis * Math.exp(sigma * random.nextGaussian()));
+            }
+        };
+    }
+
+    /**
+     * Draws the next latency.
+     *
+     * @param random the source of randomness, seeded by the simulation
+     *
+     * @return the latency in milliseconds
+     */
+    public abstract long nextLatency(Random random);
+
+    private static void checkNotNegative(double value) {
+        if (value < 0) throw new IllegalArgumentException("Latency cannot be negative.");
+    }
+}
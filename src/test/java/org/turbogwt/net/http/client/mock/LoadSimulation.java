@@ -0,0 +1,171 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client.mock;
+
+import com.google.gwt.http.client.Response;
+
+import java.util.Random;
+
+/**
+ * Simulates the network and the server for the requests sent to {@link ServerStub}.
+ * <p/>
+ *
+ * While a simulation is set in the stub, requests are not held for {@link ServerStub#triggerPendingRequest()};
+ * they are answered by tasks scheduled in the stub's {@link VirtualScheduler} instead. Each request waits a latency
+ * drawn from a {@link LatencyDistribution}, then its response is downloaded at the simulated bandwidth, firing
+ * progress events as chunks arrive. Requests may also fail, either with a network error or with a server error.
+ * <p/>
+ *
+ * All random draws come from a seeded generator, so a simulation with the same seed always produces the same
+ * timings and errors for the same sequence of requests.
+ *
+ * @author Danilo Reinert
+ */
+public class LoadSimulation {
+
+    private static final int DEFAULT_CHUNK_SIZE = 16 * 1024;
+
+    private final Random random;
+    private LatencyDistribution latency = LatencyDistribution.fixed(0);
+    private int bytesPerSecond;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private double errorRate;
+    private double serverErrorRate;
+
+    private LoadSimulation(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Creates a simulation with no latency, unlimited bandwidth and no errors.
+     *
+     * @param seed the seed of the random draws
+     *
+     * @return the simulation
+     */
+    public static LoadSimulation withSeed(long seed) {
+        return new LoadSimulation(seed);
+    }
+
+    /**
+     * Sets the distribution of the latencies until the first byte of the responses.
+     *
+     * @param latency the latency distribution
+     *
+     * @return this simulation
+     */
+    public LoadSimulation latency(LatencyDistribution latency) {
+        if (latency == null) throw new NullPointerException("Latency distribution cannot be null.");
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Limits the bandwidth of each response download. The size of a response is the length of its text.
+     *
+     * @param bytesPerSecond the bandwidth; zero means unlimited
+     * @param chunkSize      the number of bytes between progress events
+     *
+     * @return this simulation
+     */
+    public LoadSimulation bandwidth(int bytesPerSecond, int chunkSize) {
+        if (bytesPerSecond < 0) throw new IllegalArgumentException("Bandwidth cannot be negative.");
+        if (chunkSize < 1) throw new IllegalArgumentException("Chunk size must be positive.");
+        this.bytesPerSecond = bytesPerSecond;
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * Sets the ratio of requests failing with a network error.
+     *
+     * @param errorRate a ratio between 0 and 1
+     *
+     * @return this simulation
+     */
+    public LoadSimulation errorRate(double errorRate) {
+        checkRate(errorRate);
+        checkRate(errorRate + serverErrorRate);
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    /**
+     * Sets the ratio of requests answered with a 503 (Service Unavailable) response.
+     *
+     * @param serverErrorRate a ratio between 0 and 1
+     *
+     * @return this simulation
+     */
+    public LoadSimulation serverErrorRate(double serverErrorRate) {
+        checkRate(serverErrorRate);
+        checkRate(errorRate + serverErrorRate);
+        this.serverErrorRate = serverErrorRate;
+        return this;
+    }
+
+    /**
+     * Schedules the answer of the request. The response stubbed for its uri is taken when the request is sent.
+     */
+    void schedule(final PendingRequest request, VirtualScheduler scheduler) {
+        final long firstByte = latency.nextLatency(random);
+        final double roll = random.nextDouble();
+
+        if (!ServerStub.isReturnSuccess() || roll < errorRate) {
+            scheduler.schedule(firstByte, new Runnable() {
+                @Override
+                public void run() {
+                    request.fail();
+                }
+            });
+            return;
+        }
+
+        final Response response = roll < errorRate + serverErrorRate
+                ? ResponseMock.of(null, 503, "Service Unavailable")
+                : ServerStub.getResponseFor(request.getUri());
+        final String text = response != null ? response.getText() : null;
+        final int size = text != null ? text.length() : 0;
+
+        long elapsed = firstByte;
+        if (bytesPerSecond > 0) {
+            int loaded = 0;
+            while (loaded < size) {
+                loaded += Math.min(chunkSize, size - loaded);
+                elapsed = firstByte + (long) Math.ceil(loaded * 1000.0 / bytesPerSecond);
+                final int chunkLoaded = loaded;
+                scheduler.schedule(elapsed, new Runnable() {
+                    @Override
+                    public void run() {
+                        request.progress(chunkLoaded, size);
+                    }
+                });
+            }
+        }
+        scheduler.schedule(elapsed, new Runnable() {
+            @Override
+            public void run() {
+                request.respond(response);
+            }
+        });
+    }
+
+    private static void checkRate(double rate) {
+        if (rate < 0 || rate > 1)
+            throw new IllegalArgumentException("Error rates must be between 0 and 1 and cannot add up to more than 1.");
+    }
+}
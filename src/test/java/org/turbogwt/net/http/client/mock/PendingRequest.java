@@ -0,0 +1,124 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client.mock;
+
+import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.RequestCallbackWithProgress;
+import com.google.gwt.http.client.RequestException;
+import com.google.gwt.http.client.RequestProgress;
+import com.google.gwt.http.client.Response;
+
+/**
+ * A request sent to {@link ServerConnectionMock} and not answered yet.
+ * Once answered, failed or cancelled, further calls are ignored.
+ *
+ * @author Danilo Reinert
+ */
+class PendingRequest {
+
+    private static final RequestProgress REQUEST_PROGRESS = new RequestProgress() {
+        @Override
+        public boolean isLengthComputable() {
+            return false;
+        }
+
+        @Override
+        public Number loaded() {
+            return null;
+        }
+
+        @Override
+        public Number total() {
+            return null;
+        }
+    };
+
+    private final String uri;
+    private final RequestCallbackWithProgress callback;
+    private boolean settled;
+
+    PendingRequest(String uri, RequestCallbackWithProgress callback) {
+        this.uri = uri;
+        this.callback = callback;
+    }
+
+    String getUri() {
+        return uri;
+    }
+
+    /**
+     * Returns the request notified as sent, whose cancellation settles this one without answering it.
+     */
+    Request asRequest() {
+        return new Request() {
+            @Override
+            public void cancel() {
+                settle();
+            }
+        };
+    }
+
+    /**
+     * Answers as the stub was configured: with the response stubbed for the uri or with an error.
+     */
+    void trigger() {
+        progress(REQUEST_PROGRESS);
+        if (ServerStub.isReturnSuccess()) {
+            respond(ServerStub.getResponseFor(uri));
+        } else {
+            fail();
+        }
+    }
+
+    void progress(final int loaded, final int total) {
+        progress(new RequestProgress() {
+            @Override
+            public boolean isLengthComputable() {
+                return true;
+            }
+
+            @Override
+            public Number loaded() {
+                return loaded;
+            }
+
+            @Override
+            public Number total() {
+                return total;
+            }
+        });
+    }
+
+    void respond(Response response) {
+        if (settle()) callback.onResponseReceived(null, response);
+    }
+
+    void fail() {
+        if (settle()) callback.onError(null, new RequestException("This is a mock exception."));
+    }
+
+    private void progress(RequestProgress progress) {
+        if (!settled) callback.onProgress(progress);
+    }
+
+    private boolean settle() {
+        if (settled) return false;
+        settled = true;
+        ServerConnectionMock.onSettled(this);
+        return true;
+    }
+}
@@ -16,11 +16,13 @@
 
 package org.turbogwt.net.http.client.mock;
 
+import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.http.client.RequestBuilder;
 
 import javax.annotation.Nullable;
 
 import org.turbogwt.net.http.client.Headers;
+import org.turbogwt.net.http.client.Payload;
 
 /**
  * @author Danilo Reinert
@@ -30,6 +32,7 @@ public class RequestMock {
     private final RequestBuilder.Method method;
     private final String url;
     private final String data;
+    private final JavaScriptObject body;
     private final Headers headers;
 
     public RequestMock(RequestBuilder.Method method, String url, String data) {
@@ -40,6 +43,15 @@ public class RequestMock {
         this.method = method;
         this.url = url;
         this.data = data;
+        this.body = null;
+        this.headers = headers;
+    }
+
+    public RequestMock(RequestBuilder.Method method, String url, Payload payload, Headers headers) {
+        this.method = method;
+        this.url = url;
+        this.data = payload == null ? null : payload.asString();
+        this.body = payload == null ? null : payload.asJavaScriptObject();
         this.headers = headers;
     }
 
@@ -55,6 +67,11 @@ public class RequestMock {
         return data;
     }
 
+    @Nullable
+    public JavaScriptObject getBody() {
+        return body;
+    }
+
     @Nullable
     public Headers getHeaders() {
         return headers;
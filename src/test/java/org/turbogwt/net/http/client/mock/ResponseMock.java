@@ -16,24 +16,29 @@
 
 package org.turbogwt.net.http.client.mock;
 
+import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.http.client.Header;
 import com.google.gwt.http.client.Response;
+import com.google.gwt.http.client.ResponseWithJson;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import org.turbogwt.core.util.client.Overlays;
+
 /**
  * A mock of {@link com.google.gwt.http.client.Response}.
  *
  * @author Danilo Reinert
  */
-public class ResponseMock extends Response {
+public class ResponseMock extends Response implements ResponseWithJson {
 
     private final String text;
     private final int statusCode;
     private final String statusText;
     private final Header[] headers;
+    private JavaScriptObject json;
 
     ResponseMock(String text, int statusCode, String statusText, Header[] headers) {
         this.text = text;
@@ -50,12 +55,23 @@ public class ResponseMock extends Response {
         return new ResponseMock(text, statusCode, statusText, headers);
     }
 
+    /**
+     * Creates a response mock whose content was natively parsed by the browser.
+     * Like the browser response, its text is the stringified content.
+     */
+    public static ResponseMock ofJson(JavaScriptObject json, int statusCode, String statusText, Header... headers) {
+        final ResponseMock responseMock = new ResponseMock(Overlays.stringify(json), statusCode, statusText,
+                headers);
+        responseMock.json = json;
+        return responseMock;
+    }
+
     @Override
     public String getHeader(String header) {
         if (header == null) throw new NullPointerException("Header param cannot be null.");
         if (header.isEmpty()) throw new IllegalArgumentException("Header param cannot be empty.");
         for (Header h : headers) {
-            if (h.getName().equals(header)) return h.getValue();
+            if (h.getName().equalsIgnoreCase(header)) return h.getValue();
         }
         return null;
     }
@@ -85,6 +101,11 @@ public class ResponseMock extends Response {
         return text;
     }
 
+    @Override
+    public JavaScriptObject getJson() {
+        return json;
+    }
+
     /**
      * A builder of {@link ResponseMock}.
      */
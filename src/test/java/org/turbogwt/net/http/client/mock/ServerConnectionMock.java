@@ -16,14 +16,18 @@
 
 package org.turbogwt.net.http.client.mock;
 
-import com.google.gwt.http.client.RequestBuilder;
 import com.google.gwt.http.client.RequestCallback;
 import com.google.gwt.http.client.RequestCallbackWithProgress;
 import com.google.gwt.http.client.RequestException;
-import com.google.gwt.http.client.RequestProgress;
+import com.google.gwt.http.client.RequestSentCallback;
 import com.google.gwt.http.client.Response;
 
-import org.turbogwt.net.http.client.Headers;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.turbogwt.net.http.client.AbstractServerConnection;
+import org.turbogwt.net.http.client.ConnectionRequest;
 import org.turbogwt.net.http.client.ServerConnection;
 
 /**
@@ -31,56 +35,77 @@ import org.turbogwt.net.http.client.ServerConnection;
  *
  * You should add expected {@link Response}s to the underlying server stub with #responseFor
  * in order to mock responses from server.
+ * <p/>
+ *
+ * Any number of requests may be pending at a time. They are answered when triggered through {@link ServerStub},
+ * or by the stub's scheduler when a {@link LoadSimulation} is set. Aborted requests are cancelled and no longer
+ * count as in flight.
  *
  * @author Danilo Reinert
  */
-public class ServerConnectionMock implements ServerConnection {
+public class ServerConnectionMock extends AbstractServerConnection {
 
-    private static final RequestProgress REQUEST_PROGRESS = new RequestProgress() {
-        @Override
-        public boolean isLengthComputable() {
-            return false;
-        }
+    private static final LinkedList<PendingRequest> pendingRequests = new LinkedList<>();
+    private static int inFlightCount;
+    private static int peakInFlightCount;
 
-        @Override
-        public Number loaded() {
-            return null;
-        }
+    static void triggerPendingRequest() {
+        if (pendingRequests.isEmpty()) throw new IllegalStateException("There is no pending request.");
+        pendingRequests.removeLast().trigger();
+    }
 
-        @Override
-        public Number total() {
-            return null;
+    static void triggerAllPendingRequests() {
+        // Requests sent while triggering are left pending
+        final List<PendingRequest> requests = new ArrayList<>(pendingRequests);
+        pendingRequests.clear();
+        for (PendingRequest request : requests) {
+            request.trigger();
         }
-    };
+    }
 
-    private static String uri;
-    private static RequestCallbackWithProgress requestCallback;
+    static int getPendingRequestCount() {
+        return pendingRequests.size();
+    }
 
-    static void triggerPendingRequest() {
-        requestCallback.onProgress(REQUEST_PROGRESS);
-        if (ServerStub.isReturnSuccess()) {
-            requestCallback.onResponseReceived(null, ServerStub.getResponseFor(uri));
-        } else {
-            requestCallback.onError(null, new RequestException("This is a mock exception."));
-        }
+    static int getInFlightCount() {
+        return inFlightCount;
+    }
 
-        uri = null;
-        requestCallback = null;
+    static int getPeakInFlightCount() {
+        return peakInFlightCount;
     }
 
-    @Override
-    public void sendRequest(RequestBuilder.Method method, String url, String data, RequestCallback callback)
-            throws RequestException {
-        ServerStub.setRequestData(url, new RequestMock(method, url, data));
-        uri = url;
-        requestCallback = (RequestCallbackWithProgress) callback;
+    static void reset() {
+        pendingRequests.clear();
+        inFlightCount = 0;
+        peakInFlightCount = 0;
+    }
+
+    static void onSettled(PendingRequest request) {
+        pendingRequests.remove(request);
+        inFlightCount--;
+    }
+
+    private static void enqueue(String url, RequestCallback callback) {
+        final PendingRequest request = new PendingRequest(url, (RequestCallbackWithProgress) callback);
+        inFlightCount++;
+        if (inFlightCount > peakInFlightCount) peakInFlightCount = inFlightCount;
+        // Aborting the request cancels it, so it stops being in flight
+        if (callback instanceof RequestSentCallback) ((RequestSentCallback) callback).onSent(request.asRequest());
+
+        final LoadSimulation simulation = ServerStub.getLoadSimulation();
+        if (simulation != null) {
+            simulation.schedule(request, ServerStub.getScheduler());
+        } else {
+            pendingRequests.add(request);
+        }
     }
 
     @Override
-    public void sendRequest(int timeout, String user, String password, Headers headers, RequestBuilder.Method method,
-                            String url, String data, RequestCallback callback) throws RequestException {
-        ServerStub.setRequestData(url, new RequestMock(method, url, data, headers));
-        uri = url;
-        requestCallback = (RequestCallbackWithProgress) callback;
+    public void sendRequest(ConnectionRequest request, RequestCallback callback) throws RequestException {
+        final String url = request.getUrl();
+        ServerStub.setRequestData(url, new RequestMock(request.getMethod(), url, request.getPayload(),
+                request.getHeaders()));
+        enqueue(url, callback);
     }
 }
@@ -32,7 +32,11 @@ public class ServerStub implements Server {
     private static Map<String, Response> responseData = new HashMap<>();
     private static Map<String, RequestMock> requestData = new HashMap<>();
 
+    private static final VirtualScheduler scheduler = new VirtualScheduler();
+
     private static boolean returnSuccess = true;
+    private static LoadSimulation loadSimulation;
+    private static ServerConnection connection;
 
     public static boolean isReturnSuccess() {
         return returnSuccess;
@@ -50,14 +54,72 @@ public class ServerStub implements Server {
         return requestData.get(uri);
     }
 
+    /**
+     * Answers the last request sent that is still pending.
+     */
     public static void triggerPendingRequest() {
         ServerConnectionMock.triggerPendingRequest();
     }
 
+    /**
+     * Answers every pending request, in the order they were sent.
+     */
+    public static void triggerAllPendingRequests() {
+        ServerConnectionMock.triggerAllPendingRequests();
+    }
+
+    public static int getPendingRequestCount() {
+        return ServerConnectionMock.getPendingRequestCount();
+    }
+
+    /**
+     * Returns the number of requests sent and not answered yet, either pending or scheduled by a simulation.
+     */
+    public static int getInFlightRequestCount() {
+        return ServerConnectionMock.getInFlightCount();
+    }
+
+    /**
+     * Returns the highest number of requests in flight at the same time since the stub was cleared.
+     */
+    public static int getPeakInFlightRequestCount() {
+        return ServerConnectionMock.getPeakInFlightCount();
+    }
+
+    /**
+     * Sets the simulation answering the requests sent from now on. Set null to hold requests until triggered.
+     */
+    public static void simulate(LoadSimulation simulation) {
+        loadSimulation = simulation;
+    }
+
+    /**
+     * Sends the requests through the given connection instead of the mock one, e.g. a real connection whose XHRs are
+     * intercepted by {@link XhrStub}. Set null to send them through the mock again.
+     */
+    public static void useConnection(ServerConnection serverConnection) {
+        connection = serverConnection;
+    }
+
+    /**
+     * Returns the scheduler running the simulated traffic.
+     */
+    public static VirtualScheduler getScheduler() {
+        return scheduler;
+    }
+
     public static void clearStub() {
         responseData.clear();
         requestData.clear();
         returnSuccess = true;
+        loadSimulation = null;
+        connection = null;
+        scheduler.reset();
+        ServerConnectionMock.reset();
+    }
+
+    static LoadSimulation getLoadSimulation() {
+        return loadSimulation;
     }
 
     static Response getResponseFor(String uri) {
@@ -75,6 +137,6 @@ public class ServerStub implements Server {
      */
     @Override
     public ServerConnection getConnection() {
-        return new ServerConnectionMock();
+        return connection != null ? connection : new ServerConnectionMock();
     }
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.turbogwt.net.http.client.mock;
+
+import java.util.PriorityQueue;
+
+/**
+ * A deterministic scheduler running tasks on a virtual clock.
+ * <p/>
+ *
+ * Time only passes when the clock is advanced, so tests can simulate seconds of traffic instantly and always observe
+ * the same interleaving. Tasks due at the same time run in the order they were scheduled.
+ *
+ * @author Danilo Reinert
+ */
+public class VirtualScheduler {
+
+    private final PriorityQueue<Task> tasks = new PriorityQueue<>();
+    private long now;
+    private long sequence;
+
+    /**
+     * Returns the current virtual time in milliseconds, starting at zero.
+     *
+     * @return the current virtual time
+     */
+    public long now() {
+        return now;
+    }
+
+    /**
+     * Schedules a task to run after the given virtual delay.
+     *
+     * @param delayMillis the delay in milliseconds; negative delays are treated as zero
+     * @param task        the task
+     */
+    public void schedule(long delayMillis, Runnable task) {
+        tasks.add(new Task(now + Math.max(delayMillis, 0), sequence++, task));
+    }
+
+    /**
+     * Returns the number of tasks not run yet.
+     *
+     * @return the number of scheduled tasks
+     */
+    public int getScheduledTaskCount() {
+        return tasks.size();
+    }
+
+    /**
+     * Advances the clock by the given time, running every task due until then, including the tasks they schedule.
+     *
+     * @param millis the time to advance in milliseconds
+     */
+    public void advanceBy(long millis) {
+        final long target = now + millis;
+        while (!tasks.isEmpty() && tasks.peek().time <= target) {
+            runNext();
+        }
+        now = target;
+    }
+
+    /**
+     * Runs every scheduled task, advancing the clock to the time of the last one.
+     */
+    public void runAll() {
+        while (runNext()) {
+            // Runs until there are no tasks left
+        }
+    }
+
+    /**
+     * Runs the next scheduled task, advancing the clock to its time.
+     *
+     * @return false if there was no task to run
+     */
+    public boolean runNext() {
+        final Task task = tasks.poll();
+        if (task == null) return false;
+        if (task.time > now) now = task.time;
+        task.runnable.run();
+        return true;
+    }
+
+    /**
+     * Discards the scheduled tasks and resets the clock to zero.
+     */
+    public void reset() {
+        tasks.clear();
+        now = 0;
+        sequence = 0;
+    }
+
+    private static class Task implements Comparable<Task> {
+
+        final long time;
+        final long sequence;
+        final Runnable runnable;
+
+        private Task(long time, long sequence, Runnable runnable) {
+            this.time = time;
+            this.sequence = sequence;
+            this.runnable = runnable;
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            if (time != other.time) return time < other.time ? -1 : 1;
+            return sequence < other.sequence ? -1 : (sequence == other.sequence ? 0 : 1);
+        }
+    }
+}
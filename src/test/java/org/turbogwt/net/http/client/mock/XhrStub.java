@@ -0,0 +1,122 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.turbogwt.net.http.client.mock;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Intercepts the native XMLHttpRequest sent by a real connection, so a test can inspect it and drive its events.
+ * <p/>
+ *
+ * The send method of the XMLHttpRequest prototype is replaced until {@link #restore()} is called; the intercepted XHR
+ * records its body and MIME type override instead of reaching the network.
+ *
+ * <pre>
+ * XhrStub xhr = XhrStub.intercept();
+ * try {
+ *     new ServerConnectionImpl().sendRequest(request, callback);
+ * } finally {
+ *     xhr.restore();
+ * }
+ * xhr.receiveHeaders(200, "application/json");
+ * </pre>
+ *
+ * @author Danilo Reinert
+ */
+public final class XhrStub extends JavaScriptObject {
+
+    protected XhrStub() {
+    }
+
+    /**
+     * Replaces the send and overrideMimeType methods of the XHR, recording their arguments instead.
+     * The sent XHR is kept, so its overrideMimeType calls are still recorded after the methods are restored.
+     *
+     * @return the stub of the next XHR to be sent
+     */
+    public static native XhrStub intercept() /*-{
+        var proto = $wnd.XMLHttpRequest.prototype;
+        var stub = { send: proto.send, overrideMimeType: proto.overrideMimeType, body: null, mimeType: null };
+        proto.send = function(body) {
+            stub.body = body;
+            stub.instance = this;
+            this.overrideMimeType = function(mimeType) { stub.mimeType = mimeType; };
+        };
+        proto.overrideMimeType = function(mimeType) { stub.mimeType = mimeType; };
+        return stub;
+    }-*/;
+
+    /**
+     * Restores the original methods of the XHR prototype.
+     */
+    public native void restore() /*-{
+        var proto = $wnd.XMLHttpRequest.prototype;
+        proto.send = this.send;
+        proto.overrideMimeType = this.overrideMimeType;
+    }-*/;
+
+    /**
+     * Returns the body sent as raw bytes, one char per byte.
+     *
+     * @return the sent bytes
+     */
+    public native String getSentBytes() /*-{
+        var s = '';
+        for (var i = 0; i < this.body.length; i++) {
+            s += String.fromCharCode(this.body[i]);
+        }
+        return s;
+    }-*/;
+
+    /**
+     * Returns the MIME type the response was overridden with.
+     *
+     * @return the MIME type or null if it was not overridden
+     */
+    public native String getOverriddenMimeType() /*-{
+        return this.mimeType;
+    }-*/;
+
+    /**
+     * Makes the sent XHR notify that the headers of a response with the given status and Content-Type were received.
+     *
+     * @param status        the status code of the response
+     * @param contentType   the Content-Type of the response
+     */
+    public native void receiveHeaders(int status, String contentType) /*-{
+        var instance = this.instance;
+        Object.defineProperty(instance, 'readyState', { value: 2, configurable: true });
+        Object.defineProperty(instance, 'status', { value: status, configurable: true });
+        instance.getResponseHeader = function(name) {
+            return name.toLowerCase() == 'content-type' ? contentType : null;
+        };
+        instance.onreadystatechange();
+    }-*/;
+
+    /**
+     * Makes the sent XHR notify a progress of the response.
+     *
+     * @param loaded the number of bytes loaded so far
+     */
+    public native void progress(double loaded) /*-{
+        var instance = this.instance;
+        Object.defineProperty(instance, 'readyState', { value: 3, configurable: true });
+        instance.onreadystatechange();
+        if (instance.onprogress) instance.onprogress({ lengthComputable: false, loaded: loaded, total: 0 });
+    }-*/;
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2014 Grow Bit
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.turbogwt.net.shared;
+
+import com.google.gwt.junit.client.GWTTestCase;
+
+import org.turbogwt.net.client.UriBuilderImpl;
+
+/**
+ * Checks that the GWT and the pure Java UriBuilders build the same URIs.
+ *
+ * @author Danilo Reinert
+ */
+public class UriBuilderConformanceTest extends GWTTestCase {
+
+    @Override
+    public String getModuleName() {
+        return "org.turbogwt.net.NetTest";
+    }
+
+    public void testBasicFlow() {
+        assertConformant(new Case() {
+            @Override
+            public Uri build(UriBuilder builder) {
+                return builder.scheme("http").user("user").password("pwd").host("localhost").port(8888)
+                        .path("server")
+                        .segment("root", "resource")
+                        .matrixParam("class", 2, 5, 6)
+                        .segment("child")
+                        .matrixParam("group", "A")
+                        .matrixParam("subGroup", "A.1", "A.2")
+                        .queryParam("age", 12)
+                        .queryParam("name", "Aa", "Zz")
+                        .fragment("first")
+                        .build();
+            }
+        });
+    }
+
+    public void testCommaSeparatedStrategy() {
+        assertConformant(new Case() {
+            @Override
+            public Uri build(UriBuilder builder) {
+                return builder.multivaluedParamComposition(MultivaluedParamComposition.COMMA_SEPARATED_VALUE)
+                        .path("server")
+                        .matrixParam("class", 2, 5, 6)
+                        .queryParam("name", "Aa", "Zz")
+                        .build();
+            }
+        });
+    }
+
+    public void testSharedTemplateValues() {
+        assertConformant(new Case() {
+            @Override
+            public Uri build(UriBuilder builder) {
+                return builder.path("{a}/x{b}y/{a}").segment("{c}").fragment("{b}-{d}")
+                        .build("1 2", "\u00fc", "a/b", "?");
+            }
+        });
+    }
+
+    public void testEmptyTemplatedFirstSegment() {
+        assertConformant(new Case() {
+            @Override
+            public Uri build(UriBuilder builder) {
+                return builder.segment("{a}", "b").build("");
+            }
+        });
+    }
+
+    public void testEncodedLiterals() {
+        assertConformant(new Case() {
+            @Override
+            public Uri build(UriBuilder builder) {
+                return builder.path("my files/\u00e7a va").segment("{id}.json")
+                        .queryParam("q r", "a&b", "\u00e3\u20ac")
+                        .fragment("top part")
+                        .build(7);
+            }
+        });
+    }
+
+    public void testArrayIndexParams() {
+        assertConformant(new Case() {
+            @Override
+            public Uri build(UriBuilder builder) {
+                return builder.path("s")
+                        .matrixParam("z", 1)
+                        .matrixParam("3", 2)
+                        .matrixParam("1", 3)
+                        .queryParam("b", 1)
+                        .queryParam("10", 2)
+                        .queryParam("2", 3)
+                        .queryParam("01", 4)
+                        .queryParam("-1", 5)
+                        .queryParam("4294967295", 6)
+                        .queryParam("4294967294", 7)
+                        .build();
+            }
+        });
+    }
+
+    public void testReplacedParamKeepsItsPosition() {
+        assertConformant(new Case() {
+            @Override
+            public Uri build(UriBuilder builder) {
+                return builder.queryParam("a", 1).queryParam("b", 2).queryParam("a", 3).build();
+            }
+        });
+    }
+
+    private static void assertConformant(Case c) {
+        assertEquals(c.build(new UriBuilderImpl()).toString(), c.build(new UriBuilderJreImpl()).toString());
+    }
+
+    private interface Case {
+        Uri build(UriBuilder builder);
+    }
+}